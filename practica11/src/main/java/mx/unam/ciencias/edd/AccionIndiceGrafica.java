@@ -0,0 +1,15 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para realizar acciones sobre los índices de los vértices de
+ * gráficas compactas.
+ */
+@FunctionalInterface
+public interface AccionIndiceGrafica {
+
+    /**
+     * Realiza una acción sobre el índice de un vértice.
+     * @param indice el índice del vértice sobre el que se realizará la acción.
+     */
+    public void actua(int indice);
+}
@@ -0,0 +1,196 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para las adyacencias de un vértice. Mientras el grado del vértice
+ * es pequeño, las adyacencias se guardan en un par de arreglos que se
+ * recorren linealmente, en el orden en que fueron agregadas; cuando el grado
+ * rebasa {@link #UMBRAL}, se pasan a un {@link Diccionario}.</p>
+ *
+ * <p>Así un vértice de grado bajo ocupa unos cuantos espacios, en lugar de los
+ * cientos de un diccionario, y uno de grado alto sigue teniendo búsquedas en
+ * tiempo constante esperado.</p>
+ */
+class Adyacencias<K, V> implements Iterable<V> {
+
+    /* Clase interna privada para iteradores de los arreglos. */
+    private class Iterador implements Iterator<V> {
+
+        /* El índice del siguiente valor. */
+        private int indice;
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return indice < elementos;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public V next() {
+            if (indice >= elementos)
+                throw new NoSuchElementException();
+            return valores[indice++];
+        }
+    }
+
+    /** Grado a partir del cual las adyacencias usan un diccionario. */
+    public static final int UMBRAL = 16;
+
+    /* Capacidad inicial de los arreglos. */
+    private static final int CAPACIDAD_INICIAL = 4;
+
+    /* Las llaves, mientras no se use el diccionario. */
+    private K[] llaves;
+    /* Los valores, mientras no se use el diccionario. */
+    private V[] valores;
+    /* El número de adyacencias en los arreglos. */
+    private int elementos;
+    /* El diccionario, o null si todavía no se usa. */
+    private Diccionario<K, V> diccionario;
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private <E> E[] nuevoArreglo(int n) {
+        return (E[])(new Object[n]);
+    }
+
+    /**
+     * Construye adyacencias vacías.
+     */
+    public Adyacencias() {}
+
+    /**
+     * Construye adyacencias vacías con espacio para el grado recibido, para
+     * que agregarlas no redimensione los arreglos ni el diccionario.
+     * @param grado el grado esperado.
+     */
+    public Adyacencias(int grado) {
+        if (grado > UMBRAL) {
+            diccionario = new Diccionario<K, V>(grado);
+        } else if (grado > 0) {
+            llaves = nuevoArreglo(grado);
+            valores = nuevoArreglo(grado);
+        }
+    }
+
+    /**
+     * Agrega una adyacencia, o reemplaza su valor si la llave ya estaba.
+     * @param llave la llave de la adyacencia.
+     * @param valor el valor de la adyacencia.
+     * @throws IllegalArgumentException si la llave o el valor son nulos.
+     */
+    public void agrega(K llave, V valor) {
+        if (llave == null || valor == null)
+            throw new IllegalArgumentException();
+        if (diccionario != null) {
+            diccionario.agrega(llave, valor);
+            return;
+        }
+        int i = busca(llave);
+        if (i != -1) {
+            valores[i] = valor;
+            return;
+        }
+        if (elementos == UMBRAL) {
+            diccionario = new Diccionario<K, V>(2 * UMBRAL);
+            for (i = 0; i < elementos; i++)
+                diccionario.agrega(llaves[i], valores[i]);
+            diccionario.agrega(llave, valor);
+            llaves = null;
+            valores = null;
+            elementos = 0;
+            return;
+        }
+        if (llaves == null) {
+            llaves = nuevoArreglo(CAPACIDAD_INICIAL);
+            valores = nuevoArreglo(CAPACIDAD_INICIAL);
+        } else if (elementos == llaves.length) {
+            K[] l = nuevoArreglo(Math.min(2 * elementos, UMBRAL));
+            V[] v = nuevoArreglo(l.length);
+            for (i = 0; i < elementos; i++) {
+                l[i] = llaves[i];
+                v[i] = valores[i];
+            }
+            llaves = l;
+            valores = v;
+        }
+        llaves[elementos] = llave;
+        valores[elementos++] = valor;
+    }
+
+    /**
+     * Regresa el valor asociado a la llave.
+     * @param llave la llave.
+     * @return el valor asociado a la llave, o <code>null</code> si la llave
+     *         no está en las adyacencias.
+     */
+    public V get(K llave) {
+        if (diccionario != null)
+            return diccionario.busca(llave);
+        int i = busca(llave);
+        return i == -1 ? null : valores[i];
+    }
+
+    /**
+     * Nos dice si la llave está en las adyacencias.
+     * @param llave la llave.
+     * @return <code>true</code> si la llave está en las adyacencias,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(K llave) {
+        if (diccionario != null)
+            return diccionario.contiene(llave);
+        return busca(llave) != -1;
+    }
+
+    /**
+     * Elimina la adyacencia con la llave recibida, si está. Las demás
+     * adyacencias conservan su orden.
+     * @param llave la llave de la adyacencia a eliminar.
+     */
+    public void elimina(K llave) {
+        if (diccionario != null) {
+            if (diccionario.contiene(llave))
+                diccionario.elimina(llave);
+            return;
+        }
+        int i = busca(llave);
+        if (i == -1)
+            return;
+        for (int j = i + 1; j < elementos; j++) {
+            llaves[j-1] = llaves[j];
+            valores[j-1] = valores[j];
+        }
+        elementos--;
+        llaves[elementos] = null;
+        valores[elementos] = null;
+    }
+
+    /**
+     * Regresa el número de adyacencias.
+     * @return el número de adyacencias.
+     */
+    public int getElementos() {
+        return diccionario != null ? diccionario.getElementos() : elementos;
+    }
+
+    /**
+     * Regresa un iterador para los valores de las adyacencias.
+     * @return un iterador para los valores de las adyacencias.
+     */
+    @Override public Iterator<V> iterator() {
+        if (diccionario != null)
+            return diccionario.iterator();
+        return new Iterador();
+    }
+
+    /* Regresa el índice de la llave en los arreglos, o -1 si no está. */
+    private int busca(K llave) {
+        for (int i = 0; i < elementos; i++)
+            if (llaves[i] == llave || llaves[i].equals(llave))
+                return i;
+        return -1;
+    }
+}
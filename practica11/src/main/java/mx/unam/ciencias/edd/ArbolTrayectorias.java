@@ -0,0 +1,120 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Clase para árboles de trayectorias mínimas. Un árbol de trayectorias guarda,
+ * para cada vértice alcanzable desde un origen, su distancia al origen y su
+ * predecesor en una trayectoria mínima; con él se pueden obtener las
+ * trayectorias a muchos destinos a partir de una sola ejecución del algoritmo
+ * de Dijkstra. El árbol no cambia si la gráfica que lo generó cambia.
+ */
+public class ArbolTrayectorias<T> {
+
+    /* Clase interna privada para ramas del árbol. */
+    private class Rama {
+
+        /* El vértice de la rama. */
+        public VerticeGrafica<T> vertice;
+        /* La distancia del origen al vértice. */
+        public double distancia;
+        /* La rama del predecesor, o null si es el origen. */
+        public Rama predecesor;
+
+        /* Construye una nueva rama. */
+        public Rama(VerticeGrafica<T> vertice, double distancia,
+                    Rama predecesor) {
+            this.vertice = vertice;
+            this.distancia = distancia;
+            this.predecesor = predecesor;
+        }
+    }
+
+    /* La rama del origen. */
+    private Rama origen;
+    /* Las ramas, por elemento. */
+    private Diccionario<T, Rama> ramas;
+
+    /* Construye un árbol que sólo tiene al origen; n es el número tentativo
+     * de vértices alcanzables. */
+    ArbolTrayectorias(VerticeGrafica<T> origen, int n) {
+        ramas = new Diccionario<T, Rama>(n);
+        this.origen = new Rama(origen, 0, null);
+        ramas.agrega(origen.get(), this.origen);
+    }
+
+    /* Agrega un vértice alcanzable al árbol. El predecesor ya debe estar en
+     * el árbol. */
+    void agrega(VerticeGrafica<T> vertice, double distancia,
+                VerticeGrafica<T> predecesor) {
+        Rama p = ramas.get(predecesor.get());
+        ramas.agrega(vertice.get(), new Rama(vertice, distancia, p));
+    }
+
+    /**
+     * Regresa el vértice de origen del árbol.
+     * @return el vértice de origen del árbol.
+     */
+    public VerticeGrafica<T> getOrigen() {
+        return origen.vertice;
+    }
+
+    /**
+     * Regresa el número de vértices alcanzables desde el origen, incluyéndolo.
+     * @return el número de vértices alcanzables desde el origen.
+     */
+    public int getElementos() {
+        return ramas.getElementos();
+    }
+
+    /**
+     * Nos dice si el elemento es alcanzable desde el origen.
+     * @param elemento el elemento.
+     * @return <code>true</code> si el elemento es alcanzable desde el origen,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esAlcanzable(T elemento) {
+        return ramas.contiene(elemento);
+    }
+
+    /**
+     * Regresa la distancia mínima del origen al elemento.
+     * @param elemento el elemento.
+     * @return la distancia mínima del origen al elemento, o {@link
+     *         Double#POSITIVE_INFINITY} si no es alcanzable.
+     */
+    public double getDistancia(T elemento) {
+        if (!ramas.contiene(elemento))
+            return Double.POSITIVE_INFINITY;
+        return ramas.get(elemento).distancia;
+    }
+
+    /**
+     * Regresa el predecesor del elemento en una trayectoria mínima desde el
+     * origen.
+     * @param elemento el elemento.
+     * @return el vértice predecesor del elemento, o <code>null</code> si el
+     *         elemento es el origen.
+     * @throws NoSuchElementException si el elemento no es alcanzable.
+     */
+    public VerticeGrafica<T> getPredecesor(T elemento) {
+        Rama p = ramas.get(elemento).predecesor;
+        return p == null ? null : p.vertice;
+    }
+
+    /**
+     * Regresa una trayectoria mínima del origen al elemento, en tiempo
+     * proporcional a su longitud.
+     * @param destino el elemento de destino.
+     * @return una lista con los vértices de una trayectoria mínima del origen
+     *         al destino, o una lista vacía si no es alcanzable.
+     */
+    public Lista<VerticeGrafica<T>> trayectoria(T destino) {
+        Lista<VerticeGrafica<T>> l = new Lista<VerticeGrafica<T>>();
+        if (!ramas.contiene(destino))
+            return l;
+        for (Rama r = ramas.get(destino); r != null; r = r.predecesor)
+            l.agregaInicio(r.vertice);
+        return l;
+    }
+}
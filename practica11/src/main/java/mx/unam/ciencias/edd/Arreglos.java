@@ -21,24 +21,50 @@ public class Arreglos {
         quickSort(arreglo, comparador, 0, arreglo.length - 1);
     }
 
+    /**
+     * Ordena el rango [a, b] del arreglo recibido usando QuickSort. El pivote
+     * es la mediana de tres elementos, la partición se detiene en los
+     * elementos iguales al pivote para que los arreglos con muchos elementos
+     * repetidos se partan a la mitad, y sólo se hace recursión sobre la parte
+     * más chica, así que la pila crece a lo más logarítmicamente. Los rangos
+     * chicos se ordenan por inserción.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param A el arreglo a ordenar.
+     * @param c el comparador para ordenar el arreglo.
+     * @param a el inicio del rango.
+     * @param b el final del rango, inclusive.
+     */
     public static <T> void
     quickSort(T[] A, Comparator<T> c, int a, int b) {
-        if (b <= a)
-            return;
-        int i = a + 1;
-        int j = b;
-        while (i < j)
-            if (c.compare(A[i], A[a]) > 0 && c.compare(A[j], A[a]) <= 0)
-                intercambia(A, i++, j--);
-            else if (c.compare(A[i], A[a]) <= 0)
-                i++;
-            else
-                j--;
-        if (c.compare(A[i], A[a]) > 0)
-            i--;
-        intercambia(A, a, i);
-        quickSort(A, c, a, i - 1);
-        quickSort(A, c, i + 1, b);
+        while (b - a > 16) {
+            int m = a + (b - a) / 2;
+            if (c.compare(A[m], A[a]) < 0)
+                intercambia(A, a, m);
+            if (c.compare(A[b], A[a]) < 0)
+                intercambia(A, a, b);
+            if (c.compare(A[b], A[m]) < 0)
+                intercambia(A, m, b);
+            T p = A[m];
+            int i = a, j = b;
+            while (i <= j) {
+                while (c.compare(A[i], p) < 0)
+                    i++;
+                while (c.compare(A[j], p) > 0)
+                    j--;
+                if (i <= j)
+                    intercambia(A, i++, j--);
+            }
+            if (j - a < b - i) {
+                quickSort(A, c, a, j);
+                a = i;
+            } else {
+                quickSort(A, c, i, b);
+                b = j;
+            }
+        }
+        for (int i = a + 1; i <= b; i++)
+            for (int j = i; j > a && c.compare(A[j-1], A[j]) > 0; j--)
+                intercambia(A, j - 1, j);
     }
 
     /**
@@ -0,0 +1,187 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para búsquedas en anchura desde muchos orígenes a la vez sobre una
+ * {@link GraficaCSR} (<i>multi-source BFS</i>, de Then y otros). Los orígenes
+ * se agrupan en lotes de 64·<i>p</i>, y cada vértice lleva <i>p</i> palabras
+ * de 64 bits por lote: el bit <i>i</i> dice si el <i>i</i>-ésimo origen del
+ * lote ya llegó al vértice. En cada nivel, cada vértice de la frontera
+ * propaga sus bits a sus vecinos con un solo <code>or</code> por palabra, así
+ * que cada arista se revisa una vez por nivel para todo el lote, y no una vez
+ * por origen. La frontera se lleva además como lista de vértices, para que
+ * las gráficas de diámetro grande no paguen un recorrido de todos los
+ * vértices en cada nivel.</p>
+ *
+ * <p>Los lotes se reparten entre los hilos; cada hilo usa sus propios
+ * arreglos de bits. El resultado es la distancia en aristas de cada origen a
+ * cada vértice, ya sea en una matriz o entregada a una acción.</p>
+ */
+public class BusquedaAnchuraMultiple {
+
+    /**
+     * Interfaz para acciones sobre las distancias que encuentra la búsqueda.
+     */
+    @FunctionalInterface
+    public interface AccionDistancia {
+
+        /**
+         * Realiza la acción sobre la distancia de un origen a un vértice.
+         * @param origen la posición del origen en el arreglo de orígenes.
+         * @param indice el índice del vértice alcanzado.
+         * @param distancia la distancia en aristas del origen al vértice.
+         */
+        public void actua(int origen, int indice, int distancia);
+    }
+
+    /** El número de palabras de 64 bits por vértice por omisión. */
+    public static final int PALABRAS = 1;
+
+    /* Constructor privado para evitar instanciación. */
+    private BusquedaAnchuraMultiple() {}
+
+    /**
+     * Regresa las distancias en aristas de cada origen a cada vértice, con
+     * lotes de 64 orígenes.
+     * @param grafica la gráfica.
+     * @param origenes los índices de los orígenes; pueden repetirse.
+     * @return una matriz donde el renglón <i>i</i> tiene la distancia del
+     *         <i>i</i>-ésimo origen a cada vértice, o -1 si no es alcanzable.
+     * @throws ExcepcionIndiceInvalido si algún origen no es válido.
+     */
+    public static int[][] distancias(GraficaCSR<?> grafica, int[] origenes) {
+        int n = grafica.getElementos();
+        int[][] distancias = new int[origenes.length][n];
+        for (int[] renglon : distancias)
+            for (int v = 0; v < n; v++)
+                renglon[v] = -1;
+        recorre(grafica, origenes, PALABRAS,
+                (i, v, d) -> distancias[i][v] = d);
+        return distancias;
+    }
+
+    /**
+     * Realiza la acción sobre la distancia de cada origen a cada vértice
+     * alcanzable, con lotes de 64 orígenes.
+     * @param grafica la gráfica.
+     * @param origenes los índices de los orígenes; pueden repetirse.
+     * @param accion la acción a realizar.
+     * @throws ExcepcionIndiceInvalido si algún origen no es válido.
+     * @see #recorre(GraficaCSR, int[], int, AccionDistancia)
+     */
+    public static void recorre(GraficaCSR<?> grafica, int[] origenes,
+                               AccionDistancia accion) {
+        recorre(grafica, origenes, PALABRAS, accion);
+    }
+
+    /**
+     * Realiza la acción sobre la distancia de cada origen a cada vértice
+     * alcanzable, con lotes de 64·<i>p</i> orígenes. Para cada origen, los
+     * vértices se entregan en orden no decreciente de distancia. La acción se
+     * llama desde varios hilos a la vez, pero todas las llamadas de un mismo
+     * origen vienen del mismo hilo.
+     * @param grafica la gráfica.
+     * @param origenes los índices de los orígenes; pueden repetirse.
+     * @param palabras el número <i>p</i> de palabras de 64 bits por vértice.
+     * @param accion la acción a realizar.
+     * @throws ExcepcionIndiceInvalido si algún origen no es válido.
+     * @throws IllegalArgumentException si el número de palabras es menor que
+     *         uno.
+     */
+    public static void recorre(GraficaCSR<?> grafica, int[] origenes,
+                               int palabras, AccionDistancia accion) {
+        if (palabras < 1)
+            throw new IllegalArgumentException();
+        int n = grafica.getElementos();
+        for (int s : origenes)
+            if (s < 0 || s >= n)
+                throw new ExcepcionIndiceInvalido();
+        int tamLote = 64 * palabras;
+        int lotes = (origenes.length + tamLote - 1) / tamLote;
+        int piezas = Math.min(lotes, 2 * Paralelo.getHilos());
+        Paralelo.paraCada(0, piezas, 1, (a, b) -> {
+                for (int p = a; p < b; p++) {
+                    long[] vistos = new long[n * palabras];
+                    long[] frontera = new long[n * palabras];
+                    long[] siguiente = new long[n * palabras];
+                    for (int l = p; l < lotes; l += piezas)
+                        lote(grafica, origenes, l * tamLote,
+                             Math.min(origenes.length, (l + 1) * tamLote),
+                             palabras, vistos, frontera, siguiente, accion);
+                }
+            });
+    }
+
+    /* Hace la búsqueda desde los orígenes en [inicio, fin), con arreglos de
+     * bits limpios que deja limpios. La frontera también se lleva como lista
+     * de vértices, así que cada nivel sólo toca a los vértices activos. */
+    private static void lote(GraficaCSR<?> grafica, int[] origenes,
+                             int inicio, int fin, int w, long[] vistos,
+                             long[] frontera, long[] siguiente,
+                             AccionDistancia accion) {
+        int n = grafica.getElementos();
+        int[] desplazamientos = grafica.getDesplazamientos();
+        int[] destinos = grafica.getDestinos();
+        int[] lista = new int[n];
+        int[] tocados = new int[n];
+        int activos = 0;
+        for (int i = inicio; i < fin; i++) {
+            int j = i - inicio;
+            int s = origenes[i];
+            if (vacia(frontera, s, w))
+                lista[activos++] = s;
+            vistos[s * w + (j >>> 6)] |= 1L << (j & 63);
+            frontera[s * w + (j >>> 6)] |= 1L << (j & 63);
+            accion.actua(i, s, 0);
+        }
+        for (int nivel = 1; activos > 0; nivel++) {
+            int t = 0;
+            for (int i = 0; i < activos; i++) {
+                int v = lista[i];
+                int bv = v * w;
+                for (int e = desplazamientos[v]; e < desplazamientos[v+1];
+                     e++) {
+                    int u = destinos[e];
+                    int bu = u * w;
+                    if (vacia(siguiente, u, w))
+                        tocados[t++] = u;
+                    for (int k = 0; k < w; k++)
+                        siguiente[bu + k] |= frontera[bv + k];
+                }
+                for (int k = 0; k < w; k++)
+                    frontera[bv + k] = 0;
+            }
+            activos = 0;
+            for (int i = 0; i < t; i++) {
+                int u = tocados[i];
+                int bu = u * w;
+                boolean nuevo = false;
+                for (int k = 0; k < w; k++) {
+                    long nuevos = siguiente[bu + k] & ~vistos[bu + k];
+                    siguiente[bu + k] = 0;
+                    frontera[bu + k] = nuevos;
+                    if (nuevos == 0)
+                        continue;
+                    nuevo = true;
+                    vistos[bu + k] |= nuevos;
+                    while (nuevos != 0) {
+                        int j = Long.numberOfTrailingZeros(nuevos);
+                        nuevos &= nuevos - 1;
+                        accion.actua(inicio + 64 * k + j, u, nivel);
+                    }
+                }
+                if (nuevo)
+                    lista[activos++] = u;
+            }
+        }
+        for (int i = 0; i < vistos.length; i++)
+            vistos[i] = 0;
+    }
+
+    /* Nos dice si las palabras del vértice en el arreglo son cero. */
+    private static boolean vacia(long[] bits, int v, int w) {
+        for (int k = 0; k < w; k++)
+            if (bits[v * w + k] != 0)
+                return false;
+        return true;
+    }
+}
@@ -0,0 +1,365 @@
+package mx.unam.ciencias.edd;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Clase para búsquedas en anchura paralelas que optimizan la dirección
+ * (Beamer, Asanović y Patterson). La búsqueda avanza nivel por nivel sobre
+ * una {@link GraficaCSR}; cada nivel se procesa en paralelo de una de dos
+ * formas:</p>
+ *
+ * <ul>
+ *   <li><b>De arriba hacia abajo:</b> cada vértice de la frontera revisa a
+ *       sus vecinos y reclama a los no visitados. Conviene cuando la frontera
+ *       es chica.</li>
+ *   <li><b>De abajo hacia arriba:</b> cada vértice no visitado busca entre
+ *       sus vecinos a uno de la frontera, y se detiene en el primero. Conviene
+ *       cuando la frontera es grande, porque la mayoría de las aristas que
+ *       revisaría el otro paso llevan a vértices ya visitados.</li>
+ * </ul>
+ *
+ * <p>La búsqueda cambia al segundo paso cuando las aristas de la frontera
+ * rebasan las de los vértices sin explorar entre α, y regresa al primero
+ * cuando la frontera se encoge a menos de <i>n</i>/β vértices. Los visitados
+ * y la frontera del segundo paso son conjuntos de bits.</p>
+ *
+ * <p>El resultado son la distancia en aristas del origen a cada vértice y su
+ * padre en el árbol de la búsqueda; la búsqueda no modifica la gráfica.</p>
+ */
+public class BusquedaAnchuraParalela<T> {
+
+    /** El valor por omisión de α. */
+    public static final int ALFA = 14;
+    /** El valor por omisión de β. */
+    public static final int BETA = 24;
+
+    /* La gráfica. */
+    private GraficaCSR<T> grafica;
+    /* El índice del origen. */
+    private int origen;
+    /* El padre de cada vértice, o -1 si no es alcanzable. */
+    private int[] padres;
+    /* La distancia de cada vértice, o -1 si no es alcanzable. */
+    private int[] distancias;
+    /* Los vértices visitados, como conjunto de bits. */
+    private AtomicLongArray visitados;
+    /* El número de vértices alcanzables. */
+    private int alcanzados;
+    /* El número de niveles. */
+    private int niveles;
+    /* El número de pasos de abajo hacia arriba. */
+    private int pasosAscendentes;
+    /* El tamaño y las aristas de la frontera que generó el último paso. */
+    private int tamFrontera;
+    private long aristasFrontera;
+
+    /**
+     * Hace una búsqueda en anchura desde el origen, con α y β por omisión.
+     * @param grafica la gráfica.
+     * @param origen el elemento de origen.
+     * @throws java.util.NoSuchElementException si el origen no está en la
+     *         gráfica.
+     */
+    public BusquedaAnchuraParalela(GraficaCSR<T> grafica, T origen) {
+        this(grafica, origen, ALFA, BETA);
+    }
+
+    /**
+     * Hace una búsqueda en anchura desde el origen, con α y β recibidos.
+     * @param grafica la gráfica.
+     * @param origen el elemento de origen.
+     * @param alfa el parámetro para cambiar al paso de abajo hacia arriba.
+     * @param beta el parámetro para regresar al paso de arriba hacia abajo.
+     * @throws java.util.NoSuchElementException si el origen no está en la
+     *         gráfica.
+     * @throws IllegalArgumentException si alfa o beta son menores que uno.
+     */
+    public BusquedaAnchuraParalela(GraficaCSR<T> grafica, T origen,
+                                   int alfa, int beta) {
+        if (alfa < 1 || beta < 1)
+            throw new IllegalArgumentException();
+        this.grafica = grafica;
+        this.origen = grafica.indice(origen);
+        busca(alfa, beta);
+    }
+
+    /**
+     * Regresa el elemento de origen de la búsqueda.
+     * @return el elemento de origen de la búsqueda.
+     */
+    public T getOrigen() {
+        return grafica.get(origen);
+    }
+
+    /**
+     * Regresa el número de vértices alcanzables desde el origen,
+     * incluyéndolo.
+     * @return el número de vértices alcanzables desde el origen.
+     */
+    public int getAlcanzados() {
+        return alcanzados;
+    }
+
+    /**
+     * Regresa el número de niveles de la búsqueda; es uno más que la mayor
+     * distancia al origen.
+     * @return el número de niveles de la búsqueda.
+     */
+    public int getNiveles() {
+        return niveles;
+    }
+
+    /**
+     * Regresa cuántos niveles se procesaron de abajo hacia arriba.
+     * @return el número de pasos de abajo hacia arriba.
+     */
+    public int getPasosAscendentes() {
+        return pasosAscendentes;
+    }
+
+    /**
+     * Regresa la distancia en aristas del origen al vértice.
+     * @param indice el índice del vértice.
+     * @return la distancia del origen al vértice, o -1 si no es alcanzable.
+     * @throws ExcepcionIndiceInvalido si el índice no es válido.
+     */
+    public int getDistancia(int indice) {
+        checaIndice(indice);
+        return distancias[indice];
+    }
+
+    /**
+     * Regresa el padre del vértice en el árbol de la búsqueda; el padre del
+     * origen es el origen.
+     * @param indice el índice del vértice.
+     * @return el índice del padre del vértice, o -1 si no es alcanzable.
+     * @throws ExcepcionIndiceInvalido si el índice no es válido.
+     */
+    public int getPadre(int indice) {
+        checaIndice(indice);
+        return padres[indice];
+    }
+
+    /**
+     * Regresa una copia de las distancias de todos los vértices, por índice.
+     * @return un arreglo con la distancia del origen a cada vértice, o -1
+     *         para los no alcanzables.
+     */
+    public int[] getDistancias() {
+        return distancias.clone();
+    }
+
+    /**
+     * Regresa una copia de los padres de todos los vértices, por índice.
+     * @return un arreglo con el padre de cada vértice, o -1 para los no
+     *         alcanzables.
+     */
+    public int[] getPadres() {
+        return padres.clone();
+    }
+
+    /**
+     * Regresa la trayectoria del origen al elemento en el árbol de la
+     * búsqueda, que es una trayectoria con el mínimo de aristas.
+     * @param destino el elemento de destino.
+     * @return una lista con los elementos de la trayectoria, o una lista
+     *         vacía si el destino no es alcanzable.
+     * @throws java.util.NoSuchElementException si el destino no está en la
+     *         gráfica.
+     */
+    public Lista<T> trayectoria(T destino) {
+        Lista<T> l = new Lista<T>();
+        int v = grafica.indice(destino);
+        if (padres[v] == -1)
+            return l;
+        for (; v != origen; v = padres[v])
+            l.agregaInicio(grafica.get(v));
+        l.agregaInicio(grafica.get(origen));
+        return l;
+    }
+
+    /* Hace la búsqueda. */
+    private void busca(int alfa, int beta) {
+        int n = grafica.getElementos();
+        int[] desplazamientos = grafica.getDesplazamientos();
+        padres = new int[n];
+        distancias = new int[n];
+        Paralelo.paraCada(0, n, (a, b) -> {
+                for (int i = a; i < b; i++) {
+                    padres[i] = -1;
+                    distancias[i] = -1;
+                }
+            });
+        visitados = new AtomicLongArray((n + 63) >>> 6);
+        visita(origen);
+        padres[origen] = origen;
+        distancias[origen] = 0;
+        int[] frontera = { origen };
+        long[] bits = null;
+        int tam = 1;
+        long mf = desplazamientos[origen+1] - desplazamientos[origen];
+        long mu = grafica.getDestinos().length - mf;
+        boolean ascendente = false;
+        int anterior = 0;
+        alcanzados = 1;
+        while (tam > 0) {
+            niveles++;
+            if (!ascendente && mf > mu / alfa) {
+                ascendente = true;
+                bits = aBits(frontera, tam, n);
+            } else if (ascendente && tam < n / beta && tam < anterior) {
+                ascendente = false;
+                frontera = aLista(bits, tam);
+            }
+            anterior = tam;
+            if (ascendente) {
+                bits = pasoAscendente(bits, niveles);
+                pasosAscendentes++;
+            } else {
+                frontera = pasoDescendente(frontera, tam, niveles);
+            }
+            tam = tamFrontera;
+            mf = aristasFrontera;
+            mu -= mf;
+            alcanzados += tam;
+        }
+    }
+
+    /* Procesa un nivel de arriba hacia abajo; regresa la nueva frontera. */
+    private int[] pasoDescendente(int[] frontera, int tam, int nivel) {
+        int[] desplazamientos = grafica.getDesplazamientos();
+        int[] destinos = grafica.getDestinos();
+        int p = Math.max(1, Math.min(tam / 64, 8 * Paralelo.getHilos()));
+        int[][] locales = new int[p][];
+        int[] tams = new int[p];
+        long[] aristas = new long[p];
+        Paralelo.paraCada(0, p, 1, (a, b) -> {
+                for (int q = a; q < b; q++) {
+                    int inicio = (int)((long)tam * q / p);
+                    int fin = (int)((long)tam * (q + 1) / p);
+                    int[] l = new int[Math.max(16, fin - inicio)];
+                    int k = 0;
+                    long m = 0;
+                    for (int i = inicio; i < fin; i++) {
+                        int u = frontera[i];
+                        for (int e = desplazamientos[u];
+                             e < desplazamientos[u+1]; e++) {
+                            int v = destinos[e];
+                            if (!visita(v))
+                                continue;
+                            padres[v] = u;
+                            distancias[v] = nivel;
+                            if (k == l.length)
+                                l = copia(l, 2 * k);
+                            l[k++] = v;
+                            m += desplazamientos[v+1] - desplazamientos[v];
+                        }
+                    }
+                    locales[q] = l;
+                    tams[q] = k;
+                    aristas[q] = m;
+                }
+            });
+        int total = 0;
+        long m = 0;
+        for (int q = 0; q < p; q++) {
+            total += tams[q];
+            m += aristas[q];
+        }
+        int[] siguiente = new int[total];
+        int k = 0;
+        for (int q = 0; q < p; q++) {
+            System.arraycopy(locales[q], 0, siguiente, k, tams[q]);
+            k += tams[q];
+        }
+        tamFrontera = total;
+        aristasFrontera = m;
+        return siguiente;
+    }
+
+    /* Procesa un nivel de abajo hacia arriba; regresa la nueva frontera. Los
+     * pedazos son de palabras completas, así que cada palabra de los
+     * visitados y de la nueva frontera la escribe un solo hilo. */
+    private long[] pasoAscendente(long[] frontera, int nivel) {
+        int n = grafica.getElementos();
+        int[] desplazamientos = grafica.getDesplazamientos();
+        int[] destinos = grafica.getDestinos();
+        long[] siguiente = new long[frontera.length];
+        AtomicLong tam = new AtomicLong();
+        AtomicLong aristas = new AtomicLong();
+        Paralelo.paraCada(0, frontera.length, (a, b) -> {
+                long t = 0, m = 0;
+                for (int w = a; w < b; w++) {
+                    long vistos = visitados.get(w);
+                    long nuevos = 0;
+                    int fin = Math.min(n, (w + 1) << 6);
+                    for (int v = w << 6; v < fin; v++) {
+                        if ((vistos & (1L << v)) != 0)
+                            continue;
+                        for (int e = desplazamientos[v];
+                             e < desplazamientos[v+1]; e++) {
+                            int u = destinos[e];
+                            if ((frontera[u >>> 6] & (1L << u)) == 0)
+                                continue;
+                            padres[v] = u;
+                            distancias[v] = nivel;
+                            nuevos |= 1L << v;
+                            t++;
+                            m += desplazamientos[v+1] - desplazamientos[v];
+                            break;
+                        }
+                    }
+                    siguiente[w] = nuevos;
+                    visitados.set(w, vistos | nuevos);
+                }
+                tam.addAndGet(t);
+                aristas.addAndGet(m);
+            });
+        tamFrontera = (int)tam.get();
+        aristasFrontera = aristas.get();
+        return siguiente;
+    }
+
+    /* Marca al vértice como visitado; regresa si no lo estaba. */
+    private boolean visita(int v) {
+        int w = v >>> 6;
+        long bit = 1L << v;
+        while (true) {
+            long viejo = visitados.get(w);
+            if ((viejo & bit) != 0)
+                return false;
+            if (visitados.compareAndSet(w, viejo, viejo | bit))
+                return true;
+        }
+    }
+
+    /* Convierte una frontera en lista a conjunto de bits. */
+    private static long[] aBits(int[] frontera, int tam, int n) {
+        long[] bits = new long[(n + 63) >>> 6];
+        for (int i = 0; i < tam; i++)
+            bits[frontera[i] >>> 6] |= 1L << frontera[i];
+        return bits;
+    }
+
+    /* Convierte una frontera en conjunto de bits a lista. */
+    private static int[] aLista(long[] bits, int tam) {
+        int[] frontera = new int[tam];
+        int k = 0;
+        for (int w = 0; w < bits.length; w++)
+            for (long b = bits[w]; b != 0; b &= b - 1)
+                frontera[k++] = (w << 6) + Long.numberOfTrailingZeros(b);
+        return frontera;
+    }
+
+    private void checaIndice(int indice) {
+        if (indice < 0 || indice >= padres.length)
+            throw new ExcepcionIndiceInvalido();
+    }
+
+    private static int[] copia(int[] a, int n) {
+        int[] b = new int[n];
+        System.arraycopy(a, 0, b, 0, Math.min(a.length, n));
+        return b;
+    }
+}
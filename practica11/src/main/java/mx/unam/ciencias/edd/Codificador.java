@@ -0,0 +1,23 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para codificadores de elementos a bytes. Un codificador debe
+ * regresar los mismos bytes para elementos iguales, y decodificar los bytes
+ * de un elemento a un elemento igual a él.
+ */
+public interface Codificador<T> {
+
+    /**
+     * Regresa los bytes del elemento recibido.
+     * @param elemento el elemento a codificar.
+     * @return los bytes del elemento.
+     */
+    public byte[] codifica(T elemento);
+
+    /**
+     * Regresa el elemento de los bytes recibidos.
+     * @param bytes los bytes de un elemento.
+     * @return el elemento de los bytes.
+     */
+    public T decodifica(byte[] bytes);
+}
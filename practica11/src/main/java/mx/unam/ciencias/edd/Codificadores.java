@@ -0,0 +1,46 @@
+package mx.unam.ciencias.edd;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Clase para métodos estáticos con codificadores de elementos comunes.
+ */
+public class Codificadores {
+
+    /* Constructor privado para evitar instanciación. */
+    private Codificadores() {}
+
+    /**
+     * Regresa un codificador de enteros, con 4 bytes en orden
+     * <i>big-endian</i>.
+     * @return un codificador de enteros.
+     */
+    public static Codificador<Integer> enteros() {
+        return new Codificador<Integer>() {
+            @Override public byte[] codifica(Integer elemento) {
+                int e = elemento;
+                return new byte[] { (byte)(e >>> 24), (byte)(e >>> 16),
+                                    (byte)(e >>> 8), (byte)e };
+            }
+            @Override public Integer decodifica(byte[] b) {
+                return ((b[0] & 0xFF) << 24) | ((b[1] & 0xFF) << 16) |
+                    ((b[2] & 0xFF) << 8) | (b[3] & 0xFF);
+            }
+        };
+    }
+
+    /**
+     * Regresa un codificador de cadenas, en UTF-8.
+     * @return un codificador de cadenas.
+     */
+    public static Codificador<String> cadenas() {
+        return new Codificador<String>() {
+            @Override public byte[] codifica(String elemento) {
+                return elemento.getBytes(StandardCharsets.UTF_8);
+            }
+            @Override public String decodifica(byte[] b) {
+                return new String(b, StandardCharsets.UTF_8);
+            }
+        };
+    }
+}
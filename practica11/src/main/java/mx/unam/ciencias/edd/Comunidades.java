@@ -0,0 +1,589 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para detectar comunidades en una {@link GraficaCSR}. Los pesos de
+ * las aristas se usan como la fuerza de la relación entre sus vértices. Las
+ * comunidades se numeran de 0 a <i>k</i>−1 en el orden en que aparecen por
+ * índice de vértice. Hay dos algoritmos:</p>
+ *
+ * <ul>
+ *   <li>{@link Algoritmo#PROPAGACION}: propagación de etiquetas. Cada vértice
+ *       comienza con su propia etiqueta, y en cada ronda toma la etiqueta
+ *       con más peso entre sus vecinos, hasta que ninguna cambia. Si empata
+ *       con la suya se queda con la suya; los demás empates se deciden con
+ *       una función de dispersión del vértice, la etiqueta y la ronda, para
+ *       no favorecer siempre a las etiquetas menores. Los hilos
+ *       escriben las etiquetas en el mismo arreglo mientras otros las leen,
+ *       así que con varios hilos el resultado puede variar entre
+ *       ejecuciones.</li>
+ *   <li>{@link Algoritmo#LOUVAIN}: el método de Louvain. En cada ronda todos
+ *       los vértices eligen en paralelo, con las comunidades de la ronda
+ *       anterior, la comunidad vecina que más aumenta la modularidad; las
+ *       rondas se repiten mientras la modularidad mejore. Después cada
+ *       comunidad se contrae en un vértice y se vuelve a empezar, hasta que
+ *       ya no se unen comunidades.</li>
+ * </ul>
+ *
+ * <p>Las comunidades viven en arreglos de enteros. Los pesos hacia las
+ * comunidades vecinas de cada vértice se juntan en una pequeña tabla de
+ * dispersión por hilo, que crece sólo hasta el grado máximo, así que la
+ * memoria adicional no crece con el número de hilos por el número de
+ * vértices.</p>
+ */
+public class Comunidades<T> {
+
+    /**
+     * Enumeración para el algoritmo de detección de comunidades.
+     */
+    public enum Algoritmo {
+        /** Propagación de etiquetas. */
+        PROPAGACION,
+        /** El método de Louvain. */
+        LOUVAIN;
+    }
+
+    /** El máximo de rondas de propagación o de movimientos por nivel. */
+    public static final int MAXIMO_RONDAS = 100;
+
+    /* El tamaño de los bloques de vértices que se reparten entre hilos. */
+    private static final int BLOQUE = 256;
+    /* La mejora mínima de modularidad para hacer otra ronda de Louvain. */
+    private static final double MEJORA_MINIMA = 1e-7;
+
+    /* Clase interna privada para tablas de dispersión de comunidades a
+     * pesos, con direccionamiento abierto. */
+    private static class Tabla {
+
+        /* Las comunidades; -1 en las entradas vacías. */
+        private int[] llaves;
+        /* El peso de cada comunidad. */
+        private double[] valores;
+        /* Las posiciones ocupadas, en orden de inserción. */
+        private int[] usadas;
+        /* El número de posiciones ocupadas. */
+        private int elementos;
+        /* Cuántos bits se descartan del código de dispersión. */
+        private int corrimiento;
+
+        /* Se asegura de que quepan k comunidades con holgura, y vacía la
+         * tabla. */
+        public void prepara(int k) {
+            int c = 2;
+            while (c < 2 * k)
+                c <<= 1;
+            if (llaves == null || llaves.length < c) {
+                corrimiento = 32 - Integer.numberOfTrailingZeros(c);
+                llaves = new int[c];
+                valores = new double[c];
+                usadas = new int[c];
+                for (int i = 0; i < c; i++)
+                    llaves[i] = -1;
+                elementos = 0;
+                return;
+            }
+            for (int i = 0; i < elementos; i++)
+                llaves[usadas[i]] = -1;
+            elementos = 0;
+        }
+
+        /* Suma el peso a la comunidad. */
+        public void agrega(int comunidad, double peso) {
+            int mascara = llaves.length - 1;
+            int i = (comunidad * 0x9E3779B9) >>> corrimiento;
+            while (llaves[i] != -1 && llaves[i] != comunidad)
+                i = (i + 1) & mascara;
+            if (llaves[i] == -1) {
+                llaves[i] = comunidad;
+                valores[i] = 0;
+                usadas[elementos++] = i;
+            }
+            valores[i] += peso;
+        }
+
+        /* Regresa el peso de la comunidad, o cero si no está. */
+        public double get(int comunidad) {
+            int mascara = llaves.length - 1;
+            int i = (comunidad * 0x9E3779B9) >>> corrimiento;
+            while (llaves[i] != -1) {
+                if (llaves[i] == comunidad)
+                    return valores[i];
+                i = (i + 1) & mascara;
+            }
+            return 0;
+        }
+    }
+
+    /* Clase interna privada para los niveles de Louvain: una gráfica con
+     * pesos en arreglos, donde cada vértice puede tener peso interno. */
+    private static class Nivel {
+
+        /* Dónde comienza el renglón de cada vértice. */
+        private int[] desplazamientos;
+        /* El vértice destino de cada arco. */
+        private int[] destinos;
+        /* El peso de cada arco. */
+        private double[] pesos;
+        /* El peso de los arcos dentro de cada vértice, contados dos veces. */
+        private double[] internos;
+        /* El grado con pesos de cada vértice, incluyendo el interno. */
+        private double[] grados;
+
+        /* Crea un nivel con los arreglos recibidos. */
+        public Nivel(int[] desplazamientos, int[] destinos, double[] pesos,
+                     double[] internos) {
+            this.desplazamientos = desplazamientos;
+            this.destinos = destinos;
+            this.pesos = pesos;
+            this.internos = internos;
+            int n = internos.length;
+            grados = new double[n];
+            for (int v = 0; v < n; v++) {
+                double g = internos[v];
+                for (int e = desplazamientos[v]; e < desplazamientos[v+1]; e++)
+                    g += pesos[e];
+                grados[v] = g;
+            }
+        }
+    }
+
+    /* La gráfica. */
+    private GraficaCSR<T> grafica;
+    /* La comunidad de cada vértice. */
+    private int[] comunidades;
+    /* El número de comunidades. */
+    private int numeroComunidades;
+    /* La modularidad de las comunidades. */
+    private double modularidad;
+
+    /**
+     * Detecta las comunidades de la gráfica con el método de Louvain.
+     * @param grafica la gráfica.
+     */
+    public Comunidades(GraficaCSR<T> grafica) {
+        this(grafica, Algoritmo.LOUVAIN);
+    }
+
+    /**
+     * Detecta las comunidades de la gráfica con el algoritmo recibido.
+     * @param grafica la gráfica.
+     * @param algoritmo el algoritmo a usar.
+     */
+    public Comunidades(GraficaCSR<T> grafica, Algoritmo algoritmo) {
+        this.grafica = grafica;
+        int n = grafica.getElementos();
+        comunidades = new int[n];
+        for (int v = 0; v < n; v++)
+            comunidades[v] = v;
+        Nivel nivel = new Nivel(grafica.getDesplazamientos(),
+                                grafica.getDestinos(), grafica.getPesos(),
+                                new double[n]);
+        if (algoritmo == Algoritmo.PROPAGACION)
+            propaga(nivel);
+        else
+            louvain(nivel);
+        numeroComunidades = renumera(comunidades);
+        modularidad = modularidad(grafica, comunidades);
+    }
+
+    /* Regresa el número de pedazos en que se reparten n vértices. */
+    private static int piezas(int n) {
+        int bloques = (n + BLOQUE - 1) / BLOQUE;
+        return Math.max(1, Math.min(bloques, 2 * Paralelo.getHilos()));
+    }
+
+    /* Realiza la acción sobre los vértices de cada pieza, repartiendo los
+     * bloques de vértices de manera cíclica, con una tabla por pieza. */
+    private static double porPiezas(int n, Tabla[] tablas,
+                                    Paralelo.SumaRango accion) {
+        int bloques = (n + BLOQUE - 1) / BLOQUE;
+        int p = tablas.length;
+        return Paralelo.suma(0, p, 1, (a, b) -> {
+                double s = 0;
+                for (int i = a; i < b; i++)
+                    for (int k = i; k < bloques; k += p)
+                        s += accion.suma(k * BLOQUE,
+                                         Math.min(n, (k + 1) * BLOQUE));
+                return s;
+            });
+    }
+
+    /* Regresa una tabla para cada pieza. */
+    private static Tabla[] tablas(int n) {
+        Tabla[] tablas = new Tabla[piezas(n)];
+        for (int i = 0; i < tablas.length; i++)
+            tablas[i] = new Tabla();
+        return tablas;
+    }
+
+    /* Regresa la tabla de la pieza que procesa el vértice v. */
+    private static Tabla tabla(Tabla[] tablas, int v) {
+        return tablas[(v / BLOQUE) % tablas.length];
+    }
+
+    /* Propaga las etiquetas hasta que ninguna cambie. */
+    private void propaga(Nivel nivel) {
+        int n = comunidades.length;
+        int[] d = nivel.desplazamientos;
+        int[] destinos = nivel.destinos;
+        double[] pesos = nivel.pesos;
+        Tabla[] tablas = tablas(n);
+        for (int ronda = 0; ronda < MAXIMO_RONDAS; ronda++) {
+            int semilla = ronda;
+            double cambios = porPiezas(n, tablas, (a, b) -> {
+                    int c = 0;
+                    Tabla t = tabla(tablas, a);
+                    for (int v = a; v < b; v++) {
+                        if (d[v] == d[v+1])
+                            continue;
+                        t.prepara(d[v+1] - d[v]);
+                        for (int e = d[v]; e < d[v+1]; e++)
+                            t.agrega(comunidades[destinos[e]], pesos[e]);
+                        int actual = comunidades[v];
+                        int mejor = actual;
+                        double maximo = t.get(actual);
+                        for (int i = 0; i < t.elementos; i++) {
+                            int l = t.llaves[t.usadas[i]];
+                            double w = t.valores[t.usadas[i]];
+                            if (w > maximo ||
+                                (w == maximo && mejor != actual &&
+                                 desempate(v, l, semilla) <
+                                 desempate(v, mejor, semilla))) {
+                                mejor = l;
+                                maximo = w;
+                            }
+                        }
+                        if (mejor != actual) {
+                            comunidades[v] = mejor;
+                            c++;
+                        }
+                    }
+                    return c;
+                });
+            if (cambios == 0)
+                break;
+        }
+    }
+
+    /* Regresa un orden pseudoaleatorio, pero reproducible, para desempatar
+     * las etiquetas del vértice en la ronda. */
+    private static int desempate(int v, int etiqueta, int ronda) {
+        int h = etiqueta * 0x9E3779B9 ^ v * 0x85EBCA6B ^ ronda * 0xC2B2AE35;
+        h ^= h >>> 16;
+        h *= 0x7FEB352D;
+        h ^= h >>> 15;
+        return h;
+    }
+
+    /* Aplica el método de Louvain, nivel por nivel. */
+    private void louvain(Nivel nivel) {
+        int n = comunidades.length;
+        while (true) {
+            int[] c = mueve(nivel);
+            int k = renumera(c);
+            if (k == c.length)
+                break;
+            Paralelo.paraCada(0, n, (a, b) -> {
+                    for (int v = a; v < b; v++)
+                        comunidades[v] = c[comunidades[v]];
+                });
+            nivel = contrae(nivel, c, k);
+        }
+    }
+
+    /* Mueve los vértices del nivel entre comunidades mientras la
+     * modularidad mejore, y regresa la comunidad de cada vértice. */
+    private int[] mueve(Nivel nivel) {
+        int n = nivel.grados.length;
+        int[] d = nivel.desplazamientos;
+        int[] destinos = nivel.destinos;
+        double[] pesos = nivel.pesos;
+        double[] grados = nivel.grados;
+        int[] comunidad = new int[n];
+        int[] nueva = new int[n];
+        double[] totales = new double[n];
+        int[] tamanos = new int[n];
+        double m2 = 0;
+        for (int v = 0; v < n; v++) {
+            comunidad[v] = v;
+            m2 += grados[v];
+        }
+        if (m2 == 0)
+            return comunidad;
+        double dosM = m2;
+        Tabla[] tablas = tablas(n);
+        totales(comunidad, grados, totales, tamanos);
+        double q = modularidad(nivel, comunidad, totales);
+        for (int ronda = 0; ronda < MAXIMO_RONDAS; ronda++) {
+            int[] c = comunidad, s = nueva;
+            double movidos = porPiezas(n, tablas, (a, b) -> {
+                    int movs = 0;
+                    Tabla t = tabla(tablas, a);
+                    for (int v = a; v < b; v++) {
+                        s[v] = mejorComunidad(v, d, destinos, pesos, c,
+                                              grados[v], totales, tamanos,
+                                              dosM, t);
+                        if (s[v] != c[v])
+                            movs++;
+                    }
+                    return movs;
+                });
+            if (movidos == 0)
+                break;
+            comunidad = s;
+            nueva = c;
+            totales(comunidad, grados, totales, tamanos);
+            double r = modularidad(nivel, comunidad, totales);
+            if (r < q) {
+                comunidad = c;
+                break;
+            }
+            boolean poca = r - q < MEJORA_MINIMA;
+            q = r;
+            if (poca)
+                break;
+        }
+        return comunidad;
+    }
+
+    /* Regresa la comunidad vecina a la que más conviene mover al vértice, o
+     * su propia comunidad si no conviene moverlo. Un vértice solo no se
+     * mueve a otra comunidad de un solo vértice con número mayor, para que
+     * dos vértices no intercambien sus comunidades en la misma ronda. */
+    private static int mejorComunidad(int v, int[] d, int[] destinos,
+                                      double[] pesos, int[] c, double k,
+                                      double[] totales, int[] tamanos,
+                                      double dosM, Tabla t) {
+        int actual = c[v];
+        if (d[v] == d[v+1])
+            return actual;
+        t.prepara(d[v+1] - d[v]);
+        for (int e = d[v]; e < d[v+1]; e++)
+            t.agrega(c[destinos[e]], pesos[e]);
+        int mejor = actual;
+        double ganancia = t.get(actual) - k * (totales[actual] - k) / dosM;
+        for (int i = 0; i < t.elementos; i++) {
+            int b = t.llaves[t.usadas[i]];
+            if (b == actual)
+                continue;
+            if (tamanos[actual] == 1 && tamanos[b] == 1 && b > actual)
+                continue;
+            double g = t.valores[t.usadas[i]] - k * totales[b] / dosM;
+            if (g > ganancia || (g == ganancia && mejor != actual &&
+                                 b < mejor)) {
+                mejor = b;
+                ganancia = g;
+            }
+        }
+        return mejor;
+    }
+
+    /* Calcula el grado total y el tamaño de cada comunidad. */
+    private static void totales(int[] comunidad, double[] grados,
+                                double[] totales, int[] tamanos) {
+        int n = comunidad.length;
+        for (int v = 0; v < n; v++) {
+            totales[v] = 0;
+            tamanos[v] = 0;
+        }
+        for (int v = 0; v < n; v++) {
+            totales[comunidad[v]] += grados[v];
+            tamanos[comunidad[v]]++;
+        }
+    }
+
+    /* Regresa la modularidad de las comunidades en el nivel. */
+    private static double modularidad(Nivel nivel, int[] comunidad,
+                                      double[] totales) {
+        int n = comunidad.length;
+        int[] d = nivel.desplazamientos;
+        int[] destinos = nivel.destinos;
+        double[] pesos = nivel.pesos;
+        double dentro = Paralelo.suma(0, n, BLOQUE, (a, b) -> {
+                double s = 0;
+                for (int v = a; v < b; v++) {
+                    s += nivel.internos[v];
+                    for (int e = d[v]; e < d[v+1]; e++)
+                        if (comunidad[destinos[e]] == comunidad[v])
+                            s += pesos[e];
+                }
+                return s;
+            });
+        double m2 = 0, cuadrados = 0;
+        for (int v = 0; v < n; v++) {
+            m2 += nivel.grados[v];
+            cuadrados += totales[v] * totales[v];
+        }
+        return m2 == 0 ? 0 : dentro / m2 - cuadrados / (m2 * m2);
+    }
+
+    /* Contrae cada una de las k comunidades del nivel en un vértice. */
+    private static Nivel contrae(Nivel nivel, int[] comunidad, int k) {
+        int n = comunidad.length;
+        int[] d = nivel.desplazamientos;
+        int[] destinos = nivel.destinos;
+        double[] pesos = nivel.pesos;
+        int[] inicios = new int[k + 1];
+        for (int v = 0; v < n; v++)
+            inicios[comunidad[v] + 1]++;
+        for (int c = 0; c < k; c++)
+            inicios[c+1] += inicios[c];
+        int[] miembros = new int[n];
+        int[] siguiente = new int[k];
+        System.arraycopy(inicios, 0, siguiente, 0, k);
+        for (int v = 0; v < n; v++)
+            miembros[siguiente[comunidad[v]]++] = v;
+        int[][] filas = new int[k][];
+        double[][] filasPesos = new double[k][];
+        double[] internos = new double[k];
+        Tabla[] tablas = tablas(k);
+        porPiezas(k, tablas, (a, b) -> {
+                Tabla t = tabla(tablas, a);
+                for (int c = a; c < b; c++) {
+                    int arcos = 0;
+                    for (int i = inicios[c]; i < inicios[c+1]; i++)
+                        arcos += d[miembros[i]+1] - d[miembros[i]];
+                    t.prepara(arcos);
+                    double dentro = 0;
+                    for (int i = inicios[c]; i < inicios[c+1]; i++) {
+                        int v = miembros[i];
+                        dentro += nivel.internos[v];
+                        for (int e = d[v]; e < d[v+1]; e++) {
+                            int u = comunidad[destinos[e]];
+                            if (u == c)
+                                dentro += pesos[e];
+                            else
+                                t.agrega(u, pesos[e]);
+                        }
+                    }
+                    internos[c] = dentro;
+                    filas[c] = new int[t.elementos];
+                    filasPesos[c] = new double[t.elementos];
+                    for (int i = 0; i < t.elementos; i++) {
+                        filas[c][i] = t.llaves[t.usadas[i]];
+                        filasPesos[c][i] = t.valores[t.usadas[i]];
+                    }
+                }
+                return 0;
+            });
+        int[] ds = new int[k + 1];
+        for (int c = 0; c < k; c++)
+            ds[c+1] = ds[c] + filas[c].length;
+        int[] nuevosDestinos = new int[ds[k]];
+        double[] nuevosPesos = new double[ds[k]];
+        Paralelo.paraCada(0, k, (a, b) -> {
+                for (int c = a; c < b; c++) {
+                    System.arraycopy(filas[c], 0, nuevosDestinos, ds[c],
+                                     filas[c].length);
+                    System.arraycopy(filasPesos[c], 0, nuevosPesos, ds[c],
+                                     filas[c].length);
+                }
+            });
+        return new Nivel(ds, nuevosDestinos, nuevosPesos, internos);
+    }
+
+    /* Renumera las comunidades de 0 a k-1 en el orden en que aparecen, y
+     * regresa k. */
+    private static int renumera(int[] comunidad) {
+        int n = comunidad.length;
+        int[] numeros = new int[n];
+        for (int i = 0; i < n; i++)
+            numeros[i] = -1;
+        int k = 0;
+        for (int v = 0; v < n; v++) {
+            if (numeros[comunidad[v]] == -1)
+                numeros[comunidad[v]] = k++;
+            comunidad[v] = numeros[comunidad[v]];
+        }
+        return k;
+    }
+
+    /**
+     * Regresa la modularidad de la partición de la gráfica en las comunidades
+     * recibidas: la fracción del peso de las aristas que queda dentro de las
+     * comunidades, menos la fracción esperada si las aristas se repartieran
+     * al azar conservando los grados. Si la gráfica no tiene aristas, es
+     * cero.
+     * @param grafica la gráfica.
+     * @param comunidades la comunidad de cada vértice, por índice; las
+     *        comunidades deben estar entre 0 y el número de vértices.
+     * @return la modularidad de la partición.
+     * @throws IllegalArgumentException si el arreglo no tiene una entrada
+     *         por vértice, o si alguna comunidad no es válida.
+     */
+    public static double modularidad(GraficaCSR<?> grafica,
+                                     int[] comunidades) {
+        int n = grafica.getElementos();
+        if (comunidades.length != n)
+            throw new IllegalArgumentException();
+        for (int v = 0; v < n; v++)
+            if (comunidades[v] < 0 || comunidades[v] >= n)
+                throw new IllegalArgumentException();
+        Nivel nivel = new Nivel(grafica.getDesplazamientos(),
+                                grafica.getDestinos(), grafica.getPesos(),
+                                new double[n]);
+        double[] totales = new double[n];
+        totales(comunidades, nivel.grados, totales, new int[n]);
+        return modularidad(nivel, comunidades, totales);
+    }
+
+    /**
+     * Regresa el número de comunidades.
+     * @return el número de comunidades.
+     */
+    public int getNumeroComunidades() {
+        return numeroComunidades;
+    }
+
+    /**
+     * Regresa la modularidad de las comunidades encontradas.
+     * @return la modularidad de las comunidades encontradas.
+     */
+    public double getModularidad() {
+        return modularidad;
+    }
+
+    /**
+     * Regresa la comunidad del vértice con el índice recibido.
+     * @param indice el índice del vértice.
+     * @return la comunidad del vértice.
+     * @throws ExcepcionIndiceInvalido si el índice no es válido.
+     */
+    public int getComunidad(int indice) {
+        if (indice < 0 || indice >= comunidades.length)
+            throw new ExcepcionIndiceInvalido();
+        return comunidades[indice];
+    }
+
+    /**
+     * Regresa la comunidad del vértice del elemento recibido.
+     * @param elemento el elemento.
+     * @return la comunidad del vértice del elemento.
+     * @throws java.util.NoSuchElementException si el elemento no está en la
+     *         gráfica.
+     */
+    public int getComunidad(T elemento) {
+        return comunidades[grafica.indice(elemento)];
+    }
+
+    /**
+     * Regresa una copia de las comunidades, por índice.
+     * @return una copia de las comunidades.
+     */
+    public int[] getComunidades() {
+        int[] c = new int[comunidades.length];
+        System.arraycopy(comunidades, 0, c, 0, c.length);
+        return c;
+    }
+
+    /**
+     * Regresa un diccionario con la comunidad de cada elemento.
+     * @return un diccionario con la comunidad de cada elemento.
+     */
+    public Diccionario<T, Integer> diccionario() {
+        Diccionario<T, Integer> d =
+            new Diccionario<T, Integer>(comunidades.length);
+        for (int v = 0; v < comunidades.length; v++)
+            d.agrega(grafica.get(v), comunidades[v]);
+        return d;
+    }
+}
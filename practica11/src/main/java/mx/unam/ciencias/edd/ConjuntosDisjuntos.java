@@ -0,0 +1,147 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para conjuntos disjuntos (<i>union-find</i>) de enteros. Los
+ * elementos son los enteros en [0, <i>n</i>); al principio cada uno está en
+ * su propio conjunto, y los conjuntos sólo pueden unirse.</p>
+ *
+ * <p>Cada conjunto es un árbol representado con un arreglo de padres. La
+ * unión por rango cuelga el árbol más bajo del más alto, y la búsqueda
+ * comprime la trayectoria a la raíz, así que cualquier sucesión de <i>m</i>
+ * operaciones toma tiempo <i>O</i>(<i>m</i> α(<i>n</i>)), prácticamente
+ * constante por operación.</p>
+ */
+public class ConjuntosDisjuntos {
+
+    /* Capacidad mínima de los arreglos. */
+    private static final int MINIMA_CAPACIDAD = 16;
+
+    /* El padre de cada elemento; las raíces son su propio padre. */
+    private int[] padres;
+    /* El rango de cada raíz; una cota superior de la altura de su árbol. */
+    private byte[] rangos;
+    /* El número de elementos. */
+    private int elementos;
+    /* El número de conjuntos. */
+    private int conjuntos;
+
+    /**
+     * Crea una estructura sin elementos.
+     */
+    public ConjuntosDisjuntos() {
+        this(0);
+    }
+
+    /**
+     * Crea una estructura con los elementos en [0, n), cada uno en su propio
+     * conjunto.
+     * @param n el número de elementos.
+     * @throws IllegalArgumentException si n es negativo.
+     */
+    public ConjuntosDisjuntos(int n) {
+        if (n < 0)
+            throw new IllegalArgumentException();
+        padres = new int[Math.max(n, MINIMA_CAPACIDAD)];
+        rangos = new byte[padres.length];
+        for (int i = 0; i < n; i++)
+            padres[i] = i;
+        elementos = conjuntos = n;
+    }
+
+    /**
+     * Agrega un elemento nuevo en su propio conjunto.
+     * @return el elemento nuevo, que es el número de elementos que había.
+     */
+    public int agrega() {
+        if (elementos == padres.length) {
+            int[] p = new int[2 * elementos];
+            byte[] r = new byte[p.length];
+            System.arraycopy(padres, 0, p, 0, elementos);
+            System.arraycopy(rangos, 0, r, 0, elementos);
+            padres = p;
+            rangos = r;
+        }
+        padres[elementos] = elementos;
+        conjuntos++;
+        return elementos++;
+    }
+
+    /**
+     * Regresa el representante del conjunto del elemento. Todos los
+     * elementos de un conjunto tienen el mismo representante, mientras no se
+     * una con otro.
+     * @param elemento el elemento.
+     * @return el representante del conjunto del elemento.
+     * @throws ExcepcionIndiceInvalido si el elemento no es válido.
+     */
+    public int encuentra(int elemento) {
+        checaElemento(elemento);
+        int r = elemento;
+        while (padres[r] != r)
+            r = padres[r];
+        while (padres[elemento] != r) {
+            int p = padres[elemento];
+            padres[elemento] = r;
+            elemento = p;
+        }
+        return r;
+    }
+
+    /**
+     * Une los conjuntos de los dos elementos.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si los elementos estaban en conjuntos
+     *         distintos, <code>false</code> en otro caso.
+     * @throws ExcepcionIndiceInvalido si alguno de los elementos no es válido.
+     */
+    public boolean une(int a, int b) {
+        a = encuentra(a);
+        b = encuentra(b);
+        if (a == b)
+            return false;
+        if (rangos[a] < rangos[b]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        padres[b] = a;
+        if (rangos[a] == rangos[b])
+            rangos[a]++;
+        conjuntos--;
+        return true;
+    }
+
+    /**
+     * Nos dice si los dos elementos están en el mismo conjunto.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si los elementos están en el mismo conjunto,
+     *         <code>false</code> en otro caso.
+     * @throws ExcepcionIndiceInvalido si alguno de los elementos no es válido.
+     */
+    public boolean mismoConjunto(int a, int b) {
+        return encuentra(a) == encuentra(b);
+    }
+
+    /**
+     * Regresa el número de elementos.
+     * @return el número de elementos.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Regresa el número de conjuntos.
+     * @return el número de conjuntos.
+     */
+    public int getConjuntos() {
+        return conjuntos;
+    }
+
+    private void checaElemento(int elemento) {
+        if (elemento < 0 || elemento >= elementos)
+            throw new ExcepcionIndiceInvalido();
+    }
+}
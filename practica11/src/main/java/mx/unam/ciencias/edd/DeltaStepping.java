@@ -0,0 +1,385 @@
+package mx.unam.ciencias.edd;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Clase para calcular las distancias mínimas desde un origen en una
+ * {@link GraficaCSR} con el algoritmo Δ-stepping (Meyer y Sanders), en
+ * paralelo.</p>
+ *
+ * <p>Los vértices pendientes se guardan en cubetas de ancho Δ según su
+ * distancia tentativa. Las aristas se dividen en ligeras (de peso a lo más Δ)
+ * y pesadas. La cubeta actual se vacía relajando en paralelo las aristas
+ * ligeras de todos sus vértices, una y otra vez, porque esas relajaciones
+ * pueden regresar vértices a la misma cubeta; cuando queda vacía, se relajan
+ * en paralelo las aristas pesadas de todos los vértices que pasaron por ella,
+ * que ya sólo llevan a cubetas posteriores. Con Δ chica el algoritmo se
+ * parece a Dijkstra; con Δ grande, a Bellman-Ford.</p>
+ *
+ * <p>Las distancias viven en un arreglo atómico, y cada relajación las baja
+ * con comparar e intercambiar. Como el resultado es el mínimo sobre las
+ * trayectorias de la misma suma en punto flotante que calcula Dijkstra, las
+ * distancias son exactamente las mismas. Los padres se eligen al final, en
+ * paralelo, como el vecino de menor índice por el que se alcanza la
+ * distancia, así que tampoco dependen del orden de los hilos.</p>
+ */
+public class DeltaStepping<T> {
+
+    /** El máximo número de cubetas, que es el peso máximo entre Δ. */
+    public static final int MAXIMO_CUBETAS = 1 << 24;
+
+    /* Frentes menores que esto se procesan en el hilo actual. */
+    private static final int UMBRAL_PARALELO = 256;
+
+    /* Clase interna privada para listas crecientes de enteros. */
+    private static class Enteros {
+
+        /* Los enteros. */
+        private int[] enteros = new int[16];
+        /* El número de enteros. */
+        private int elementos;
+
+        /* Agrega un entero. */
+        public void agrega(int e) {
+            if (elementos == enteros.length) {
+                int[] nuevos = new int[2 * elementos];
+                System.arraycopy(enteros, 0, nuevos, 0, elementos);
+                enteros = nuevos;
+            }
+            enteros[elementos++] = e;
+        }
+    }
+
+    /* La gráfica. */
+    private GraficaCSR<T> grafica;
+    /* El índice del origen. */
+    private int origen;
+    /* El ancho de las cubetas. */
+    private double delta;
+    /* Las distancias, como bits de double. */
+    private AtomicLongArray distancias;
+    /* El padre de cada vértice, o -1 si no es alcanzable. */
+    private int[] padres;
+    /* Los destinos de cada renglón, con las aristas ligeras primero. */
+    private int[] destinos;
+    /* Los pesos de cada renglón, con las aristas ligeras primero. */
+    private double[] pesos;
+    /* Dónde terminan las aristas ligeras de cada renglón. */
+    private int[] ligeras;
+    /* Las cubetas, en un arreglo circular. */
+    private Enteros[] cubetas;
+    /* En qué fase se marcó por última vez cada vértice. */
+    private int[] marcas;
+    /* La fase actual. */
+    private int fase;
+    /* El número de cubetas procesadas. */
+    private int cubetasProcesadas;
+
+    /**
+     * Calcula las distancias desde el origen con Δ igual al peso promedio de
+     * las aristas.
+     * @param grafica la gráfica.
+     * @param origen el elemento de origen.
+     * @throws java.util.NoSuchElementException si el origen no está en la
+     *         gráfica.
+     */
+    public DeltaStepping(GraficaCSR<T> grafica, T origen) {
+        this(grafica, origen, pesoPromedio(grafica));
+    }
+
+    /**
+     * Calcula las distancias desde el origen con la Δ recibida.
+     * @param grafica la gráfica.
+     * @param origen el elemento de origen.
+     * @param delta el ancho de las cubetas.
+     * @throws java.util.NoSuchElementException si el origen no está en la
+     *         gráfica.
+     * @throws IllegalArgumentException si Δ no es positiva, o si el peso
+     *         máximo entre Δ rebasa {@link #MAXIMO_CUBETAS}.
+     */
+    public DeltaStepping(GraficaCSR<T> grafica, T origen, double delta) {
+        if (!(delta > 0))
+            throw new IllegalArgumentException();
+        this.grafica = grafica;
+        this.origen = grafica.indice(origen);
+        this.delta = delta;
+        double maximo = 0;
+        for (double p : grafica.getPesos())
+            maximo = Math.max(maximo, p);
+        if (maximo / delta >= MAXIMO_CUBETAS)
+            throw new IllegalArgumentException();
+        cubetas = new Enteros[(int)(maximo / delta) + 2];
+        separa();
+        calcula();
+        padres();
+    }
+
+    /* Regresa el peso promedio de las aristas, o uno si no hay. */
+    private static double pesoPromedio(GraficaCSR<?> grafica) {
+        double[] pesos = grafica.getPesos();
+        if (pesos.length == 0)
+            return 1;
+        double s = 0;
+        for (double p : pesos)
+            s += p;
+        return s / pesos.length;
+    }
+
+    /* Copia los renglones de la gráfica con las aristas ligeras primero. */
+    private void separa() {
+        int n = grafica.getElementos();
+        int[] d = grafica.getDesplazamientos();
+        int[] ds = grafica.getDestinos();
+        double[] ps = grafica.getPesos();
+        destinos = new int[ds.length];
+        pesos = new double[ps.length];
+        ligeras = new int[n];
+        Paralelo.paraCada(0, n, (a, b) -> {
+                for (int v = a; v < b; v++) {
+                    int k = d[v];
+                    for (int e = d[v]; e < d[v+1]; e++) {
+                        if (ps[e] <= delta) {
+                            destinos[k] = ds[e];
+                            pesos[k++] = ps[e];
+                        }
+                    }
+                    ligeras[v] = k;
+                    for (int e = d[v]; e < d[v+1]; e++) {
+                        if (ps[e] > delta) {
+                            destinos[k] = ds[e];
+                            pesos[k++] = ps[e];
+                        }
+                    }
+                }
+            });
+    }
+
+    /* Vacía las cubetas en orden. */
+    private void calcula() {
+        int n = grafica.getElementos();
+        int[] d = grafica.getDesplazamientos();
+        distancias = new AtomicLongArray(n);
+        long infinito = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+        for (int v = 0; v < n; v++)
+            distancias.set(v, infinito);
+        marcas = new int[n];
+        distancias.set(origen, Double.doubleToLongBits(0));
+        agrega(0, origen);
+        int pendientes = 1;
+        long i = 0;
+        Enteros procesados = new Enteros();
+        while (pendientes > 0) {
+            int c = (int)(i % cubetas.length);
+            if (cubetas[c] == null) {
+                i++;
+                continue;
+            }
+            cubetasProcesadas++;
+            procesados.elementos = 0;
+            fase++;
+            int marcaCubeta = fase;
+            while (cubetas[c] != null) {
+                Enteros cubeta = cubetas[c];
+                cubetas[c] = null;
+                pendientes -= cubeta.elementos;
+                fase++;
+                int[] frente = new int[cubeta.elementos];
+                int k = 0;
+                for (int j = 0; j < cubeta.elementos; j++) {
+                    int v = cubeta.enteros[j];
+                    if (marcas[v] == fase || cubeta(v) != i)
+                        continue;
+                    marcas[v] = fase;
+                    frente[k++] = v;
+                }
+                for (int j = 0; j < k; j++)
+                    procesados.agrega(frente[j]);
+                pendientes += relaja(frente, k, d, true);
+            }
+            int[] vistos = new int[procesados.elementos];
+            int k = 0;
+            fase++;
+            for (int j = 0; j < procesados.elementos; j++) {
+                int v = procesados.enteros[j];
+                if (marcas[v] != fase) {
+                    marcas[v] = fase;
+                    vistos[k++] = v;
+                }
+            }
+            pendientes += relaja(vistos, k, d, false);
+            i++;
+        }
+    }
+
+    /* Relaja en paralelo las aristas ligeras o pesadas de los k vértices del
+     * frente, y mete en su cubeta a los vértices que mejoraron; regresa
+     * cuántos metió. */
+    private int relaja(int[] frente, int k, int[] d, boolean ligeras) {
+        Lista<Enteros> mejorados = new Lista<Enteros>();
+        Paralelo.AccionRango accion = (a, b) -> {
+            Enteros m = new Enteros();
+            for (int j = a; j < b; j++) {
+                int v = frente[j];
+                double dv = distancia(v);
+                int inicio = ligeras ? d[v] : this.ligeras[v];
+                int fin = ligeras ? this.ligeras[v] : d[v+1];
+                for (int e = inicio; e < fin; e++)
+                    if (baja(destinos[e], dv + pesos[e]))
+                        m.agrega(destinos[e]);
+            }
+            synchronized (mejorados) {
+                mejorados.agrega(m);
+            }
+        };
+        if (k < UMBRAL_PARALELO)
+            accion.actua(0, k);
+        else
+            Paralelo.paraCada(0, k, accion);
+        fase++;
+        int agregados = 0;
+        for (Enteros m : mejorados) {
+            for (int j = 0; j < m.elementos; j++) {
+                int u = m.enteros[j];
+                if (marcas[u] == fase)
+                    continue;
+                marcas[u] = fase;
+                agrega(cubeta(u), u);
+                agregados++;
+            }
+        }
+        return agregados;
+    }
+
+    /* Baja la distancia del vértice si la recibida es menor; regresa si la
+     * bajó. */
+    private boolean baja(int v, double distancia) {
+        long nueva = Double.doubleToLongBits(distancia);
+        while (true) {
+            long actual = distancias.get(v);
+            if (nueva >= actual)
+                return false;
+            if (distancias.compareAndSet(v, actual, nueva))
+                return true;
+        }
+    }
+
+    /* Regresa la distancia tentativa del vértice. */
+    private double distancia(int v) {
+        return Double.longBitsToDouble(distancias.get(v));
+    }
+
+    /* Regresa el número de cubeta del vértice. */
+    private long cubeta(int v) {
+        return (long)(distancia(v) / delta);
+    }
+
+    /* Mete al vértice en la cubeta recibida. */
+    private void agrega(long cubeta, int v) {
+        int c = (int)(cubeta % cubetas.length);
+        if (cubetas[c] == null)
+            cubetas[c] = new Enteros();
+        cubetas[c].agrega(v);
+    }
+
+    /* Elige como padre de cada vértice al vecino de menor índice por el que
+     * se alcanza su distancia. */
+    private void padres() {
+        int n = grafica.getElementos();
+        int[] d = grafica.getDesplazamientos();
+        int[] ds = grafica.getDestinos();
+        double[] ps = grafica.getPesos();
+        padres = new int[n];
+        Paralelo.paraCada(0, n, (a, b) -> {
+                for (int v = a; v < b; v++) {
+                    padres[v] = -1;
+                    double dv = distancia(v);
+                    if (v == origen) {
+                        padres[v] = v;
+                        continue;
+                    }
+                    if (dv == Double.POSITIVE_INFINITY)
+                        continue;
+                    for (int e = d[v]; e < d[v+1]; e++) {
+                        double du = distancia(ds[e]);
+                        if (du < dv && du + ps[e] == dv) {
+                            padres[v] = ds[e];
+                            break;
+                        }
+                    }
+                }
+            });
+    }
+
+    /**
+     * Regresa el ancho Δ de las cubetas.
+     * @return el ancho Δ de las cubetas.
+     */
+    public double getDelta() {
+        return delta;
+    }
+
+    /**
+     * Regresa el número de cubetas no vacías que se procesaron.
+     * @return el número de cubetas no vacías que se procesaron.
+     */
+    public int getCubetas() {
+        return cubetasProcesadas;
+    }
+
+    /**
+     * Regresa la distancia mínima del origen al vértice.
+     * @param indice el índice del vértice.
+     * @return la distancia mínima del origen al vértice, o {@link
+     *         Double#POSITIVE_INFINITY} si no es alcanzable.
+     * @throws ExcepcionIndiceInvalido si el índice no es válido.
+     */
+    public double getDistancia(int indice) {
+        if (indice < 0 || indice >= padres.length)
+            throw new ExcepcionIndiceInvalido();
+        return distancia(indice);
+    }
+
+    /**
+     * Regresa una copia de las distancias de todos los vértices, por índice.
+     * @return un arreglo con la distancia mínima del origen a cada vértice,
+     *         o {@link Double#POSITIVE_INFINITY} para los no alcanzables.
+     */
+    public double[] getDistancias() {
+        double[] r = new double[distancias.length()];
+        for (int v = 0; v < r.length; v++)
+            r[v] = distancia(v);
+        return r;
+    }
+
+    /**
+     * Regresa el padre del vértice en un árbol de trayectorias mínimas; el
+     * padre del origen es el origen.
+     * @param indice el índice del vértice.
+     * @return el índice del padre del vértice, o -1 si no es alcanzable.
+     * @throws ExcepcionIndiceInvalido si el índice no es válido.
+     */
+    public int getPadre(int indice) {
+        if (indice < 0 || indice >= padres.length)
+            throw new ExcepcionIndiceInvalido();
+        return padres[indice];
+    }
+
+    /**
+     * Regresa una trayectoria de peso mínimo del origen al elemento.
+     * @param destino el elemento de destino.
+     * @return una lista con los elementos de la trayectoria, o una lista
+     *         vacía si el destino no es alcanzable.
+     * @throws java.util.NoSuchElementException si el destino no está en la
+     *         gráfica.
+     */
+    public Lista<T> trayectoria(T destino) {
+        Lista<T> l = new Lista<T>();
+        int v = grafica.indice(destino);
+        if (padres[v] == -1)
+            return l;
+        for (; v != origen; v = padres[v])
+            l.agregaInicio(grafica.get(v));
+        l.agregaInicio(grafica.get(origen));
+        return l;
+    }
+}
@@ -64,7 +64,7 @@ public class Diccionario<K, V> implements Iterable<V> {
         /* Mueve el iterador a la siguiente entrada válida. */
         private void mueveIterador() {
             for (int i = indice + 1; i < entradas.length; i++) {
-                if (entradas[i] != null) {
+                if (entradas[i] != null && !entradas[i].esVacia()) {
                     iterador = entradas[i].iterator();
                     indice = i;
                     return;
@@ -214,6 +214,20 @@ public class Diccionario<K, V> implements Iterable<V> {
         throw new NoSuchElementException();
     }
 
+    /* Regresa el valor asociado a la llave, o null si la llave es nula o no
+     * está en el diccionario; a diferencia de get, no lanza excepciones. */
+    V busca(K llave) {
+        if (llave == null)
+            return null;
+        Lista<Entrada> l = entradas[dispersion(llave)];
+        if (l == null)
+            return null;
+        for (Entrada entrada : l)
+            if (entrada.llave.equals(llave))
+                return entrada.valor;
+        return null;
+    }
+
     /* Checa que la llave sea valida y regresa su dispersión. */
     private int checaLlave(K llave) {
         if (llave == null)
@@ -231,11 +245,7 @@ public class Diccionario<K, V> implements Iterable<V> {
      *         <code>false</code> en otro caso.
      */
     public boolean contiene(K llave) {
-        try {
-            return get(llave) != null;
-        } catch (IllegalArgumentException | NoSuchElementException e) {
-            return false;
-        }
+        return busca(llave) != null;
     }
 
     /**
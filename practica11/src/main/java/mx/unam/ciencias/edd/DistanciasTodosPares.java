@@ -0,0 +1,221 @@
+package mx.unam.ciencias.edd;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * <p>Clase para calcular las distancias mínimas entre todos los pares de
+ * vértices de una {@link GraficaCSR}, en paralelo. La entrada (<i>i</i>,
+ * <i>j</i>) de la matriz resultante es la distancia del vértice con índice
+ * <i>i</i> al vértice con índice <i>j</i>.</p>
+ *
+ * <p>Hay dos algoritmos: el de Dijkstra desde cada origen, que conviene en
+ * gráficas dispersas, y el de Floyd-Warshall por bloques, que conviene en
+ * gráficas densas. Ninguno modifica la gráfica, y cada hilo usa su propio
+ * montículo y sus propios arreglos.</p>
+ */
+public class DistanciasTodosPares {
+
+    /** Lado de los bloques del algoritmo de Floyd-Warshall. */
+    public static final int BLOQUE = 64;
+
+    /* Constructor privado para evitar instanciación. */
+    private DistanciasTodosPares() {}
+
+    /**
+     * Regresa una matriz nueva para la dimensión recibida: en el montón si
+     * cabe holgadamente, o en el archivo recibido si no.
+     * @param n la dimensión de la matriz.
+     * @param archivo el archivo para la matriz si no cabe en el montón.
+     * @return una matriz nueva con todas sus entradas en {@link
+     *         Double#POSITIVE_INFINITY}.
+     * @throws IOException si no se puede crear o mapear el archivo.
+     */
+    public static MatrizDistancias nuevaMatriz(int n, File archivo)
+        throws IOException {
+        long bytes = 8L * n * n;
+        if (n <= MatrizDistanciasArreglo.MAXIMA_DIMENSION &&
+            bytes <= Runtime.getRuntime().maxMemory() / 2)
+            return new MatrizDistanciasArreglo(n);
+        return new MatrizDistanciasMapeada(archivo, n);
+    }
+
+    /**
+     * Calcula las distancias entre todos los pares de vértices con el
+     * algoritmo de Dijkstra desde cada origen, en una matriz en el montón.
+     * @param grafica la gráfica.
+     * @return la matriz de distancias.
+     * @throws IllegalArgumentException si la matriz no cabe en un arreglo.
+     */
+    public static MatrizDistancias dijkstra(GraficaCSR<?> grafica) {
+        MatrizDistancias matriz =
+            new MatrizDistanciasArreglo(grafica.getElementos());
+        dijkstra(grafica, matriz);
+        return matriz;
+    }
+
+    /**
+     * Calcula las distancias entre todos los pares de vértices con el
+     * algoritmo de Dijkstra desde cada origen, en la matriz recibida. Los
+     * orígenes se reparten entre los hilos, y cada renglón se escribe
+     * completo.
+     * @param grafica la gráfica.
+     * @param matriz la matriz donde se escriben las distancias.
+     * @throws IllegalArgumentException si la dimensión de la matriz no es el
+     *         número de vértices de la gráfica.
+     */
+    public static void dijkstra(GraficaCSR<?> grafica,
+                                MatrizDistancias matriz) {
+        int n = dimension(grafica, matriz);
+        Paralelo.paraCada(0, n, (a, b) -> {
+                MonticuloIndices m = new MonticuloIndices(n);
+                double[] distancias = new double[n];
+                for (int s = a; s < b; s++) {
+                    grafica.distancias(s, distancias, m);
+                    matriz.escribeRenglon(s, 0, distancias, 0, n);
+                }
+            });
+    }
+
+    /**
+     * Calcula las distancias entre todos los pares de vértices con el
+     * algoritmo de Floyd-Warshall por bloques, en una matriz en el montón.
+     * @param grafica la gráfica.
+     * @return la matriz de distancias.
+     * @throws IllegalArgumentException si la matriz no cabe en un arreglo.
+     */
+    public static MatrizDistancias floydWarshall(GraficaCSR<?> grafica) {
+        MatrizDistancias matriz =
+            new MatrizDistanciasArreglo(grafica.getElementos());
+        floydWarshall(grafica, matriz);
+        return matriz;
+    }
+
+    /**
+     * <p>Calcula las distancias entre todos los pares de vértices con el
+     * algoritmo de Floyd-Warshall por bloques, en la matriz recibida.</p>
+     *
+     * <p>La matriz se parte en bloques de {@link #BLOQUE} × {@link #BLOQUE}.
+     * En la ronda <i>k</i> se cierra primero el bloque diagonal <i>k</i>;
+     * después, en paralelo, los demás bloques del renglón y la columna
+     * <i>k</i>; y al final, en paralelo, el resto de los bloques. Cada bloque
+     * se copia a un arreglo local, así que el ciclo interno trabaja siempre
+     * en memoria contigua que cabe en el caché, aun si la matriz está en un
+     * archivo.</p>
+     * @param grafica la gráfica.
+     * @param matriz la matriz donde se escriben las distancias.
+     * @throws IllegalArgumentException si la dimensión de la matriz no es el
+     *         número de vértices de la gráfica.
+     */
+    public static void floydWarshall(GraficaCSR<?> grafica,
+                                     MatrizDistancias matriz) {
+        int n = dimension(grafica, matriz);
+        int[] desplazamientos = grafica.getDesplazamientos();
+        int[] destinos = grafica.getDestinos();
+        double[] pesos = grafica.getPesos();
+        Paralelo.paraCada(0, n, (a, b) -> {
+                double[] renglon = new double[n];
+                for (int i = a; i < b; i++) {
+                    for (int j = 0; j < n; j++)
+                        renglon[j] = Double.POSITIVE_INFINITY;
+                    renglon[i] = 0;
+                    for (int e = desplazamientos[i];
+                         e < desplazamientos[i+1]; e++)
+                        renglon[destinos[e]] = pesos[e];
+                    matriz.escribeRenglon(i, 0, renglon, 0, n);
+                }
+            });
+        int t = (n + BLOQUE - 1) / BLOQUE;
+        double[] diagonal = new double[BLOQUE * BLOQUE];
+        double[][] renglonK = new double[t][BLOQUE * BLOQUE];
+        double[][] columnaK = new double[t][BLOQUE * BLOQUE];
+        for (int k = 0; k < t; k++) {
+            int kk = k;
+            lee(matriz, k, k, diagonal);
+            relaja(diagonal, diagonal, diagonal,
+                   lado(n, k), lado(n, k), lado(n, k));
+            escribe(matriz, k, k, diagonal);
+            Paralelo.paraCada(0, t, 1, (a, b) -> {
+                    for (int j = a; j < b; j++) {
+                        if (j == kk)
+                            continue;
+                        lee(matriz, kk, j, renglonK[j]);
+                        relaja(renglonK[j], diagonal, renglonK[j],
+                               lado(n, kk), lado(n, kk), lado(n, j));
+                        escribe(matriz, kk, j, renglonK[j]);
+                        lee(matriz, j, kk, columnaK[j]);
+                        relaja(columnaK[j], columnaK[j], diagonal,
+                               lado(n, j), lado(n, kk), lado(n, kk));
+                        escribe(matriz, j, kk, columnaK[j]);
+                    }
+                });
+            Paralelo.paraCada(0, t * t, 1, (a, b) -> {
+                    double[] bloque = new double[BLOQUE * BLOQUE];
+                    for (int p = a; p < b; p++) {
+                        int i = p / t, j = p % t;
+                        if (i == kk || j == kk)
+                            continue;
+                        lee(matriz, i, j, bloque);
+                        relaja(bloque, columnaK[i], renglonK[j],
+                               lado(n, i), lado(n, kk), lado(n, j));
+                        escribe(matriz, i, j, bloque);
+                    }
+                });
+        }
+    }
+
+    /* Relaja el bloque c con los bloques a y b: c[i][j] = min(c[i][j],
+     * a[i][k] + b[k][j]). El ciclo de k va por fuera para que el resultado
+     * sea correcto aun si c es el mismo arreglo que a o que b. */
+    private static void relaja(double[] c, double[] a, double[] b,
+                               int renglones, int medio, int columnas) {
+        for (int k = 0; k < medio; k++) {
+            int bk = k * BLOQUE;
+            for (int i = 0; i < renglones; i++) {
+                double aik = a[i * BLOQUE + k];
+                if (aik == Double.POSITIVE_INFINITY)
+                    continue;
+                int ci = i * BLOQUE;
+                for (int j = 0; j < columnas; j++) {
+                    double d = aik + b[bk + j];
+                    if (d < c[ci + j])
+                        c[ci + j] = d;
+                }
+            }
+        }
+    }
+
+    /* Copia el bloque (i, j) de la matriz al arreglo. */
+    private static void lee(MatrizDistancias matriz, int i, int j,
+                            double[] bloque) {
+        int n = matriz.getDimension();
+        int r = lado(n, i), c = lado(n, j);
+        for (int x = 0; x < r; x++)
+            matriz.leeRenglon(i * BLOQUE + x, j * BLOQUE, bloque,
+                              x * BLOQUE, c);
+    }
+
+    /* Copia el arreglo al bloque (i, j) de la matriz. */
+    private static void escribe(MatrizDistancias matriz, int i, int j,
+                                double[] bloque) {
+        int n = matriz.getDimension();
+        int r = lado(n, i), c = lado(n, j);
+        for (int x = 0; x < r; x++)
+            matriz.escribeRenglon(i * BLOQUE + x, j * BLOQUE, bloque,
+                                  x * BLOQUE, c);
+    }
+
+    /* Regresa el lado del i-ésimo bloque; el último puede ser menor. */
+    private static int lado(int n, int i) {
+        return Math.min(BLOQUE, n - i * BLOQUE);
+    }
+
+    /* Regresa la dimensión, verificando que la matriz sea de la gráfica. */
+    private static int dimension(GraficaCSR<?> grafica,
+                                 MatrizDistancias matriz) {
+        int n = grafica.getElementos();
+        if (matriz.getDimension() != n)
+            throw new IllegalArgumentException();
+        return n;
+    }
+}
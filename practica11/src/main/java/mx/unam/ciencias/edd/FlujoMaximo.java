@@ -0,0 +1,369 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para calcular el flujo máximo y un corte mínimo entre dos vértices
+ * de una {@link GraficaCSR}, usando los pesos de las aristas como
+ * capacidades. Como la gráfica no es dirigida, cada arista puede llevar flujo
+ * en cualquiera de los dos sentidos, hasta su capacidad.</p>
+ *
+ * <p>La red residual vive en un arreglo de capacidades residuales paralelo al
+ * arreglo de destinos de la gráfica: el arco de <i>u</i> a <i>v</i> y el de
+ * <i>v</i> a <i>u</i> son inversos uno del otro, y empujar flujo por uno le
+ * resta capacidad y se la suma a su inverso. Hay dos algoritmos:</p>
+ *
+ * <ul>
+ *   <li>{@link Algoritmo#DINIC}: en cada fase se calculan los niveles con BFS
+ *       desde la fuente y se busca un flujo bloqueante con DFS, recordando en
+ *       cada vértice el siguiente arco por revisar.</li>
+ *   <li>{@link Algoritmo#EMPUJA_REETIQUETA}: preflujo con una cola FIFO de
+ *       vértices activos, la heurística del hueco (si ningún vértice queda a
+ *       cierta altura, los que están arriba ya no alcanzan al sumidero) y
+ *       reetiquetados globales periódicos con BFS desde el sumidero.</li>
+ * </ul>
+ *
+ * <p>Las capacidades se comparan exactamente; con pesos enteros (o con pocas
+ * cifras) el resultado es exacto.</p>
+ */
+public class FlujoMaximo<T> {
+
+    /**
+     * Enumeración para el algoritmo de flujo máximo.
+     */
+    public enum Algoritmo {
+        /** El algoritmo de Dinic. */
+        DINIC,
+        /** El algoritmo de empuja y reetiqueta. */
+        EMPUJA_REETIQUETA;
+    }
+
+    /* La gráfica. */
+    private GraficaCSR<T> grafica;
+    /* Dónde comienza el renglón de cada vértice. */
+    private int[] desplazamientos;
+    /* El vértice destino de cada arco. */
+    private int[] destinos;
+    /* El arco inverso de cada arco. */
+    private int[] inversos;
+    /* La capacidad residual de cada arco. */
+    private double[] residuos;
+    /* La fuente. */
+    private int fuente;
+    /* El sumidero. */
+    private int sumidero;
+    /* El valor del flujo máximo. */
+    private double flujo;
+    /* Si cada vértice está del lado de la fuente en el corte mínimo. */
+    private boolean[] ladoFuente;
+
+    /**
+     * Calcula el flujo máximo con el algoritmo de Dinic.
+     * @param grafica la gráfica.
+     * @param fuente el elemento de la fuente.
+     * @param sumidero el elemento del sumidero.
+     * @throws java.util.NoSuchElementException si la fuente o el sumidero no
+     *         están en la gráfica.
+     * @throws IllegalArgumentException si la fuente y el sumidero son el
+     *         mismo elemento.
+     */
+    public FlujoMaximo(GraficaCSR<T> grafica, T fuente, T sumidero) {
+        this(grafica, fuente, sumidero, Algoritmo.DINIC);
+    }
+
+    /**
+     * Calcula el flujo máximo con el algoritmo recibido.
+     * @param grafica la gráfica.
+     * @param fuente el elemento de la fuente.
+     * @param sumidero el elemento del sumidero.
+     * @param algoritmo el algoritmo a usar.
+     * @throws java.util.NoSuchElementException si la fuente o el sumidero no
+     *         están en la gráfica.
+     * @throws IllegalArgumentException si la fuente y el sumidero son el
+     *         mismo elemento.
+     */
+    public FlujoMaximo(GraficaCSR<T> grafica, T fuente, T sumidero,
+                       Algoritmo algoritmo) {
+        this.grafica = grafica;
+        this.fuente = grafica.indice(fuente);
+        this.sumidero = grafica.indice(sumidero);
+        if (this.fuente == this.sumidero)
+            throw new IllegalArgumentException();
+        desplazamientos = grafica.getDesplazamientos();
+        destinos = grafica.getDestinos();
+        int n = grafica.getElementos();
+        int m = destinos.length;
+        inversos = new int[m];
+        residuos = new double[m];
+        double[] pesos = grafica.getPesos();
+        Paralelo.paraCada(0, n, (a, b) -> {
+                for (int v = a; v < b; v++)
+                    for (int e = desplazamientos[v];
+                         e < desplazamientos[v+1]; e++) {
+                        inversos[e] = grafica.buscaArco(destinos[e], v);
+                        residuos[e] = pesos[e];
+                    }
+            });
+        if (algoritmo == Algoritmo.DINIC)
+            dinic();
+        else
+            empujaReetiqueta();
+        corte();
+    }
+
+    /* Calcula el flujo máximo con el algoritmo de Dinic. */
+    private void dinic() {
+        int n = grafica.getElementos();
+        int[] niveles = new int[n];
+        int[] cola = new int[n];
+        int[] actual = new int[n];
+        int[] camino = new int[n];
+        while (niveles(niveles, cola)) {
+            System.arraycopy(desplazamientos, 0, actual, 0, n);
+            double f;
+            while ((f = bloqueante(niveles, actual, camino)) > 0)
+                flujo += f;
+        }
+    }
+
+    /* Calcula los niveles de los vértices con BFS desde la fuente en la red
+     * residual; regresa si el sumidero es alcanzable. */
+    private boolean niveles(int[] niveles, int[] cola) {
+        for (int v = 0; v < niveles.length; v++)
+            niveles[v] = -1;
+        int cabeza = 0, rabo = 0;
+        niveles[fuente] = 0;
+        cola[rabo++] = fuente;
+        while (cabeza < rabo) {
+            int u = cola[cabeza++];
+            for (int e = desplazamientos[u]; e < desplazamientos[u+1]; e++) {
+                int v = destinos[e];
+                if (residuos[e] > 0 && niveles[v] == -1) {
+                    niveles[v] = niveles[u] + 1;
+                    cola[rabo++] = v;
+                }
+            }
+        }
+        return niveles[sumidero] != -1;
+    }
+
+    /* Busca con DFS un camino de la fuente al sumidero por arcos que suben
+     * un nivel y empuja por él su cuello de botella; regresa cuánto empujó,
+     * o cero si ya no hay caminos. Los arcos que no llevan al sumidero se
+     * saltan para siempre en la fase. */
+    private double bloqueante(int[] niveles, int[] actual, int[] camino) {
+        int v = fuente, k = 0;
+        while (v != sumidero) {
+            int e = actual[v];
+            while (e < desplazamientos[v+1] &&
+                   (residuos[e] <= 0 || niveles[destinos[e]] != niveles[v] + 1))
+                e++;
+            actual[v] = e;
+            if (e < desplazamientos[v+1]) {
+                camino[k++] = e;
+                v = destinos[e];
+                continue;
+            }
+            niveles[v] = -1;
+            if (k == 0)
+                return 0;
+            v = destinos[inversos[camino[--k]]];
+            actual[v]++;
+        }
+        double f = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < k; i++)
+            f = Math.min(f, residuos[camino[i]]);
+        for (int i = 0; i < k; i++) {
+            residuos[camino[i]] -= f;
+            residuos[inversos[camino[i]]] += f;
+        }
+        return f;
+    }
+
+    /* Calcula el flujo máximo con el algoritmo de empuja y reetiqueta. */
+    private void empujaReetiqueta() {
+        int n = grafica.getElementos();
+        int[] alturas = new int[n];
+        int[] cuentas = new int[n + 1];
+        int[] actual = new int[n];
+        int[] cola = new int[n];
+        boolean[] enCola = new boolean[n];
+        double[] excesos = new double[n];
+        for (int e = desplazamientos[fuente];
+             e < desplazamientos[fuente+1]; e++) {
+            double f = residuos[e];
+            residuos[e] = 0;
+            residuos[inversos[e]] += f;
+            excesos[destinos[e]] += f;
+        }
+        reetiquetaGlobal(alturas, cuentas, actual, cola);
+        int cabeza = 0, elementos = 0;
+        for (int v = 0; v < n; v++) {
+            if (v != sumidero && v != fuente && excesos[v] > 0 &&
+                alturas[v] < n) {
+                cola[elementos++] = v;
+                enCola[v] = true;
+            }
+        }
+        int[] bfs = new int[n];
+        int reetiquetados = 0;
+        while (elementos > 0) {
+            int v = cola[cabeza];
+            cabeza = (cabeza + 1) % n;
+            elementos--;
+            enCola[v] = false;
+            while (excesos[v] > 0 && alturas[v] < n) {
+                int e = actual[v];
+                if (e == desplazamientos[v+1]) {
+                    reetiqueta(v, alturas, cuentas);
+                    actual[v] = desplazamientos[v];
+                    reetiquetados++;
+                    continue;
+                }
+                int u = destinos[e];
+                if (residuos[e] <= 0 || alturas[v] != alturas[u] + 1) {
+                    actual[v]++;
+                    continue;
+                }
+                double f = Math.min(excesos[v], residuos[e]);
+                residuos[e] -= f;
+                residuos[inversos[e]] += f;
+                excesos[v] -= f;
+                excesos[u] += f;
+                if (u != sumidero && u != fuente && !enCola[u]) {
+                    cola[(cabeza + elementos++) % n] = u;
+                    enCola[u] = true;
+                }
+            }
+            if (reetiquetados >= n) {
+                reetiquetaGlobal(alturas, cuentas, actual, bfs);
+                reetiquetados = 0;
+            }
+        }
+        flujo = excesos[sumidero];
+    }
+
+    /* Sube al vértice a una arriba de su vecino residual más bajo, y aplica
+     * la heurística del hueco si su altura anterior quedó vacía. */
+    private void reetiqueta(int v, int[] alturas, int[] cuentas) {
+        int n = alturas.length;
+        int h = n;
+        for (int e = desplazamientos[v]; e < desplazamientos[v+1]; e++)
+            if (residuos[e] > 0)
+                h = Math.min(h, alturas[destinos[e]] + 1);
+        int anterior = alturas[v];
+        cuentas[anterior]--;
+        alturas[v] = h;
+        cuentas[h]++;
+        if (cuentas[anterior] > 0 || anterior >= n)
+            return;
+        for (int u = 0; u < n; u++) {
+            if (alturas[u] > anterior && alturas[u] < n) {
+                cuentas[alturas[u]]--;
+                alturas[u] = n;
+                cuentas[n]++;
+            }
+        }
+    }
+
+    /* Recalcula las alturas como la distancia al sumidero en la red
+     * residual, con BFS desde el sumidero; los vértices que no lo alcanzan
+     * quedan a altura n. */
+    private void reetiquetaGlobal(int[] alturas, int[] cuentas, int[] actual,
+                                  int[] cola) {
+        int n = alturas.length;
+        for (int v = 0; v <= n; v++)
+            cuentas[v] = 0;
+        for (int v = 0; v < n; v++) {
+            alturas[v] = n;
+            actual[v] = desplazamientos[v];
+        }
+        int cabeza = 0, rabo = 0;
+        alturas[sumidero] = 0;
+        cola[rabo++] = sumidero;
+        while (cabeza < rabo) {
+            int u = cola[cabeza++];
+            for (int e = desplazamientos[u]; e < desplazamientos[u+1]; e++) {
+                int w = destinos[e];
+                if (w != fuente && alturas[w] == n &&
+                    residuos[inversos[e]] > 0) {
+                    alturas[w] = alturas[u] + 1;
+                    cola[rabo++] = w;
+                }
+            }
+        }
+        for (int v = 0; v < n; v++)
+            cuentas[alturas[v]]++;
+    }
+
+    /* Marca del lado de la fuente a los vértices que no alcanzan al
+     * sumidero en la red residual. */
+    private void corte() {
+        int n = grafica.getElementos();
+        ladoFuente = new boolean[n];
+        for (int v = 0; v < n; v++)
+            ladoFuente[v] = true;
+        int[] cola = new int[n];
+        int cabeza = 0, rabo = 0;
+        ladoFuente[sumidero] = false;
+        cola[rabo++] = sumidero;
+        while (cabeza < rabo) {
+            int u = cola[cabeza++];
+            for (int e = desplazamientos[u]; e < desplazamientos[u+1]; e++) {
+                int w = destinos[e];
+                if (ladoFuente[w] && residuos[inversos[e]] > 0) {
+                    ladoFuente[w] = false;
+                    cola[rabo++] = w;
+                }
+            }
+        }
+    }
+
+    /**
+     * Regresa el valor del flujo máximo, que es también la capacidad del
+     * corte mínimo.
+     * @return el valor del flujo máximo.
+     */
+    public double getFlujo() {
+        return flujo;
+    }
+
+    /**
+     * Nos dice si el vértice con el índice recibido está del lado de la
+     * fuente en el corte mínimo. El lado de la fuente son los vértices desde
+     * los que ya no se puede llegar al sumidero en la red residual.
+     * @param indice el índice del vértice.
+     * @return <code>true</code> si el vértice está del lado de la fuente,
+     *         <code>false</code> si está del lado del sumidero.
+     * @throws ExcepcionIndiceInvalido si el índice no es válido.
+     */
+    public boolean enLadoFuente(int indice) {
+        if (indice < 0 || indice >= ladoFuente.length)
+            throw new ExcepcionIndiceInvalido();
+        return ladoFuente[indice];
+    }
+
+    /**
+     * Nos dice si el vértice del elemento recibido está del lado de la
+     * fuente en el corte mínimo.
+     * @param elemento el elemento.
+     * @return <code>true</code> si el vértice está del lado de la fuente,
+     *         <code>false</code> si está del lado del sumidero.
+     * @throws java.util.NoSuchElementException si el elemento no está en la
+     *         gráfica.
+     */
+    public boolean enLadoFuente(T elemento) {
+        return ladoFuente[grafica.indice(elemento)];
+    }
+
+    /**
+     * Regresa una lista con los elementos del lado de la fuente en el corte
+     * mínimo, en el orden de sus índices.
+     * @return una lista con los elementos del lado de la fuente.
+     */
+    public Lista<T> getLadoFuente() {
+        Lista<T> l = new Lista<T>();
+        for (int v = 0; v < ladoFuente.length; v++)
+            if (ladoFuente[v])
+                l.agrega(grafica.get(v));
+        return l;
+    }
+}
@@ -9,6 +9,26 @@ import java.util.NoSuchElementException;
  */
 public class Grafica<T> implements Coleccion<T> {
 
+    /**
+     * Enumeración para el montículo que usa el algoritmo de Dijkstra.
+     */
+    public enum TipoMonticulo {
+        /** Un arreglo sin orden, con eliminación lineal. */
+        ARREGLO,
+        /** Un montículo mínimo binario. */
+        MINIMO,
+        /** Un montículo mínimo 4-ario. */
+        DARIO,
+        /** Cubetas circulares de Dial; requiere pesos enteros. */
+        DIAL,
+        /** Cubetas radix; requiere pesos enteros. */
+        RADIX,
+        /** Un montículo de emparejamiento. */
+        EMPAREJAMIENTO,
+        /** Un montículo de Fibonacci. */
+        FIBONACCI;
+    }
+
     /* Clase interna privada para iteradores. */
     private class Iterador implements Iterator<T> {
 
@@ -33,7 +53,7 @@ public class Grafica<T> implements Coleccion<T> {
 
     /* Clase interna privada para vértices. */
     private class Vertice implements VerticeGrafica<T>,
-                          ComparableIndexable<Vertice> {
+                          PrioridadEntera<Vertice> {
 
         /* El elemento del vértice. */
         public T elemento;
@@ -43,14 +63,18 @@ public class Grafica<T> implements Coleccion<T> {
         public double distancia;
         /* El índice del vértice. */
         public int indice;
-        /* El diccionario de vecinos del vértice. */
-        public Diccionario<T, Vecino> vecinos;
+        /* El predecesor del vértice en la última trayectoria calculada. */
+        public Vertice predecesor;
+        /* Las adyacencias del vértice, por elemento del vecino. */
+        public Adyacencias<T, Vecino> vecinos;
+        /* El identificador del vértice en los componentes conexos. */
+        public int id;
 
         /* Crea un nuevo vértice a partir de un elemento. */
         public Vertice(T elemento) {
             this.elemento = elemento;
             color = Color.NINGUNO;
-            vecinos = new Diccionario<T, Vecino>();
+            vecinos = new Adyacencias<T, Vecino>();
         }
 
         /* Regresa el elemento del vértice. */
@@ -83,6 +107,12 @@ public class Grafica<T> implements Coleccion<T> {
             return indice;
         }
 
+        /* Regresa la distancia del vértice como prioridad entera; la
+         * distancia infinita se convierte en el máximo long. */
+        @Override public long getPrioridad() {
+            return (long)distancia;
+        }
+
         /* Compara dos vértices por distancia. */
         @Override public int compareTo(Vertice vertice) {
             if (distancia < vertice.distancia)
@@ -129,24 +159,103 @@ public class Grafica<T> implements Coleccion<T> {
         }
     }
 
-    /* Interface para poder usar lambdas al buscar el elemento que sigue al
-     * reconstruir un camino. */
-    @FunctionalInterface
-    private interface BuscadorCamino {
-        /* Regresa true si el vértice se sigue del vecino. */
-        public boolean seSiguen(Grafica.Vertice v, Grafica.Vecino a);
+    /* Clase interna privada para etiquetas de las búsquedas bidireccionales
+     * y de A*. Cada búsqueda tiene sus propias etiquetas, en un arreglo
+     * indexado por el identificador de los vértices, por lo que no comparten
+     * la distancia ni el índice del vértice. */
+    private class Etiqueta implements ComparableIndexable<Etiqueta> {
+
+        /* El vértice de la etiqueta. */
+        public Vertice vertice;
+        /* La distancia tentativa desde el extremo de la búsqueda. */
+        public double distancia;
+        /* El índice de la etiqueta en el montículo. */
+        public int indice;
+        /* El predecesor del vértice hacia el extremo de la búsqueda. */
+        public Vertice predecesor;
+        /* La estimación de la heurística; cero si la búsqueda no tiene. */
+        public double estimacion;
+
+        /* Crea una nueva etiqueta. */
+        public Etiqueta(Vertice vertice, double distancia, Vertice predecesor) {
+            this.vertice = vertice;
+            this.distancia = distancia;
+            this.predecesor = predecesor;
+            indice = -1;
+        }
+
+        /* Define el índice de la etiqueta. */
+        @Override public void setIndice(int indice) {
+            this.indice = indice;
+        }
+
+        /* Regresa el índice de la etiqueta. */
+        @Override public int getIndice() {
+            return indice;
+        }
+
+        /* Compara dos etiquetas por distancia más estimación. */
+        @Override public int compareTo(Etiqueta etiqueta) {
+            double f = distancia + estimacion;
+            double g = etiqueta.distancia + etiqueta.estimacion;
+            if (f < g)
+                return -1;
+            else if (f == g)
+                return 0;
+            return 1;
+        }
     }
 
+    /* Clase interna privada para aristas. */
+    private class Arista {
+
+        /* Los extremos de la arista. */
+        public Vertice a, b;
+        /* El peso de la arista. */
+        public double peso;
+
+        /* Construye una nueva arista. */
+        public Arista(Vertice a, Vertice b, double peso) {
+            this.a = a;
+            this.b = b;
+            this.peso = peso;
+        }
+    }
+
+    /* Las distancias enteras de Dijkstra deben ser exactas como double. */
+    private static final double MAXIMO_ENTERO = 9007199254740992.0;
+
+    /* Peso máximo con el que Dijkstra usa por omisión las cubetas de Dial,
+     * que recorren una cubeta por cada distancia posible. */
+    private static final int PESO_DIAL = 64;
+
     /* Vértices. */
     private Diccionario<T, Vertice> vertices;
     /* Número de aristas. */
     private int aristas;
+    /* Los componentes conexos, por identificador de vértice, o null si hay
+     * que recalcularlos. */
+    private ConjuntosDisjuntos componentes;
+    /* El peso máximo de las aristas si todos son enteros, NaN si alguno no
+     * lo es, o -1 si hay que recalcularlo. */
+    private double pesoEntero;
 
     /**
-     * Constructor único.
+     * Constructor por omisión.
      */
     public Grafica() {
         vertices = new Diccionario<T, Vertice>();
+        componentes = new ConjuntosDisjuntos();
+    }
+
+    /**
+     * Construye una gráfica con espacio para el número de vértices recibido,
+     * de manera que agregarlos no redimensione el diccionario de vértices.
+     * @param capacidad el número de vértices esperado.
+     */
+    public Grafica(int capacidad) {
+        vertices = new Diccionario<T, Vertice>(capacidad);
+        componentes = new ConjuntosDisjuntos();
     }
 
     /**
@@ -175,7 +284,10 @@ public class Grafica<T> implements Coleccion<T> {
     @Override public void agrega(T elemento) {
         if (elemento == null || contiene(elemento))
             throw new IllegalArgumentException();
-        vertices.agrega(elemento, new Vertice(elemento));
+        Vertice v = new Vertice(elemento);
+        if (componentes != null)
+            v.id = componentes.agrega();
+        vertices.agrega(elemento, v);
     }
 
     /**
@@ -209,6 +321,63 @@ public class Grafica<T> implements Coleccion<T> {
         v.vecinos.agrega(u.elemento, new Vecino(u, peso));
         u.vecinos.agrega(v.elemento, new Vecino(v, peso));
         aristas++;
+        pesoEntero = -1;
+        if (componentes != null)
+            componentes.une(v.id, u.id);
+    }
+
+    /* Agrega los elementos recibidos y las m aristas dadas por los índices
+     * de sus extremos en el arreglo de elementos, sin buscar los vértices en
+     * el diccionario. Los elementos deben ser distintos y no nulos, y no deben
+     * estar en la gráfica; no se verifica. Las adyacencias de cada vértice se
+     * crean con espacio para su grado. Se ignoran los lazos y las aristas
+     * con un extremo negativo; de las aristas repetidas se queda el menor
+     * peso. */
+    void agregaAristas(T[] elementos, int n, int[] origenes, int[] destinos,
+                       double[] pesos, int m) {
+        int[] grados = new int[n];
+        for (int i = 0; i < m; i++) {
+            if (origenes[i] == destinos[i] || origenes[i] < 0 ||
+                destinos[i] < 0)
+                continue;
+            grados[origenes[i]]++;
+            grados[destinos[i]]++;
+        }
+        Vertice[] vs = nuevoArregloVertices(n);
+        for (int i = 0; i < n; i++) {
+            Vertice v = new Vertice(elementos[i]);
+            v.vecinos = new Adyacencias<T, Vecino>(grados[i]);
+            if (componentes != null)
+                v.id = componentes.agrega();
+            vertices.agrega(elementos[i], v);
+            vs[i] = v;
+        }
+        for (int i = 0; i < m; i++) {
+            if (origenes[i] == destinos[i] || origenes[i] < 0 ||
+                destinos[i] < 0)
+                continue;
+            Vertice v = vs[origenes[i]];
+            Vertice u = vs[destinos[i]];
+            Vecino x = buscaVecino(v, u);
+            if (x != null) {
+                if (pesos[i] < x.peso)
+                    x.peso = buscaVecino(u, v).peso = pesos[i];
+                continue;
+            }
+            v.vecinos.agrega(u.elemento, new Vecino(u, pesos[i]));
+            u.vecinos.agrega(v.elemento, new Vecino(v, pesos[i]));
+            aristas++;
+            if (componentes != null)
+                componentes.une(v.id, u.id);
+        }
+        pesoEntero = -1;
+    }
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private Vertice[] nuevoArregloVertices(int n) {
+        return (Vertice[])new Grafica.Vertice[n];
     }
 
     private Vertice buscaVertice(T elemento) {
@@ -228,17 +397,15 @@ public class Grafica<T> implements Coleccion<T> {
             throw new IllegalArgumentException();
         Vertice v = buscaVertice(a);
         Vertice u = buscaVertice(b);
-        v.vecinos.elimina(buscaVecino(v, u).get());
-        u.vecinos.elimina(buscaVecino(u, v).get());
+        v.vecinos.elimina(u.elemento);
+        u.vecinos.elimina(v.elemento);
         aristas--;
+        pesoEntero = -1;
+        componentes = null;
     }
 
     private Vecino buscaVecino(Vertice v, Vertice u) {
-        for (Vecino w : v.vecinos) {
-            if (w.vecino == u)
-                return w;
-        }
-        return null;
+        return v.vecinos.get(u.elemento);
     }
 
     /**
@@ -247,10 +414,7 @@ public class Grafica<T> implements Coleccion<T> {
      *         <code>false</code> en otro caso.
      */
     @Override public boolean contiene(T elemento) {
-        for (Vertice v : vertices)
-            if (v.elemento.equals(elemento))
-                return true;
-        return false;
+        return vertices.contiene(elemento);
     }
 
     /**
@@ -264,9 +428,11 @@ public class Grafica<T> implements Coleccion<T> {
         Vertice v = buscaVertice(elemento);
         vertices.elimina(v.elemento);
         for (Vecino u : v.vecinos) {
-            u.vecino.vecinos.elimina(buscaVecino(u.vecino, v).get());
+            u.vecino.vecinos.elimina(v.elemento);
             aristas--;
         }
+        pesoEntero = -1;
+        componentes = null;
     }
 
     /**
@@ -280,7 +446,7 @@ public class Grafica<T> implements Coleccion<T> {
     public boolean sonVecinos(T a, T b) {
         Vertice v = buscaVertice(a);
         Vertice u = buscaVertice(b);
-        return buscaVecino(v, u) != null && buscaVecino(u, v) != null;
+        return buscaVecino(v, u) != null;
     }
 
     /**
@@ -317,6 +483,7 @@ public class Grafica<T> implements Coleccion<T> {
         Vertice u = buscaVertice(b);
         buscaVecino(v, u).peso = peso;
         buscaVecino(u, v).peso = peso;
+        pesoEntero = -1;
     }
 
     /**
@@ -350,17 +517,130 @@ public class Grafica<T> implements Coleccion<T> {
     }
 
     /**
-     * Nos dice si la gráfica es conexa.
+     * Nos dice si la gráfica es conexa. Los componentes conexos se mantienen
+     * al agregar vértices y aristas, así que el método toma tiempo
+     * prácticamente constante; después de desconectar o eliminar, la primera
+     * consulta los recalcula en tiempo lineal.
      * @return <code>true</code> si la gráfica es conexa, <code>false</code> en
      *         otro caso.
      */
     public boolean esConexa() {
-        Iterator<T> i = vertices.iteradorLlaves();
-        bdfs(vertices.get(i.next()), (v) -> {}, new Pila<Vertice>());
+        return componentes().getConjuntos() <= 1;
+    }
+
+    /**
+     * Nos dice si dos elementos están en el mismo componente conexo.
+     * @param a el primer elemento.
+     * @param b el segundo elemento.
+     * @return <code>true</code> si hay una trayectoria entre a y b,
+     *         <code>false</code> en otro caso.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     */
+    public boolean mismaComponente(T a, T b) {
+        Vertice v = buscaVertice(a);
+        Vertice u = buscaVertice(b);
+        ConjuntosDisjuntos c = componentes();
+        return c.mismoConjunto(v.id, u.id);
+    }
+
+    /**
+     * Regresa el número de componentes conexos de la gráfica.
+     * @return el número de componentes conexos de la gráfica.
+     */
+    public int getComponentes() {
+        return componentes().getConjuntos();
+    }
+
+    /**
+     * Calcula un árbol generador de peso mínimo de la gráfica con el
+     * algoritmo de Kruskal: las aristas se ordenan por peso y se agregan las
+     * que unen componentes distintos del bosque, que se llevan con {@link
+     * ConjuntosDisjuntos}. Si la gráfica no es conexa, regresa un bosque con
+     * un árbol por componente.
+     * @return una gráfica nueva con los mismos elementos y las aristas de un
+     *         bosque generador de peso mínimo.
+     */
+    public Grafica<T> arbolGeneradorMinimo() {
+        ConjuntosDisjuntos c = componentes();
+        Arista[] a = nuevoArregloAristas(aristas);
+        int k = 0;
         for (Vertice v : vertices)
-            if (v.color != Color.NEGRO)
-                return false;
-        return true;
+            for (Vecino u : v.vecinos)
+                if (v.id < u.vecino.id)
+                    a[k++] = new Arista(v, u.vecino, u.peso);
+        Arreglos.quickSort(a, (x, y) -> Double.compare(x.peso, y.peso));
+        Grafica<T> arbol = copiaVertices();
+        int faltan = vertices.getElementos() - c.getConjuntos();
+        ConjuntosDisjuntos bosque = new ConjuntosDisjuntos(c.getElementos());
+        for (int i = 0; i < a.length && faltan > 0; i++) {
+            if (bosque.une(a[i].a.id, a[i].b.id)) {
+                arbol.conecta(a[i].a.elemento, a[i].b.elemento, a[i].peso);
+                faltan--;
+            }
+        }
+        return arbol;
+    }
+
+    /**
+     * Calcula un árbol generador de peso mínimo de la gráfica con el
+     * algoritmo de Prim: el árbol crece desde un vértice agregando la arista
+     * más ligera que sale de él, con los vértices fuera del árbol en un
+     * {@link MonticuloMinimo} por el peso de esa arista. Si la gráfica no es
+     * conexa, regresa un bosque con un árbol por componente.
+     * @return una gráfica nueva con los mismos elementos y las aristas de un
+     *         bosque generador de peso mínimo.
+     */
+    public Grafica<T> arbolGeneradorMinimoPrim() {
+        reinicia(Double.MAX_VALUE);
+        MonticuloMinimo<Vertice> m =
+            new MonticuloMinimo<Vertice>(vertices, vertices.getElementos());
+        Grafica<T> arbol = copiaVertices();
+        while (!m.esVacia()) {
+            Vertice u = m.elimina();
+            if (u.predecesor != null)
+                arbol.conecta(u.predecesor.elemento, u.elemento, u.distancia);
+            for (Vecino v : u.vecinos) {
+                /* Los vértices que ya salieron del montículo tienen índice
+                 * -1; son parte del árbol. */
+                if (v.vecino.indice == -1 || v.peso >= v.vecino.distancia)
+                    continue;
+                v.vecino.distancia = v.peso;
+                v.vecino.predecesor = u;
+                m.reordena(v.vecino);
+            }
+        }
+        return arbol;
+    }
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private Arista[] nuevoArregloAristas(int n) {
+        return (Arista[])new Grafica.Arista[n];
+    }
+
+    /* Regresa una gráfica nueva con los mismos elementos, sin aristas. */
+    private Grafica<T> copiaVertices() {
+        Grafica<T> g = new Grafica<T>();
+        for (Vertice v : vertices)
+            g.agrega(v.elemento);
+        return g;
+    }
+
+    /* Regresa los componentes conexos, recalculándolos si es necesario. */
+    private ConjuntosDisjuntos componentes() {
+        if (componentes != null)
+            return componentes;
+        ConjuntosDisjuntos c = new ConjuntosDisjuntos(vertices.getElementos());
+        int id = 0;
+        for (Vertice v : vertices)
+            v.id = id++;
+        for (Vertice v : vertices)
+            for (Vecino u : v.vecinos)
+                if (v.id < u.vecino.id)
+                    c.une(v.id, u.vecino.id);
+        componentes = c;
+        return c;
     }
 
     /**
@@ -376,8 +656,9 @@ public class Grafica<T> implements Coleccion<T> {
     /**
      * Realiza la acción recibida en todos los vértices de la gráfica, en el
      * orden determinado por BFS, comenzando por el vértice correspondiente al
-     * elemento recibido. Al terminar el método, todos los vértices tendrán
-     * color {@link Color#NINGUNO}.
+     * elemento recibido. Los vértices descubiertos se marcan en un arreglo
+     * indexado por su identificador, y no con su color, así que al terminar
+     * los colores de los vértices no cambian.
      * @param elemento el elemento sobre cuyo vértice queremos comenzar el
      *        recorrido.
      * @param accion la acción a realizar.
@@ -385,14 +666,15 @@ public class Grafica<T> implements Coleccion<T> {
      */
     public void bfs(T elemento, AccionVerticeGrafica<T> accion) {
         bdfs(buscaVertice(elemento), accion, new Cola<Vertice>());
-        paraCadaVertice((v) -> setColor(v, Color.NINGUNO));
     }
 
     /**
      * Realiza la acción recibida en todos los vértices de la gráfica, en el
      * orden determinado por DFS, comenzando por el vértice correspondiente al
-     * elemento recibido. Al terminar el método, todos los vértices tendrán
-     * color {@link Color#NINGUNO}.
+     * elemento recibido. El recorrido usa una {@link Pila} en lugar de
+     * recursión, así que no desborda la pila de ejecución en gráficas con
+     * trayectorias muy largas, y tampoco cambia los colores de los
+     * vértices.
      * @param elemento el elemento sobre cuyo vértice queremos comenzar el
      *        recorrido.
      * @param accion la acción a realizar.
@@ -400,19 +682,21 @@ public class Grafica<T> implements Coleccion<T> {
      */
     public void dfs(T elemento, AccionVerticeGrafica<T> accion) {
         bdfs(buscaVertice(elemento), accion, new Pila<Vertice>());
-        paraCadaVertice((v) -> setColor(v, Color.NINGUNO));
     }
 
-    private void bdfs(Vertice w, AccionVerticeGrafica<T> accion, MeteSaca<Vertice> m) {
-        paraCadaVertice((v) -> setColor(v, Color.ROJO));
-        w.color = Color.NEGRO;
+    /* Recorre la gráfica desde w, en el orden que determina m, marcando por
+     * identificador cada vértice que descubre. */
+    private void bdfs(Vertice w, AccionVerticeGrafica<T> accion,
+                      MeteSaca<Vertice> m) {
+        boolean[] visitados = new boolean[componentes().getElementos()];
+        visitados[w.id] = true;
         m.mete(w);
         while (!m.esVacia()) {
             Vertice u = m.saca();
             accion.actua(u);
             for (Vecino v : u.vecinos) {
-                if (v.getColor() == Color.ROJO) {
-                    v.vecino.color = Color.NEGRO;
+                if (!visitados[v.vecino.id]) {
+                    visitados[v.vecino.id] = true;
                     m.mete(v.vecino);
                 }
             }
@@ -434,6 +718,8 @@ public class Grafica<T> implements Coleccion<T> {
     @Override public void limpia() {
         vertices.limpia();
         aristas = 0;
+        pesoEntero = 0;
+        componentes = new ConjuntosDisjuntos();
     }
 
     /**
@@ -445,14 +731,14 @@ public class Grafica<T> implements Coleccion<T> {
         for (Vertice v : vertices)
             s += v.elemento + ", ";
         String r = "";
+        boolean[] escritos = new boolean[componentes().getElementos()];
         for (Vertice v : vertices) {
-            setColor(v, Color.ROJO);
+            escritos[v.id] = true;
             for (Vecino u : v.vecinos) {
-                if (u.getColor() != Color.ROJO)
+                if (!escritos[u.vecino.id])
                     r += String.format("(%s, %s), ", v.get(), u.get());
             }
         }
-        paraCadaVertice((v) -> setColor(v, Color.NINGUNO));
         return String.format("{%s}, {%s}", s, r);
     }
 
@@ -490,7 +776,51 @@ public class Grafica<T> implements Coleccion<T> {
     }
 
     /**
-     * Calcula una trayectoria de distancia mínima entre dos vértices.
+     * Regresa una copia inmutable y compacta de la gráfica, representada con
+     * arreglos primitivos. Los índices de los vértices en la copia siguen el
+     * orden en que se iteran los elementos de la gráfica. Cambios posteriores
+     * a la gráfica no afectan a la copia.
+     * @return una copia inmutable y compacta de la gráfica.
+     */
+    public GraficaCSR<T> congela() {
+        int n = getElementos();
+        @SuppressWarnings("unchecked") T[] elementos = (T[])new Object[n];
+        Diccionario<T, Integer> indices = new Diccionario<T, Integer>(n);
+        int[] desplazamientos = new int[n + 1];
+        int i = 0;
+        for (Vertice v : vertices) {
+            elementos[i] = v.elemento;
+            indices.agrega(v.elemento, i);
+            desplazamientos[i + 1] = desplazamientos[i] + v.getGrado();
+            i++;
+        }
+        int[] destinos = new int[2 * aristas];
+        double[] pesos = new double[2 * aristas];
+        int a = 0;
+        for (Vertice v : vertices) {
+            for (Vecino u : v.vecinos) {
+                destinos[a] = indices.get(u.vecino.elemento);
+                pesos[a++] = u.peso;
+            }
+        }
+        return new GraficaCSR<T>(elementos, indices, desplazamientos,
+                                 destinos, pesos);
+    }
+
+    /**
+     * Regresa el número de triángulos de la gráfica. El conteo se hace en
+     * paralelo sobre una copia compacta de la gráfica; para los triángulos de
+     * cada vértice y los coeficientes de agrupamiento, ver {@link
+     * Triangulos}.
+     * @return el número de triángulos de la gráfica.
+     */
+    public long cuentaTriangulos() {
+        return new Triangulos<T>(congela()).getTriangulos();
+    }
+
+    /**
+     * Calcula una trayectoria de distancia mínima entre dos vértices. El
+     * recorrido se detiene en cuanto encuentra al destino.
      * @param origen el vértice de origen.
      * @param destino el vértice de destino.
      * @return Una lista con vértices de la gráfica, tal que forman una
@@ -503,28 +833,23 @@ public class Grafica<T> implements Coleccion<T> {
     public Lista<VerticeGrafica<T>> trayectoriaMinima(T origen, T destino) {
         Vertice s = buscaVertice(origen);
         Vertice t = buscaVertice(destino);
-        Lista<VerticeGrafica<T>> l = new Lista<VerticeGrafica<T>>();
-        if (s == t) {
-            l.agrega(s);
-            return l;
-        }
-        paraCadaVertice((v) -> setDistancia(vertice(v), -1));
+        reinicia(-1);
         s.distancia = 0;
         Cola<Vertice> cola = new Cola<Vertice>();
         cola.mete(s);
-        while (!cola.esVacia()) {
+        while (!cola.esVacia() && t.distancia == -1) {
             Vertice u = cola.saca();
             for (Vecino v : u.vecinos) {
                 if (getDistancia(v) == -1) {
                     setDistancia(v.vecino, u.distancia + 1);
+                    v.vecino.predecesor = u;
                     cola.mete(v.vecino);
                 }
             }
         }
         if (t.distancia == -1)
-            return l;
-        BuscadorCamino buscador = (v, u) -> (v.distancia == u.vecino.distancia + 1);
-        return reconstruyeTrayectorias(buscador, l, t, s);
+            return new Lista<VerticeGrafica<T>>();
+        return trayectoria(s, t);
     }
 
     private void setDistancia(Vertice v, double distancia) {
@@ -535,13 +860,18 @@ public class Grafica<T> implements Coleccion<T> {
         return v.vecino.distancia;
     }
 
-    private Vertice vertice(VerticeGrafica<T> vertice) {
-        return (Vertice) vertice;
+    /* Define la distancia de todos los vértices, y borra sus predecesores. */
+    private void reinicia(double distancia) {
+        for (Vertice v : vertices) {
+            v.distancia = distancia;
+            v.predecesor = null;
+        }
     }
 
     /**
      * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
-     * de destino.
+     * de destino. El algoritmo se detiene en cuanto el destino sale del
+     * montículo.
      * @param origen el vértice origen.
      * @param destino el vértice destino.
      * @return una trayectoria de peso mínimo entre el vértice <code>origen</code> y
@@ -553,46 +883,347 @@ public class Grafica<T> implements Coleccion<T> {
     public Lista<VerticeGrafica<T>> dijkstra(T origen, T destino) {
         Vertice s = buscaVertice(origen);
         Vertice t = buscaVertice(destino);
-        Lista<VerticeGrafica<T>> l = new Lista<VerticeGrafica<T>>();
-        if (s == t) {
-            l.agrega(s);
-            return l;
+        MonticuloDijkstra<Vertice> m = iniciaDijkstra(s);
+        while (!m.esVacia()) {
+            Vertice u = m.elimina();
+            if (u == t || u.distancia == Double.MAX_VALUE)
+                break;
+            relaja(u, m);
         }
-        paraCadaVertice((v) -> setDistancia(vertice(v), Double.MAX_VALUE));
-        s.distancia = 0;
-        int n = getElementos();
-        MonticuloDijkstra<Vertice> m;
-        if (aristas > ((n * (n - 1)) / 2) - n)
-            m = new MonticuloArreglo<Vertice>(vertices, getElementos());
-        else
-            m = new MonticuloMinimo<Vertice>(vertices, getElementos());
+        if (t.distancia == Double.MAX_VALUE)
+            return new Lista<VerticeGrafica<T>>();
+        return trayectoria(s, t);
+    }
+
+    /**
+     * Calcula las trayectorias de peso mínimo del elemento de origen a todos
+     * los vértices alcanzables desde él.
+     * @param origen el vértice origen.
+     * @return el árbol de trayectorias de peso mínimo con raíz en el vértice
+     *         <code>origen</code>.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public ArbolTrayectorias<T> dijkstra(T origen) {
+        Vertice s = buscaVertice(origen);
+        return dijkstra(s, iniciaDijkstra(s));
+    }
+
+    /**
+     * Calcula las trayectorias de peso mínimo del elemento de origen a todos
+     * los vértices alcanzables desde él, con el montículo recibido en lugar
+     * del que se elegiría por omisión.
+     * @param origen el vértice origen.
+     * @param tipo el tipo de montículo a usar.
+     * @return el árbol de trayectorias de peso mínimo con raíz en el vértice
+     *         <code>origen</code>.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     * @throws IllegalArgumentException si el montículo requiere pesos enteros
+     *         y la gráfica tiene alguno que no lo es, o con distancias que no
+     *         serían exactas.
+     */
+    public ArbolTrayectorias<T> dijkstra(T origen, TipoMonticulo tipo) {
+        Vertice s = buscaVertice(origen);
+        return dijkstra(s, iniciaDijkstra(s, tipo));
+    }
+
+    /* Calcula el árbol de trayectorias desde el vértice con el montículo
+     * recibido. */
+    private ArbolTrayectorias<T> dijkstra(Vertice s,
+                                          MonticuloDijkstra<Vertice> m) {
+        ArbolTrayectorias<T> arbol =
+            new ArbolTrayectorias<T>(s, getElementos());
         while (!m.esVacia()) {
             Vertice u = m.elimina();
-            for (Vecino v : u.vecinos) {
-                if (getDistancia(v) > u.distancia + v.peso) {
-                    setDistancia(v.vecino, u.distancia + v.peso);
-                    m.reordena(v.vecino);
+            if (u.distancia == Double.MAX_VALUE)
+                break;
+            if (u != s)
+                arbol.agrega(u, u.distancia, u.predecesor);
+            relaja(u, m);
+        }
+        return arbol;
+    }
+
+    /* Prepara los vértices y el montículo para el algoritmo de Dijkstra. Con
+     * pesos enteros (y distancias exactas como double) usa cubetas: las de
+     * Dial sólo si el peso máximo C es muy chico, porque recorren hasta
+     * (n-1)C cubetas vacías, y las de radix en otro caso; si no, usa un
+     * arreglo en gráficas densas y un montículo mínimo en las demás. */
+    private MonticuloDijkstra<Vertice> iniciaDijkstra(Vertice s) {
+        int n = getElementos();
+        double c = pesoEntero();
+        if (c > 0 && c * n < MAXIMO_ENTERO)
+            return iniciaDijkstra(s, c <= PESO_DIAL ? TipoMonticulo.DIAL :
+                                  TipoMonticulo.RADIX);
+        if (aristas > (long)n * (n - 1) / 2 - n)
+            return iniciaDijkstra(s, TipoMonticulo.ARREGLO);
+        return iniciaDijkstra(s, TipoMonticulo.MINIMO);
+    }
+
+    /* Prepara los vértices y el montículo del tipo recibido para el
+     * algoritmo de Dijkstra. */
+    private MonticuloDijkstra<Vertice> iniciaDijkstra(Vertice s,
+                                                      TipoMonticulo tipo) {
+        int n = getElementos();
+        double c = pesoEntero();
+        if ((tipo == TipoMonticulo.DIAL || tipo == TipoMonticulo.RADIX) &&
+            !(c * n < MAXIMO_ENTERO))
+            throw new IllegalArgumentException();
+        reinicia(Double.MAX_VALUE);
+        s.distancia = 0;
+        switch (tipo) {
+        case ARREGLO:
+            return new MonticuloArreglo<Vertice>(vertices, n);
+        case DARIO:
+            return new MonticuloDario<Vertice>(vertices, n);
+        case DIAL:
+            return new MonticuloDial<Vertice>(vertices, n, (long)c);
+        case RADIX:
+            return new MonticuloRadix<Vertice>(vertices, n);
+        case EMPAREJAMIENTO:
+            return new MonticuloEmparejamiento<Vertice>(vertices, n);
+        case FIBONACCI:
+            return new MonticuloFibonacci<Vertice>(vertices, n);
+        default:
+            return new MonticuloMinimo<Vertice>(vertices, n);
+        }
+    }
+
+    /* Regresa el peso máximo de las aristas si todos son enteros (cero si no
+     * hay aristas), o NaN si alguno no lo es. */
+    private double pesoEntero() {
+        if (pesoEntero != -1)
+            return pesoEntero;
+        pesoEntero = 0;
+        for (Vertice v : vertices) {
+            for (Vecino u : v.vecinos) {
+                if (u.peso != Math.rint(u.peso)) {
+                    pesoEntero = Double.NaN;
+                    return pesoEntero;
                 }
+                pesoEntero = Math.max(pesoEntero, u.peso);
             }
         }
-        if (t.distancia == Double.MAX_VALUE)
-            return l;
-        BuscadorCamino buscador = (v, u) -> (v.distancia == u.vecino.distancia + u.peso);
-        return reconstruyeTrayectorias(buscador, l, t, s);
+        return pesoEntero;
     }
 
-    private Lista<VerticeGrafica<T>>
-    reconstruyeTrayectorias(BuscadorCamino buscador,
-                            Lista<VerticeGrafica<T>> l, Vertice t, Vertice s) {
-        l.agrega(t);
-        while (t != s) {
-            for (Vecino v : t.vecinos) {
-                if (buscador.seSiguen(t, v)) {
-                    l.agrega(v.vecino);
-                    t = v.vecino;
+    /* Relaja las aristas del vértice u. */
+    private void relaja(Vertice u, MonticuloDijkstra<Vertice> m) {
+        for (Vecino v : u.vecinos) {
+            if (getDistancia(v) > u.distancia + v.peso) {
+                setDistancia(v.vecino, u.distancia + v.peso);
+                v.vecino.predecesor = u;
+                m.reordena(v.vecino);
+            }
+        }
+    }
+
+    /* Reconstruye la trayectoria de s a t siguiendo los predecesores. */
+    private Lista<VerticeGrafica<T>> trayectoria(Vertice s, Vertice t) {
+        Lista<VerticeGrafica<T>> l = new Lista<VerticeGrafica<T>>();
+        for (Vertice v = t; v != s; v = v.predecesor)
+            l.agregaInicio(v);
+        l.agregaInicio(s);
+        return l;
+    }
+
+    /**
+     * Calcula una trayectoria de distancia mínima entre dos vértices, con una
+     * búsqueda BFS desde cada extremo que se detiene cuando ambas se
+     * encuentran. En cada paso se expande el nivel completo de la frontera
+     * más pequeña.
+     * @param origen el vértice de origen.
+     * @param destino el vértice de destino.
+     * @return una lista con vértices de la gráfica que forman una trayectoria
+     *         de distancia mínima entre <code>origen</code> y
+     *         <code>destino</code>, o una lista vacía si están en
+     *         componentes conexas distintas.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<VerticeGrafica<T>>
+    trayectoriaMinimaBidireccional(T origen, T destino) {
+        Vertice s = buscaVertice(origen);
+        Vertice t = buscaVertice(destino);
+        if (s == t)
+            return trayectoria(s, s);
+        Etiqueta[] ida = nuevasEtiquetas();
+        Etiqueta[] vuelta = nuevasEtiquetas();
+        ida[s.id] = new Etiqueta(s, 0, null);
+        vuelta[t.id] = new Etiqueta(t, 0, null);
+        Lista<Etiqueta> frenteIda = new Lista<Etiqueta>();
+        Lista<Etiqueta> frenteVuelta = new Lista<Etiqueta>();
+        frenteIda.agrega(ida[s.id]);
+        frenteVuelta.agrega(vuelta[t.id]);
+        double mejor = Double.MAX_VALUE;
+        Vertice a = null, b = null;
+        while (!frenteIda.esVacia() && !frenteVuelta.esVacia()) {
+            boolean adelante = frenteIda.getLongitud() <= frenteVuelta.getLongitud();
+            Etiqueta[] propias = adelante ? ida : vuelta;
+            Etiqueta[] otras = adelante ? vuelta : ida;
+            Lista<Etiqueta> frente = adelante ? frenteIda : frenteVuelta;
+            Lista<Etiqueta> siguiente = new Lista<Etiqueta>();
+            for (Etiqueta e : frente) {
+                for (Vecino v : e.vertice.vecinos) {
+                    Etiqueta o = otras[v.vecino.id];
+                    if (o != null && e.distancia + 1 + o.distancia < mejor) {
+                        mejor = e.distancia + 1 + o.distancia;
+                        a = adelante ? e.vertice : v.vecino;
+                        b = adelante ? v.vecino : e.vertice;
+                    }
+                    if (propias[v.vecino.id] == null) {
+                        Etiqueta n = new Etiqueta(v.vecino, e.distancia + 1,
+                                                  e.vertice);
+                        propias[v.vecino.id] = n;
+                        siguiente.agrega(n);
+                    }
+                }
+            }
+            if (a != null)
+                break;
+            if (adelante)
+                frenteIda = siguiente;
+            else
+                frenteVuelta = siguiente;
+        }
+        return uneTrayectorias(ida, vuelta, a, b);
+    }
+
+    /**
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino, con una búsqueda de Dijkstra desde cada extremo que se
+     * detiene cuando la suma de los mínimos de ambos montículos alcanza a la
+     * mejor trayectoria encontrada. En cada paso avanza la búsqueda con el
+     * montículo más pequeño.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @return una trayectoria de peso mínimo entre el vértice
+     *         <code>origen</code> y el vértice <code>destino</code>, o una
+     *         lista vacía si están en componentes conexas distintas.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<VerticeGrafica<T>> dijkstraBidireccional(T origen, T destino) {
+        Vertice s = buscaVertice(origen);
+        Vertice t = buscaVertice(destino);
+        if (s == t)
+            return trayectoria(s, s);
+        Etiqueta[] ida = nuevasEtiquetas();
+        Etiqueta[] vuelta = nuevasEtiquetas();
+        MonticuloMinimo<Etiqueta> mIda = new MonticuloMinimo<Etiqueta>();
+        MonticuloMinimo<Etiqueta> mVuelta = new MonticuloMinimo<Etiqueta>();
+        Etiqueta es = new Etiqueta(s, 0, null);
+        Etiqueta et = new Etiqueta(t, 0, null);
+        ida[s.id] = es;
+        vuelta[t.id] = et;
+        mIda.agrega(es);
+        mVuelta.agrega(et);
+        double mejor = Double.MAX_VALUE;
+        Vertice a = null, b = null;
+        while (!mIda.esVacia() && !mVuelta.esVacia()) {
+            if (mIda.get(0).distancia + mVuelta.get(0).distancia >= mejor)
+                break;
+            boolean adelante = mIda.getElementos() <= mVuelta.getElementos();
+            Etiqueta[] propias = adelante ? ida : vuelta;
+            Etiqueta[] otras = adelante ? vuelta : ida;
+            MonticuloMinimo<Etiqueta> m = adelante ? mIda : mVuelta;
+            Etiqueta e = m.elimina();
+            for (Vecino v : e.vertice.vecinos) {
+                double d = e.distancia + v.peso;
+                Etiqueta o = otras[v.vecino.id];
+                if (o != null && d + o.distancia < mejor) {
+                    mejor = d + o.distancia;
+                    a = adelante ? e.vertice : v.vecino;
+                    b = adelante ? v.vecino : e.vertice;
+                }
+                Etiqueta n = propias[v.vecino.id];
+                if (n == null) {
+                    n = new Etiqueta(v.vecino, d, e.vertice);
+                    propias[v.vecino.id] = n;
+                    m.agrega(n);
+                } else if (d < n.distancia) {
+                    n.distancia = d;
+                    n.predecesor = e.vertice;
+                    m.reordena(n);
                 }
             }
         }
-        return l.reversa();
+        return uneTrayectorias(ida, vuelta, a, b);
+    }
+
+    /**
+     * Calcula la ruta de peso mínimo entre el elemento de origen y el elemento
+     * de destino usando A*: los vértices salen del montículo en orden de
+     * <i>f</i> = <i>g</i> + <i>h</i>, donde <i>g</i> es la distancia desde el
+     * origen y <i>h</i> la estimación de la heurística hasta el destino. Sólo
+     * se visitan los vértices que la heurística no descarta; con la
+     * heurística constante cero, el algoritmo es el de Dijkstra.
+     * @param origen el vértice origen.
+     * @param destino el vértice destino.
+     * @param heuristica una heurística admisible.
+     * @return una trayectoria de peso mínimo entre el vértice
+     *         <code>origen</code> y el vértice <code>destino</code>, o una
+     *         lista vacía si están en componentes conexas distintas.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<VerticeGrafica<T>> aEstrella(T origen, T destino,
+                                              Heuristica<T> heuristica) {
+        Vertice s = buscaVertice(origen);
+        Vertice t = buscaVertice(destino);
+        Etiqueta[] etiquetas = nuevasEtiquetas();
+        MonticuloMinimo<Etiqueta> m = new MonticuloMinimo<Etiqueta>();
+        Etiqueta es = new Etiqueta(s, 0, null);
+        es.estimacion = heuristica.estima(s.elemento, destino);
+        etiquetas[s.id] = es;
+        m.agrega(es);
+        while (!m.esVacia()) {
+            Etiqueta e = m.elimina();
+            if (e.vertice == t) {
+                Lista<VerticeGrafica<T>> l = new Lista<VerticeGrafica<T>>();
+                for (Vertice v = t; v != null; v = etiquetas[v.id].predecesor)
+                    l.agregaInicio(v);
+                return l;
+            }
+            for (Vecino v : e.vertice.vecinos) {
+                double d = e.distancia + v.peso;
+                Etiqueta n = etiquetas[v.vecino.id];
+                if (n == null) {
+                    n = new Etiqueta(v.vecino, d, e.vertice);
+                    n.estimacion = heuristica.estima(v.get(), destino);
+                    etiquetas[v.vecino.id] = n;
+                    m.agrega(n);
+                } else if (d < n.distancia) {
+                    n.distancia = d;
+                    n.predecesor = e.vertice;
+                    /* Con una heurística admisible pero no consistente, un
+                     * vértice que ya salió puede tener que volver a entrar. */
+                    if (n.indice == -1)
+                        m.agrega(n);
+                    else
+                        m.reordena(n);
+                }
+            }
+        }
+        return new Lista<VerticeGrafica<T>>();
+    }
+
+    /* Regresa un arreglo vacío de etiquetas, indexado por el identificador
+     * de los vértices. */
+    @SuppressWarnings("unchecked") private Etiqueta[] nuevasEtiquetas() {
+        return (Etiqueta[])new Grafica.Etiqueta[componentes().getElementos()];
+    }
+
+    /* Une la trayectoria del origen hasta a con la de b hasta el destino,
+     * donde a y b son vecinos. */
+    private Lista<VerticeGrafica<T>>
+    uneTrayectorias(Etiqueta[] ida, Etiqueta[] vuelta, Vertice a, Vertice b) {
+        Lista<VerticeGrafica<T>> l = new Lista<VerticeGrafica<T>>();
+        if (a == null)
+            return l;
+        for (Vertice v = a; v != null; v = ida[v.id].predecesor)
+            l.agregaInicio(v);
+        for (Vertice v = b; v != null; v = vuelta[v.id].predecesor)
+            l.agregaFinal(v);
+        return l;
     }
 }
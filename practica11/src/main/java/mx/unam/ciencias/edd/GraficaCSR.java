@@ -0,0 +1,672 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * <p>Clase para gráficas compactas e inmutables, representadas con renglones
+ * dispersos comprimidos (<i>compressed sparse row</i>). Cada vértice tiene un
+ * índice entero en el rango [0, <i>n</i>); los vecinos del vértice
+ * <i>v</i> están en las posiciones [<code>desplazamientos[v]</code>,
+ * <code>desplazamientos[v+1]</code>) de los arreglos de destinos y pesos,
+ * ordenados por índice.</p>
+ *
+ * <p>Cada arista de la gráfica aparece dos veces, una en el renglón de cada
+ * uno de sus vértices. Los recorridos trabajan únicamente sobre arreglos
+ * primitivos, por lo que no crean objetos por vértice ni por arista.</p>
+ */
+public class GraficaCSR<T> implements Iterable<T> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements Iterator<T> {
+
+        /* El índice del siguiente elemento. */
+        private int indice;
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return indice < elementos.length;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public T next() {
+            if (indice >= elementos.length)
+                throw new NoSuchElementException();
+            return elementos[indice++];
+        }
+    }
+
+    /* Los elementos, por índice. */
+    private T[] elementos;
+    /* El índice de cada elemento. */
+    private Diccionario<T, Integer> indices;
+    /* Dónde comienza el renglón de cada vértice; tiene n+1 entradas. */
+    private int[] desplazamientos;
+    /* El vértice destino de cada arco. */
+    private int[] destinos;
+    /* El peso de cada arco. */
+    private double[] pesos;
+
+    /* Construye la gráfica compacta a partir de sus arreglos. Los renglones
+     * pueden venir en cualquier orden; aquí se ordenan por índice. */
+    GraficaCSR(T[] elementos, Diccionario<T, Integer> indices,
+               int[] desplazamientos, int[] destinos, double[] pesos) {
+        this.elementos = elementos;
+        this.indices = indices;
+        this.desplazamientos = desplazamientos;
+        this.destinos = destinos;
+        this.pesos = pesos;
+        for (int i = 0; i < elementos.length; i++)
+            ordenaRenglon(desplazamientos[i], desplazamientos[i+1] - 1);
+    }
+
+    /* Construye la gráfica compacta de los elementos recibidos y las m
+     * aristas dadas por los índices de sus extremos en el arreglo de
+     * elementos. Se ignoran los lazos y las aristas con un extremo negativo;
+     * de las aristas repetidas se queda el menor peso. */
+    static <T> GraficaCSR<T> deAristas(T[] elementos,
+                                       Diccionario<T, Integer> indices,
+                                       int[] origenes, int[] destinos,
+                                       double[] pesos, int m) {
+        int n = elementos.length;
+        int[] d = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            if (origenes[i] == destinos[i] || origenes[i] < 0 ||
+                destinos[i] < 0)
+                continue;
+            d[origenes[i] + 1]++;
+            d[destinos[i] + 1]++;
+        }
+        for (int v = 0; v < n; v++)
+            d[v+1] += d[v];
+        int[] siguiente = new int[n];
+        System.arraycopy(d, 0, siguiente, 0, n);
+        int[] ds = new int[d[n]];
+        double[] ps = new double[d[n]];
+        for (int i = 0; i < m; i++) {
+            int v = origenes[i], u = destinos[i];
+            if (v == u || v < 0 || u < 0)
+                continue;
+            ds[siguiente[v]] = u;
+            ps[siguiente[v]++] = pesos[i];
+            ds[siguiente[u]] = v;
+            ps[siguiente[u]++] = pesos[i];
+        }
+        GraficaCSR<T> grafica = new GraficaCSR<T>(elementos, indices, d, ds, ps);
+        grafica.eliminaRepetidas();
+        return grafica;
+    }
+
+    /* Elimina los arcos repetidos de cada renglón ya ordenado, quedándose
+     * con el menor peso. */
+    private void eliminaRepetidas() {
+        int n = elementos.length, k = 0, inicio = 0;
+        for (int v = 0; v < n; v++) {
+            int fin = desplazamientos[v+1];
+            desplazamientos[v] = k;
+            for (int e = inicio; e < fin; e++) {
+                if (k > desplazamientos[v] && destinos[k-1] == destinos[e]) {
+                    if (pesos[e] < pesos[k-1])
+                        pesos[k-1] = pesos[e];
+                    continue;
+                }
+                destinos[k] = destinos[e];
+                pesos[k++] = pesos[e];
+            }
+            inicio = fin;
+        }
+        desplazamientos[n] = k;
+        if (k == destinos.length)
+            return;
+        int[] ds = new int[k];
+        double[] ps = new double[k];
+        System.arraycopy(destinos, 0, ds, 0, k);
+        System.arraycopy(pesos, 0, ps, 0, k);
+        destinos = ds;
+        pesos = ps;
+    }
+
+    /**
+     * Regresa el número de vértices en la gráfica.
+     * @return el número de vértices en la gráfica.
+     */
+    public int getElementos() {
+        return elementos.length;
+    }
+
+    /**
+     * Regresa el número de aristas en la gráfica.
+     * @return el número de aristas en la gráfica.
+     */
+    public int getAristas() {
+        return destinos.length / 2;
+    }
+
+    /**
+     * Nos dice si la gráfica es vacía.
+     * @return <code>true</code> si la gráfica es vacía, <code>false</code> en
+     *         otro caso.
+     */
+    public boolean esVacia() {
+        return elementos.length == 0;
+    }
+
+    /**
+     * Nos dice si el elemento está en la gráfica.
+     * @param elemento el elemento.
+     * @return <code>true</code> si el elemento está en la gráfica,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(T elemento) {
+        return indices.contiene(elemento);
+    }
+
+    /**
+     * Regresa el índice del vértice del elemento recibido.
+     * @param elemento el elemento.
+     * @return el índice del vértice del elemento.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public int indice(T elemento) {
+        return indices.get(elemento);
+    }
+
+    /**
+     * Regresa el elemento del vértice con el índice recibido.
+     * @param indice el índice del vértice.
+     * @return el elemento del vértice.
+     * @throws ExcepcionIndiceInvalido si el índice es inválido.
+     */
+    public T get(int indice) {
+        checaIndice(indice);
+        return elementos[indice];
+    }
+
+    /**
+     * Regresa el grado del vértice con el índice recibido.
+     * @param indice el índice del vértice.
+     * @return el grado del vértice.
+     * @throws ExcepcionIndiceInvalido si el índice es inválido.
+     */
+    public int getGrado(int indice) {
+        checaIndice(indice);
+        return desplazamientos[indice+1] - desplazamientos[indice];
+    }
+
+    /**
+     * Regresa el índice del <i>i</i>-ésimo vecino del vértice recibido. Los
+     * vecinos están ordenados por índice.
+     * @param indice el índice del vértice.
+     * @param i el número de vecino, entre 0 y el grado del vértice.
+     * @return el índice del <i>i</i>-ésimo vecino.
+     * @throws ExcepcionIndiceInvalido si alguno de los índices es inválido.
+     */
+    public int getVecino(int indice, int i) {
+        return destinos[arco(indice, i)];
+    }
+
+    /**
+     * Regresa el peso de la arista al <i>i</i>-ésimo vecino del vértice
+     * recibido.
+     * @param indice el índice del vértice.
+     * @param i el número de vecino, entre 0 y el grado del vértice.
+     * @return el peso de la arista al <i>i</i>-ésimo vecino.
+     * @throws ExcepcionIndiceInvalido si alguno de los índices es inválido.
+     */
+    public double getPeso(int indice, int i) {
+        return pesos[arco(indice, i)];
+    }
+
+    /**
+     * Nos dice si dos vértices son vecinos, en tiempo logarítmico en el grado
+     * del primero.
+     * @param a el índice del primer vértice.
+     * @param b el índice del segundo vértice.
+     * @return <code>true</code> si los vértices son vecinos,
+     *         <code>false</code> en otro caso.
+     * @throws ExcepcionIndiceInvalido si alguno de los índices es inválido.
+     */
+    public boolean sonVecinos(int a, int b) {
+        checaIndice(a);
+        checaIndice(b);
+        return buscaArco(a, b) >= 0;
+    }
+
+    /**
+     * Realiza la acción recibida en los índices de los vértices alcanzables
+     * desde el elemento recibido, en el orden determinado por BFS.
+     * @param elemento el elemento sobre cuyo vértice comienza el recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void bfs(T elemento, AccionIndiceGrafica accion) {
+        int n = elementos.length;
+        int[] cola = new int[n];
+        boolean[] visitados = new boolean[n];
+        int cabeza = 0, rabo = 0;
+        int s = indice(elemento);
+        visitados[s] = true;
+        cola[rabo++] = s;
+        while (cabeza < rabo) {
+            int u = cola[cabeza++];
+            accion.actua(u);
+            for (int a = desplazamientos[u]; a < desplazamientos[u+1]; a++) {
+                int v = destinos[a];
+                if (!visitados[v]) {
+                    visitados[v] = true;
+                    cola[rabo++] = v;
+                }
+            }
+        }
+    }
+
+    /**
+     * Realiza la acción recibida en los índices de los vértices alcanzables
+     * desde el elemento recibido, en el orden determinado por DFS.
+     * @param elemento el elemento sobre cuyo vértice comienza el recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void dfs(T elemento, AccionIndiceGrafica accion) {
+        int n = elementos.length;
+        int[] pila = new int[n];
+        boolean[] visitados = new boolean[n];
+        int tope = 0;
+        int s = indice(elemento);
+        visitados[s] = true;
+        pila[tope++] = s;
+        while (tope > 0) {
+            int u = pila[--tope];
+            accion.actua(u);
+            for (int a = desplazamientos[u]; a < desplazamientos[u+1]; a++) {
+                int v = destinos[a];
+                if (!visitados[v]) {
+                    visitados[v] = true;
+                    pila[tope++] = v;
+                }
+            }
+        }
+    }
+
+    /**
+     * Calcula una trayectoria de distancia mínima entre dos elementos.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @return una lista con los elementos de una trayectoria de distancia
+     *         mínima entre <code>origen</code> y <code>destino</code>. Si
+     *         los elementos están en componentes conexas distintas, regresa
+     *         una lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<T> trayectoriaMinima(T origen, T destino) {
+        int s = indice(origen);
+        int t = indice(destino);
+        int[] predecesores = nuevosPredecesores();
+        int[] cola = new int[elementos.length];
+        int cabeza = 0, rabo = 0;
+        predecesores[s] = s;
+        cola[rabo++] = s;
+        while (cabeza < rabo && predecesores[t] == -1) {
+            int u = cola[cabeza++];
+            for (int a = desplazamientos[u]; a < desplazamientos[u+1]; a++) {
+                int v = destinos[a];
+                if (predecesores[v] == -1) {
+                    predecesores[v] = u;
+                    cola[rabo++] = v;
+                }
+            }
+        }
+        return trayectoria(predecesores, s, t);
+    }
+
+    /**
+     * Calcula una trayectoria de peso mínimo entre dos elementos. El
+     * algoritmo se detiene en cuanto el destino sale del montículo.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @return una lista con los elementos de una trayectoria de peso mínimo
+     *         entre <code>origen</code> y <code>destino</code>. Si los
+     *         elementos están en componentes conexas distintas, regresa una
+     *         lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<T> dijkstra(T origen, T destino) {
+        int s = indice(origen);
+        int t = indice(destino);
+        int[] predecesores = nuevosPredecesores();
+        boolean[] fijos = new boolean[elementos.length];
+        MonticuloIndices m = new MonticuloIndices(elementos.length);
+        predecesores[s] = s;
+        m.agrega(s, 0);
+        while (!m.esVacia()) {
+            int u = m.elimina();
+            if (u == t)
+                break;
+            fijos[u] = true;
+            double d = m.getLlave(u);
+            for (int a = desplazamientos[u]; a < desplazamientos[u+1]; a++) {
+                int v = destinos[a];
+                if (fijos[v])
+                    continue;
+                double nueva = d + pesos[a];
+                if (predecesores[v] == -1 || nueva < m.getLlave(v)) {
+                    predecesores[v] = u;
+                    m.agrega(v, nueva);
+                }
+            }
+        }
+        return trayectoria(predecesores, s, t);
+    }
+
+    /**
+     * <p>Calcula un árbol generador de peso mínimo con el algoritmo de
+     * Borůvka, en paralelo. En cada ronda cada componente escoge en paralelo
+     * su arista más ligera hacia otro componente, y los componentes se unen
+     * a lo largo de esas aristas saltando apuntadores, también en paralelo.
+     * El número de componentes al menos se divide entre dos en cada ronda,
+     * así que hay a lo más log <i>n</i> rondas.</p>
+     *
+     * <p>Las aristas con el mismo peso se desempatan por sus extremos, así que
+     * el resultado es un bosque aun con pesos repetidos. Si la gráfica no es
+     * conexa, regresa un bosque con un árbol por componente.</p>
+     * @return una gráfica compacta nueva con los mismos elementos e índices, y
+     *         las aristas de un bosque generador de peso mínimo.
+     */
+    public GraficaCSR<T> arbolGeneradorMinimo() {
+        int n = elementos.length;
+        int[] origenes = new int[destinos.length];
+        int[] componentes = new int[n];
+        int[] padres = new int[n];
+        AtomicIntegerArray mejores = new AtomicIntegerArray(n);
+        boolean[] elegidas = new boolean[destinos.length];
+        Paralelo.paraCada(0, n, (a, b) -> {
+                for (int v = a; v < b; v++) {
+                    componentes[v] = v;
+                    for (int e = desplazamientos[v];
+                         e < desplazamientos[v+1]; e++)
+                        origenes[e] = v;
+                }
+            });
+        int[] raices = new int[n];
+        for (int v = 0; v < n; v++)
+            raices[v] = v;
+        int r = n;
+        while (r > 1) {
+            int[] rs = raices;
+            int nr = r;
+            Paralelo.paraCada(0, nr, (a, b) -> {
+                    for (int i = a; i < b; i++)
+                        mejores.set(rs[i], -1);
+                });
+            Paralelo.paraCada(0, n, (a, b) -> {
+                    for (int v = a; v < b; v++) {
+                        int c = componentes[v];
+                        int m = -1;
+                        for (int e = desplazamientos[v];
+                             e < desplazamientos[v+1]; e++)
+                            if (componentes[destinos[e]] != c &&
+                                (m == -1 || menor(e, m, origenes)))
+                                m = e;
+                        if (m != -1)
+                            propone(mejores, c, m, origenes);
+                    }
+                });
+            Paralelo.paraCada(0, nr, (a, b) -> {
+                    for (int i = a; i < b; i++) {
+                        int c = rs[i], e = mejores.get(c);
+                        padres[c] = e == -1 ? c : componentes[destinos[e]];
+                    }
+                });
+            /* Dos componentes que se escogen mutuamente escogieron la misma
+             * arista; el menor se queda como raíz. No hay otros ciclos. */
+            Paralelo.paraCada(0, nr, (a, b) -> {
+                    for (int i = a; i < b; i++) {
+                        int c = rs[i], d = padres[c];
+                        if (d != c && padres[d] == c && c < d)
+                            padres[c] = c;
+                        else if (d != c)
+                            elegidas[mejores.get(c)] = true;
+                    }
+                });
+            boolean[] cambio = { true };
+            while (cambio[0]) {
+                cambio[0] = false;
+                Paralelo.paraCada(0, nr, (a, b) -> {
+                        boolean x = false;
+                        for (int i = a; i < b; i++) {
+                            int c = rs[i], p = padres[c], q = padres[p];
+                            if (p != q) {
+                                padres[c] = q;
+                                x = true;
+                            }
+                        }
+                        if (x)
+                            cambio[0] = true;
+                    });
+            }
+            Paralelo.paraCada(0, n, (a, b) -> {
+                    for (int v = a; v < b; v++)
+                        componentes[v] = padres[componentes[v]];
+                });
+            int k = 0;
+            for (int i = 0; i < nr; i++)
+                if (padres[rs[i]] == rs[i])
+                    raices[k++] = rs[i];
+            if (k == nr)
+                break;
+            r = k;
+        }
+        return subgrafica(elegidas, origenes);
+    }
+
+    /**
+     * Regresa un iterador para iterar los elementos de la gráfica, en el orden
+     * de sus índices.
+     * @return un iterador para iterar los elementos de la gráfica.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterador();
+    }
+
+    /**
+     * Regresa una representación en cadena de la gráfica, con el mismo
+     * formato que {@link Grafica#toString}.
+     * @return una representación en cadena de la gráfica.
+     */
+    @Override public String toString() {
+        StringBuilder v = new StringBuilder();
+        StringBuilder a = new StringBuilder();
+        for (int i = 0; i < elementos.length; i++) {
+            v.append(elementos[i]).append(", ");
+            for (int j = desplazamientos[i]; j < desplazamientos[i+1]; j++)
+                if (destinos[j] > i)
+                    a.append(String.format("(%s, %s), ", elementos[i],
+                                           elementos[destinos[j]]));
+        }
+        return String.format("{%s}, {%s}", v, a);
+    }
+
+    /* Regresa el diccionario de índices; no debe modificarse. */
+    Diccionario<T, Integer> getIndices() {
+        return indices;
+    }
+
+    /* Regresa el arreglo de desplazamientos; no debe modificarse. */
+    int[] getDesplazamientos() {
+        return desplazamientos;
+    }
+
+    /* Regresa el arreglo de destinos; no debe modificarse. */
+    int[] getDestinos() {
+        return destinos;
+    }
+
+    /* Regresa el arreglo de pesos; no debe modificarse. */
+    double[] getPesos() {
+        return pesos;
+    }
+
+    /* Llena el arreglo con las distancias mínimas desde el origen, usando el
+     * montículo recibido, que debe estar vacío; los vértices no alcanzables
+     * quedan con Double.POSITIVE_INFINITY. */
+    void distancias(int origen, double[] distancias, MonticuloIndices m) {
+        for (int i = 0; i < distancias.length; i++)
+            distancias[i] = Double.POSITIVE_INFINITY;
+        distancias[origen] = 0;
+        m.agrega(origen, 0);
+        while (!m.esVacia()) {
+            int u = m.elimina();
+            double d = distancias[u];
+            for (int a = desplazamientos[u]; a < desplazamientos[u+1]; a++) {
+                int v = destinos[a];
+                double nueva = d + pesos[a];
+                if (nueva < distancias[v]) {
+                    distancias[v] = nueva;
+                    m.agrega(v, nueva);
+                }
+            }
+        }
+    }
+
+    /* Nos dice si la arista del arco e es menor que la del arco f: por
+     * peso, y luego por sus extremos menor y mayor. */
+    private boolean menor(int e, int f, int[] origenes) {
+        if (pesos[e] != pesos[f])
+            return pesos[e] < pesos[f];
+        int a = Math.min(origenes[e], destinos[e]);
+        int b = Math.min(origenes[f], destinos[f]);
+        if (a != b)
+            return a < b;
+        return Math.max(origenes[e], destinos[e]) <
+            Math.max(origenes[f], destinos[f]);
+    }
+
+    /* Propone el arco e como el más ligero del componente c. */
+    private void propone(AtomicIntegerArray mejores, int c, int e,
+                         int[] origenes) {
+        while (true) {
+            int f = mejores.get(c);
+            if (f != -1 && !menor(e, f, origenes))
+                return;
+            if (mejores.compareAndSet(c, f, e))
+                return;
+        }
+    }
+
+    /* Regresa la gráfica con los mismos vértices y sólo las aristas de los
+     * arcos elegidos. */
+    private GraficaCSR<T> subgrafica(boolean[] elegidas, int[] origenes) {
+        int n = elementos.length;
+        int[] d = new int[n + 1];
+        for (int e = 0; e < elegidas.length; e++) {
+            if (elegidas[e]) {
+                d[origenes[e] + 1]++;
+                d[destinos[e] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++)
+            d[v+1] += d[v];
+        int[] siguiente = new int[n];
+        System.arraycopy(d, 0, siguiente, 0, n);
+        int[] ds = new int[d[n]];
+        double[] ps = new double[d[n]];
+        for (int e = 0; e < elegidas.length; e++) {
+            if (!elegidas[e])
+                continue;
+            int v = origenes[e], u = destinos[e];
+            ds[siguiente[v]] = u;
+            ps[siguiente[v]++] = pesos[e];
+            ds[siguiente[u]] = v;
+            ps[siguiente[u]++] = pesos[e];
+        }
+        return new GraficaCSR<T>(elementos, indices, d, ds, ps);
+    }
+
+    /* Regresa la posición del arco de v a u, o un valor negativo si no son
+     * vecinos. */
+    int buscaArco(int v, int u) {
+        int a = desplazamientos[v];
+        int b = desplazamientos[v+1] - 1;
+        while (a <= b) {
+            int m = (a + b) >>> 1;
+            if (destinos[m] < u)
+                a = m + 1;
+            else if (destinos[m] > u)
+                b = m - 1;
+            else
+                return m;
+        }
+        return -1;
+    }
+
+    /* Regresa la posición del i-ésimo arco del vértice. */
+    private int arco(int indice, int i) {
+        checaIndice(indice);
+        if (i < 0 || i >= desplazamientos[indice+1] - desplazamientos[indice])
+            throw new ExcepcionIndiceInvalido();
+        return desplazamientos[indice] + i;
+    }
+
+    private void checaIndice(int indice) {
+        if (indice < 0 || indice >= elementos.length)
+            throw new ExcepcionIndiceInvalido();
+    }
+
+    private int[] nuevosPredecesores() {
+        int[] predecesores = new int[elementos.length];
+        for (int i = 0; i < predecesores.length; i++)
+            predecesores[i] = -1;
+        return predecesores;
+    }
+
+    /* Reconstruye la trayectoria de s a t siguiendo los predecesores. */
+    private Lista<T> trayectoria(int[] predecesores, int s, int t) {
+        Lista<T> l = new Lista<T>();
+        if (predecesores[t] == -1)
+            return l;
+        while (t != s) {
+            l.agregaInicio(elementos[t]);
+            t = predecesores[t];
+        }
+        l.agregaInicio(elementos[s]);
+        return l;
+    }
+
+    /* Ordena por destino los arcos en [a, b], moviendo sus pesos. */
+    private void ordenaRenglon(int a, int b) {
+        while (b - a > 16) {
+            int p = destinos[(a + b) >>> 1];
+            int i = a, j = b;
+            while (i <= j) {
+                while (destinos[i] < p)
+                    i++;
+                while (destinos[j] > p)
+                    j--;
+                if (i <= j)
+                    intercambia(i++, j--);
+            }
+            if (j - a < b - i) {
+                ordenaRenglon(a, j);
+                a = i;
+            } else {
+                ordenaRenglon(i, b);
+                b = j;
+            }
+        }
+        for (int i = a + 1; i <= b; i++)
+            for (int j = i; j > a && destinos[j-1] > destinos[j]; j--)
+                intercambia(j - 1, j);
+    }
+
+    private void intercambia(int i, int j) {
+        int d = destinos[i];
+        destinos[i] = destinos[j];
+        destinos[j] = d;
+        double p = pesos[i];
+        pesos[i] = pesos[j];
+        pesos[j] = p;
+    }
+}
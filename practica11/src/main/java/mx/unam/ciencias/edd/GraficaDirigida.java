@@ -0,0 +1,588 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para gráficas dirigidas. Cada arco va de un vértice de origen a
+ * un vértice de destino, y cada vértice guarda por separado sus arcos
+ * salientes y sus arcos entrantes, así que ambos se recorren en tiempo
+ * proporcional a su número.</p>
+ *
+ * <p>Los vértices tienen además un identificador denso en [0, <i>n</i>): al
+ * eliminar un vértice, el último toma su identificador. Los algoritmos de la
+ * clase guardan su estado en arreglos indexados por identificador, sin
+ * modificar los vértices, y son iterativos, así que no desbordan la pila de
+ * ejecución aun en gráficas con millones de vértices.</p>
+ */
+public class GraficaDirigida<T> implements Coleccion<T> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements Iterator<T> {
+
+        /* Iterador auxiliar. */
+        private Iterator<Vertice> iterador;
+
+        /* Construye un nuevo iterador, auxiliándose de los vértices. */
+        public Iterador() {
+            iterador = vertices.iterator();
+        }
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return iterador.hasNext();
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public T next() {
+            return iterador.next().elemento;
+        }
+    }
+
+    /* Clase interna privada para vértices. */
+    private class Vertice implements VerticeGrafica<T> {
+
+        /* El elemento del vértice. */
+        public T elemento;
+        /* El color del vértice. */
+        public Color color;
+        /* El identificador denso del vértice. */
+        public int id;
+        /* Los arcos que salen del vértice, por elemento del destino. */
+        public Adyacencias<T, Vecino> salientes;
+        /* Los arcos que llegan al vértice, por elemento del origen. */
+        public Adyacencias<T, Vecino> entrantes;
+
+        /* Crea un nuevo vértice a partir de un elemento. */
+        public Vertice(T elemento, int id) {
+            this.elemento = elemento;
+            this.id = id;
+            color = Color.NINGUNO;
+            salientes = new Adyacencias<T, Vecino>();
+            entrantes = new Adyacencias<T, Vecino>();
+        }
+
+        /* Regresa el elemento del vértice. */
+        @Override public T get() {
+            return elemento;
+        }
+
+        /* Regresa el grado de salida del vértice. */
+        @Override public int getGrado() {
+            return salientes.getElementos();
+        }
+
+        /* Regresa el color del vértice. */
+        @Override public Color getColor() {
+            return color;
+        }
+
+        /* Regresa un iterable para los vecinos de salida. */
+        @Override public Iterable<? extends VerticeGrafica<T>> vecinos() {
+            return salientes;
+        }
+    }
+
+    /* Clase interna privada para el otro extremo de un arco. */
+    private class Vecino implements VerticeGrafica<T> {
+
+        /* El vértice en el otro extremo del arco. */
+        public Vertice vecino;
+        /* El peso del arco. */
+        public double peso;
+
+        /* Construye un nuevo vecino con el vértice y el peso recibidos. */
+        public Vecino(Vertice vecino, double peso) {
+            this.vecino = vecino;
+            this.peso = peso;
+        }
+
+        /* Regresa el elemento del vecino. */
+        @Override public T get() {
+            return vecino.elemento;
+        }
+
+        /* Regresa el grado de salida del vecino. */
+        @Override public int getGrado() {
+            return vecino.getGrado();
+        }
+
+        /* Regresa el color del vecino. */
+        @Override public Color getColor() {
+            return vecino.color;
+        }
+
+        /* Regresa un iterable para los vecinos de salida del vecino. */
+        @Override public Iterable<? extends VerticeGrafica<T>> vecinos() {
+            return vecino.salientes;
+        }
+    }
+
+    /* Capacidad mínima del arreglo de vértices por identificador. */
+    private static final int MINIMA_CAPACIDAD = 16;
+
+    /* Vértices. */
+    private Diccionario<T, Vertice> vertices;
+    /* Los vértices por identificador; sólo los primeros n son válidos. */
+    private Vertice[] porId;
+    /* Número de arcos. */
+    private int arcos;
+
+    /**
+     * Constructor único.
+     */
+    public GraficaDirigida() {
+        vertices = new Diccionario<T, Vertice>();
+        porId = nuevoArregloVertices(MINIMA_CAPACIDAD);
+    }
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private Vertice[] nuevoArregloVertices(int n) {
+        return (Vertice[])new GraficaDirigida.Vertice[n];
+    }
+
+    /**
+     * Regresa el número de elementos en la gráfica. El número de elementos es
+     * igual al número de vértices.
+     * @return el número de elementos en la gráfica.
+     */
+    @Override public int getElementos() {
+        return vertices.getElementos();
+    }
+
+    /**
+     * Regresa el número de arcos.
+     * @return el número de arcos.
+     */
+    public int getArcos() {
+        return arcos;
+    }
+
+    /**
+     * Agrega un nuevo elemento a la gráfica.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si el elemento es nulo o ya había sido
+     *         agregado a la gráfica.
+     */
+    @Override public void agrega(T elemento) {
+        if (elemento == null || contiene(elemento))
+            throw new IllegalArgumentException();
+        int n = vertices.getElementos();
+        if (n == porId.length) {
+            Vertice[] a = nuevoArregloVertices(2 * n);
+            System.arraycopy(porId, 0, a, 0, n);
+            porId = a;
+        }
+        Vertice v = new Vertice(elemento, n);
+        porId[n] = v;
+        vertices.agrega(elemento, v);
+    }
+
+    /**
+     * Agrega un arco de peso 1 del primer elemento al segundo. Los elementos
+     * deben estar en la gráfica.
+     * @param a el origen del arco.
+     * @param b el destino del arco.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si ya hay un arco de a a b, o si a es
+     *         igual a b.
+     */
+    public void conecta(T a, T b) {
+        conecta(a, b, 1);
+    }
+
+    /**
+     * Agrega un arco del primer elemento al segundo. Los elementos deben
+     * estar en la gráfica.
+     * @param a el origen del arco.
+     * @param b el destino del arco.
+     * @param peso el peso del arco.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si ya hay un arco de a a b, si a es
+     *         igual a b, o si el peso es no positivo.
+     */
+    public void conecta(T a, T b, double peso) {
+        if (a.equals(b) || sonVecinos(a, b) || peso <= 0)
+            throw new IllegalArgumentException();
+        Vertice v = vertices.get(a);
+        Vertice u = vertices.get(b);
+        v.salientes.agrega(u.elemento, new Vecino(u, peso));
+        u.entrantes.agrega(v.elemento, new Vecino(v, peso));
+        arcos++;
+    }
+
+    /**
+     * Elimina el arco del primer elemento al segundo. Los elementos deben
+     * estar en la gráfica y debe haber un arco entre ellos.
+     * @param a el origen del arco.
+     * @param b el destino del arco.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si no hay un arco de a a b.
+     */
+    public void desconecta(T a, T b) {
+        if (!sonVecinos(a, b))
+            throw new IllegalArgumentException();
+        Vertice v = vertices.get(a);
+        Vertice u = vertices.get(b);
+        v.salientes.elimina(u.elemento);
+        u.entrantes.elimina(v.elemento);
+        arcos--;
+    }
+
+    /**
+     * Nos dice si el elemento está contenido en la gráfica.
+     * @return <code>true</code> si el elemento está contenido en la gráfica,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean contiene(T elemento) {
+        return vertices.contiene(elemento);
+    }
+
+    /**
+     * Elimina un elemento de la gráfica, junto con todos sus arcos. El
+     * elemento tiene que estar contenido en la gráfica.
+     * @param elemento el elemento a eliminar.
+     * @throws NoSuchElementException si el elemento no está contenido en la
+     *         gráfica.
+     */
+    @Override public void elimina(T elemento) {
+        Vertice v = vertices.get(elemento);
+        vertices.elimina(v.elemento);
+        for (Vecino u : v.salientes) {
+            u.vecino.entrantes.elimina(v.elemento);
+            arcos--;
+        }
+        for (Vecino u : v.entrantes) {
+            u.vecino.salientes.elimina(v.elemento);
+            arcos--;
+        }
+        int n = vertices.getElementos();
+        porId[v.id] = porId[n];
+        porId[v.id].id = v.id;
+        porId[n] = null;
+    }
+
+    /**
+     * Nos dice si hay un arco del primer elemento al segundo. Los elementos
+     * deben estar en la gráfica.
+     * @param a el origen.
+     * @param b el destino.
+     * @return <code>true</code> si hay un arco de a a b, <code>false</code> en
+     *         otro caso.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     */
+    public boolean sonVecinos(T a, T b) {
+        Vertice v = vertices.get(a);
+        Vertice u = vertices.get(b);
+        return v.salientes.contiene(u.elemento);
+    }
+
+    /**
+     * Regresa el peso del arco del primer elemento al segundo.
+     * @param a el origen del arco.
+     * @param b el destino del arco.
+     * @return el peso del arco de a a b.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si no hay un arco de a a b.
+     */
+    public double getPeso(T a, T b) {
+        if (!sonVecinos(a, b))
+            throw new IllegalArgumentException();
+        return vertices.get(a).salientes.get(b).peso;
+    }
+
+    /**
+     * Define el peso del arco del primer elemento al segundo.
+     * @param a el origen del arco.
+     * @param b el destino del arco.
+     * @param peso el nuevo peso del arco.
+     * @throws NoSuchElementException si a o b no son elementos de la gráfica.
+     * @throws IllegalArgumentException si no hay un arco de a a b, o si peso
+     *         es menor o igual que cero.
+     */
+    public void setPeso(T a, T b, double peso) {
+        if (!sonVecinos(a, b) || peso <= 0)
+            throw new IllegalArgumentException();
+        vertices.get(a).salientes.get(b).peso = peso;
+        vertices.get(b).entrantes.get(a).peso = peso;
+    }
+
+    /**
+     * Regresa el grado de entrada del vértice del elemento recibido. El grado
+     * de salida es el grado de su {@link #vertice}.
+     * @param elemento el elemento.
+     * @return el número de arcos que llegan al vértice del elemento.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public int getGradoEntrada(T elemento) {
+        return vertices.get(elemento).entrantes.getElementos();
+    }
+
+    /**
+     * Regresa un iterable con los vértices de los que sale un arco hacia el
+     * vértice del elemento recibido.
+     * @param elemento el elemento.
+     * @return un iterable con los vecinos de entrada del vértice.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public Iterable<? extends VerticeGrafica<T>> entrantes(T elemento) {
+        return vertices.get(elemento).entrantes;
+    }
+
+    /**
+     * Regresa el vértice correspondiente el elemento recibido. Sus vecinos y
+     * su grado son los de salida.
+     * @param elemento el elemento del que queremos el vértice.
+     * @throws NoSuchElementException si elemento no es elemento de la gráfica.
+     * @return el vértice correspondiente el elemento recibido.
+     */
+    public VerticeGrafica<T> vertice(T elemento) {
+        return vertices.get(elemento);
+    }
+
+    /**
+     * Define el color del vértice recibido.
+     * @param vertice el vértice al que queremos definirle el color.
+     * @param color el nuevo color del vértice.
+     * @throws IllegalArgumentException si el vértice no es válido.
+     */
+    public void setColor(VerticeGrafica<T> vertice, Color color) {
+        if (vertice == null)
+            throw new IllegalArgumentException("Vértice inválido");
+        if (vertice.getClass() == Vertice.class)
+            ((Vertice)vertice).color = color;
+        else if (vertice.getClass() == Vecino.class)
+            ((Vecino)vertice).vecino.color = color;
+        else
+            throw new IllegalArgumentException("Vértice inválido");
+    }
+
+    /**
+     * Realiza la acción recibida en los vértices alcanzables desde el
+     * elemento recibido siguiendo los arcos, en el orden determinado por BFS.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void bfs(T elemento, AccionVerticeGrafica<T> accion) {
+        recorre(vertices.get(elemento), accion, new Cola<Vertice>());
+    }
+
+    /**
+     * Realiza la acción recibida en los vértices alcanzables desde el
+     * elemento recibido siguiendo los arcos, en el orden determinado por DFS.
+     * @param elemento el elemento sobre cuyo vértice queremos comenzar el
+     *        recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void dfs(T elemento, AccionVerticeGrafica<T> accion) {
+        recorre(vertices.get(elemento), accion, new Pila<Vertice>());
+    }
+
+    /* Recorre la gráfica desde w, en el orden que determina m. */
+    private void recorre(Vertice w, AccionVerticeGrafica<T> accion,
+                         MeteSaca<Vertice> m) {
+        boolean[] visitados = new boolean[vertices.getElementos()];
+        visitados[w.id] = true;
+        m.mete(w);
+        while (!m.esVacia()) {
+            Vertice u = m.saca();
+            accion.actua(u);
+            for (Vecino v : u.salientes) {
+                if (!visitados[v.vecino.id]) {
+                    visitados[v.vecino.id] = true;
+                    m.mete(v.vecino);
+                }
+            }
+        }
+    }
+
+    /**
+     * Regresa los elementos de la gráfica en orden topológico, con el
+     * algoritmo de Kahn: se toman repetidamente los vértices sin arcos
+     * entrantes pendientes. Todo arco va de un elemento a otro posterior en
+     * la lista.
+     * @return una lista con los elementos en orden topológico.
+     * @throws IllegalStateException si la gráfica tiene un ciclo.
+     */
+    public Lista<T> ordenTopologico() {
+        Lista<T> orden = new Lista<T>();
+        if (kahn(orden) != vertices.getElementos())
+            throw new IllegalStateException("La gráfica tiene un ciclo");
+        return orden;
+    }
+
+    /**
+     * Nos dice si la gráfica no tiene ciclos dirigidos.
+     * @return <code>true</code> si la gráfica es acíclica, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esAciclica() {
+        return kahn(null) == vertices.getElementos();
+    }
+
+    /* Ejecuta el algoritmo de Kahn, agregando los elementos a la lista si no
+     * es nula, y regresa el número de vértices ordenados. */
+    private int kahn(Lista<T> orden) {
+        int n = vertices.getElementos();
+        int[] pendientes = new int[n];
+        int[] cola = new int[n];
+        int cabeza = 0, rabo = 0;
+        for (int i = 0; i < n; i++) {
+            pendientes[i] = porId[i].entrantes.getElementos();
+            if (pendientes[i] == 0)
+                cola[rabo++] = i;
+        }
+        while (cabeza < rabo) {
+            Vertice v = porId[cola[cabeza++]];
+            if (orden != null)
+                orden.agrega(v.elemento);
+            for (Vecino u : v.salientes)
+                if (--pendientes[u.vecino.id] == 0)
+                    cola[rabo++] = u.vecino.id;
+        }
+        return rabo;
+    }
+
+    /**
+     * <p>Regresa las componentes fuertemente conexas de la gráfica, con el
+     * algoritmo de Tarjan. Dos elementos están en la misma componente si hay
+     * una trayectoria dirigida de cada uno al otro.</p>
+     *
+     * <p>Las componentes salen en orden topológico inverso de la gráfica de
+     * componentes: ningún arco va de una componente a otra posterior en la
+     * lista. El recorrido en profundidad usa una pila explícita de
+     * iteradores en lugar de recursión.</p>
+     * @return una lista con las componentes fuertemente conexas; cada una es
+     *         una lista de elementos.
+     */
+    public Lista<Lista<T>> componentesFuertes() {
+        int n = vertices.getElementos();
+        int[] indices = new int[n];
+        int[] bajos = new int[n];
+        boolean[] enPila = new boolean[n];
+        int[] pila = new int[n];
+        int[] llamadas = new int[n];
+        @SuppressWarnings("unchecked") Iterator<Vecino>[] iteradores =
+            (Iterator<Vecino>[])new Iterator[n];
+        Lista<Lista<T>> componentes = new Lista<Lista<T>>();
+        for (int i = 0; i < n; i++)
+            indices[i] = -1;
+        int contador = 0, tope = 0;
+        for (int s = 0; s < n; s++) {
+            if (indices[s] != -1)
+                continue;
+            int llamada = 0;
+            indices[s] = bajos[s] = contador++;
+            pila[tope++] = s;
+            enPila[s] = true;
+            llamadas[0] = s;
+            iteradores[0] = porId[s].salientes.iterator();
+            while (llamada >= 0) {
+                int v = llamadas[llamada];
+                Iterator<Vecino> it = iteradores[llamada];
+                if (it.hasNext()) {
+                    int u = it.next().vecino.id;
+                    if (indices[u] == -1) {
+                        indices[u] = bajos[u] = contador++;
+                        pila[tope++] = u;
+                        enPila[u] = true;
+                        llamadas[++llamada] = u;
+                        iteradores[llamada] = porId[u].salientes.iterator();
+                    } else if (enPila[u] && indices[u] < bajos[v]) {
+                        bajos[v] = indices[u];
+                    }
+                    continue;
+                }
+                iteradores[llamada--] = null;
+                if (bajos[v] == indices[v]) {
+                    Lista<T> componente = new Lista<T>();
+                    int u;
+                    do {
+                        u = pila[--tope];
+                        enPila[u] = false;
+                        componente.agrega(porId[u].elemento);
+                    } while (u != v);
+                    componentes.agrega(componente);
+                }
+                if (llamada >= 0) {
+                    int w = llamadas[llamada];
+                    if (bajos[v] < bajos[w])
+                        bajos[w] = bajos[v];
+                }
+            }
+        }
+        return componentes;
+    }
+
+    /**
+     * Nos dice si la gráfica está vacía.
+     * @return <code>true</code> si la gráfica está vacía, <code>false</code>
+     *         en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return vertices.esVacia();
+    }
+
+    /**
+     * Limpia la gráfica de vértices y arcos, dejándola vacía.
+     */
+    @Override public void limpia() {
+        vertices.limpia();
+        porId = nuevoArregloVertices(MINIMA_CAPACIDAD);
+        arcos = 0;
+    }
+
+    /**
+     * Regresa una representación en cadena de la gráfica. Cada arco aparece
+     * una vez, como la pareja ordenada (origen, destino).
+     * @return una representación en cadena de la gráfica.
+     */
+    @Override public String toString() {
+        String s = "";
+        for (Vertice v : vertices)
+            s += v.elemento + ", ";
+        String r = "";
+        for (Vertice v : vertices)
+            for (Vecino u : v.salientes)
+                r += String.format("(%s, %s), ", v.get(), u.get());
+        return String.format("{%s}, {%s}", s, r);
+    }
+
+    /**
+     * Nos dice si la gráfica es igual al objeto recibido.
+     * @param objeto el objeto con el que hay que comparar.
+     * @return <code>true</code> si la gráfica es igual al objeto recibido;
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean equals(Object objeto) {
+        if (objeto == null || getClass() != objeto.getClass())
+            return false;
+        @SuppressWarnings("unchecked") GraficaDirigida<T> grafica =
+            (GraficaDirigida<T>)objeto;
+        if (getElementos() != grafica.getElementos() ||
+            arcos != grafica.arcos)
+            return false;
+        for (Vertice v : vertices) {
+            if (!grafica.contiene(v.elemento))
+                return false;
+            for (Vecino u : v.salientes)
+                if (!grafica.contiene(u.get()) ||
+                    !grafica.sonVecinos(v.get(), u.get()))
+                    return false;
+        }
+        return true;
+    }
+
+    /**
+     * Regresa un iterador para iterar la gráfica.
+     * @return un iterador para iterar la gráfica.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterador();
+    }
+}
@@ -0,0 +1,533 @@
+package mx.unam.ciencias.edd;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para gráficas compactas guardadas en un archivo y mapeadas a
+ * memoria. Abrir la gráfica sólo lee el encabezado y mapea el archivo; las
+ * consultas leen directamente del mapeo, sin pasar los arreglos al montón,
+ * así que el sistema operativo carga sólo las páginas que se usan.</p>
+ *
+ * <p>El archivo, en orden <i>little-endian</i>, tiene un encabezado de
+ * {@link #BYTES_ENCABEZADO} bytes con {@link #MAGIA}, la {@link #VERSION}
+ * del formato, el número de vértices <i>n</i>, el número de arcos, la
+ * capacidad de la tabla de dispersión, y la posición de cada sección. Las
+ * secciones, alineadas a 8 bytes, son los <i>n</i>+1 desplazamientos de los
+ * renglones, los destinos y los pesos de los arcos como en {@link
+ * GraficaCSR}, la tabla de dispersión de los elementos, los <i>n</i>+1
+ * inicios de los bytes de cada elemento, y los bytes de los elementos
+ * codificados con un {@link Codificador}.</p>
+ *
+ * <p>La tabla de dispersión usa {@link Dispersores#dispersaBJ} sobre los
+ * bytes codificados y direccionamiento abierto, así que buscar el índice de
+ * un elemento no decodifica ningún elemento.</p>
+ */
+public class GraficaMapeada<T> {
+
+    /* Clase interna privada para secciones del archivo. Como un mapeo no
+     * puede pasar de 2 GB, la sección se mapea en bloques. */
+    private static class Seccion {
+
+        /* Los bloques mapeados. */
+        private MappedByteBuffer[] bloques;
+
+        /* Mapea la sección [inicio, inicio + tam) del canal. */
+        public Seccion(FileChannel canal, FileChannel.MapMode modo,
+                       long inicio, long tam) throws IOException {
+            int n = (int)((tam + BYTES_BLOQUE - 1) / BYTES_BLOQUE);
+            bloques = new MappedByteBuffer[n];
+            for (int i = 0; i < n; i++) {
+                long desde = (long)i * BYTES_BLOQUE;
+                bloques[i] = canal.map(modo, inicio + desde,
+                                       Math.min(BYTES_BLOQUE, tam - desde));
+                bloques[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        /* Regresa el i-ésimo byte. */
+        public byte get(long i) {
+            return bloques[(int)(i >>> DESPLAZAMIENTO)]
+                .get((int)(i & MASCARA));
+        }
+
+        /* Regresa el i-ésimo entero. */
+        public int getInt(long i) {
+            long p = i << 2;
+            return bloques[(int)(p >>> DESPLAZAMIENTO)]
+                .getInt((int)(p & MASCARA));
+        }
+
+        /* Regresa el i-ésimo entero largo. */
+        public long getLong(long i) {
+            long p = i << 3;
+            return bloques[(int)(p >>> DESPLAZAMIENTO)]
+                .getLong((int)(p & MASCARA));
+        }
+
+        /* Regresa el i-ésimo número de punto flotante. */
+        public double getDouble(long i) {
+            long p = i << 3;
+            return bloques[(int)(p >>> DESPLAZAMIENTO)]
+                .getDouble((int)(p & MASCARA));
+        }
+
+        /* Define el i-ésimo byte. */
+        public void put(long i, byte b) {
+            bloques[(int)(i >>> DESPLAZAMIENTO)].put((int)(i & MASCARA), b);
+        }
+
+        /* Define el i-ésimo entero. */
+        public void putInt(long i, int v) {
+            long p = i << 2;
+            bloques[(int)(p >>> DESPLAZAMIENTO)].putInt((int)(p & MASCARA), v);
+        }
+
+        /* Define el i-ésimo entero largo. */
+        public void putLong(long i, long v) {
+            long p = i << 3;
+            bloques[(int)(p >>> DESPLAZAMIENTO)].putLong((int)(p & MASCARA),
+                                                         v);
+        }
+
+        /* Define el i-ésimo número de punto flotante. */
+        public void putDouble(long i, double v) {
+            long p = i << 3;
+            bloques[(int)(p >>> DESPLAZAMIENTO)].putDouble((int)(p & MASCARA),
+                                                           v);
+        }
+
+        /* Escribe los bloques al archivo. */
+        public void sincroniza() {
+            for (MappedByteBuffer b : bloques)
+                b.force();
+        }
+    }
+
+    /** Número mágico al principio del archivo: "EDDG" en ASCII. */
+    public static final int MAGIA = 0x45444447;
+    /** Versión del formato que escribe y lee esta clase. */
+    public static final int VERSION = 1;
+    /** Número de bytes del encabezado. */
+    public static final int BYTES_ENCABEZADO = 80;
+
+    /* Bits de la posición dentro de un bloque. */
+    private static final int DESPLAZAMIENTO = 30;
+    /* Tamaño de los bloques mapeados. */
+    private static final long BYTES_BLOQUE = 1L << DESPLAZAMIENTO;
+    /* Máscara de la posición dentro de un bloque. */
+    private static final long MASCARA = BYTES_BLOQUE - 1;
+    /* Número de secciones. */
+    private static final int SECCIONES = 6;
+
+    /* El codificador de los elementos. */
+    private Codificador<T> codificador;
+    /* El número de vértices. */
+    private int n;
+    /* El número de arcos. */
+    private int arcos;
+    /* La capacidad de la tabla de dispersión; una potencia de 2. */
+    private int capacidad;
+    /* Los desplazamientos de los renglones. */
+    private Seccion desplazamientos;
+    /* Los destinos de los arcos. */
+    private Seccion destinos;
+    /* Los pesos de los arcos. */
+    private Seccion pesos;
+    /* La tabla de dispersión: índice más uno, o 0 si está vacía. */
+    private Seccion tabla;
+    /* Dónde comienzan los bytes de cada elemento. */
+    private Seccion inicios;
+    /* Los bytes de los elementos. */
+    private Seccion bytes;
+
+    /**
+     * Abre la gráfica guardada en el archivo recibido.
+     * @param archivo el archivo de la gráfica.
+     * @param codificador el codificador con el que se guardaron los
+     *        elementos.
+     * @throws IOException si no se puede leer el archivo, si no es de una
+     *         gráfica, o si es de otra versión del formato.
+     */
+    public GraficaMapeada(File archivo, Codificador<T> codificador)
+        throws IOException {
+        this.codificador = codificador;
+        try (RandomAccessFile raf = new RandomAccessFile(archivo, "r")) {
+            FileChannel canal = raf.getChannel();
+            long tam = canal.size();
+            if (tam < BYTES_ENCABEZADO)
+                throw new IOException("Archivo inválido");
+            Seccion e = new Seccion(canal, FileChannel.MapMode.READ_ONLY,
+                                    0, BYTES_ENCABEZADO);
+            if (e.getInt(0) != MAGIA)
+                throw new IOException("Archivo inválido");
+            if (e.getInt(1) != VERSION)
+                throw new IOException("Versión no soportada: " + e.getInt(1));
+            n = e.getInt(2);
+            arcos = e.getInt(3);
+            capacidad = e.getInt(4);
+            if (n < 0 || arcos < 0 || Integer.bitCount(capacidad) != 1)
+                throw new IOException("Archivo inválido");
+            long[] s = new long[SECCIONES + 1];
+            for (int i = 0; i <= SECCIONES; i++)
+                s[i] = e.getLong(3 + i);
+            long[] t = tamanos(n, arcos, capacidad, 0);
+            for (int i = 0; i < SECCIONES; i++)
+                if (s[i] < BYTES_ENCABEZADO || s[i+1] > tam ||
+                    s[i+1] - s[i] < t[i])
+                    throw new IOException("Archivo inválido");
+            FileChannel.MapMode m = FileChannel.MapMode.READ_ONLY;
+            desplazamientos = new Seccion(canal, m, s[0], s[1] - s[0]);
+            destinos = new Seccion(canal, m, s[1], s[2] - s[1]);
+            pesos = new Seccion(canal, m, s[2], s[3] - s[2]);
+            tabla = new Seccion(canal, m, s[3], s[4] - s[3]);
+            inicios = new Seccion(canal, m, s[4], s[5] - s[4]);
+            bytes = new Seccion(canal, m, s[5], s[6] - s[5]);
+            if (desplazamientos.getInt(n) != arcos)
+                throw new IOException("Archivo inválido");
+        }
+    }
+
+    /**
+     * Guarda la gráfica compacta recibida en el archivo recibido, en el
+     * formato que lee el constructor. Si el archivo existe, se sobreescribe.
+     * @param <T> el tipo de los elementos.
+     * @param grafica la gráfica a guardar.
+     * @param codificador el codificador para los elementos.
+     * @param archivo el archivo donde se guarda la gráfica.
+     * @throws IOException si no se puede escribir el archivo.
+     */
+    public static <T> void guarda(GraficaCSR<T> grafica,
+                                  Codificador<T> codificador, File archivo)
+        throws IOException {
+        int n = grafica.getElementos();
+        int[] d = grafica.getDesplazamientos();
+        int[] ds = grafica.getDestinos();
+        double[] ps = grafica.getPesos();
+        int arcos = ds.length;
+        int capacidad = 16;
+        while (capacidad < 2L * n)
+            capacidad *= 2;
+        byte[][] codificados = new byte[n][];
+        long total = 0;
+        for (int v = 0; v < n; v++) {
+            codificados[v] = codificador.codifica(grafica.get(v));
+            total += codificados[v].length;
+        }
+        long[] s = posiciones(tamanos(n, arcos, capacidad, total));
+        try (RandomAccessFile raf = new RandomAccessFile(archivo, "rw")) {
+            raf.setLength(0);
+            raf.setLength(s[SECCIONES]);
+            FileChannel canal = raf.getChannel();
+            FileChannel.MapMode m = FileChannel.MapMode.READ_WRITE;
+            Seccion e = new Seccion(canal, m, 0, BYTES_ENCABEZADO);
+            e.putInt(0, MAGIA);
+            e.putInt(1, VERSION);
+            e.putInt(2, n);
+            e.putInt(3, arcos);
+            e.putInt(4, capacidad);
+            e.putInt(5, 0);
+            for (int i = 0; i <= SECCIONES; i++)
+                e.putLong(3 + i, s[i]);
+            Seccion des = new Seccion(canal, m, s[0], s[1] - s[0]);
+            for (int v = 0; v <= n; v++)
+                des.putInt(v, d[v]);
+            Seccion dst = new Seccion(canal, m, s[1], s[2] - s[1]);
+            Seccion pes = new Seccion(canal, m, s[2], s[3] - s[2]);
+            for (int a = 0; a < arcos; a++) {
+                dst.putInt(a, ds[a]);
+                pes.putDouble(a, ps[a]);
+            }
+            Seccion tab = new Seccion(canal, m, s[3], s[4] - s[3]);
+            Seccion ini = new Seccion(canal, m, s[4], s[5] - s[4]);
+            Seccion byt = new Seccion(canal, m, s[5], s[6] - s[5]);
+            long p = 0;
+            for (int v = 0; v < n; v++) {
+                byte[] b = codificados[v];
+                ini.putLong(v, p);
+                for (int i = 0; i < b.length; i++)
+                    byt.put(p + i, b[i]);
+                p += b.length;
+                int h = Dispersores.dispersaBJ(b) & (capacidad - 1);
+                while (tab.getInt(h) != 0)
+                    h = (h + 1) & (capacidad - 1);
+                tab.putInt(h, v + 1);
+            }
+            ini.putLong(n, p);
+            for (Seccion x : new Seccion[] { e, des, dst, pes, tab, ini, byt })
+                x.sincroniza();
+        }
+    }
+
+    /* Regresa el tamaño mínimo de cada sección. */
+    private static long[] tamanos(int n, int arcos, int capacidad,
+                                  long bytesElementos) {
+        return new long[] { 4L * (n + 1), 4L * arcos, 8L * arcos,
+                            4L * capacidad, 8L * (n + 1), bytesElementos };
+    }
+
+    /* Regresa la posición de cada sección y la del fin del archivo, con cada
+     * sección alineada a 8 bytes. */
+    private static long[] posiciones(long[] tamanos) {
+        long[] s = new long[SECCIONES + 1];
+        s[0] = BYTES_ENCABEZADO;
+        for (int i = 0; i < SECCIONES; i++)
+            s[i+1] = (s[i] + tamanos[i] + 7) & ~7L;
+        return s;
+    }
+
+    /**
+     * Regresa el número de vértices en la gráfica.
+     * @return el número de vértices en la gráfica.
+     */
+    public int getElementos() {
+        return n;
+    }
+
+    /**
+     * Regresa el número de aristas en la gráfica.
+     * @return el número de aristas en la gráfica.
+     */
+    public int getAristas() {
+        return arcos / 2;
+    }
+
+    /**
+     * Nos dice si la gráfica es vacía.
+     * @return <code>true</code> si la gráfica es vacía, <code>false</code> en
+     *         otro caso.
+     */
+    public boolean esVacia() {
+        return n == 0;
+    }
+
+    /**
+     * Nos dice si el elemento está en la gráfica.
+     * @param elemento el elemento.
+     * @return <code>true</code> si el elemento está en la gráfica,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(T elemento) {
+        return busca(elemento) != -1;
+    }
+
+    /**
+     * Regresa el índice del vértice del elemento recibido.
+     * @param elemento el elemento.
+     * @return el índice del vértice del elemento.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public int indice(T elemento) {
+        int v = busca(elemento);
+        if (v == -1)
+            throw new NoSuchElementException();
+        return v;
+    }
+
+    /**
+     * Regresa el elemento del vértice con el índice recibido. El elemento se
+     * decodifica en cada llamada.
+     * @param indice el índice del vértice.
+     * @return el elemento del vértice.
+     * @throws ExcepcionIndiceInvalido si el índice es inválido.
+     */
+    public T get(int indice) {
+        checaIndice(indice);
+        return elemento(indice);
+    }
+
+    /**
+     * Regresa el grado del vértice con el índice recibido.
+     * @param indice el índice del vértice.
+     * @return el grado del vértice.
+     * @throws ExcepcionIndiceInvalido si el índice es inválido.
+     */
+    public int getGrado(int indice) {
+        checaIndice(indice);
+        return desplazamientos.getInt(indice + 1) -
+            desplazamientos.getInt(indice);
+    }
+
+    /**
+     * Regresa el índice del <i>i</i>-ésimo vecino del vértice recibido. Los
+     * vecinos están ordenados por índice.
+     * @param indice el índice del vértice.
+     * @param i el número de vecino, entre 0 y el grado del vértice.
+     * @return el índice del <i>i</i>-ésimo vecino.
+     * @throws ExcepcionIndiceInvalido si alguno de los índices es inválido.
+     */
+    public int getVecino(int indice, int i) {
+        return destinos.getInt(arco(indice, i));
+    }
+
+    /**
+     * Regresa el peso de la arista al <i>i</i>-ésimo vecino del vértice
+     * recibido.
+     * @param indice el índice del vértice.
+     * @param i el número de vecino, entre 0 y el grado del vértice.
+     * @return el peso de la arista al <i>i</i>-ésimo vecino.
+     * @throws ExcepcionIndiceInvalido si alguno de los índices es inválido.
+     */
+    public double getPeso(int indice, int i) {
+        return pesos.getDouble(arco(indice, i));
+    }
+
+    /**
+     * Nos dice si dos vértices son vecinos, en tiempo logarítmico en el grado
+     * del primero.
+     * @param a el índice del primer vértice.
+     * @param b el índice del segundo vértice.
+     * @return <code>true</code> si los vértices son vecinos,
+     *         <code>false</code> en otro caso.
+     * @throws ExcepcionIndiceInvalido si alguno de los índices es inválido.
+     */
+    public boolean sonVecinos(int a, int b) {
+        checaIndice(a);
+        checaIndice(b);
+        int i = desplazamientos.getInt(a);
+        int j = desplazamientos.getInt(a + 1) - 1;
+        while (i <= j) {
+            int m = (i + j) >>> 1;
+            int d = destinos.getInt(m);
+            if (d == b)
+                return true;
+            if (d < b)
+                i = m + 1;
+            else
+                j = m - 1;
+        }
+        return false;
+    }
+
+    /**
+     * Realiza la acción recibida en los índices de los vértices alcanzables
+     * desde el elemento recibido, en el orden determinado por BFS.
+     * @param elemento el elemento sobre cuyo vértice comienza el recorrido.
+     * @param accion la acción a realizar.
+     * @throws NoSuchElementException si el elemento no está en la gráfica.
+     */
+    public void bfs(T elemento, AccionIndiceGrafica accion) {
+        int[] cola = new int[n];
+        boolean[] visitados = new boolean[n];
+        int cabeza = 0, rabo = 0;
+        int s = indice(elemento);
+        visitados[s] = true;
+        cola[rabo++] = s;
+        while (cabeza < rabo) {
+            int u = cola[cabeza++];
+            accion.actua(u);
+            int fin = desplazamientos.getInt(u + 1);
+            for (int a = desplazamientos.getInt(u); a < fin; a++) {
+                int v = destinos.getInt(a);
+                if (!visitados[v]) {
+                    visitados[v] = true;
+                    cola[rabo++] = v;
+                }
+            }
+        }
+    }
+
+    /**
+     * Calcula una trayectoria de peso mínimo entre dos elementos. El
+     * algoritmo se detiene en cuanto el destino sale del montículo.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @return una lista con los elementos de una trayectoria de peso mínimo
+     *         entre <code>origen</code> y <code>destino</code>. Si los
+     *         elementos están en componentes conexas distintas, regresa una
+     *         lista vacía.
+     * @throws NoSuchElementException si alguno de los dos elementos no está en
+     *         la gráfica.
+     */
+    public Lista<T> dijkstra(T origen, T destino) {
+        int s = indice(origen);
+        int t = indice(destino);
+        int[] predecesores = new int[n];
+        for (int i = 0; i < n; i++)
+            predecesores[i] = -1;
+        boolean[] fijos = new boolean[n];
+        MonticuloIndices m = new MonticuloIndices(n);
+        predecesores[s] = s;
+        m.agrega(s, 0);
+        while (!m.esVacia()) {
+            int u = m.elimina();
+            if (u == t)
+                break;
+            fijos[u] = true;
+            double d = m.getLlave(u);
+            int fin = desplazamientos.getInt(u + 1);
+            for (int a = desplazamientos.getInt(u); a < fin; a++) {
+                int v = destinos.getInt(a);
+                if (fijos[v])
+                    continue;
+                double nueva = d + pesos.getDouble(a);
+                if (predecesores[v] == -1 || nueva < m.getLlave(v)) {
+                    predecesores[v] = u;
+                    m.agrega(v, nueva);
+                }
+            }
+        }
+        Lista<T> l = new Lista<T>();
+        if (predecesores[t] == -1)
+            return l;
+        while (t != s) {
+            l.agregaInicio(elemento(t));
+            t = predecesores[t];
+        }
+        l.agregaInicio(elemento(s));
+        return l;
+    }
+
+    /* Regresa el índice del elemento, o -1 si no está. */
+    private int busca(T elemento) {
+        byte[] b = codificador.codifica(elemento);
+        int h = Dispersores.dispersaBJ(b) & (capacidad - 1);
+        while (true) {
+            int v = tabla.getInt(h) - 1;
+            if (v == -1)
+                return -1;
+            if (iguales(v, b))
+                return v;
+            h = (h + 1) & (capacidad - 1);
+        }
+    }
+
+    /* Nos dice si los bytes del elemento v son los recibidos. */
+    private boolean iguales(int v, byte[] b) {
+        long p = inicios.getLong(v);
+        if (inicios.getLong(v + 1) - p != b.length)
+            return false;
+        for (int i = 0; i < b.length; i++)
+            if (bytes.get(p + i) != b[i])
+                return false;
+        return true;
+    }
+
+    /* Decodifica el elemento del vértice v. */
+    private T elemento(int v) {
+        long p = inicios.getLong(v);
+        byte[] b = new byte[(int)(inicios.getLong(v + 1) - p)];
+        for (int i = 0; i < b.length; i++)
+            b[i] = bytes.get(p + i);
+        return codificador.decodifica(b);
+    }
+
+    /* Regresa la posición del i-ésimo arco del vértice. */
+    private int arco(int indice, int i) {
+        checaIndice(indice);
+        int a = desplazamientos.getInt(indice);
+        if (i < 0 || i >= desplazamientos.getInt(indice + 1) - a)
+            throw new ExcepcionIndiceInvalido();
+        return a + i;
+    }
+
+    private void checaIndice(int indice) {
+        if (indice < 0 || indice >= n)
+            throw new ExcepcionIndiceInvalido();
+    }
+}
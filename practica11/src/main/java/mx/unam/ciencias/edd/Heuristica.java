@@ -0,0 +1,21 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para heurísticas de búsqueda en gráficas. Una heurística estima el
+ * peso de una trayectoria mínima entre dos elementos de una gráfica; para que
+ * el algoritmo A* encuentre trayectorias mínimas, la estimación nunca debe ser
+ * mayor que el peso real (debe ser <em>admisible</em>).
+ */
+@FunctionalInterface
+public interface Heuristica<T> {
+
+    /**
+     * Regresa una cota inferior del peso de una trayectoria mínima entre los
+     * elementos recibidos.
+     * @param elemento el elemento desde donde se estima.
+     * @param destino el elemento de destino.
+     * @return una cota inferior no negativa del peso de una trayectoria mínima
+     *         del elemento al destino.
+     */
+    public double estima(T elemento, T destino);
+}
@@ -0,0 +1,209 @@
+package mx.unam.ciencias.edd;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * <p>Clase para índices de marcas (<i>landmarks</i>) sobre gráficas con
+ * pesos. El índice escoge <i>k</i> vértices de la gráfica como marcas, lejanos
+ * entre sí, y guarda la distancia de cada vértice a cada marca. Por la
+ * desigualdad del triángulo, para cualquier marca <i>m</i> el peso de una
+ * trayectoria mínima entre <i>a</i> y <i>b</i> es al menos
+ * |<i>d</i>(<i>m</i>, <i>a</i>) − <i>d</i>(<i>m</i>, <i>b</i>)|; el índice
+ * es una {@link Heuristica} admisible para {@link Grafica#aEstrella}, mucho
+ * más informada que la constante cero, y ocupa sólo <i>k</i> × <i>n</i>
+ * números de punto flotante.</p>
+ *
+ * <p>El índice se calcula sobre una copia compacta de la gráfica, pero sólo
+ * conserva el índice de cada elemento y las distancias a las marcas; la copia
+ * se descarta en cuanto termina el cálculo. Si después cambian los pesos de
+ * la gráfica, hay que reconstruirlo. Mientras se reconstruye en segundo
+ * plano, las estimaciones siguen usando el índice anterior, que sigue siendo
+ * admisible si los pesos sólo aumentaron.</p>
+ */
+public class IndiceMarcas<T> implements Heuristica<T> {
+
+    /* Clase interna privada para el estado inmutable del índice. */
+    private static class Marcas<T> {
+
+        /* El índice de cada elemento. */
+        public Diccionario<T, Integer> indices;
+        /* Los elementos de las marcas. */
+        public T[] marcas;
+        /* La distancia del vértice v a la marca i, en v*k + i. */
+        public double[] distancias;
+
+        /* Crea un estado. */
+        public Marcas(Diccionario<T, Integer> indices, T[] marcas,
+                      double[] distancias) {
+            this.indices = indices;
+            this.marcas = marcas;
+            this.distancias = distancias;
+        }
+    }
+
+    /* La gráfica. */
+    private Grafica<T> grafica;
+    /* El número de marcas pedidas. */
+    private int k;
+    /* El estado actual del índice. */
+    private volatile Marcas<T> marcas;
+
+    /**
+     * Construye un índice con <i>k</i> marcas para la gráfica recibida. Si la
+     * gráfica tiene menos de <i>k</i> vértices, todos son marcas.
+     * @param grafica la gráfica.
+     * @param k el número de marcas.
+     * @throws IllegalArgumentException si k es menor que uno.
+     */
+    public IndiceMarcas(Grafica<T> grafica, int k) {
+        if (k < 1)
+            throw new IllegalArgumentException();
+        this.grafica = grafica;
+        this.k = k;
+        reconstruye();
+    }
+
+    /**
+     * Regresa el número de marcas del índice.
+     * @return el número de marcas del índice.
+     */
+    public int getMarcas() {
+        return marcas.marcas.length;
+    }
+
+    /**
+     * Regresa el elemento de la <i>i</i>-ésima marca.
+     * @param i el índice de la marca.
+     * @return el elemento de la marca.
+     * @throws ExcepcionIndiceInvalido si el índice no es válido.
+     */
+    public T getMarca(int i) {
+        Marcas<T> m = marcas;
+        if (i < 0 || i >= m.marcas.length)
+            throw new ExcepcionIndiceInvalido();
+        return m.marcas[i];
+    }
+
+    /**
+     * Regresa una cota inferior del peso de una trayectoria mínima entre los
+     * elementos: el máximo sobre las marcas de la diferencia de sus
+     * distancias a cada elemento. Si alguno de los elementos no estaba en la
+     * gráfica cuando se construyó el índice, regresa cero.
+     * @param elemento el elemento desde donde se estima.
+     * @param destino el elemento de destino.
+     * @return una cota inferior del peso de una trayectoria mínima entre los
+     *         elementos.
+     */
+    @Override public double estima(T elemento, T destino) {
+        Marcas<T> m = marcas;
+        if (!m.indices.contiene(elemento) || !m.indices.contiene(destino))
+            return 0;
+        int n = m.marcas.length;
+        int a = m.indices.get(elemento) * n;
+        int b = m.indices.get(destino) * n;
+        double cota = 0;
+        for (int i = 0; i < n; i++) {
+            double da = m.distancias[a + i];
+            double db = m.distancias[b + i];
+            /* Una marca en otra componente no da información. */
+            if (da == Double.POSITIVE_INFINITY ||
+                db == Double.POSITIVE_INFINITY)
+                continue;
+            cota = Math.max(cota, Math.abs(da - db));
+        }
+        return cota;
+    }
+
+    /**
+     * Calcula una trayectoria mínima entre dos elementos con {@link
+     * Grafica#aEstrella}, usando el índice como heurística.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @return una trayectoria de peso mínimo entre los elementos, o una lista
+     *         vacía si están en componentes conexas distintas.
+     * @throws java.util.NoSuchElementException si alguno de los dos elementos
+     *         no está en la gráfica.
+     */
+    public Lista<VerticeGrafica<T>> trayectoria(T origen, T destino) {
+        return grafica.aEstrella(origen, destino, this);
+    }
+
+    /**
+     * Reconstruye el índice con los pesos actuales de la gráfica.
+     */
+    public void reconstruye() {
+        marcas = calcula(grafica.congela(), k);
+    }
+
+    /**
+     * Reconstruye el índice en segundo plano con los pesos actuales de la
+     * gráfica. La copia de la gráfica se hace en el hilo que llama al método,
+     * así que la gráfica puede modificarse en cuanto el método regresa; el
+     * índice anterior se sigue usando hasta que termina la reconstrucción.
+     * Si algún peso disminuyó desde que se calculó el índice anterior, éste
+     * ya no es admisible: hasta que el nuevo índice esté en uso, {@link
+     * #estima} puede sobrestimar, y {@link #trayectoria} o {@link
+     * Grafica#aEstrella} pueden regresar trayectorias que no son de peso
+     * mínimo. Para resultados óptimos después de disminuir pesos, hay que
+     * esperar al {@link Future} o usar {@link #reconstruye}.
+     * @return un {@link Future} que termina cuando el nuevo índice está en
+     *         uso.
+     */
+    public Future<?> reconstruyeEnSegundoPlano() {
+        GraficaCSR<T> copia = grafica.congela();
+        return ForkJoinPool.commonPool().submit(() -> {
+                marcas = calcula(copia, k);
+            });
+    }
+
+    /* Escoge las marcas lejanas entre sí: cada marca es el vértice más
+     * lejano de las marcas anteriores, comenzando por el más lejano del
+     * vértice cero. Los vértices de otras componentes son los más lejanos,
+     * así que cada componente recibe una marca antes que cualquier otra
+     * recibe la segunda. */
+    private static <T> Marcas<T> calcula(GraficaCSR<T> grafica, int k) {
+        int n = grafica.getElementos();
+        k = Math.min(k, n);
+        int[] marcas = new int[k];
+        double[] distancias = new double[k * n];
+        if (k == 0)
+            return estado(grafica, marcas, distancias);
+        MonticuloIndices m = new MonticuloIndices(n);
+        double[] d = new double[n];
+        double[] minimas = new double[n];
+        grafica.distancias(0, d, m);
+        marcas[0] = masLejano(d);
+        for (int v = 0; v < n; v++)
+            minimas[v] = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < k; i++) {
+            if (i > 0)
+                marcas[i] = masLejano(minimas);
+            grafica.distancias(marcas[i], d, m);
+            for (int v = 0; v < n; v++) {
+                distancias[v * k + i] = d[v];
+                minimas[v] = Math.min(minimas[v], d[v]);
+            }
+        }
+        return estado(grafica, marcas, distancias);
+    }
+
+    /* Crea el estado con los índices de los elementos, los elementos de las
+     * marcas y las distancias; no conserva la copia de la gráfica. */
+    private static <T> Marcas<T> estado(GraficaCSR<T> grafica, int[] marcas,
+                                        double[] distancias) {
+        @SuppressWarnings("unchecked") T[] e = (T[])new Object[marcas.length];
+        for (int i = 0; i < marcas.length; i++)
+            e[i] = grafica.get(marcas[i]);
+        return new Marcas<T>(grafica.getIndices(), e, distancias);
+    }
+
+    /* Regresa el índice con la mayor distancia. */
+    private static int masLejano(double[] d) {
+        int r = 0;
+        for (int v = 1; v < d.length; v++)
+            if (d[v] > d[r])
+                r = v;
+        return r;
+    }
+}
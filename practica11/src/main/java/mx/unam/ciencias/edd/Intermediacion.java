@@ -0,0 +1,299 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Random;
+
+/**
+ * <p>Clase para calcular la intermediación (<i>betweenness centrality</i>) de
+ * los vértices de una {@link GraficaCSR} con el algoritmo de Brandes. La
+ * intermediación de un vértice <i>v</i> es la suma, sobre todos los pares de
+ * vértices <i>s</i> ≠ <i>v</i> ≠ <i>t</i>, de la fracción de trayectorias
+ * mínimas entre <i>s</i> y <i>t</i> que pasan por <i>v</i>. Como la gráfica
+ * no es dirigida, cada par se cuenta una sola vez.</p>
+ *
+ * <p>Las trayectorias mínimas se miden en saltos con BFS, o con los pesos de
+ * las aristas con el algoritmo de Dijkstra. Los orígenes se reparten en
+ * pedazos entre los hilos; cada pedazo tiene sus propios arreglos y su propio
+ * acumulador, y los acumuladores se suman al final, así que ningún hilo
+ * escribe en los arreglos de otro.</p>
+ *
+ * <p>Para gráficas muy grandes se puede usar sólo una muestra aleatoria de
+ * orígenes; el resultado se escala para que sea un estimador sin sesgo de la
+ * intermediación exacta.</p>
+ */
+public class Intermediacion<T> {
+
+    /**
+     * Enumeración para la manera de medir las trayectorias.
+     */
+    public enum Distancia {
+        /** Las trayectorias se miden en número de aristas. */
+        SALTOS,
+        /** Las trayectorias se miden con los pesos de las aristas. */
+        PESOS;
+    }
+
+    /* Clase interna privada para los arreglos de trabajo de un pedazo de
+     * orígenes. */
+    private static class Trabajo {
+
+        /* La distancia de cada vértice al origen. */
+        private double[] distancias;
+        /* El número de trayectorias mínimas del origen a cada vértice. */
+        private double[] trayectorias;
+        /* La dependencia de cada vértice. */
+        private double[] dependencias;
+        /* Los vértices en el orden en que se alcanzan. */
+        private int[] orden;
+        /* El montículo para Dijkstra. */
+        private MonticuloIndices monticulo;
+        /* La intermediación acumulada por el pedazo. */
+        private double[] acumulador;
+
+        /* Crea los arreglos de trabajo para n vértices. */
+        public Trabajo(int n, Distancia distancia) {
+            distancias = new double[n];
+            trayectorias = new double[n];
+            dependencias = new double[n];
+            orden = new int[n];
+            acumulador = new double[n];
+            for (int v = 0; v < n; v++)
+                distancias[v] = Double.POSITIVE_INFINITY;
+            if (distancia == Distancia.PESOS)
+                monticulo = new MonticuloIndices(n);
+        }
+    }
+
+    /* La gráfica. */
+    private GraficaCSR<T> grafica;
+    /* La manera de medir las trayectorias. */
+    private Distancia distancia;
+    /* La intermediación de cada vértice. */
+    private double[] intermediaciones;
+    /* El número de orígenes usados. */
+    private int origenes;
+
+    /**
+     * Calcula la intermediación exacta, usando todos los vértices como
+     * orígenes.
+     * @param grafica la gráfica.
+     * @param distancia la manera de medir las trayectorias.
+     */
+    public Intermediacion(GraficaCSR<T> grafica, Distancia distancia) {
+        this.grafica = grafica;
+        this.distancia = distancia;
+        int n = grafica.getElementos();
+        int[] fuentes = new int[n];
+        for (int v = 0; v < n; v++)
+            fuentes[v] = v;
+        calcula(fuentes);
+    }
+
+    /**
+     * Aproxima la intermediación usando como orígenes una muestra aleatoria
+     * de vértices distintos. Si la muestra es de todos los vértices el
+     * resultado es exacto.
+     * @param grafica la gráfica.
+     * @param distancia la manera de medir las trayectorias.
+     * @param muestras el número de orígenes a usar.
+     * @param random el generador de números aleatorios.
+     * @throws IllegalArgumentException si el número de muestras es menor que
+     *         uno.
+     */
+    public Intermediacion(GraficaCSR<T> grafica, Distancia distancia,
+                          int muestras, Random random) {
+        if (muestras < 1)
+            throw new IllegalArgumentException();
+        this.grafica = grafica;
+        this.distancia = distancia;
+        int n = grafica.getElementos();
+        int k = Math.min(muestras, n);
+        int[] vertices = new int[n];
+        for (int v = 0; v < n; v++)
+            vertices[v] = v;
+        for (int i = 0; i < k; i++) {
+            int j = i + random.nextInt(n - i);
+            int t = vertices[i];
+            vertices[i] = vertices[j];
+            vertices[j] = t;
+        }
+        int[] fuentes = new int[k];
+        System.arraycopy(vertices, 0, fuentes, 0, k);
+        calcula(fuentes);
+    }
+
+    /* Acumula las dependencias desde cada origen y junta los acumuladores. */
+    private void calcula(int[] fuentes) {
+        int n = grafica.getElementos();
+        int k = fuentes.length;
+        origenes = k;
+        intermediaciones = new double[n];
+        if (k == 0)
+            return;
+        int piezas = Math.min(k, 2 * Paralelo.getHilos());
+        Trabajo[] trabajos = new Trabajo[piezas];
+        Paralelo.paraCada(0, piezas, 1, (a, b) -> {
+                for (int p = a; p < b; p++) {
+                    Trabajo t = new Trabajo(n, distancia);
+                    for (int i = (int)((long)p * k / piezas);
+                         i < (int)((long)(p + 1) * k / piezas); i++)
+                        if (distancia == Distancia.SALTOS)
+                            acumulaSaltos(fuentes[i], t);
+                        else
+                            acumulaPesos(fuentes[i], t);
+                    trabajos[p] = t;
+                }
+            });
+        double escala = (double)n / k / 2;
+        Paralelo.paraCada(0, n, (a, b) -> {
+                for (int v = a; v < b; v++) {
+                    double s = 0;
+                    for (Trabajo t : trabajos)
+                        s += t.acumulador[v];
+                    intermediaciones[v] = s * escala;
+                }
+            });
+    }
+
+    /* Acumula las dependencias desde el origen, midiendo en saltos. */
+    private void acumulaSaltos(int s, Trabajo t) {
+        int[] desplazamientos = grafica.getDesplazamientos();
+        int[] destinos = grafica.getDestinos();
+        double[] d = t.distancias;
+        double[] sigma = t.trayectorias;
+        int[] orden = t.orden;
+        int cabeza = 0, rabo = 0;
+        d[s] = 0;
+        sigma[s] = 1;
+        orden[rabo++] = s;
+        while (cabeza < rabo) {
+            int u = orden[cabeza++];
+            double du = d[u] + 1;
+            for (int e = desplazamientos[u]; e < desplazamientos[u+1]; e++) {
+                int v = destinos[e];
+                if (d[v] == Double.POSITIVE_INFINITY) {
+                    d[v] = du;
+                    orden[rabo++] = v;
+                }
+                if (d[v] == du)
+                    sigma[v] += sigma[u];
+            }
+        }
+        acumulaDependencias(s, rabo, null, t);
+    }
+
+    /* Acumula las dependencias desde el origen, midiendo con los pesos. */
+    private void acumulaPesos(int s, Trabajo t) {
+        int[] desplazamientos = grafica.getDesplazamientos();
+        int[] destinos = grafica.getDestinos();
+        double[] pesos = grafica.getPesos();
+        double[] d = t.distancias;
+        double[] sigma = t.trayectorias;
+        int[] orden = t.orden;
+        MonticuloIndices m = t.monticulo;
+        int alcanzados = 0;
+        d[s] = 0;
+        sigma[s] = 1;
+        m.agrega(s, 0);
+        while (!m.esVacia()) {
+            int u = m.elimina();
+            orden[alcanzados++] = u;
+            double du = d[u];
+            for (int e = desplazamientos[u]; e < desplazamientos[u+1]; e++) {
+                int v = destinos[e];
+                double nueva = du + pesos[e];
+                if (nueva < d[v]) {
+                    d[v] = nueva;
+                    sigma[v] = sigma[u];
+                    m.agrega(v, nueva);
+                } else if (nueva == d[v]) {
+                    sigma[v] += sigma[u];
+                }
+            }
+        }
+        acumulaDependencias(s, alcanzados, pesos, t);
+    }
+
+    /* Recorre los vértices alcanzados en orden inverso y acumula en cada uno
+     * la dependencia de sus sucesores en las trayectorias mínimas; al final
+     * deja los arreglos de trabajo limpios. Si no hay pesos, cada arista
+     * mide uno. */
+    private void acumulaDependencias(int s, int alcanzados, double[] pesos,
+                                     Trabajo t) {
+        int[] desplazamientos = grafica.getDesplazamientos();
+        int[] destinos = grafica.getDestinos();
+        double[] d = t.distancias;
+        double[] sigma = t.trayectorias;
+        double[] delta = t.dependencias;
+        int[] orden = t.orden;
+        for (int i = alcanzados - 1; i >= 0; i--) {
+            int u = orden[i];
+            double du = d[u];
+            double x = 0;
+            for (int e = desplazamientos[u]; e < desplazamientos[u+1]; e++) {
+                int v = destinos[e];
+                if (du + (pesos == null ? 1 : pesos[e]) == d[v])
+                    x += (1 + delta[v]) / sigma[v];
+            }
+            delta[u] = sigma[u] * x;
+            if (u != s)
+                t.acumulador[u] += delta[u];
+        }
+        for (int i = 0; i < alcanzados; i++) {
+            int u = orden[i];
+            d[u] = Double.POSITIVE_INFINITY;
+            sigma[u] = 0;
+            delta[u] = 0;
+        }
+    }
+
+    /**
+     * Regresa el número de orígenes que se usaron.
+     * @return el número de orígenes que se usaron.
+     */
+    public int getOrigenes() {
+        return origenes;
+    }
+
+    /**
+     * Nos dice si la intermediación es exacta, es decir, si se usaron todos
+     * los vértices como orígenes.
+     * @return <code>true</code> si la intermediación es exacta,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esExacta() {
+        return origenes == grafica.getElementos();
+    }
+
+    /**
+     * Regresa la intermediación del vértice con el índice recibido.
+     * @param indice el índice del vértice.
+     * @return la intermediación del vértice.
+     * @throws ExcepcionIndiceInvalido si el índice no es válido.
+     */
+    public double getIntermediacion(int indice) {
+        if (indice < 0 || indice >= intermediaciones.length)
+            throw new ExcepcionIndiceInvalido();
+        return intermediaciones[indice];
+    }
+
+    /**
+     * Regresa la intermediación del vértice del elemento recibido.
+     * @param elemento el elemento.
+     * @return la intermediación del vértice del elemento.
+     * @throws java.util.NoSuchElementException si el elemento no está en la
+     *         gráfica.
+     */
+    public double getIntermediacion(T elemento) {
+        return intermediaciones[grafica.indice(elemento)];
+    }
+
+    /**
+     * Regresa una copia de las intermediaciones, por índice.
+     * @return una copia de las intermediaciones.
+     */
+    public double[] getIntermediaciones() {
+        double[] c = new double[intermediaciones.length];
+        System.arraycopy(intermediaciones, 0, c, 0, c.length);
+        return c;
+    }
+}
@@ -0,0 +1,649 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para jerarquías de contracciones sobre gráficas con pesos. Una
+ * jerarquía se construye una sola vez a partir de una {@link Grafica}:
+ * los vértices se contraen en orden de importancia, y cada vez que
+ * contraer un vértice destruiría una trayectoria mínima entre dos de sus
+ * vecinos, se agrega un <em>atajo</em> entre ellos. Después, las consultas
+ * de distancia y trayectoria mínima entre dos vértices sólo exploran aristas
+ * que suben en la jerarquía, con una búsqueda bidireccional que visita unos
+ * cuantos cientos de vértices aun en gráficas muy grandes.</p>
+ *
+ * <p>La construcción es en paralelo: en cada ronda se calculan en paralelo
+ * las prioridades de los vértices afectados, se escoge un conjunto
+ * independiente de vértices con prioridad mínima en su vecindad, y se
+ * calculan en paralelo los atajos de todos ellos.</p>
+ *
+ * <p>La jerarquía guarda su propia copia compacta de la gráfica al
+ * construirse, así que responde sobre la gráfica tal como era en ese
+ * momento; si la gráfica cambia, hay que construir otra jerarquía. Las
+ * consultas se pueden hacer desde varios hilos a la vez.</p>
+ */
+public class JerarquiaContracciones<T> {
+
+    /* Clase interna privada para búsquedas. Se reutilizan entre búsquedas
+     * marcando con una época los vértices vistos, para no reiniciar arreglos
+     * de tamaño n. */
+    private static class Busqueda {
+
+        /* El montículo de la búsqueda. */
+        public MonticuloIndices monticulo;
+        /* La época en que se vio cada vértice. */
+        public int[] epocas;
+        /* La época actual. */
+        public int epoca;
+        /* La distancia de cada vértice visto. */
+        public double[] distancias;
+        /* El arco con el que se llegó a cada vértice visto. */
+        public int[] arcos;
+        /* La época en que cada vértice fue objetivo de una búsqueda. */
+        public int[] objetivos;
+
+        /* Crea una nueva búsqueda para n vértices. */
+        public Busqueda(int n) {
+            monticulo = new MonticuloIndices(n);
+            epocas = new int[n];
+            distancias = new double[n];
+            arcos = new int[n];
+            objetivos = new int[n];
+        }
+
+        /* Comienza una nueva búsqueda. */
+        public void inicia() {
+            monticulo.limpia();
+            epoca++;
+        }
+
+        /* Nos dice si el vértice ya se vio en esta búsqueda. */
+        public boolean visto(int v) {
+            return epocas[v] == epoca;
+        }
+
+        /* Visita o mejora al vértice. */
+        public void visita(int v, double distancia, int arco) {
+            epocas[v] = epoca;
+            distancias[v] = distancia;
+            arcos[v] = arco;
+            monticulo.agrega(v, distancia);
+        }
+    }
+
+    /* Clase interna privada para las búsquedas de la construcción. Cada
+     * pedazo en paralelo toma una búsqueda que nadie más usa y la devuelve
+     * al terminar, así que hay a lo más una por pedazo que corre a la vez, y
+     * todas se liberan cuando termina la construcción. */
+    private static class Reserva {
+
+        /* Las búsquedas libres. */
+        private Pila<Busqueda> libres;
+        /* El número de vértices. */
+        private int n;
+
+        /* Crea una reserva vacía para n vértices. */
+        public Reserva(int n) {
+            libres = new Pila<Busqueda>();
+            this.n = n;
+        }
+
+        /* Regresa una búsqueda libre, creándola si no hay. */
+        public synchronized Busqueda toma() {
+            return libres.esVacia() ? new Busqueda(n) : libres.saca();
+        }
+
+        /* Devuelve una búsqueda a la reserva. */
+        public synchronized void devuelve(Busqueda busqueda) {
+            libres.mete(busqueda);
+        }
+    }
+
+    /* Clase interna privada para los atajos de un vértice. */
+    private static class Atajos {
+
+        /* Los extremos de los atajos. */
+        public int[] a, b;
+        /* Los pesos de los atajos. */
+        public double[] pesos;
+        /* El número de atajos. */
+        public int elementos;
+
+        /* Crea una lista vacía de atajos. */
+        public Atajos() {
+            a = new int[4];
+            b = new int[4];
+            pesos = new double[4];
+        }
+
+        /* Agrega un atajo. */
+        public void agrega(int u, int w, double peso) {
+            if (elementos == a.length) {
+                a = copia(a, 2 * elementos);
+                b = copia(b, 2 * elementos);
+                pesos = copia(pesos, 2 * elementos);
+            }
+            a[elementos] = u;
+            b[elementos] = w;
+            pesos[elementos++] = peso;
+        }
+    }
+
+    /* Máximo número de vértices que fija una búsqueda de testigos. */
+    private static final int LIMITE_TESTIGOS = 256;
+    /* Máximo número de vértices que fija una búsqueda de testigos al sólo
+     * estimar la prioridad de un vértice; un atajo de más sólo empeora un
+     * poco la estimación. */
+    private static final int LIMITE_PRIORIDAD = 16;
+
+    /* Los vértices de la gráfica original, por índice. */
+    private VerticeGrafica<T>[] vertices;
+    /* La gráfica compacta con los índices de los elementos. */
+    private GraficaCSR<T> grafica;
+    /* El rango de cada vértice en la jerarquía. */
+    private int[] rangos;
+    /* Dónde comienzan los arcos ascendentes de cada vértice. */
+    private int[] desplazamientos;
+    /* El destino de cada arco ascendente. */
+    private int[] destinos;
+    /* El peso de cada arco ascendente. */
+    private double[] pesos;
+    /* El vértice que un atajo se salta, o -1 si el arco es una arista. */
+    private int[] medios;
+    /* El número de atajos en la jerarquía. */
+    private int atajos;
+    /* Las búsquedas de cada hilo que hace consultas; se crean en la primera
+     * consulta del hilo. */
+    private ThreadLocal<Busqueda[]> busquedas;
+
+    /* La gráfica dinámica durante la construcción: vecinos, pesos y medios
+     * de cada vértice; los vértices contraídos se ignoran. */
+    private int[][] dVecinos;
+    private double[][] dPesos;
+    private int[][] dMedios;
+    private int[] dGrados;
+    /* Cuáles vértices ya se contrajeron o se están contrayendo. */
+    private boolean[] contraidos;
+
+    /**
+     * Construye la jerarquía de contracciones de la gráfica recibida.
+     * @param grafica la gráfica.
+     */
+    public JerarquiaContracciones(Grafica<T> grafica) {
+        this.grafica = grafica.congela();
+        int n = this.grafica.getElementos();
+        vertices = nuevoArreglo(n);
+        for (int i = 0; i < n; i++)
+            vertices[i] = grafica.vertice(this.grafica.get(i));
+        construye();
+        busquedas = ThreadLocal.withInitial(() ->
+            new Busqueda[] { new Busqueda(n), new Busqueda(n) });
+    }
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked")
+    private VerticeGrafica<T>[] nuevoArreglo(int n) {
+        return (VerticeGrafica<T>[])new VerticeGrafica[n];
+    }
+
+    /**
+     * Regresa el número de atajos que se agregaron al construir la jerarquía.
+     * @return el número de atajos de la jerarquía.
+     */
+    public int getAtajos() {
+        return atajos;
+    }
+
+    /**
+     * Regresa el rango del elemento en la jerarquía; los elementos con rango
+     * mayor se contrajeron después.
+     * @param elemento el elemento.
+     * @return el rango del elemento.
+     * @throws java.util.NoSuchElementException si el elemento no está en la
+     *         jerarquía.
+     */
+    public int getRango(T elemento) {
+        return rangos[grafica.indice(elemento)];
+    }
+
+    /**
+     * Regresa el peso de una trayectoria mínima entre dos elementos. Es el
+     * mismo peso que el de la trayectoria que regresa {@link
+     * Grafica#dijkstra(Object,Object)} en la gráfica original salvo por
+     * redondeo: los atajos suman los pesos en otro orden que Dijkstra, así
+     * que con pesos fraccionarios los resultados pueden diferir en unos
+     * cuantos ulp; con pesos enteros son idénticos.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @return el peso de una trayectoria mínima entre los elementos, o {@link
+     *         Double#POSITIVE_INFINITY} si están en componentes conexas
+     *         distintas.
+     * @throws java.util.NoSuchElementException si alguno de los elementos no
+     *         está en la jerarquía.
+     */
+    public double distancia(T origen, T destino) {
+        Busqueda[] b = busquedas.get();
+        int x = consulta(grafica.indice(origen), grafica.indice(destino), b);
+        if (x == -1)
+            return Double.POSITIVE_INFINITY;
+        return b[0].distancias[x] + b[1].distancias[x];
+    }
+
+    /**
+     * Regresa una trayectoria mínima entre dos elementos, con los vértices de
+     * la gráfica original.
+     * @param origen el elemento de origen.
+     * @param destino el elemento de destino.
+     * @return una lista con los vértices de una trayectoria mínima entre los
+     *         elementos, o una lista vacía si están en componentes conexas
+     *         distintas.
+     * @throws java.util.NoSuchElementException si alguno de los elementos no
+     *         está en la jerarquía.
+     */
+    public Lista<VerticeGrafica<T>> trayectoria(T origen, T destino) {
+        Busqueda[] b = busquedas.get();
+        int s = grafica.indice(origen);
+        int x = consulta(s, grafica.indice(destino), b);
+        Lista<VerticeGrafica<T>> l = new Lista<VerticeGrafica<T>>();
+        if (x == -1)
+            return l;
+        Lista<Integer> arcos = new Lista<Integer>();
+        for (int v = x; b[0].arcos[v] != -1; v = origenArco(b[0].arcos[v], v))
+            arcos.agregaInicio(b[0].arcos[v]);
+        l.agrega(vertices[s]);
+        int v = s;
+        for (int a : arcos) {
+            int u = v == destinos[a] ? origenArco(a, v) : destinos[a];
+            desempaca(v, u, l);
+            v = u;
+        }
+        for (int u = x; b[1].arcos[u] != -1; u = v) {
+            v = origenArco(b[1].arcos[u], u);
+            desempaca(u, v, l);
+        }
+        return l;
+    }
+
+    /* Hace la búsqueda bidireccional ascendente; regresa el vértice donde se
+     * encuentran las búsquedas en una trayectoria mínima, o -1. */
+    private int consulta(int s, int t, Busqueda[] b) {
+        b[0].inicia();
+        b[1].inicia();
+        b[0].visita(s, 0, -1);
+        b[1].visita(t, 0, -1);
+        double mejor = Double.POSITIVE_INFINITY;
+        int encuentro = -1;
+        boolean[] activas = { true, true };
+        int lado = 0;
+        while (activas[0] || activas[1]) {
+            if (!activas[lado]) {
+                lado = 1 - lado;
+                continue;
+            }
+            MonticuloIndices m = b[lado].monticulo;
+            if (m.esVacia() || m.getLlave(m.mira()) >= mejor) {
+                activas[lado] = false;
+                continue;
+            }
+            int u = m.elimina();
+            double d = b[lado].distancias[u];
+            Busqueda otra = b[1 - lado];
+            if (otra.visto(u) && d + otra.distancias[u] < mejor) {
+                mejor = d + otra.distancias[u];
+                encuentro = u;
+            }
+            if (detenido(u, d, b[lado])) {
+                lado = 1 - lado;
+                continue;
+            }
+            for (int a = desplazamientos[u]; a < desplazamientos[u+1]; a++) {
+                int v = destinos[a];
+                double nueva = d + pesos[a];
+                if (!b[lado].visto(v) || nueva < b[lado].distancias[v])
+                    b[lado].visita(v, nueva, a);
+            }
+            lado = 1 - lado;
+        }
+        return encuentro;
+    }
+
+    /* Nos dice si la búsqueda ya llegó a un vecino más alto de u desde el
+     * que u queda más cerca que con la distancia d; si es así, u no está en
+     * una trayectoria mínima ascendente y no hay que explorar desde él. */
+    private boolean detenido(int u, double d, Busqueda b) {
+        for (int a = desplazamientos[u]; a < desplazamientos[u+1]; a++) {
+            int v = destinos[a];
+            if (b.visto(v) && b.distancias[v] + pesos[a] < d)
+                return true;
+        }
+        return false;
+    }
+
+    /* Regresa el vértice del otro extremo del arco ascendente a, que llega a
+     * v; como el arco es ascendente, v es su destino. */
+    private int origenArco(int a, int v) {
+        int i = 0, j = rangos.length;
+        while (j - i > 1) {
+            int m = (i + j) >>> 1;
+            if (desplazamientos[m] <= a)
+                i = m;
+            else
+                j = m;
+        }
+        return i;
+    }
+
+    /* Agrega a la lista los vértices de la arista o atajo de u a v, sin u. */
+    private void desempaca(int u, int v, Lista<VerticeGrafica<T>> l) {
+        int[] pila = new int[16];
+        int tope = 0;
+        pila[tope++] = v;
+        pila[tope++] = u;
+        while (tope > 0) {
+            int a = pila[--tope];
+            int c = pila[--tope];
+            int m = medios[arcoEntre(a, c)];
+            if (m == -1) {
+                l.agrega(vertices[c]);
+                continue;
+            }
+            if (tope + 4 > pila.length)
+                pila = copia(pila, 2 * pila.length);
+            pila[tope++] = c;
+            pila[tope++] = m;
+            pila[tope++] = m;
+            pila[tope++] = a;
+        }
+    }
+
+    /* Regresa el arco ascendente entre u y v. */
+    private int arcoEntre(int u, int v) {
+        int a = rangos[u] < rangos[v] ? u : v;
+        int b = a == u ? v : u;
+        for (int i = desplazamientos[a]; i < desplazamientos[a+1]; i++)
+            if (destinos[i] == b)
+                return i;
+        throw new IllegalStateException();
+    }
+
+    /* Construye la jerarquía. */
+    private void construye() {
+        int n = grafica.getElementos();
+        int[] gd = grafica.getDesplazamientos();
+        int[] gv = grafica.getDestinos();
+        double[] gp = grafica.getPesos();
+        dVecinos = new int[n][];
+        dPesos = new double[n][];
+        dMedios = new int[n][];
+        dGrados = new int[n];
+        for (int v = 0; v < n; v++) {
+            int g = gd[v+1] - gd[v];
+            dVecinos[v] = new int[Math.max(g, 1)];
+            dPesos[v] = new double[Math.max(g, 1)];
+            dMedios[v] = new int[Math.max(g, 1)];
+            for (int i = 0; i < g; i++) {
+                dVecinos[v][i] = gv[gd[v] + i];
+                dPesos[v][i] = gp[gd[v] + i];
+                dMedios[v][i] = -1;
+            }
+            dGrados[v] = g;
+        }
+        contraidos = new boolean[n];
+        rangos = new int[n];
+        int[] eliminados = new int[n];
+        double[] prioridades = new double[n];
+        int[][] aVecinos = new int[n][];
+        double[][] aPesos = new double[n][];
+        int[][] aMedios = new int[n][];
+
+        int[] pendientes = new int[n];
+        for (int v = 0; v < n; v++)
+            pendientes[v] = v;
+        int restantes = n;
+        int[] restantesArr = new int[n];
+        for (int v = 0; v < n; v++)
+            restantesArr[v] = v;
+        int porCalcular = n;
+        boolean[] elegidos = new boolean[n];
+        boolean[] marcados = new boolean[n];
+        int rango = 0;
+        Reserva reserva = new Reserva(n);
+
+        while (restantes > 0) {
+            int[] p = pendientes;
+            Paralelo.paraCada(0, porCalcular, 64, (a, b) -> {
+                    Busqueda busqueda = reserva.toma();
+                    Atajos atajos = new Atajos();
+                    for (int i = a; i < b; i++) {
+                        int v = p[i];
+                        atajos.elementos = 0;
+                        calculaAtajos(v, busqueda, atajos, LIMITE_PRIORIDAD);
+                        prioridades[v] = atajos.elementos - vivos(v)
+                            + eliminados[v];
+                    }
+                    reserva.devuelve(busqueda);
+                });
+            int[] r = restantesArr;
+            Paralelo.paraCada(0, restantes, 256, (a, b) -> {
+                    for (int i = a; i < b; i++)
+                        elegidos[r[i]] = esMinimoLocal(r[i], prioridades);
+                });
+            int k = 0;
+            int[] lote = new int[restantes];
+            for (int i = 0; i < restantes; i++)
+                if (elegidos[restantesArr[i]])
+                    lote[k++] = restantesArr[i];
+            for (int i = 0; i < k; i++)
+                contraidos[lote[i]] = true;
+            Atajos[] nuevos = new Atajos[k];
+            Paralelo.paraCada(0, k, 16, (a, b) -> {
+                    Busqueda busqueda = reserva.toma();
+                    for (int i = a; i < b; i++) {
+                        nuevos[i] = new Atajos();
+                        calculaAtajos(lote[i], busqueda, nuevos[i],
+                                      LIMITE_TESTIGOS);
+                    }
+                    reserva.devuelve(busqueda);
+                });
+            porCalcular = 0;
+            for (int i = 0; i < k; i++) {
+                int v = lote[i];
+                rangos[v] = rango++;
+                int g = vivos(v);
+                aVecinos[v] = new int[g];
+                aPesos[v] = new double[g];
+                aMedios[v] = new int[g];
+                int j = 0;
+                for (int e = 0; e < dGrados[v]; e++) {
+                    int u = dVecinos[v][e];
+                    if (contraidos[u])
+                        continue;
+                    aVecinos[v][j] = u;
+                    aPesos[v][j] = dPesos[v][e];
+                    aMedios[v][j++] = dMedios[v][e];
+                    eliminados[u]++;
+                    quitaArista(u, v);
+                    if (!marcados[u]) {
+                        marcados[u] = true;
+                        pendientes[porCalcular++] = u;
+                    }
+                }
+                Atajos at = nuevos[i];
+                for (int e = 0; e < at.elementos; e++) {
+                    agregaArista(at.a[e], at.b[e], at.pesos[e], v);
+                    agregaArista(at.b[e], at.a[e], at.pesos[e], v);
+                }
+                dVecinos[v] = null;
+                dPesos[v] = null;
+                dMedios[v] = null;
+            }
+            for (int i = 0; i < porCalcular; i++)
+                marcados[pendientes[i]] = false;
+            int j = 0;
+            for (int i = 0; i < restantes; i++)
+                if (!contraidos[restantesArr[i]])
+                    restantesArr[j++] = restantesArr[i];
+            restantes = j;
+        }
+
+        desplazamientos = new int[n + 1];
+        for (int v = 0; v < n; v++)
+            desplazamientos[v+1] = desplazamientos[v] + aVecinos[v].length;
+        destinos = new int[desplazamientos[n]];
+        pesos = new double[desplazamientos[n]];
+        medios = new int[desplazamientos[n]];
+        for (int v = 0; v < n; v++) {
+            int d = desplazamientos[v];
+            for (int i = 0; i < aVecinos[v].length; i++) {
+                destinos[d + i] = aVecinos[v][i];
+                pesos[d + i] = aPesos[v][i];
+                medios[d + i] = aMedios[v][i];
+                if (medios[d + i] != -1)
+                    atajos++;
+            }
+        }
+        dVecinos = null;
+        dPesos = null;
+        dMedios = null;
+        dGrados = null;
+        contraidos = null;
+    }
+
+    /* Regresa el número de vecinos no contraídos del vértice. */
+    private int vivos(int v) {
+        int c = 0;
+        for (int i = 0; i < dGrados[v]; i++)
+            if (!contraidos[dVecinos[v][i]])
+                c++;
+        return c;
+    }
+
+    /* Nos dice si la prioridad del vértice es menor que la de todos sus
+     * vecinos no contraídos, desempatando por índice. */
+    private boolean esMinimoLocal(int v, double[] prioridades) {
+        for (int i = 0; i < dGrados[v]; i++) {
+            int u = dVecinos[v][i];
+            if (contraidos[u])
+                continue;
+            if (prioridades[u] < prioridades[v] ||
+                (prioridades[u] == prioridades[v] && u < v))
+                return false;
+        }
+        return true;
+    }
+
+    /* Quita el arco de u a w de la gráfica dinámica, para que las búsquedas
+     * de testigos no recorran vértices contraídos. */
+    private void quitaArista(int u, int w) {
+        int g = --dGrados[u];
+        for (int i = 0; i <= g; i++) {
+            if (dVecinos[u][i] == w) {
+                dVecinos[u][i] = dVecinos[u][g];
+                dPesos[u][i] = dPesos[u][g];
+                dMedios[u][i] = dMedios[u][g];
+                return;
+            }
+        }
+    }
+
+    /* Agrega o mejora el arco de u a w en la gráfica dinámica. */
+    private void agregaArista(int u, int w, double peso, int medio) {
+        for (int i = 0; i < dGrados[u]; i++) {
+            if (dVecinos[u][i] == w) {
+                if (peso < dPesos[u][i]) {
+                    dPesos[u][i] = peso;
+                    dMedios[u][i] = medio;
+                }
+                return;
+            }
+        }
+        if (dGrados[u] == dVecinos[u].length) {
+            dVecinos[u] = copia(dVecinos[u], 2 * dGrados[u]);
+            dPesos[u] = copia(dPesos[u], 2 * dGrados[u]);
+            dMedios[u] = copia(dMedios[u], 2 * dGrados[u]);
+        }
+        dVecinos[u][dGrados[u]] = w;
+        dPesos[u][dGrados[u]] = peso;
+        dMedios[u][dGrados[u]++] = medio;
+    }
+
+    /* Calcula los atajos necesarios para contraer v: para cada par de vecinos
+     * u, w, un atajo si no hay un testigo, una trayectoria de u a w que no
+     * pase por v y no sea más pesada que la que pasa por v. Las búsquedas de
+     * testigos ignoran a los vértices contraídos, y fijan a lo más el límite
+     * de vértices recibido. */
+    private void calculaAtajos(int v, Busqueda b, Atajos atajos, int limite) {
+        int g = dGrados[v];
+        for (int i = 0; i < g; i++) {
+            int u = dVecinos[v][i];
+            if (contraidos[u])
+                continue;
+            double maximo = -1;
+            for (int j = i + 1; j < g; j++)
+                if (!contraidos[dVecinos[v][j]])
+                    maximo = Math.max(maximo, dPesos[v][i] + dPesos[v][j]);
+            if (maximo < 0)
+                continue;
+            testigos(v, i, maximo, b, limite);
+            for (int j = i + 1; j < g; j++) {
+                int w = dVecinos[v][j];
+                if (contraidos[w])
+                    continue;
+                double peso = dPesos[v][i] + dPesos[v][j];
+                if (!b.visto(w) || b.distancias[w] > peso)
+                    atajos.agrega(u, w, peso);
+            }
+        }
+    }
+
+    /* Busca testigos desde el i-ésimo vecino de v, sin pasar por v ni por
+     * vértices contraídos, hacia los vecinos de v después de él. Se detiene
+     * al fijar a todos ellos, al rebasar la distancia máxima o al llegar al
+     * límite de vértices fijos; no agrega al montículo vértices más lejanos
+     * que la distancia máxima. */
+    private void testigos(int v, int i, double maximo, Busqueda b,
+                          int limite) {
+        b.inicia();
+        int faltan = 0;
+        for (int j = i + 1; j < dGrados[v]; j++) {
+            int w = dVecinos[v][j];
+            if (!contraidos[w]) {
+                b.objetivos[w] = b.epoca;
+                faltan++;
+            }
+        }
+        b.visita(dVecinos[v][i], 0, -1);
+        int fijos = 0;
+        while (!b.monticulo.esVacia() && faltan > 0) {
+            int x = b.monticulo.elimina();
+            double d = b.distancias[x];
+            if (d > maximo || ++fijos > limite)
+                break;
+            if (b.objetivos[x] == b.epoca)
+                faltan--;
+            for (int e = 0; e < dGrados[x]; e++) {
+                int y = dVecinos[x][e];
+                if (y == v || contraidos[y])
+                    continue;
+                double nueva = d + dPesos[x][e];
+                if (nueva <= maximo &&
+                    (!b.visto(y) || nueva < b.distancias[y]))
+                    b.visita(y, nueva, -1);
+            }
+        }
+    }
+
+    private static int[] copia(int[] a, int n) {
+        int[] b = new int[n];
+        for (int i = 0; i < a.length && i < n; i++)
+            b[i] = a[i];
+        return b;
+    }
+
+    private static double[] copia(double[] a, int n) {
+        double[] b = new double[n];
+        for (int i = 0; i < a.length && i < n; i++)
+            b[i] = a[i];
+        return b;
+    }
+}
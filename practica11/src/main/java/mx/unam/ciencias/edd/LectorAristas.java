@@ -0,0 +1,522 @@
+package mx.unam.ciencias.edd;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>Clase para cargar gráficas de archivos con listas de aristas. Los
+ * elementos de la gráfica son los enteros no negativos que aparecen en el
+ * archivo, y sus índices siguen el orden en que aparecen por primera
+ * vez.</p>
+ *
+ * <p>En el formato {@link Formato#TEXTO} cada renglón tiene dos enteros y
+ * opcionalmente un peso positivo, separados por espacios o tabuladores; sin
+ * peso, la arista pesa 1. Un renglón con un solo entero agrega un vértice
+ * aislado, y los renglones vacíos o que comienzan con <code>#</code> o
+ * <code>%</code> se ignoran. En el formato {@link Formato#BINARIO} cada
+ * arista ocupa 16 bytes en orden <i>little-endian</i>: el origen y el destino
+ * como enteros de 4 bytes, y el peso como número de punto flotante de 8
+ * bytes.</p>
+ *
+ * <p>El archivo se mapea a memoria en pedazos que se analizan en paralelo,
+ * sin crear cadenas ni otros objetos por renglón. Los lazos se ignoran, y de
+ * las aristas repetidas se queda la de menor peso.</p>
+ */
+public class LectorAristas {
+
+    /**
+     * Enumeración para los formatos de archivo.
+     */
+    public enum Formato {
+        /** Un renglón de texto por arista. */
+        TEXTO,
+        /** Un registro binario de 16 bytes por arista. */
+        BINARIO
+    }
+
+    /* Clase interna privada para tablas de dispersión de enteros no
+     * negativos a enteros, con direccionamiento abierto y sondeo lineal en
+     * dos arreglos primitivos: no crea objetos por llave y una búsqueda
+     * fallida no lanza excepciones. */
+    private static class TablaEnteros {
+
+        /* Las llaves, o -1 en las casillas vacías. */
+        private int[] llaves;
+        /* Los valores. */
+        private int[] valores;
+        /* El número de llaves. */
+        private int elementos;
+
+        /* Crea una tabla con espacio para la capacidad recibida. */
+        public TablaEnteros(int capacidad) {
+            int c = 16;
+            while (c < 2L * capacidad && c < (1 << 30))
+                c <<= 1;
+            nuevasCasillas(c);
+        }
+
+        /* Crea c casillas vacías. */
+        private void nuevasCasillas(int c) {
+            llaves = new int[c];
+            valores = new int[c];
+            for (int i = 0; i < c; i++)
+                llaves[i] = -1;
+        }
+
+        /* Regresa la casilla de la llave, o la casilla vacía donde iría. */
+        private int casilla(int llave) {
+            int m = llaves.length - 1;
+            int h = llave * 0x9E3779B9;
+            int i = (h ^ (h >>> 16)) & m;
+            while (llaves[i] != -1 && llaves[i] != llave)
+                i = (i + 1) & m;
+            return i;
+        }
+
+        /* Regresa el valor de la llave; si no está, la agrega con el valor
+         * recibido y lo regresa. */
+        public int busca(int llave, int valor) {
+            int i = casilla(llave);
+            if (llaves[i] == llave)
+                return valores[i];
+            llaves[i] = llave;
+            valores[i] = valor;
+            if (++elementos > llaves.length / 2)
+                crece();
+            return valor;
+        }
+
+        /* Duplica el número de casillas. */
+        private void crece() {
+            int[] ls = llaves;
+            int[] vs = valores;
+            nuevasCasillas(2 * ls.length);
+            for (int j = 0; j < ls.length; j++) {
+                if (ls[j] == -1)
+                    continue;
+                int i = casilla(ls[j]);
+                llaves[i] = ls[j];
+                valores[i] = vs[j];
+            }
+        }
+    }
+
+    /* Clase interna privada para las aristas de un pedazo del archivo. */
+    private static class Pedazo {
+
+        /* Los orígenes. */
+        public int[] origenes;
+        /* Los destinos, o -1 para un vértice aislado. */
+        public int[] destinos;
+        /* Los pesos. */
+        public double[] pesos;
+        /* El número de aristas. */
+        public int aristas;
+
+        /* Crea un pedazo con la capacidad recibida. */
+        public Pedazo(int capacidad) {
+            capacidad = Math.max(16, capacidad);
+            origenes = new int[capacidad];
+            destinos = new int[capacidad];
+            pesos = new double[capacidad];
+        }
+
+        /* Agrega una arista. */
+        public void agrega(int origen, int destino, double peso) {
+            if (aristas == origenes.length) {
+                int c = 2 * aristas;
+                int[] o = new int[c];
+                int[] d = new int[c];
+                double[] p = new double[c];
+                System.arraycopy(origenes, 0, o, 0, aristas);
+                System.arraycopy(destinos, 0, d, 0, aristas);
+                System.arraycopy(pesos, 0, p, 0, aristas);
+                origenes = o;
+                destinos = d;
+                pesos = p;
+            }
+            origenes[aristas] = origen;
+            destinos[aristas] = destino;
+            pesos[aristas++] = peso;
+        }
+    }
+
+    /* Tamaño de los pedazos en que se parte el archivo. */
+    private static final int BYTES_PEDAZO = 1 << 26;
+    /* Máxima longitud de un renglón del formato de texto. */
+    private static final int MAXIMO_RENGLON = 1 << 20;
+    /* Bytes de una arista en el formato binario. */
+    private static final int BYTES_ARISTA = 16;
+    /* Potencias de diez representables exactamente. */
+    private static final double[] POTENCIAS = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /* Los elementos, por índice. */
+    private Integer[] elementos;
+    /* Los índices de los orígenes de las aristas. */
+    private int[] origenes;
+    /* Los índices de los destinos de las aristas, o -1. */
+    private int[] destinos;
+    /* Los pesos de las aristas. */
+    private double[] pesos;
+    /* El número de registros leídos. */
+    private int aristas;
+
+    /**
+     * Lee el archivo recibido en el formato recibido.
+     * @param archivo el archivo con la lista de aristas.
+     * @param formato el formato del archivo.
+     * @throws IOException si no se puede leer el archivo, o si su contenido
+     *         no tiene el formato recibido.
+     */
+    public LectorAristas(File archivo, Formato formato) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo.toPath(),
+                                                  StandardOpenOption.READ)) {
+            long tam = canal.size();
+            if (formato == Formato.BINARIO && tam % BYTES_ARISTA != 0)
+                throw new IOException("Tamaño inválido: " + tam);
+            int n = (int)((tam + BYTES_PEDAZO - 1) / BYTES_PEDAZO);
+            Pedazo[] pedazos = new Pedazo[n];
+            try {
+                Paralelo.paraCada(0, n, 1, (a, b) -> {
+                        for (int i = a; i < b; i++)
+                            pedazos[i] = analiza(canal, tam, i, formato);
+                    });
+            } catch (UncheckedIOException uioe) {
+                throw uioe.getCause();
+            }
+            junta(pedazos);
+        }
+        numera();
+    }
+
+    /* Analiza el i-ésimo pedazo del archivo. */
+    private static Pedazo analiza(FileChannel canal, long tam, int i,
+                                  Formato formato) {
+        long inicio = (long)i * BYTES_PEDAZO;
+        long fin = Math.min(tam, inicio + BYTES_PEDAZO);
+        try {
+            if (formato == Formato.BINARIO)
+                return analizaBinario(canal.map(FileChannel.MapMode.READ_ONLY,
+                                                inicio, fin - inicio));
+            long desde = Math.max(0, inicio - 1);
+            long hasta = Math.min(tam, fin + MAXIMO_RENGLON);
+            MappedByteBuffer b = canal.map(FileChannel.MapMode.READ_ONLY,
+                                           desde, hasta - desde);
+            return analizaTexto(b, (int)(inicio - desde), (int)(fin - desde),
+                                hasta == tam, desde);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    /* Analiza un pedazo binario. */
+    private static Pedazo analizaBinario(MappedByteBuffer b)
+        throws IOException {
+        b.order(ByteOrder.LITTLE_ENDIAN);
+        int m = b.limit() / BYTES_ARISTA;
+        Pedazo p = new Pedazo(m);
+        for (int i = 0; i < m; i++) {
+            int j = i * BYTES_ARISTA;
+            int origen = b.getInt(j), destino = b.getInt(j + 4);
+            double peso = b.getDouble(j + 8);
+            if (origen < 0 || destino < 0 || !(peso > 0))
+                throw new IOException("Arista inválida: " + origen + ", " +
+                                      destino + ", " + peso);
+            p.agrega(origen, destino, peso);
+        }
+        return p;
+    }
+
+    /* Analiza los renglones que comienzan en [inicio, fin) del búfer. El
+     * búfer incluye el byte anterior a inicio, si lo hay, y hasta
+     * MAXIMO_RENGLON bytes después de fin; ultimo nos dice si llega al final
+     * del archivo, y base es su posición en el archivo. */
+    private static Pedazo analizaTexto(MappedByteBuffer b, int inicio, int fin,
+                                       boolean ultimo, long base)
+        throws IOException {
+        Pedazo p = new Pedazo((fin - inicio) / 12);
+        int limite = b.limit();
+        int i = inicio;
+        if (inicio > 0 || base > 0) {
+            while (i - 1 < limite && b.get(i - 1) != '\n')
+                i++;
+        }
+        byte[] auxiliar = new byte[64];
+        int[] posicion = new int[1];
+        while (i < fin) {
+            int j = espacios(b, i, limite);
+            if (j == limite || b.get(j) == '\n' || b.get(j) == '#' ||
+                b.get(j) == '%') {
+                i = finRenglon(b, j, limite, ultimo, base);
+                continue;
+            }
+            posicion[0] = j;
+            int origen = entero(b, posicion, limite, base);
+            j = espacios(b, posicion[0], limite);
+            int destino = -1;
+            double peso = 1;
+            if (j < limite && b.get(j) != '\n') {
+                posicion[0] = j;
+                destino = entero(b, posicion, limite, base);
+                j = espacios(b, posicion[0], limite);
+                if (j < limite && b.get(j) != '\n') {
+                    posicion[0] = j;
+                    peso = real(b, posicion, limite, auxiliar, base);
+                    j = posicion[0];
+                }
+            }
+            p.agrega(origen, destino, peso);
+            i = finRenglon(b, j, limite, ultimo, base);
+        }
+        return p;
+    }
+
+    /* Regresa la posición del primer byte en i o después que no sea espacio
+     * en blanco dentro del renglón. */
+    private static int espacios(MappedByteBuffer b, int i, int limite) {
+        while (i < limite) {
+            byte c = b.get(i);
+            if (c != ' ' && c != '\t' && c != '\r')
+                break;
+            i++;
+        }
+        return i;
+    }
+
+    /* Regresa la posición siguiente al fin del renglón en el que está i. */
+    private static int finRenglon(MappedByteBuffer b, int i, int limite,
+                                  boolean ultimo, long base)
+        throws IOException {
+        while (i < limite && b.get(i) != '\n')
+            i++;
+        if (i == limite && !ultimo)
+            throw new IOException("Renglón demasiado largo en el byte " +
+                                  (base + i));
+        return i + 1;
+    }
+
+    /* Lee un entero no negativo a partir de la posición, y la avanza. */
+    private static int entero(MappedByteBuffer b, int[] posicion, int limite,
+                              long base) throws IOException {
+        int i = posicion[0];
+        long r = 0;
+        int inicio = i;
+        while (i < limite) {
+            int c = b.get(i) - '0';
+            if (c < 0 || c > 9)
+                break;
+            r = 10 * r + c;
+            if (r > Integer.MAX_VALUE)
+                throw new IOException("Entero inválido en el byte " +
+                                      (base + inicio));
+            i++;
+        }
+        if (i == inicio || (i < limite && !separador(b.get(i))))
+            throw new IOException("Entero inválido en el byte " +
+                                  (base + inicio));
+        posicion[0] = i;
+        return (int)r;
+    }
+
+    /* Lee un número positivo de punto flotante a partir de la posición, y la
+     * avanza. Si la mantisa y el exponente son pequeños, el resultado es una
+     * sola operación exacta de punto flotante; si no, se usa {@link
+     * Double#parseDouble}. */
+    private static double real(MappedByteBuffer b, int[] posicion, int limite,
+                               byte[] auxiliar, long base)
+        throws IOException {
+        int inicio = posicion[0], i = inicio;
+        long mantisa = 0;
+        int digitos = 0, exponente = 0;
+        boolean exacto = true;
+        while (i < limite && Character.isDigit(b.get(i))) {
+            mantisa = 10 * mantisa + (b.get(i++) - '0');
+            if (++digitos > 18)
+                exacto = false;
+        }
+        if (i < limite && b.get(i) == '.') {
+            i++;
+            while (i < limite && Character.isDigit(b.get(i))) {
+                mantisa = 10 * mantisa + (b.get(i++) - '0');
+                exponente--;
+                if (++digitos > 18)
+                    exacto = false;
+            }
+        }
+        if (i < limite && (b.get(i) == 'e' || b.get(i) == 'E')) {
+            exacto = false;
+            while (++i < limite && !separador(b.get(i)))
+                ;
+        }
+        if (digitos == 0 || (i < limite && !separador(b.get(i))))
+            throw new IOException("Peso inválido en el byte " +
+                                  (base + inicio));
+        posicion[0] = i;
+        double r;
+        if (exacto && mantisa < (1L << 53) && exponente >= -22) {
+            r = mantisa / POTENCIAS[-exponente];
+        } else {
+            int n = i - inicio;
+            byte[] a = n <= auxiliar.length ? auxiliar : new byte[n];
+            for (int j = 0; j < n; j++)
+                a[j] = b.get(inicio + j);
+            try {
+                r = Double.parseDouble(new String(a, 0, n,
+                                                  StandardCharsets.US_ASCII));
+            } catch (NumberFormatException nfe) {
+                throw new IOException("Peso inválido en el byte " +
+                                      (base + inicio));
+            }
+        }
+        if (!(r > 0) || Double.isInfinite(r))
+            throw new IOException("Peso inválido en el byte " +
+                                  (base + inicio));
+        return r;
+    }
+
+    /* Nos dice si el byte separa campos o renglones. */
+    private static boolean separador(byte c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+    }
+
+    /* Junta las aristas de los pedazos en los arreglos. */
+    private void junta(Pedazo[] pedazos) {
+        long total = 0;
+        for (Pedazo p : pedazos)
+            total += p.aristas;
+        if (total > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("Demasiadas aristas: " + total);
+        aristas = (int)total;
+        origenes = new int[aristas];
+        destinos = new int[aristas];
+        pesos = new double[aristas];
+        int[] inicios = new int[pedazos.length];
+        for (int i = 1; i < pedazos.length; i++)
+            inicios[i] = inicios[i-1] + pedazos[i-1].aristas;
+        Paralelo.paraCada(0, pedazos.length, 1, (a, b) -> {
+                for (int i = a; i < b; i++) {
+                    Pedazo p = pedazos[i];
+                    System.arraycopy(p.origenes, 0, origenes, inicios[i],
+                                     p.aristas);
+                    System.arraycopy(p.destinos, 0, destinos, inicios[i],
+                                     p.aristas);
+                    System.arraycopy(p.pesos, 0, pesos, inicios[i],
+                                     p.aristas);
+                    pedazos[i] = null;
+                }
+            });
+    }
+
+    /* Cambia los enteros del archivo por índices consecutivos, en el orden
+     * en que aparecen. Si los enteros son densos usa un arreglo, y si no, una
+     * tabla de dispersión de enteros. */
+    private void numera() {
+        int maximo = -1;
+        for (int i = 0; i < aristas; i++)
+            maximo = Math.max(maximo, Math.max(origenes[i], destinos[i]));
+        int n = 0;
+        Integer[] es = new Integer[16];
+        if ((long)maximo < 4L * aristas + 16) {
+            int[] indices = new int[maximo + 1];
+            for (int i = 0; i <= maximo; i++)
+                indices[i] = -1;
+            for (int i = 0; i < aristas; i++) {
+                for (int k = 0; k < 2; k++) {
+                    int[] a = k == 0 ? origenes : destinos;
+                    int e = a[i];
+                    if (e == -1)
+                        continue;
+                    if (indices[e] == -1) {
+                        if (n == es.length)
+                            es = crece(es);
+                        es[n] = e;
+                        indices[e] = n++;
+                    }
+                    a[i] = indices[e];
+                }
+            }
+        } else {
+            TablaEnteros indices =
+                new TablaEnteros(Math.min(aristas, 1 << 20));
+            for (int i = 0; i < aristas; i++) {
+                for (int k = 0; k < 2; k++) {
+                    int[] a = k == 0 ? origenes : destinos;
+                    int e = a[i];
+                    if (e == -1)
+                        continue;
+                    int j = indices.busca(e, n);
+                    if (j == n) {
+                        if (n == es.length)
+                            es = crece(es);
+                        es[n++] = e;
+                    }
+                    a[i] = j;
+                }
+            }
+        }
+        elementos = new Integer[n];
+        System.arraycopy(es, 0, elementos, 0, n);
+    }
+
+    /* Regresa un arreglo del doble de tamaño con los mismos elementos. */
+    private static Integer[] crece(Integer[] a) {
+        Integer[] b = new Integer[2 * a.length];
+        System.arraycopy(a, 0, b, 0, a.length);
+        return b;
+    }
+
+    /**
+     * Regresa el número de elementos distintos en el archivo.
+     * @return el número de elementos distintos en el archivo.
+     */
+    public int getElementos() {
+        return elementos.length;
+    }
+
+    /**
+     * Regresa el número de registros leídos del archivo, incluyendo lazos,
+     * aristas repetidas y vértices aislados.
+     * @return el número de registros leídos del archivo.
+     */
+    public int getRegistros() {
+        return aristas;
+    }
+
+    /**
+     * Regresa una gráfica nueva con los elementos y las aristas leídos. El
+     * diccionario de vértices se crea con su tamaño final, y las aristas se
+     * agregan sin buscar sus vértices en él.
+     * @return una gráfica nueva con los elementos y las aristas leídos.
+     */
+    public Grafica<Integer> grafica() {
+        Grafica<Integer> grafica = new Grafica<Integer>(elementos.length);
+        grafica.agregaAristas(elementos, elementos.length, origenes, destinos,
+                              pesos, aristas);
+        return grafica;
+    }
+
+    /**
+     * Regresa una gráfica compacta con los elementos y las aristas leídos,
+     * construida directamente de los arreglos, sin pasar por {@link
+     * Grafica}.
+     * @return una gráfica compacta con los elementos y las aristas leídos.
+     */
+    public GraficaCSR<Integer> compacta() {
+        int n = elementos.length;
+        Diccionario<Integer, Integer> indices =
+            new Diccionario<Integer, Integer>(n);
+        for (int i = 0; i < n; i++)
+            indices.agrega(elementos[i], i);
+        return GraficaCSR.deAristas(elementos, indices, origenes, destinos,
+                                    pesos, aristas);
+    }
+}
@@ -0,0 +1,63 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para matrices cuadradas de distancias entre los vértices de una
+ * gráfica. Las entradas se indexan con los índices de los vértices en una
+ * {@link GraficaCSR}; la distancia entre vértices no conectados es {@link
+ * Double#POSITIVE_INFINITY}. Distintos hilos pueden escribir a la vez en
+ * renglones distintos.
+ */
+public interface MatrizDistancias {
+
+    /**
+     * Regresa la dimensión de la matriz.
+     * @return el número de renglones (y de columnas) de la matriz.
+     */
+    public int getDimension();
+
+    /**
+     * Regresa la entrada en el renglón y la columna recibidos.
+     * @param renglon el renglón.
+     * @param columna la columna.
+     * @return la entrada en el renglón y la columna.
+     * @throws ExcepcionIndiceInvalido si el renglón o la columna son
+     *         inválidos.
+     */
+    public double get(int renglon, int columna);
+
+    /**
+     * Define la entrada en el renglón y la columna recibidos.
+     * @param renglon el renglón.
+     * @param columna la columna.
+     * @param distancia la nueva entrada.
+     * @throws ExcepcionIndiceInvalido si el renglón o la columna son
+     *         inválidos.
+     */
+    public void set(int renglon, int columna, double distancia);
+
+    /**
+     * Copia entradas consecutivas de un renglón a un arreglo.
+     * @param renglon el renglón.
+     * @param columna la primera columna a copiar.
+     * @param destino el arreglo destino.
+     * @param inicio la primera posición del arreglo destino.
+     * @param longitud el número de entradas a copiar.
+     * @throws ExcepcionIndiceInvalido si el rango no está en la matriz o en
+     *         el arreglo.
+     */
+    public void leeRenglon(int renglon, int columna,
+                           double[] destino, int inicio, int longitud);
+
+    /**
+     * Copia entradas consecutivas de un arreglo a un renglón.
+     * @param renglon el renglón.
+     * @param columna la primera columna a escribir.
+     * @param origen el arreglo origen.
+     * @param inicio la primera posición del arreglo origen.
+     * @param longitud el número de entradas a copiar.
+     * @throws ExcepcionIndiceInvalido si el rango no está en la matriz o en
+     *         el arreglo.
+     */
+    public void escribeRenglon(int renglon, int columna,
+                               double[] origen, int inicio, int longitud);
+}
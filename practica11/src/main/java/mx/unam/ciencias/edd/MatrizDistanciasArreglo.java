@@ -0,0 +1,111 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para matrices de distancias en el montón, guardadas por renglones en
+ * un solo arreglo de <i>n</i>² entradas.
+ */
+public class MatrizDistanciasArreglo implements MatrizDistancias {
+
+    /** Máxima dimensión de una matriz en un arreglo. */
+    public static final int MAXIMA_DIMENSION = 46340;
+
+    /* La dimensión. */
+    private int n;
+    /* Las entradas, por renglones. */
+    private double[] entradas;
+
+    /**
+     * Construye una matriz de la dimensión recibida, con todas sus entradas
+     * en {@link Double#POSITIVE_INFINITY}.
+     * @param n la dimensión de la matriz.
+     * @throws IllegalArgumentException si n es negativo o mayor que {@link
+     *         #MAXIMA_DIMENSION}.
+     */
+    public MatrizDistanciasArreglo(int n) {
+        if (n < 0 || n > MAXIMA_DIMENSION)
+            throw new IllegalArgumentException();
+        this.n = n;
+        entradas = new double[n * n];
+        for (int i = 0; i < entradas.length; i++)
+            entradas[i] = Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Regresa la dimensión de la matriz.
+     * @return el número de renglones (y de columnas) de la matriz.
+     */
+    @Override public int getDimension() {
+        return n;
+    }
+
+    /**
+     * Regresa la entrada en el renglón y la columna recibidos.
+     * @param renglon el renglón.
+     * @param columna la columna.
+     * @return la entrada en el renglón y la columna.
+     * @throws ExcepcionIndiceInvalido si el renglón o la columna son
+     *         inválidos.
+     */
+    @Override public double get(int renglon, int columna) {
+        return entradas[posicion(renglon, columna, 1)];
+    }
+
+    /**
+     * Define la entrada en el renglón y la columna recibidos.
+     * @param renglon el renglón.
+     * @param columna la columna.
+     * @param distancia la nueva entrada.
+     * @throws ExcepcionIndiceInvalido si el renglón o la columna son
+     *         inválidos.
+     */
+    @Override public void set(int renglon, int columna, double distancia) {
+        entradas[posicion(renglon, columna, 1)] = distancia;
+    }
+
+    /**
+     * Copia entradas consecutivas de un renglón a un arreglo.
+     * @param renglon el renglón.
+     * @param columna la primera columna a copiar.
+     * @param destino el arreglo destino.
+     * @param inicio la primera posición del arreglo destino.
+     * @param longitud el número de entradas a copiar.
+     * @throws ExcepcionIndiceInvalido si el rango no está en la matriz o en
+     *         el arreglo.
+     */
+    @Override public void leeRenglon(int renglon, int columna,
+                                     double[] destino, int inicio,
+                                     int longitud) {
+        int p = posicion(renglon, columna, longitud);
+        if (inicio < 0 || inicio + longitud > destino.length)
+            throw new ExcepcionIndiceInvalido();
+        System.arraycopy(entradas, p, destino, inicio, longitud);
+    }
+
+    /**
+     * Copia entradas consecutivas de un arreglo a un renglón.
+     * @param renglon el renglón.
+     * @param columna la primera columna a escribir.
+     * @param origen el arreglo origen.
+     * @param inicio la primera posición del arreglo origen.
+     * @param longitud el número de entradas a copiar.
+     * @throws ExcepcionIndiceInvalido si el rango no está en la matriz o en
+     *         el arreglo.
+     */
+    @Override public void escribeRenglon(int renglon, int columna,
+                                         double[] origen, int inicio,
+                                         int longitud) {
+        int p = posicion(renglon, columna, longitud);
+        if (inicio < 0 || inicio + longitud > origen.length)
+            throw new ExcepcionIndiceInvalido();
+        System.arraycopy(origen, inicio, entradas, p, longitud);
+    }
+
+    /* Regresa la posición de la entrada, verificando que quepan las
+     * entradas siguientes en el renglón. */
+    private int posicion(int renglon, int columna, int longitud) {
+        if (renglon < 0 || renglon >= n || columna < 0 || longitud < 0 ||
+            columna + longitud > n)
+            throw new ExcepcionIndiceInvalido();
+        return renglon * n + columna;
+    }
+}
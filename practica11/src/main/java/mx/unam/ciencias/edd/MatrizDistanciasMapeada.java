@@ -0,0 +1,169 @@
+package mx.unam.ciencias.edd;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>Clase para matrices de distancias en un archivo mapeado a memoria, para
+ * matrices que no caben en el montón. La matriz se guarda por renglones, con
+ * números de punto flotante de 8 bytes en el orden de bytes de la
+ * plataforma.</p>
+ *
+ * <p>Como un mapeo no puede pasar de 2 GB, el archivo se mapea en bloques de
+ * renglones completos. El sistema operativo decide cuándo se escriben las
+ * páginas al archivo; {@link #sincroniza} las escribe todas.</p>
+ */
+public class MatrizDistanciasMapeada implements MatrizDistancias {
+
+    /* Máximo número de bytes en un bloque. */
+    private static final int BYTES_BLOQUE = 1 << 30;
+
+    /* La dimensión. */
+    private int n;
+    /* El número de renglones en cada bloque. */
+    private int renglonesBloque;
+    /* Los bloques mapeados. */
+    private MappedByteBuffer[] bloques;
+    /* Las vistas de punto flotante de los bloques. */
+    private DoubleBuffer[] vistas;
+
+    /**
+     * Construye una matriz de la dimensión recibida en el archivo recibido,
+     * con todas sus entradas en {@link Double#POSITIVE_INFINITY}. Si el
+     * archivo existe, se sobreescribe.
+     * @param archivo el archivo de la matriz.
+     * @param n la dimensión de la matriz.
+     * @throws IOException si no se puede crear o mapear el archivo.
+     * @throws IllegalArgumentException si n es negativo.
+     */
+    public MatrizDistanciasMapeada(File archivo, int n) throws IOException {
+        if (n < 0)
+            throw new IllegalArgumentException();
+        this.n = n;
+        long bytesRenglon = 8L * n;
+        renglonesBloque = (int)Math.max(1, BYTES_BLOQUE /
+                                        Math.max(1, bytesRenglon));
+        int b = n == 0 ? 0 : (n + renglonesBloque - 1) / renglonesBloque;
+        bloques = new MappedByteBuffer[b];
+        vistas = new DoubleBuffer[b];
+        try (RandomAccessFile raf = new RandomAccessFile(archivo, "rw")) {
+            raf.setLength(0);
+            raf.setLength(bytesRenglon * n);
+            FileChannel canal = raf.getChannel();
+            for (int i = 0; i < b; i++) {
+                long inicio = (long)i * renglonesBloque * bytesRenglon;
+                long tam = Math.min((long)renglonesBloque * bytesRenglon,
+                                    bytesRenglon * n - inicio);
+                bloques[i] = canal.map(FileChannel.MapMode.READ_WRITE,
+                                       inicio, tam);
+                bloques[i].order(ByteOrder.nativeOrder());
+                vistas[i] = bloques[i].asDoubleBuffer();
+            }
+        }
+        double[] infinitos = new double[n];
+        for (int j = 0; j < n; j++)
+            infinitos[j] = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < n; i++)
+            escribeRenglon(i, 0, infinitos, 0, n);
+    }
+
+    /**
+     * Regresa la dimensión de la matriz.
+     * @return el número de renglones (y de columnas) de la matriz.
+     */
+    @Override public int getDimension() {
+        return n;
+    }
+
+    /**
+     * Regresa la entrada en el renglón y la columna recibidos.
+     * @param renglon el renglón.
+     * @param columna la columna.
+     * @return la entrada en el renglón y la columna.
+     * @throws ExcepcionIndiceInvalido si el renglón o la columna son
+     *         inválidos.
+     */
+    @Override public double get(int renglon, int columna) {
+        int p = posicion(renglon, columna, 1);
+        return vistas[renglon / renglonesBloque].get(p);
+    }
+
+    /**
+     * Define la entrada en el renglón y la columna recibidos.
+     * @param renglon el renglón.
+     * @param columna la columna.
+     * @param distancia la nueva entrada.
+     * @throws ExcepcionIndiceInvalido si el renglón o la columna son
+     *         inválidos.
+     */
+    @Override public void set(int renglon, int columna, double distancia) {
+        int p = posicion(renglon, columna, 1);
+        vistas[renglon / renglonesBloque].put(p, distancia);
+    }
+
+    /**
+     * Copia entradas consecutivas de un renglón a un arreglo.
+     * @param renglon el renglón.
+     * @param columna la primera columna a copiar.
+     * @param destino el arreglo destino.
+     * @param inicio la primera posición del arreglo destino.
+     * @param longitud el número de entradas a copiar.
+     * @throws ExcepcionIndiceInvalido si el rango no está en la matriz o en
+     *         el arreglo.
+     */
+    @Override public void leeRenglon(int renglon, int columna,
+                                     double[] destino, int inicio,
+                                     int longitud) {
+        int p = posicion(renglon, columna, longitud);
+        if (inicio < 0 || inicio + longitud > destino.length)
+            throw new ExcepcionIndiceInvalido();
+        /* Cada llamada usa su propio duplicado para no compartir la
+         * posición entre hilos. */
+        DoubleBuffer d = vistas[renglon / renglonesBloque].duplicate();
+        d.position(p);
+        d.get(destino, inicio, longitud);
+    }
+
+    /**
+     * Copia entradas consecutivas de un arreglo a un renglón.
+     * @param renglon el renglón.
+     * @param columna la primera columna a escribir.
+     * @param origen el arreglo origen.
+     * @param inicio la primera posición del arreglo origen.
+     * @param longitud el número de entradas a copiar.
+     * @throws ExcepcionIndiceInvalido si el rango no está en la matriz o en
+     *         el arreglo.
+     */
+    @Override public void escribeRenglon(int renglon, int columna,
+                                         double[] origen, int inicio,
+                                         int longitud) {
+        int p = posicion(renglon, columna, longitud);
+        if (inicio < 0 || inicio + longitud > origen.length)
+            throw new ExcepcionIndiceInvalido();
+        DoubleBuffer d = vistas[renglon / renglonesBloque].duplicate();
+        d.position(p);
+        d.put(origen, inicio, longitud);
+    }
+
+    /**
+     * Escribe al archivo todas las páginas modificadas de la matriz.
+     */
+    public void sincroniza() {
+        for (MappedByteBuffer b : bloques)
+            b.force();
+    }
+
+    /* Regresa la posición de la entrada dentro de su bloque, verificando que
+     * quepan las entradas siguientes en el renglón. */
+    private int posicion(int renglon, int columna, int longitud) {
+        if (renglon < 0 || renglon >= n || columna < 0 || longitud < 0 ||
+            columna + longitud > n)
+            throw new ExcepcionIndiceInvalido();
+        return (renglon % renglonesBloque) * n + columna;
+    }
+}
@@ -0,0 +1,126 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Clase abstracta para montículos de Dijkstra que reparten sus elementos en
+ * cubetas según su prioridad entera. Como en {@link MonticuloArreglo}, el
+ * índice de cada elemento es su posición fija en el arreglo del montículo;
+ * cada cubeta es una lista doblemente ligada de índices, así que meter o
+ * sacar a un elemento de su cubeta es tiempo constante.
+ */
+abstract class MonticuloCubetas<T extends PrioridadEntera<T>>
+    implements MonticuloDijkstra<T> {
+
+    /* Los elementos, por índice. */
+    protected T[] arreglo;
+    /* El número de elementos en el montículo. */
+    protected int elementos;
+    /* La cubeta de cada índice. */
+    protected int[] cubetas;
+    /* El siguiente índice en la cubeta, o -1. */
+    protected int[] siguientes;
+    /* El índice anterior en la cubeta, o -1. */
+    protected int[] anteriores;
+    /* El primer índice de cada cubeta, o -1. */
+    protected int[] cabezas;
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private T[] nuevoArreglo(int n) {
+        return (T[])(new PrioridadEntera[n]);
+    }
+
+    /* Guarda los elementos del iterable con su índice, sin meterlos en
+     * ninguna cubeta. */
+    protected MonticuloCubetas(Iterable<T> iterable, int n, int numeroCubetas) {
+        arreglo = nuevoArreglo(n);
+        cubetas = new int[n];
+        siguientes = new int[n];
+        anteriores = new int[n];
+        cabezas = new int[numeroCubetas];
+        for (int c = 0; c < numeroCubetas; c++)
+            cabezas[c] = -1;
+        int i = 0;
+        for (T t : iterable) {
+            long p = t.getPrioridad();
+            if (p < 0)
+                throw new IllegalArgumentException();
+            arreglo[i] = t;
+            t.setIndice(i++);
+        }
+        elementos = n;
+    }
+
+    /* Mete el índice al principio de la cubeta. */
+    protected void mete(int i, int c) {
+        cubetas[i] = c;
+        anteriores[i] = -1;
+        siguientes[i] = cabezas[c];
+        if (cabezas[c] != -1)
+            anteriores[cabezas[c]] = i;
+        cabezas[c] = i;
+    }
+
+    /* Saca el índice de su cubeta. */
+    protected void saca(int i) {
+        if (anteriores[i] != -1)
+            siguientes[anteriores[i]] = siguientes[i];
+        else
+            cabezas[cubetas[i]] = siguientes[i];
+        if (siguientes[i] != -1)
+            anteriores[siguientes[i]] = anteriores[i];
+    }
+
+    /* Saca el primer índice de la cubeta y regresa su elemento, que deja
+     * fuera del montículo. */
+    protected T eliminaCabeza(int c) {
+        int i = cabezas[c];
+        saca(i);
+        T t = arreglo[i];
+        arreglo[i] = null;
+        t.setIndice(-1);
+        elementos--;
+        return t;
+    }
+
+    /* Regresa el índice del elemento si está en el montículo, o -1. */
+    protected int indice(T elemento) {
+        int i = elemento.getIndice();
+        if (i < 0 || i >= arreglo.length || arreglo[i] != elemento)
+            return -1;
+        return i;
+    }
+
+    /**
+     * Regresa el <i>i</i>-ésimo elemento del arreglo.
+     * @param i el índice del elemento que queremos.
+     * @return el <i>i</i>-ésimo elemento del arreglo, o <code>null</code> si
+     *         ya se eliminó.
+     * @throws NoSuchElementException si i es menor que cero, o mayor o igual
+     *         que el número de elementos con el que se creó el montículo.
+     */
+    @Override public T get(int i) {
+        if (i < 0 || i >= arreglo.length)
+            throw new NoSuchElementException();
+        return arreglo[i];
+    }
+
+    /**
+     * Nos dice si el montículo es vacío.
+     * @return <code>true</code> si ya no hay elementos en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo.
+     * @return el número de elementos en el montículo.
+     */
+    @Override public int getElementos() {
+        return elementos;
+    }
+}
@@ -0,0 +1,332 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para montículos mínimos <i>d</i>-arios (<i>d-ary heaps</i>).</p>
+ *
+ * <p>Cada vértice tiene hasta <i>d</i> hijos, así que el árbol tiene
+ * log<sub><i>d</i></sub> <i>n</i> niveles: subir un elemento es más barato
+ * que en un montículo binario, y bajarlo revisa <i>d</i> hijos contiguos en
+ * memoria por nivel. Los elementos se acomodan moviendo un hueco: cada nivel
+ * escribe un solo elemento en el arreglo y actualiza un solo índice, y el
+ * elemento que se acomoda se escribe una vez al final.</p>
+ */
+public class MonticuloDario<T extends ComparableIndexable<T>>
+    implements Coleccion<T>, MonticuloDijkstra<T> {
+
+    /* Clase interna privada para iteradores. */
+    private class Iterador implements Iterator<T> {
+
+        /* Índice del iterador. */
+        private int indice;
+
+        /* Nos dice si hay un siguiente elemento. */
+        @Override public boolean hasNext() {
+            return indice < elementos;
+        }
+
+        /* Regresa el siguiente elemento. */
+        @Override public T next() {
+            if (indice >= elementos)
+                throw new NoSuchElementException();
+            return arbol[indice++];
+        }
+    }
+
+    /** El número de hijos por omisión. */
+    public static final int ARIDAD = 4;
+
+    /* El número de hijos de cada vértice. */
+    private int aridad;
+    /* El número de elementos en el arreglo. */
+    private int elementos;
+    /* Usamos un truco para poder utilizar arreglos genéricos. */
+    private T[] arbol;
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private T[] nuevoArreglo(int n) {
+        return (T[])(new ComparableIndexable[n]);
+    }
+
+    /**
+     * Constructor sin parámetros, con {@link #ARIDAD} hijos por vértice.
+     */
+    public MonticuloDario() {
+        this(ARIDAD);
+    }
+
+    /**
+     * Constructor con el número de hijos por vértice.
+     * @param aridad el número de hijos de cada vértice.
+     * @throws IllegalArgumentException si la aridad es menor que dos.
+     */
+    public MonticuloDario(int aridad) {
+        if (aridad < 2)
+            throw new IllegalArgumentException();
+        this.aridad = aridad;
+        arbol = nuevoArreglo(100);
+    }
+
+    /**
+     * Constructor para montículo <i>d</i>-ario a partir de una colección, con
+     * {@link #ARIDAD} hijos por vértice, en tiempo <i>O</i>(<i>n</i>).
+     * @param coleccion la colección a partir de la cuál queremos construir el
+     *                  montículo.
+     */
+    public MonticuloDario(Coleccion<T> coleccion) {
+        this(coleccion, coleccion.getElementos(), ARIDAD);
+    }
+
+    /**
+     * Constructor para montículo <i>d</i>-ario a partir de un iterable y el
+     * número de elementos en el mismo, con {@link #ARIDAD} hijos por vértice,
+     * en tiempo <i>O</i>(<i>n</i>).
+     * @param iterable el iterable a partir de la cuál queremos construir el
+     *                 montículo.
+     * @param n el número de elementos en el iterable.
+     */
+    public MonticuloDario(Iterable<T> iterable, int n) {
+        this(iterable, n, ARIDAD);
+    }
+
+    /**
+     * Constructor para montículo <i>d</i>-ario a partir de un iterable y el
+     * número de elementos en el mismo, en tiempo <i>O</i>(<i>n</i>).
+     * @param iterable el iterable a partir de la cuál queremos construir el
+     *                 montículo.
+     * @param n el número de elementos en el iterable.
+     * @param aridad el número de hijos de cada vértice.
+     * @throws IllegalArgumentException si la aridad es menor que dos.
+     */
+    public MonticuloDario(Iterable<T> iterable, int n, int aridad) {
+        if (aridad < 2)
+            throw new IllegalArgumentException();
+        this.aridad = aridad;
+        arbol = nuevoArreglo(Math.max(n, 1));
+        for (T t : iterable) {
+            arbol[elementos] = t;
+            t.setIndice(elementos++);
+        }
+        monticuliza();
+    }
+
+    /* Acomoda todo el arreglo de abajo hacia arriba. */
+    private void monticuliza() {
+        if (elementos < 2)
+            return;
+        for (int i = (elementos - 2) / aridad; i >= 0; i--)
+            acomodaAbajo(i);
+    }
+
+    /* Sube el elemento en la posición i moviendo el hueco hacia arriba. */
+    private void acomodaArriba(int i) {
+        T e = arbol[i];
+        while (i > 0) {
+            int p = (i - 1) / aridad;
+            T padre = arbol[p];
+            if (e.compareTo(padre) >= 0)
+                break;
+            arbol[i] = padre;
+            padre.setIndice(i);
+            i = p;
+        }
+        arbol[i] = e;
+        e.setIndice(i);
+    }
+
+    /* Baja el elemento en la posición i moviendo el hueco hacia abajo. */
+    private void acomodaAbajo(int i) {
+        T e = arbol[i];
+        while (true) {
+            int primero = aridad * i + 1;
+            if (primero >= elementos)
+                break;
+            int ultimo = Math.min(primero + aridad, elementos);
+            int m = primero;
+            for (int h = primero + 1; h < ultimo; h++)
+                if (arbol[h].compareTo(arbol[m]) < 0)
+                    m = h;
+            if (arbol[m].compareTo(e) >= 0)
+                break;
+            arbol[i] = arbol[m];
+            arbol[i].setIndice(i);
+            i = m;
+        }
+        arbol[i] = e;
+        e.setIndice(i);
+    }
+
+    /* Se asegura de que quepan k elementos más. */
+    private void crece(int k) {
+        if (elementos + k <= arbol.length)
+            return;
+        T[] a = nuevoArreglo(Math.max(2 * arbol.length, elementos + k));
+        System.arraycopy(arbol, 0, a, 0, elementos);
+        arbol = a;
+    }
+
+    /**
+     * Agrega un nuevo elemento en el montículo.
+     * @param elemento el elemento a agregar en el montículo.
+     */
+    @Override public void agrega(T elemento) {
+        crece(1);
+        arbol[elementos] = elemento;
+        acomodaArriba(elementos++);
+    }
+
+    /**
+     * Agrega todos los elementos de la colección al montículo. Si la
+     * colección es grande comparada con el montículo, los agrega al final y
+     * reacomoda todo el arreglo en tiempo <i>O</i>(<i>n</i>+<i>k</i>); si no,
+     * los agrega uno por uno.
+     * @param coleccion la colección con los elementos a agregar.
+     */
+    public void agregaTodos(Coleccion<T> coleccion) {
+        int k = coleccion.getElementos();
+        crece(k);
+        int total = elementos + k;
+        int niveles = 1;
+        for (long c = aridad; c < total; c *= aridad)
+            niveles++;
+        if ((long)k * niveles <= total) {
+            for (T t : coleccion) {
+                arbol[elementos] = t;
+                acomodaArriba(elementos++);
+            }
+            return;
+        }
+        for (T t : coleccion) {
+            arbol[elementos] = t;
+            t.setIndice(elementos++);
+        }
+        monticuliza();
+    }
+
+    /**
+     * Elimina el elemento mínimo del montículo.
+     * @return el elemento mínimo del montículo.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    @Override public T elimina() {
+        if (elementos == 0)
+            throw new IllegalStateException();
+        T t = arbol[0];
+        elimina(t);
+        return t;
+    }
+
+    /**
+     * Elimina un elemento del montículo.
+     * @param elemento a eliminar del montículo.
+     */
+    @Override public void elimina(T elemento) {
+        if (!contiene(elemento))
+            return;
+        int i = elemento.getIndice();
+        T ultimo = arbol[--elementos];
+        arbol[elementos] = null;
+        elemento.setIndice(-1);
+        if (i == elementos)
+            return;
+        arbol[i] = ultimo;
+        ultimo.setIndice(i);
+        reordena(ultimo);
+    }
+
+    /**
+     * Nos dice si un elemento está contenido en el montículo.
+     * @param elemento el elemento que queremos saber si está contenido.
+     * @return <code>true</code> si el elemento está contenido,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean contiene(T elemento) {
+        int i = elemento.getIndice();
+        return i >= 0 && i < elementos && arbol[i] == elemento;
+    }
+
+    /**
+     * Nos dice si el montículo es vacío.
+     * @return <code>true</code> si ya no hay elementos en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Limpia el montículo de elementos, dejándolo vacío.
+     */
+    @Override public void limpia() {
+        for (int i = 0; i < elementos; i++)
+            arbol[i] = null;
+        elementos = 0;
+    }
+
+    /**
+     * Reordena un elemento en el árbol, hacia arriba o hacia abajo.
+     * @param elemento el elemento que hay que reordenar.
+     */
+    @Override public void reordena(T elemento) {
+        if (!contiene(elemento))
+            return;
+        int i = elemento.getIndice();
+        if (i > 0 && elemento.compareTo(arbol[(i - 1) / aridad]) < 0)
+            acomodaArriba(i);
+        else
+            acomodaAbajo(i);
+    }
+
+    /**
+     * Regresa el número de hijos de cada vértice.
+     * @return el número de hijos de cada vértice.
+     */
+    public int getAridad() {
+        return aridad;
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo.
+     * @return el número de elementos en el montículo.
+     */
+    @Override public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Regresa el <i>i</i>-ésimo elemento del árbol, por niveles.
+     * @param i el índice del elemento que queremos.
+     * @return el <i>i</i>-ésimo elemento del árbol, por niveles.
+     * @throws NoSuchElementException si i es menor que cero, o mayor o igual
+     *         que el número de elementos.
+     */
+    @Override public T get(int i) {
+        if (i < 0 || i >= elementos)
+            throw new NoSuchElementException();
+        return arbol[i];
+    }
+
+    /**
+     * Regresa una representación en cadena del montículo.
+     * @return una representación en cadena del montículo.
+     */
+    @Override public String toString() {
+        String s = "";
+        for (int i = 0; i < elementos; i++)
+            s += arbol[i] + ", ";
+        return s;
+    }
+
+    /**
+     * Regresa un iterador para iterar el montículo. El montículo se itera en
+     * orden BFS.
+     * @return un iterador para iterar el montículo.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterador();
+    }
+}
@@ -0,0 +1,122 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para montículos de Dijkstra con cubetas circulares (la cola de
+ * Dial), para prioridades enteras.</p>
+ *
+ * <p>Si las prioridades de los elementos que siguen en el montículo nunca
+ * distan más de <i>C</i> de la mínima, como en el algoritmo de Dijkstra con
+ * pesos enteros de a lo más <i>C</i>, basta un arreglo circular de
+ * <i>C</i>+1 cubetas: la prioridad <i>p</i> va en la cubeta <i>p</i> mod
+ * (<i>C</i>+1). Eliminar recorre las cubetas a partir de la prioridad mínima
+ * actual, que nunca baja, y reordenar cambia al elemento de cubeta en tiempo
+ * constante. Los elementos con prioridad {@link PrioridadEntera#INFINITO} van
+ * en una cubeta aparte y salen al final.</p>
+ */
+public class MonticuloDial<T extends PrioridadEntera<T>>
+    extends MonticuloCubetas<T> {
+
+    /* El número de cubetas finitas, C+1. */
+    private int anillo;
+    /* La prioridad mínima actual; ninguna prioridad finita puede bajar de
+     * ella ni rebasarla por más de C. */
+    private long actual;
+    /* El número de elementos con prioridad finita. */
+    private int finitos;
+
+    /**
+     * Constructor para montículo de Dial a partir de una colección.
+     * @param coleccion la colección a partir de la cuál queremos construir el
+     *                  montículo.
+     * @param maximo la máxima diferencia <i>C</i> entre prioridades finitas
+     *               del montículo.
+     * @throws IllegalArgumentException si <i>C</i> es negativa o demasiado
+     *         grande, si alguna prioridad es negativa, o si las prioridades
+     *         finitas distan más de <i>C</i>.
+     */
+    public MonticuloDial(Coleccion<T> coleccion, long maximo) {
+        this(coleccion, coleccion.getElementos(), maximo);
+    }
+
+    /**
+     * Constructor para montículo de Dial a partir de un iterable.
+     * @param iterable el iterable a partir de la cual construir el montículo.
+     * @param n el número de elementos en el iterable.
+     * @param maximo la máxima diferencia <i>C</i> entre prioridades finitas
+     *               del montículo.
+     * @throws IllegalArgumentException si <i>C</i> es negativa o demasiado
+     *         grande, si alguna prioridad es negativa, o si las prioridades
+     *         finitas distan más de <i>C</i>.
+     */
+    public MonticuloDial(Iterable<T> iterable, int n, long maximo) {
+        super(iterable, n, cubetas(maximo));
+        anillo = (int)maximo + 1;
+        actual = PrioridadEntera.INFINITO;
+        for (T t : arreglo)
+            actual = Math.min(actual, t.getPrioridad());
+        if (actual == PrioridadEntera.INFINITO)
+            actual = 0;
+        for (int i = 0; i < n; i++) {
+            int c = cubeta(arreglo[i].getPrioridad());
+            if (c != anillo)
+                finitos++;
+            mete(i, c);
+        }
+    }
+
+    /* Regresa el número de cubetas para la diferencia máxima. */
+    private static int cubetas(long maximo) {
+        if (maximo < 0 || maximo >= Integer.MAX_VALUE - 1)
+            throw new IllegalArgumentException();
+        return (int)maximo + 2;
+    }
+
+    /* Regresa la cubeta de la prioridad. */
+    private int cubeta(long p) {
+        if (p == PrioridadEntera.INFINITO)
+            return anillo;
+        if (p < actual || p - actual >= anillo)
+            throw new IllegalArgumentException();
+        return (int)(p % anillo);
+    }
+
+    /**
+     * Elimina el elemento mínimo del montículo.
+     * @return el elemento mínimo del montículo.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    @Override public T elimina() {
+        if (elementos == 0)
+            throw new IllegalStateException();
+        if (finitos == 0)
+            return eliminaCabeza(anillo);
+        int c = (int)(actual % anillo);
+        while (cabezas[c] == -1) {
+            actual++;
+            c = c + 1 == anillo ? 0 : c + 1;
+        }
+        finitos--;
+        return eliminaCabeza(c);
+    }
+
+    /**
+     * Reordena un elemento en el montículo, en tiempo constante. La nueva
+     * prioridad no puede ser menor que la del último elemento eliminado (o
+     * que la mínima inicial), ni rebasarla por más de <i>C</i>.
+     * @param elemento el elemento que hay que reordenar.
+     * @throws IllegalArgumentException si la nueva prioridad no cabe en las
+     *         cubetas.
+     */
+    @Override public void reordena(T elemento) {
+        int i = indice(elemento);
+        if (i == -1)
+            return;
+        int c = cubeta(elemento.getPrioridad());
+        if (cubetas[i] == anillo && c != anillo)
+            finitos++;
+        else if (cubetas[i] != anillo && c == anillo)
+            finitos--;
+        saca(i);
+        mete(i, c);
+    }
+}
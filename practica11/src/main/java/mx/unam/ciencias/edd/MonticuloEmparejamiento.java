@@ -0,0 +1,180 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para montículos de emparejamiento (<i>pairing heaps</i>) de
+ * Dijkstra.</p>
+ *
+ * <p>El montículo es un árbol de hijos arbitrarios con el mínimo en la raíz.
+ * Reordenar un elemento cuya prioridad bajó lo corta de su padre y lo enlaza
+ * con la raíz con una sola comparación, en tiempo constante (amortizado
+ * <i>o</i>(log <i>n</i>)); eliminar el mínimo empareja a los hijos de la
+ * raíz de izquierda a derecha y junta los pares de derecha a izquierda, en
+ * tiempo <i>O</i>(log <i>n</i>) amortizado.</p>
+ *
+ * <p>Como en {@link MonticuloArreglo}, el índice de cada elemento es su
+ * posición fija en el arreglo del montículo, y el árbol se guarda en
+ * arreglos paralelos, sin crear nodos.</p>
+ */
+public class MonticuloEmparejamiento<T extends ComparableIndexable<T>>
+    implements MonticuloDijkstra<T> {
+
+    /* Los elementos, por índice. */
+    private T[] arreglo;
+    /* El número de elementos en el montículo. */
+    private int elementos;
+    /* La raíz, o -1. */
+    private int raiz;
+    /* El hijo izquierdo de cada índice, o -1. */
+    private int[] hijos;
+    /* El hermano derecho de cada índice, o -1. */
+    private int[] hermanos;
+    /* El hermano izquierdo de cada índice, o su padre si es el primer hijo;
+     * -1 para la raíz. */
+    private int[] anteriores;
+    /* Espacio para los hijos de la raíz al eliminarla. */
+    private int[] pares;
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private T[] nuevoArreglo(int n) {
+        return (T[])(new ComparableIndexable[n]);
+    }
+
+    /**
+     * Constructor para montículo de emparejamiento a partir de una
+     * colección.
+     * @param coleccion la colección a partir de la cuál queremos construir el
+     *                  montículo.
+     */
+    public MonticuloEmparejamiento(Coleccion<T> coleccion) {
+        this(coleccion, coleccion.getElementos());
+    }
+
+    /**
+     * Constructor para montículo de emparejamiento a partir de un iterable,
+     * en tiempo <i>O</i>(<i>n</i>).
+     * @param iterable el iterable a partir de la cual construir el montículo.
+     * @param n el número de elementos en el iterable.
+     */
+    public MonticuloEmparejamiento(Iterable<T> iterable, int n) {
+        arreglo = nuevoArreglo(n);
+        hijos = new int[n];
+        hermanos = new int[n];
+        anteriores = new int[n];
+        pares = new int[n];
+        raiz = -1;
+        int i = 0;
+        for (T t : iterable) {
+            arreglo[i] = t;
+            t.setIndice(i);
+            hijos[i] = hermanos[i] = anteriores[i] = -1;
+            raiz = raiz == -1 ? i : enlaza(raiz, i);
+            i++;
+        }
+        elementos = n;
+    }
+
+    /* Enlaza dos raíces y regresa la nueva raíz: la mayor se vuelve el
+     * primer hijo de la menor. */
+    private int enlaza(int a, int b) {
+        if (arreglo[b].compareTo(arreglo[a]) < 0) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        hermanos[b] = hijos[a];
+        if (hijos[a] != -1)
+            anteriores[hijos[a]] = b;
+        anteriores[b] = a;
+        hijos[a] = b;
+        hermanos[a] = anteriores[a] = -1;
+        return a;
+    }
+
+    /**
+     * Elimina el elemento mínimo del montículo.
+     * @return el elemento mínimo del montículo.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    @Override public T elimina() {
+        if (elementos == 0)
+            throw new IllegalStateException();
+        int r = raiz;
+        int k = 0;
+        for (int h = hijos[r]; h != -1; h = hermanos[h])
+            pares[k++] = h;
+        int j = 0;
+        for (int i = 0; i + 1 < k; i += 2)
+            pares[j++] = enlaza(pares[i], pares[i+1]);
+        if (k % 2 == 1)
+            pares[j++] = pares[k-1];
+        raiz = -1;
+        if (j > 0) {
+            raiz = pares[j-1];
+            anteriores[raiz] = hermanos[raiz] = -1;
+            for (int i = j - 2; i >= 0; i--)
+                raiz = enlaza(pares[i], raiz);
+        }
+        T t = arreglo[r];
+        arreglo[r] = null;
+        t.setIndice(-1);
+        elementos--;
+        return t;
+    }
+
+    /**
+     * Reordena un elemento cuya prioridad bajó, cortándolo de su padre y
+     * enlazándolo con la raíz. Si la prioridad subió, el montículo deja de
+     * ser válido.
+     * @param elemento el elemento que hay que reordenar.
+     */
+    @Override public void reordena(T elemento) {
+        int i = elemento.getIndice();
+        if (i < 0 || i >= arreglo.length || arreglo[i] != elemento ||
+            i == raiz)
+            return;
+        int a = anteriores[i];
+        if (hijos[a] == i)
+            hijos[a] = hermanos[i];
+        else
+            hermanos[a] = hermanos[i];
+        if (hermanos[i] != -1)
+            anteriores[hermanos[i]] = a;
+        hermanos[i] = anteriores[i] = -1;
+        raiz = enlaza(raiz, i);
+    }
+
+    /**
+     * Regresa el <i>i</i>-ésimo elemento del arreglo.
+     * @param i el índice del elemento que queremos.
+     * @return el <i>i</i>-ésimo elemento del arreglo, o <code>null</code> si
+     *         ya se eliminó.
+     * @throws NoSuchElementException si i es menor que cero, o mayor o igual
+     *         que el número de elementos con el que se creó el montículo.
+     */
+    @Override public T get(int i) {
+        if (i < 0 || i >= arreglo.length)
+            throw new NoSuchElementException();
+        return arreglo[i];
+    }
+
+    /**
+     * Nos dice si el montículo es vacío.
+     * @return <code>true</code> si ya no hay elementos en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo.
+     * @return el número de elementos en el montículo.
+     */
+    @Override public int getElementos() {
+        return elementos;
+    }
+}
@@ -0,0 +1,255 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para montículos de Fibonacci de Dijkstra.</p>
+ *
+ * <p>El montículo es una lista circular de árboles con un apuntador al
+ * mínimo. Reordenar un elemento cuya prioridad bajó lo corta de su padre y
+ * lo sube a la lista de raíces; si el padre ya había perdido un hijo, se
+ * corta también, en cascada. Eso mantiene el grado de los árboles
+ * logarítmico, y reordenar cuesta tiempo constante amortizado. Eliminar el
+ * mínimo sube sus hijos a la lista de raíces y consolida las raíces del
+ * mismo grado, en tiempo <i>O</i>(log <i>n</i>) amortizado.</p>
+ *
+ * <p>Como en {@link MonticuloArreglo}, el índice de cada elemento es su
+ * posición fija en el arreglo del montículo, y los árboles se guardan en
+ * arreglos paralelos, sin crear nodos.</p>
+ */
+public class MonticuloFibonacci<T extends ComparableIndexable<T>>
+    implements MonticuloDijkstra<T> {
+
+    /* El grado máximo de un árbol, que es menor que log_φ(2³¹). */
+    private static final int GRADO_MAXIMO = 48;
+
+    /* Los elementos, por índice. */
+    private T[] arreglo;
+    /* El número de elementos en el montículo. */
+    private int elementos;
+    /* El mínimo, o -1. */
+    private int minimo;
+    /* El padre de cada índice, o -1. */
+    private int[] padres;
+    /* Algún hijo de cada índice, o -1. */
+    private int[] hijos;
+    /* El hermano izquierdo de cada índice en su lista circular. */
+    private int[] izquierdos;
+    /* El hermano derecho de cada índice en su lista circular. */
+    private int[] derechos;
+    /* El número de hijos de cada índice. */
+    private int[] grados;
+    /* Si cada índice ya perdió un hijo desde que dejó de ser raíz. */
+    private boolean[] marcados;
+    /* Espacio para las raíces al consolidar. */
+    private int[] raices;
+    /* La raíz de cada grado al consolidar, o -1. */
+    private int[] porGrado;
+
+    /* Truco para crear arreglos genéricos. Es necesario hacerlo así por cómo
+       Java implementa sus genéricos; de otra forma obtenemos advertencias del
+       compilador. */
+    @SuppressWarnings("unchecked") private T[] nuevoArreglo(int n) {
+        return (T[])(new ComparableIndexable[n]);
+    }
+
+    /**
+     * Constructor para montículo de Fibonacci a partir de una colección.
+     * @param coleccion la colección a partir de la cuál queremos construir el
+     *                  montículo.
+     */
+    public MonticuloFibonacci(Coleccion<T> coleccion) {
+        this(coleccion, coleccion.getElementos());
+    }
+
+    /**
+     * Constructor para montículo de Fibonacci a partir de un iterable, en
+     * tiempo <i>O</i>(<i>n</i>).
+     * @param iterable el iterable a partir de la cual construir el montículo.
+     * @param n el número de elementos en el iterable.
+     */
+    public MonticuloFibonacci(Iterable<T> iterable, int n) {
+        arreglo = nuevoArreglo(n);
+        padres = new int[n];
+        hijos = new int[n];
+        izquierdos = new int[n];
+        derechos = new int[n];
+        grados = new int[n];
+        marcados = new boolean[n];
+        raices = new int[n];
+        porGrado = new int[GRADO_MAXIMO];
+        minimo = -1;
+        int i = 0;
+        for (T t : iterable) {
+            arreglo[i] = t;
+            t.setIndice(i);
+            padres[i] = hijos[i] = -1;
+            izquierdos[i] = derechos[i] = i;
+            agregaRaiz(i);
+            i++;
+        }
+        elementos = n;
+    }
+
+    /* Mete al índice a la lista de raíces, y actualiza el mínimo. */
+    private void agregaRaiz(int i) {
+        padres[i] = -1;
+        marcados[i] = false;
+        if (minimo == -1) {
+            izquierdos[i] = derechos[i] = i;
+            minimo = i;
+            return;
+        }
+        izquierdos[i] = minimo;
+        derechos[i] = derechos[minimo];
+        izquierdos[derechos[minimo]] = i;
+        derechos[minimo] = i;
+        if (arreglo[i].compareTo(arreglo[minimo]) < 0)
+            minimo = i;
+    }
+
+    /* Saca al índice de su lista circular. */
+    private void saca(int i) {
+        derechos[izquierdos[i]] = derechos[i];
+        izquierdos[derechos[i]] = izquierdos[i];
+        izquierdos[i] = derechos[i] = i;
+    }
+
+    /**
+     * Elimina el elemento mínimo del montículo.
+     * @return el elemento mínimo del montículo.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    @Override public T elimina() {
+        if (elementos == 0)
+            throw new IllegalStateException();
+        int z = minimo;
+        int k = 0;
+        for (int r = derechos[z]; r != z; r = derechos[r])
+            raices[k++] = r;
+        int h = hijos[z];
+        if (h != -1) {
+            int r = h;
+            do {
+                raices[k++] = r;
+                r = derechos[r];
+            } while (r != h);
+        }
+        minimo = -1;
+        for (int g = 0; g < GRADO_MAXIMO; g++)
+            porGrado[g] = -1;
+        for (int j = 0; j < k; j++) {
+            int x = raices[j];
+            padres[x] = -1;
+            izquierdos[x] = derechos[x] = x;
+            while (porGrado[grados[x]] != -1) {
+                int y = porGrado[grados[x]];
+                porGrado[grados[x]] = -1;
+                x = enlaza(x, y);
+            }
+            porGrado[grados[x]] = x;
+        }
+        for (int g = 0; g < GRADO_MAXIMO; g++)
+            if (porGrado[g] != -1)
+                agregaRaiz(porGrado[g]);
+        T t = arreglo[z];
+        arreglo[z] = null;
+        t.setIndice(-1);
+        elementos--;
+        return t;
+    }
+
+    /* Enlaza dos raíces del mismo grado y regresa la nueva raíz: la mayor se
+     * vuelve hija de la menor. */
+    private int enlaza(int a, int b) {
+        if (arreglo[b].compareTo(arreglo[a]) < 0) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        padres[b] = a;
+        marcados[b] = false;
+        int h = hijos[a];
+        if (h == -1) {
+            izquierdos[b] = derechos[b] = b;
+            hijos[a] = b;
+        } else {
+            izquierdos[b] = h;
+            derechos[b] = derechos[h];
+            izquierdos[derechos[h]] = b;
+            derechos[h] = b;
+        }
+        grados[a]++;
+        return a;
+    }
+
+    /* Corta al índice de su padre y lo sube a la lista de raíces. */
+    private void corta(int i) {
+        int p = padres[i];
+        if (hijos[p] == i)
+            hijos[p] = derechos[i] == i ? -1 : derechos[i];
+        saca(i);
+        grados[p]--;
+        agregaRaiz(i);
+    }
+
+    /**
+     * Reordena un elemento cuya prioridad bajó, en tiempo constante
+     * amortizado. Si la prioridad subió, el montículo deja de ser válido.
+     * @param elemento el elemento que hay que reordenar.
+     */
+    @Override public void reordena(T elemento) {
+        int i = elemento.getIndice();
+        if (i < 0 || i >= arreglo.length || arreglo[i] != elemento)
+            return;
+        int p = padres[i];
+        if (p == -1) {
+            if (arreglo[i].compareTo(arreglo[minimo]) < 0)
+                minimo = i;
+            return;
+        }
+        if (arreglo[i].compareTo(arreglo[p]) >= 0)
+            return;
+        corta(i);
+        while (padres[p] != -1) {
+            if (!marcados[p]) {
+                marcados[p] = true;
+                return;
+            }
+            int q = padres[p];
+            corta(p);
+            p = q;
+        }
+    }
+
+    /**
+     * Regresa el <i>i</i>-ésimo elemento del arreglo.
+     * @param i el índice del elemento que queremos.
+     * @return el <i>i</i>-ésimo elemento del arreglo, o <code>null</code> si
+     *         ya se eliminó.
+     * @throws NoSuchElementException si i es menor que cero, o mayor o igual
+     *         que el número de elementos con el que se creó el montículo.
+     */
+    @Override public T get(int i) {
+        if (i < 0 || i >= arreglo.length)
+            throw new NoSuchElementException();
+        return arreglo[i];
+    }
+
+    /**
+     * Nos dice si el montículo es vacío.
+     * @return <code>true</code> si ya no hay elementos en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo.
+     * @return el número de elementos en el montículo.
+     */
+    @Override public int getElementos() {
+        return elementos;
+    }
+}
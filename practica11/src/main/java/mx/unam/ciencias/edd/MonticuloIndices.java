@@ -0,0 +1,162 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Clase para montículos mínimos de índices enteros. Los elementos del
+ * montículo son los enteros en el rango [0, <i>n</i>), y cada uno tiene
+ * asociada una llave de punto flotante; el montículo no crea objetos al
+ * agregar, eliminar o reordenar, por lo que es el que usan los algoritmos que
+ * trabajan sobre arreglos primitivos.
+ */
+class MonticuloIndices {
+
+    /* El árbol del montículo, con los índices de los elementos. */
+    private int[] arbol;
+    /* La posición de cada índice en el árbol, o -1 si no está. */
+    private int[] posiciones;
+    /* La llave de cada índice. */
+    private double[] llaves;
+    /* El número de elementos en el montículo. */
+    private int elementos;
+
+    /**
+     * Construye un montículo vacío para los índices en [0, <i>n</i>).
+     * @param n el número de índices posibles.
+     */
+    public MonticuloIndices(int n) {
+        arbol = new int[n];
+        posiciones = new int[n];
+        llaves = new double[n];
+        for (int i = 0; i < n; i++)
+            posiciones[i] = -1;
+    }
+
+    /**
+     * Agrega el índice con la llave dada, o actualiza su llave si ya estaba en
+     * el montículo.
+     * @param indice el índice.
+     * @param llave la llave del índice.
+     */
+    public void agrega(int indice, double llave) {
+        int p = posiciones[indice];
+        if (p == -1) {
+            llaves[indice] = llave;
+            acomodaArriba(indice, elementos++);
+            return;
+        }
+        double anterior = llaves[indice];
+        llaves[indice] = llave;
+        if (llave < anterior)
+            acomodaArriba(indice, p);
+        else
+            acomodaAbajo(indice, p);
+    }
+
+    /**
+     * Elimina el índice con la llave mínima del montículo.
+     * @return el índice con la llave mínima.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    public int elimina() {
+        if (elementos == 0)
+            throw new IllegalStateException();
+        int minimo = arbol[0];
+        posiciones[minimo] = -1;
+        if (--elementos > 0)
+            acomodaAbajo(arbol[elementos], 0);
+        return minimo;
+    }
+
+    /**
+     * Regresa el índice con la llave mínima sin eliminarlo.
+     * @return el índice con la llave mínima.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    public int mira() {
+        if (elementos == 0)
+            throw new IllegalStateException();
+        return arbol[0];
+    }
+
+    /**
+     * Regresa la última llave asignada al índice.
+     * @param indice el índice.
+     * @return la última llave asignada al índice.
+     */
+    public double getLlave(int indice) {
+        return llaves[indice];
+    }
+
+    /**
+     * Nos dice si el índice está en el montículo.
+     * @param indice el índice.
+     * @return <code>true</code> si el índice está en el montículo,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(int indice) {
+        return posiciones[indice] != -1;
+    }
+
+    /**
+     * Nos dice si el montículo es vacío.
+     * @return <code>true</code> si el montículo es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en el montículo.
+     * @return el número de elementos en el montículo.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Limpia el montículo para reutilizarlo, en tiempo proporcional al número
+     * de elementos que tenía.
+     */
+    public void limpia() {
+        for (int i = 0; i < elementos; i++)
+            posiciones[arbol[i]] = -1;
+        elementos = 0;
+    }
+
+    /* Sube el índice desde la posición p, moviendo el hueco en lugar de
+     * intercambiar. */
+    private void acomodaArriba(int indice, int p) {
+        double llave = llaves[indice];
+        while (p > 0) {
+            int padre = (p - 1) >>> 1;
+            int q = arbol[padre];
+            if (llaves[q] <= llave)
+                break;
+            arbol[p] = q;
+            posiciones[q] = p;
+            p = padre;
+        }
+        arbol[p] = indice;
+        posiciones[indice] = p;
+    }
+
+    /* Baja el índice desde la posición p, moviendo el hueco en lugar de
+     * intercambiar. */
+    private void acomodaAbajo(int indice, int p) {
+        double llave = llaves[indice];
+        int mitad = elementos >>> 1;
+        while (p < mitad) {
+            int h = 2 * p + 1;
+            int d = h + 1;
+            if (d < elementos && llaves[arbol[d]] < llaves[arbol[h]])
+                h = d;
+            if (llave <= llaves[arbol[h]])
+                break;
+            arbol[p] = arbol[h];
+            posiciones[arbol[p]] = p;
+            p = h;
+        }
+        arbol[p] = indice;
+        posiciones[indice] = p;
+    }
+}
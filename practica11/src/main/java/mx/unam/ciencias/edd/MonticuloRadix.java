@@ -0,0 +1,99 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para montículos de Dijkstra con cubetas por bits (<i>radix
+ * heaps</i>), para prioridades enteras de cualquier tamaño.</p>
+ *
+ * <p>El montículo recuerda la última prioridad eliminada, y ninguna
+ * prioridad puede bajar de ella. La cubeta 0 tiene a los elementos con esa
+ * misma prioridad, y la cubeta <i>i</i> &gt; 0 a los que difieren de ella en
+ * el bit <i>i</i>-1 como bit más alto. Cuando la cubeta 0 se vacía, se busca
+ * el mínimo de la primera cubeta no vacía, que pasa a ser la última
+ * prioridad, y sus elementos se reparten en cubetas más bajas. Si
+ * <i>C</i> es la máxima diferencia entre una prioridad y la última
+ * eliminada (en Dijkstra, el peso máximo de una arista), eliminar es tiempo
+ * <i>O</i>(log <i>C</i>) amortizado, no constante: es lo que cuesta buscar
+ * la primera cubeta no vacía y bajar de cubeta a los elementos. Reordenar
+ * cambia al elemento de cubeta en tiempo constante.</p>
+ */
+public class MonticuloRadix<T extends PrioridadEntera<T>>
+    extends MonticuloCubetas<T> {
+
+    /* La última prioridad eliminada. */
+    private long ultima;
+
+    /**
+     * Constructor para montículo radix a partir de una colección.
+     * @param coleccion la colección a partir de la cuál queremos construir el
+     *                  montículo.
+     * @throws IllegalArgumentException si alguna prioridad es negativa.
+     */
+    public MonticuloRadix(Coleccion<T> coleccion) {
+        this(coleccion, coleccion.getElementos());
+    }
+
+    /**
+     * Constructor para montículo radix a partir de un iterable.
+     * @param iterable el iterable a partir de la cual construir el montículo.
+     * @param n el número de elementos en el iterable.
+     * @throws IllegalArgumentException si alguna prioridad es negativa.
+     */
+    public MonticuloRadix(Iterable<T> iterable, int n) {
+        super(iterable, n, 65);
+        ultima = PrioridadEntera.INFINITO;
+        for (T t : arreglo)
+            ultima = Math.min(ultima, t.getPrioridad());
+        for (int i = 0; i < n; i++)
+            mete(i, cubeta(arreglo[i].getPrioridad()));
+    }
+
+    /* Regresa la cubeta de la prioridad. */
+    private int cubeta(long p) {
+        if (p < ultima)
+            throw new IllegalArgumentException();
+        return 64 - Long.numberOfLeadingZeros(p ^ ultima);
+    }
+
+    /**
+     * Elimina el elemento mínimo del montículo.
+     * @return el elemento mínimo del montículo.
+     * @throws IllegalStateException si el montículo es vacío.
+     */
+    @Override public T elimina() {
+        if (elementos == 0)
+            throw new IllegalStateException();
+        if (cabezas[0] == -1) {
+            int c = 1;
+            while (cabezas[c] == -1)
+                c++;
+            int i = cabezas[c];
+            ultima = arreglo[i].getPrioridad();
+            for (i = siguientes[i]; i != -1; i = siguientes[i])
+                ultima = Math.min(ultima, arreglo[i].getPrioridad());
+            i = cabezas[c];
+            cabezas[c] = -1;
+            while (i != -1) {
+                int s = siguientes[i];
+                mete(i, cubeta(arreglo[i].getPrioridad()));
+                i = s;
+            }
+        }
+        return eliminaCabeza(0);
+    }
+
+    /**
+     * Reordena un elemento en el montículo, en tiempo constante. La nueva
+     * prioridad no puede ser menor que la del último elemento eliminado.
+     * @param elemento el elemento que hay que reordenar.
+     * @throws IllegalArgumentException si la nueva prioridad es menor que la
+     *         del último elemento eliminado.
+     */
+    @Override public void reordena(T elemento) {
+        int i = indice(elemento);
+        if (i == -1)
+            return;
+        int c = cubeta(elemento.getPrioridad());
+        saca(i);
+        mete(i, c);
+    }
+}
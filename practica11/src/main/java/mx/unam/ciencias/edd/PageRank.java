@@ -0,0 +1,206 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para calcular el PageRank de los vértices de una {@link
+ * GraficaCSR} por el método de la potencia. En cada iteración cada vértice
+ * reparte su puntaje en partes iguales entre sus vecinos; con probabilidad
+ * 1 − <i>d</i> el puntaje salta a un vértice al azar, y el de los vértices
+ * aislados se reparte entre todos. Los pesos de las aristas se ignoran.</p>
+ *
+ * <p>Los puntajes viven en dos arreglos primitivos que se alternan entre
+ * iteraciones. Cada iteración primero calcula en paralelo lo que aporta cada
+ * vértice, y después cada vértice junta en paralelo lo que le aportan sus
+ * vecinos, así que ningún hilo escribe en el puntaje de otro. El método se
+ * detiene cuando la suma de los cambios absolutos (el residuo) es menor que
+ * la tolerancia, o al llegar al máximo de iteraciones.</p>
+ */
+public class PageRank<T> {
+
+    /** El factor de amortiguamiento por omisión. */
+    public static final double AMORTIGUAMIENTO = 0.85;
+    /** La tolerancia por omisión. */
+    public static final double TOLERANCIA = 1e-6;
+    /** El máximo de iteraciones por omisión. */
+    public static final int MAXIMO_ITERACIONES = 100;
+
+    /* El tamaño de los pedazos en que se reparten los vértices. Es fijo para
+     * que las sumas no dependan del número de hilos. */
+    private static final int GRANO = 1 << 12;
+    /* El tamaño inicial del arreglo de residuos. */
+    private static final int RESIDUOS = 64;
+
+    /* La gráfica. */
+    private GraficaCSR<T> grafica;
+    /* Los puntajes. */
+    private double[] puntajes;
+    /* El residuo de cada iteración; crece conforme se necesita. */
+    private double[] residuos;
+    /* El número de iteraciones. */
+    private int iteraciones;
+    /* Si el residuo llegó a ser menor que la tolerancia. */
+    private boolean convergio;
+
+    /**
+     * Calcula el PageRank con los parámetros por omisión.
+     * @param grafica la gráfica.
+     */
+    public PageRank(GraficaCSR<T> grafica) {
+        this(grafica, AMORTIGUAMIENTO, TOLERANCIA, MAXIMO_ITERACIONES);
+    }
+
+    /**
+     * Calcula el PageRank con los parámetros recibidos.
+     * @param grafica la gráfica.
+     * @param amortiguamiento la probabilidad <i>d</i> de seguir una arista.
+     * @param tolerancia el residuo bajo el cual el método se detiene.
+     * @param maximoIteraciones el máximo número de iteraciones.
+     * @throws IllegalArgumentException si el amortiguamiento no está en [0,
+     *         1), si la tolerancia es negativa, o si el máximo de
+     *         iteraciones es menor que uno.
+     */
+    public PageRank(GraficaCSR<T> grafica, double amortiguamiento,
+                    double tolerancia, int maximoIteraciones) {
+        if (!(amortiguamiento >= 0 && amortiguamiento < 1) ||
+            !(tolerancia >= 0) || maximoIteraciones < 1)
+            throw new IllegalArgumentException();
+        this.grafica = grafica;
+        residuos = new double[Math.min(maximoIteraciones, RESIDUOS)];
+        itera(amortiguamiento, tolerancia, maximoIteraciones);
+    }
+
+    /* Itera hasta converger o llegar al máximo. */
+    private void itera(double d, double tolerancia, int maximo) {
+        int n = grafica.getElementos();
+        int[] desplazamientos = grafica.getDesplazamientos();
+        int[] destinos = grafica.getDestinos();
+        double[][] arreglos = { new double[n], new double[n] };
+        double[] aportes = new double[n];
+        double[] inicial = arreglos[0];
+        Paralelo.paraCada(0, n, GRANO, (a, b) -> {
+                for (int v = a; v < b; v++)
+                    inicial[v] = 1.0 / n;
+            });
+        while (n > 0 && iteraciones < maximo) {
+            double[] actual = arreglos[iteraciones & 1];
+            double[] siguiente = arreglos[(iteraciones + 1) & 1];
+            double aislados = Paralelo.suma(0, n, GRANO, (a, b) -> {
+                    double s = 0;
+                    for (int v = a; v < b; v++) {
+                        int g = desplazamientos[v+1] - desplazamientos[v];
+                        if (g == 0) {
+                            aportes[v] = 0;
+                            s += actual[v];
+                        } else {
+                            aportes[v] = actual[v] / g;
+                        }
+                    }
+                    return s;
+                });
+            double base = (1 - d) / n + d * aislados / n;
+            double residuo = Paralelo.suma(0, n, GRANO, (a, b) -> {
+                    double s = 0;
+                    for (int v = a; v < b; v++) {
+                        double x = 0;
+                        for (int e = desplazamientos[v];
+                             e < desplazamientos[v+1]; e++)
+                            x += aportes[destinos[e]];
+                        x = base + d * x;
+                        s += Math.abs(x - actual[v]);
+                        siguiente[v] = x;
+                    }
+                    return s;
+                });
+            if (iteraciones == residuos.length)
+                creceResiduos(maximo);
+            residuos[iteraciones++] = residuo;
+            if (residuo < tolerancia) {
+                convergio = true;
+                break;
+            }
+        }
+        puntajes = arreglos[iteraciones & 1];
+    }
+
+    /* Duplica el arreglo de residuos, sin rebasar el máximo de
+     * iteraciones. */
+    private void creceResiduos(int maximo) {
+        int m = (int)Math.min(2L * residuos.length, maximo);
+        double[] r = new double[m];
+        System.arraycopy(residuos, 0, r, 0, iteraciones);
+        residuos = r;
+    }
+
+    /**
+     * Regresa el número de iteraciones que se hicieron.
+     * @return el número de iteraciones que se hicieron.
+     */
+    public int getIteraciones() {
+        return iteraciones;
+    }
+
+    /**
+     * Nos dice si el residuo llegó a ser menor que la tolerancia antes del
+     * máximo de iteraciones.
+     * @return <code>true</code> si el método convergió, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean convergio() {
+        return convergio;
+    }
+
+    /**
+     * Regresa el residuo de la iteración recibida: la suma de los cambios
+     * absolutos de los puntajes en esa iteración.
+     * @param iteracion la iteración, entre 0 y el número de iteraciones.
+     * @return el residuo de la iteración.
+     * @throws ExcepcionIndiceInvalido si la iteración no es válida.
+     */
+    public double getResiduo(int iteracion) {
+        if (iteracion < 0 || iteracion >= iteraciones)
+            throw new ExcepcionIndiceInvalido();
+        return residuos[iteracion];
+    }
+
+    /**
+     * Regresa una copia de los residuos de todas las iteraciones.
+     * @return una copia de los residuos de todas las iteraciones.
+     */
+    public double[] getResiduos() {
+        double[] r = new double[iteraciones];
+        System.arraycopy(residuos, 0, r, 0, iteraciones);
+        return r;
+    }
+
+    /**
+     * Regresa el puntaje del vértice con el índice recibido.
+     * @param indice el índice del vértice.
+     * @return el puntaje del vértice.
+     * @throws ExcepcionIndiceInvalido si el índice no es válido.
+     */
+    public double getPuntaje(int indice) {
+        if (indice < 0 || indice >= puntajes.length)
+            throw new ExcepcionIndiceInvalido();
+        return puntajes[indice];
+    }
+
+    /**
+     * Regresa el puntaje del vértice del elemento recibido.
+     * @param elemento el elemento.
+     * @return el puntaje del vértice del elemento.
+     * @throws java.util.NoSuchElementException si el elemento no está en la
+     *         gráfica.
+     */
+    public double getPuntaje(T elemento) {
+        return puntajes[grafica.indice(elemento)];
+    }
+
+    /**
+     * Regresa una copia de los puntajes, por índice. Los puntajes suman uno.
+     * @return una copia de los puntajes.
+     */
+    public double[] getPuntajes() {
+        double[] p = new double[puntajes.length];
+        System.arraycopy(puntajes, 0, p, 0, p.length);
+        return p;
+    }
+}
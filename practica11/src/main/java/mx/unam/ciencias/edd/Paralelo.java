@@ -0,0 +1,163 @@
+package mx.unam.ciencias.edd;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Clase para ejecutar acciones sobre rangos de índices en paralelo, usando el
+ * {@link ForkJoinPool} común. El rango se parte a la mitad recursivamente
+ * hasta que los pedazos son de a lo más un grano, y cada pedazo se ejecuta en
+ * un solo hilo.
+ */
+class Paralelo {
+
+    /**
+     * Interfaz para acciones sobre rangos de índices.
+     */
+    @FunctionalInterface
+    public interface AccionRango {
+
+        /**
+         * Realiza la acción sobre los índices en [inicio, fin).
+         * @param inicio el primer índice del rango.
+         * @param fin el índice siguiente al último del rango.
+         */
+        public void actua(int inicio, int fin);
+    }
+
+    /**
+     * Interfaz para sumas sobre rangos de índices.
+     */
+    @FunctionalInterface
+    public interface SumaRango {
+
+        /**
+         * Regresa la suma sobre los índices en [inicio, fin).
+         * @param inicio el primer índice del rango.
+         * @param fin el índice siguiente al último del rango.
+         * @return la suma sobre el rango.
+         */
+        public double suma(int inicio, int fin);
+    }
+
+    /* Clase interna privada para tareas. */
+    private static class Tarea extends RecursiveAction {
+
+        /* El inicio del rango. */
+        private int inicio;
+        /* El fin del rango. */
+        private int fin;
+        /* El tamaño máximo de un pedazo. */
+        private int grano;
+        /* La acción. */
+        private AccionRango accion;
+
+        /* Crea una nueva tarea. */
+        public Tarea(int inicio, int fin, int grano, AccionRango accion) {
+            this.inicio = inicio;
+            this.fin = fin;
+            this.grano = grano;
+            this.accion = accion;
+        }
+
+        /* Ejecuta la acción, o la parte en dos tareas. */
+        @Override protected void compute() {
+            if (fin - inicio <= grano) {
+                accion.actua(inicio, fin);
+                return;
+            }
+            int m = (inicio + fin) >>> 1;
+            invokeAll(new Tarea(inicio, m, grano, accion),
+                      new Tarea(m, fin, grano, accion));
+        }
+    }
+
+    /* Clase interna privada para tareas de suma. */
+    private static class TareaSuma extends RecursiveTask<Double> {
+
+        /* El inicio del rango. */
+        private int inicio;
+        /* El fin del rango. */
+        private int fin;
+        /* El tamaño máximo de un pedazo. */
+        private int grano;
+        /* La suma. */
+        private SumaRango suma;
+
+        /* Crea una nueva tarea. */
+        public TareaSuma(int inicio, int fin, int grano, SumaRango suma) {
+            this.inicio = inicio;
+            this.fin = fin;
+            this.grano = grano;
+            this.suma = suma;
+        }
+
+        /* Calcula la suma, o la parte en dos tareas. */
+        @Override protected Double compute() {
+            if (fin - inicio <= grano)
+                return suma.suma(inicio, fin);
+            int m = (inicio + fin) >>> 1;
+            TareaSuma izquierda = new TareaSuma(inicio, m, grano, suma);
+            izquierda.fork();
+            double d = new TareaSuma(m, fin, grano, suma).compute();
+            return izquierda.join() + d;
+        }
+    }
+
+    /* Constructor privado para evitar instanciación. */
+    private Paralelo() {}
+
+    /**
+     * Regresa el número de hilos del {@link ForkJoinPool} común.
+     * @return el número de hilos del {@link ForkJoinPool} común.
+     */
+    public static int getHilos() {
+        return ForkJoinPool.getCommonPoolParallelism();
+    }
+
+    /**
+     * Realiza la acción sobre el rango [inicio, fin) en paralelo, partiéndolo
+     * en pedazos de a lo más el grano recibido.
+     * @param inicio el primer índice del rango.
+     * @param fin el índice siguiente al último del rango.
+     * @param grano el tamaño máximo de un pedazo.
+     * @param accion la acción a realizar.
+     */
+    public static void paraCada(int inicio, int fin, int grano,
+                                AccionRango accion) {
+        if (fin <= inicio)
+            return;
+        ForkJoinPool.commonPool().invoke(new Tarea(inicio, fin,
+                                                   Math.max(1, grano), accion));
+    }
+
+    /**
+     * Realiza la acción sobre el rango [inicio, fin) en paralelo, partiéndolo
+     * en unos cuantos pedazos por hilo.
+     * @param inicio el primer índice del rango.
+     * @param fin el índice siguiente al último del rango.
+     * @param accion la acción a realizar.
+     */
+    public static void paraCada(int inicio, int fin, AccionRango accion) {
+        paraCada(inicio, fin, (fin - inicio) / (8 * getHilos()), accion);
+    }
+
+    /**
+     * Regresa la suma sobre el rango [inicio, fin), calculada en paralelo
+     * en pedazos de a lo más el grano recibido. Las sumas de los pedazos se
+     * combinan siempre en el mismo orden, así que el resultado no depende
+     * del número de hilos.
+     * @param inicio el primer índice del rango.
+     * @param fin el índice siguiente al último del rango.
+     * @param grano el tamaño máximo de un pedazo.
+     * @param suma la suma sobre cada pedazo.
+     * @return la suma sobre el rango.
+     */
+    public static double suma(int inicio, int fin, int grano, SumaRango suma) {
+        if (fin <= inicio)
+            return 0;
+        return ForkJoinPool.commonPool().invoke(
+            new TareaSuma(inicio, fin, Math.max(1, grano), suma));
+    }
+}
@@ -1,5 +1,7 @@
 package mx.unam.ciencias.edd;
 
+import java.io.File;
+import java.io.IOException;
 import java.text.NumberFormat;
 import java.util.Random;
 
@@ -16,6 +18,86 @@ public class Practica11 {
         System.exit(1);
     }
 
+    /* Regresa una malla de lado×lado vértices con pesos enteros aleatorios
+     * entre 1 y 10; el vértice del renglón r y columna c es r*lado+c. */
+    private static Grafica<Integer> malla(int lado, Random random) {
+        Grafica<Integer> malla = new Grafica<Integer>();
+        for (int i = 0; i < lado * lado; i++)
+            malla.agrega(i);
+        for (int r = 0; r < lado; r++) {
+            for (int c = 0; c < lado; c++) {
+                int v = r * lado + c;
+                if (c + 1 < lado)
+                    malla.conecta(v, v + 1, 1 + random.nextInt(10));
+                if (r + 1 < lado)
+                    malla.conecta(v, v + lado, 1 + random.nextInt(10));
+            }
+        }
+        return malla;
+    }
+
+    /* Regresa una red por capas: la fuente 0 se conecta con la primera capa,
+     * cada vértice de una capa con algunos vértices al azar de la siguiente,
+     * y la última capa con el sumidero capas*ancho+1. Las capacidades son
+     * enteros aleatorios entre 1 y 100. */
+    private static Grafica<Integer> capas(int capas, int ancho, int grado,
+                                          Random random) {
+        int sumidero = capas * ancho + 1;
+        Grafica<Integer> red = new Grafica<Integer>();
+        for (int i = 0; i <= sumidero; i++)
+            red.agrega(i);
+        for (int i = 1; i <= ancho; i++) {
+            red.conecta(0, i, 1 + random.nextInt(100));
+            red.conecta(sumidero - i, sumidero, 1 + random.nextInt(100));
+        }
+        for (int c = 0; c + 1 < capas; c++) {
+            for (int i = 1; i <= ancho; i++) {
+                int v = c * ancho + i;
+                for (int k = 0; k < grado; k++) {
+                    int u = (c + 1) * ancho + 1 + random.nextInt(ancho);
+                    if (!red.sonVecinos(v, u))
+                        red.conecta(v, u, 1 + random.nextInt(100));
+                }
+            }
+        }
+        return red;
+    }
+
+    /* Regresa una gráfica geométrica aleatoria con los puntos recibidos en el
+     * cuadrado unitario: dos puntos son vecinos si su distancia es menor que
+     * el radio, y el peso de la arista es esa distancia. */
+    private static Grafica<Integer> geometrica(double[] x, double[] y,
+                                               double radio) {
+        int n = x.length;
+        int k = Math.max(1, (int)(1 / radio));
+        int[] cabezas = new int[k * k];
+        int[] siguientes = new int[n];
+        for (int i = 0; i < cabezas.length; i++)
+            cabezas[i] = -1;
+        Grafica<Integer> geometrica = new Grafica<Integer>();
+        for (int i = 0; i < n; i++) {
+            geometrica.agrega(i);
+            int celda = Math.min(k - 1, (int)(x[i] * k)) * k +
+                Math.min(k - 1, (int)(y[i] * k));
+            siguientes[i] = cabezas[celda];
+            cabezas[celda] = i;
+        }
+        for (int i = 0; i < n; i++) {
+            int cx = Math.min(k - 1, (int)(x[i] * k));
+            int cy = Math.min(k - 1, (int)(y[i] * k));
+            for (int a = Math.max(0, cx - 1); a <= Math.min(k - 1, cx + 1); a++) {
+                for (int b = Math.max(0, cy - 1); b <= Math.min(k - 1, cy + 1); b++) {
+                    for (int j = cabezas[a * k + b]; j != -1; j = siguientes[j]) {
+                        double d = Math.hypot(x[i] - x[j], y[i] - y[j]);
+                        if (i < j && d < radio && d > 0)
+                            geometrica.conecta(i, j, d);
+                    }
+                }
+            }
+        }
+        return geometrica;
+    }
+
     public static void main(String[] args) {
         if (args.length != 1)
             uso();
@@ -212,5 +294,387 @@ public class Practica11 {
         for (VerticeGrafica<String> v : dijkstra)
             s += v.get() + ", ";
         System.out.println(s);
+
+        /* A* contra Dijkstra en una malla, con la distancia Manhattan como
+         * heurística. */
+        int lado = Math.max(2, (int)Math.sqrt(N));
+        Grafica<Integer> malla = malla(lado, random);
+        tiempoInicial = System.nanoTime();
+        malla.dijkstra(0, lado * lado - 1);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en Dijkstra en una " +
+                          "malla con %s vértices.\n",
+                          (tiempoTotal/1000000000.0), nf.format(lado * lado));
+        tiempoInicial = System.nanoTime();
+        malla.aEstrella(0, lado * lado - 1, (u, v) ->
+                        Math.abs(u / lado - v / lado) +
+                        Math.abs(u % lado - v % lado));
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en A* en una " +
+                          "malla con %s vértices.\n",
+                          (tiempoTotal/1000000000.0), nf.format(lado * lado));
+
+        /* A* contra Dijkstra en una gráfica geométrica aleatoria, con la
+         * distancia euclidiana como heurística. */
+        int n = Math.max(2, N);
+        double[] x = new double[n];
+        double[] y = new double[n];
+        int o = 0, d = 0;
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextDouble();
+            y[i] = random.nextDouble();
+            if (x[i] + y[i] < x[o] + y[o])
+                o = i;
+            if (x[i] + y[i] > x[d] + y[d])
+                d = i;
+        }
+        Grafica<Integer> geometrica =
+            geometrica(x, y, Math.sqrt(3 * Math.log(n) / (Math.PI * n)));
+        tiempoInicial = System.nanoTime();
+        geometrica.dijkstra(o, d);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en Dijkstra en una gráfica " +
+                          "geométrica con %s vértices.\n",
+                          (tiempoTotal/1000000000.0), nf.format(n));
+        tiempoInicial = System.nanoTime();
+        geometrica.aEstrella(o, d, (u, v) ->
+                             Math.hypot(x[u] - x[v], y[u] - y[v]));
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en A* en una gráfica " +
+                          "geométrica con %s vértices.\n",
+                          (tiempoTotal/1000000000.0), nf.format(n));
+
+        /* Jerarquía de contracciones sobre la malla: una construcción y
+         * luego consultas. */
+        tiempoInicial = System.nanoTime();
+        JerarquiaContracciones<Integer> jerarquia =
+            new JerarquiaContracciones<Integer>(malla);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en construir una jerarquía de " +
+                          "contracciones con %s atajos.\n",
+                          (tiempoTotal/1000000000.0),
+                          nf.format(jerarquia.getAtajos()));
+        tiempoInicial = System.nanoTime();
+        for (int i = 0; i < 1000; i++)
+            jerarquia.distancia(random.nextInt(lado * lado),
+                                random.nextInt(lado * lado));
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en 1,000 consultas a la " +
+                          "jerarquía de contracciones.\n",
+                          (tiempoTotal/1000000000.0));
+
+        /* A* con un índice de marcas sobre la malla. */
+        tiempoInicial = System.nanoTime();
+        IndiceMarcas<Integer> marcas = new IndiceMarcas<Integer>(malla, 8);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en construir un índice de " +
+                          "8 marcas.\n", (tiempoTotal/1000000000.0));
+        tiempoInicial = System.nanoTime();
+        marcas.trayectoria(0, lado * lado - 1);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en A* con marcas en una " +
+                          "malla con %s vértices.\n",
+                          (tiempoTotal/1000000000.0), nf.format(lado * lado));
+
+        /* Distancias entre todos los pares de una malla más chica. */
+        int ladoTP = Math.min(lado, 40);
+        GraficaCSR<Integer> csr = malla(ladoTP, random).congela();
+        tiempoInicial = System.nanoTime();
+        DistanciasTodosPares.dijkstra(csr);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en Dijkstra desde todos los " +
+                          "orígenes con %s vértices.\n",
+                          (tiempoTotal/1000000000.0),
+                          nf.format(ladoTP * ladoTP));
+        tiempoInicial = System.nanoTime();
+        DistanciasTodosPares.floydWarshall(csr);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en Floyd-Warshall por bloques " +
+                          "con %s vértices.\n",
+                          (tiempoTotal/1000000000.0),
+                          nf.format(ladoTP * ladoTP));
+
+        /* BFS secuencial contra BFS paralela en la gráfica geométrica. */
+        tiempoInicial = System.nanoTime();
+        geometrica.bfs(o, v -> {});
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en BFS en una gráfica " +
+                          "geométrica con %s vértices.\n",
+                          (tiempoTotal/1000000000.0), nf.format(n));
+        GraficaCSR<Integer> csrGeometrica = geometrica.congela();
+        tiempoInicial = System.nanoTime();
+        new BusquedaAnchuraParalela<Integer>(csrGeometrica, o);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en BFS paralela en una gráfica " +
+                          "geométrica con %s vértices.\n",
+                          (tiempoTotal/1000000000.0), nf.format(n));
+
+        /* Árboles generadores mínimos de la gráfica geométrica. */
+        tiempoInicial = System.nanoTime();
+        geometrica.arbolGeneradorMinimo();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en Kruskal en una gráfica " +
+                          "geométrica con %s vértices.\n",
+                          (tiempoTotal/1000000000.0), nf.format(n));
+        tiempoInicial = System.nanoTime();
+        geometrica.arbolGeneradorMinimoPrim();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en Prim en una gráfica " +
+                          "geométrica con %s vértices.\n",
+                          (tiempoTotal/1000000000.0), nf.format(n));
+        tiempoInicial = System.nanoTime();
+        csrGeometrica.arbolGeneradorMinimo();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en Borůvka paralelo en una " +
+                          "gráfica geométrica con %s vértices.\n",
+                          (tiempoTotal/1000000000.0), nf.format(n));
+
+        /* Guardar y abrir la gráfica geométrica en formato binario. */
+        try {
+            File archivo = File.createTempFile("geometrica", ".edd");
+            archivo.deleteOnExit();
+            tiempoInicial = System.nanoTime();
+            GraficaMapeada.guarda(csrGeometrica, Codificadores.enteros(),
+                                  archivo);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en guardar una gráfica " +
+                              "geométrica con %s vértices.\n",
+                              (tiempoTotal/1000000000.0), nf.format(n));
+            tiempoInicial = System.nanoTime();
+            GraficaMapeada<Integer> mapeada =
+                new GraficaMapeada<Integer>(archivo, Codificadores.enteros());
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en abrir una gráfica " +
+                              "geométrica con %s vértices.\n",
+                              (tiempoTotal/1000000000.0), nf.format(n));
+            tiempoInicial = System.nanoTime();
+            mapeada.dijkstra(o, d);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en Dijkstra en una gráfica " +
+                              "mapeada con %s vértices.\n",
+                              (tiempoTotal/1000000000.0), nf.format(n));
+        } catch (IOException ioe) {
+            System.err.println("No se pudo guardar la gráfica: " +
+                               ioe.getMessage());
+        }
+
+        /* PageRank de la gráfica geométrica. */
+        tiempoInicial = System.nanoTime();
+        PageRank<Integer> pageRank = new PageRank<Integer>(csrGeometrica);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en PageRank (%d iteraciones) en " +
+                          "una gráfica geométrica con %s vértices.\n",
+                          (tiempoTotal/1000000000.0),
+                          pageRank.getIteraciones(), nf.format(n));
+
+        /* Intermediación aproximada de la gráfica geométrica. */
+        tiempoInicial = System.nanoTime();
+        new Intermediacion<Integer>(csrGeometrica,
+                                    Intermediacion.Distancia.PESOS,
+                                    100, random);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en intermediación con 100 " +
+                          "orígenes en una gráfica geométrica con %s " +
+                          "vértices.\n",
+                          (tiempoTotal/1000000000.0), nf.format(n));
+
+        /* Triángulos de la gráfica geométrica. */
+        tiempoInicial = System.nanoTime();
+        long triangulos = geometrica.cuentaTriangulos();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en contar %s triángulos en una " +
+                          "gráfica geométrica con %s vértices.\n",
+                          (tiempoTotal/1000000000.0), nf.format(triangulos),
+                          nf.format(n));
+
+        /* Flujo máximo en una red por capas y en la malla. */
+        int ancho = Math.max(1, (int)Math.sqrt(N));
+        GraficaCSR<Integer> red = capas(Math.max(1, N / ancho), ancho, 3,
+                                        random).congela();
+        int sumidero = red.getElementos() - 1;
+        GraficaCSR<Integer> csrMalla = malla.congela();
+        for (FlujoMaximo.Algoritmo algoritmo :
+                 FlujoMaximo.Algoritmo.values()) {
+            tiempoInicial = System.nanoTime();
+            new FlujoMaximo<Integer>(red, 0, sumidero, algoritmo);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en flujo máximo (%s) en una " +
+                              "red por capas con %s vértices.\n",
+                              (tiempoTotal/1000000000.0), algoritmo,
+                              nf.format(red.getElementos()));
+            tiempoInicial = System.nanoTime();
+            new FlujoMaximo<Integer>(csrMalla, 0, lado * lado - 1,
+                                     algoritmo);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en flujo máximo (%s) en una " +
+                              "malla con %s vértices.\n",
+                              (tiempoTotal/1000000000.0), algoritmo,
+                              nf.format(lado * lado));
+        }
+
+        /* Comunidades de la gráfica geométrica. */
+        for (Comunidades.Algoritmo algoritmo :
+                 Comunidades.Algoritmo.values()) {
+            tiempoInicial = System.nanoTime();
+            Comunidades<Integer> comunidades =
+                new Comunidades<Integer>(csrGeometrica, algoritmo);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en comunidades (%s: %s, " +
+                              "modularidad %.4f) en una gráfica geométrica " +
+                              "con %s vértices.\n",
+                              (tiempoTotal/1000000000.0), algoritmo,
+                              nf.format(comunidades.getNumeroComunidades()),
+                              comunidades.getModularidad(), nf.format(n));
+        }
+
+        /* Búsquedas en anchura desde muchos orígenes, una por una y en
+         * lotes. */
+        int[] origenes = new int[256];
+        for (int i = 0; i < origenes.length; i++)
+            origenes[i] = random.nextInt(n);
+        tiempoInicial = System.nanoTime();
+        for (int origen : origenes)
+            new BusquedaAnchuraParalela<Integer>(csrGeometrica,
+                                                 csrGeometrica.get(origen));
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en %d BFS en una gráfica " +
+                          "geométrica con %s vértices.\n",
+                          (tiempoTotal/1000000000.0), origenes.length,
+                          nf.format(n));
+        tiempoInicial = System.nanoTime();
+        BusquedaAnchuraMultiple.recorre(csrGeometrica, origenes,
+                                        (i, v, distancia) -> {});
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en BFS desde %d orígenes en " +
+                          "lotes en una gráfica geométrica con %s " +
+                          "vértices.\n",
+                          (tiempoTotal/1000000000.0), origenes.length,
+                          nf.format(n));
+
+        /* Dijkstra contra Δ-stepping desde un origen en la gráfica
+         * geométrica. */
+        tiempoInicial = System.nanoTime();
+        geometrica.dijkstra(o);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en Dijkstra a todos los vértices " +
+                          "en una gráfica geométrica con %s vértices.\n",
+                          (tiempoTotal/1000000000.0), nf.format(n));
+        tiempoInicial = System.nanoTime();
+        DeltaStepping<Integer> deltaStepping =
+            new DeltaStepping<Integer>(csrGeometrica, o);
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en Δ-stepping (%s cubetas) en " +
+                          "una gráfica geométrica con %s vértices.\n",
+                          (tiempoTotal/1000000000.0),
+                          nf.format(deltaStepping.getCubetas()),
+                          nf.format(n));
+
+        /* Dijkstra con cada montículo comparable en una gráfica dispersa y
+         * en una densa, con pesos fraccionarios. */
+        int nDispersa = Math.min(n, 10000);
+        Grafica<Integer> dispersa = new Grafica<Integer>(nDispersa);
+        for (int i = 0; i < nDispersa; i++)
+            dispersa.agrega(i);
+        for (int k = 0; k < 4 * nDispersa; k++) {
+            int u = random.nextInt(nDispersa);
+            int v = random.nextInt(nDispersa);
+            if (u != v && !dispersa.sonVecinos(u, v))
+                dispersa.conecta(u, v, 1 + random.nextDouble());
+        }
+        int nDensa = Math.min(n, 1500);
+        Grafica<Integer> densa = new Grafica<Integer>(nDensa);
+        for (int i = 0; i < nDensa; i++)
+            densa.agrega(i);
+        for (int i = 0; i < nDensa; i++)
+            for (int j = i+1; j < nDensa; j++)
+                if (random.nextBoolean())
+                    densa.conecta(i, j, 1 + random.nextDouble());
+        Grafica.TipoMonticulo[] tipos = {
+            Grafica.TipoMonticulo.ARREGLO, Grafica.TipoMonticulo.MINIMO,
+            Grafica.TipoMonticulo.DARIO, Grafica.TipoMonticulo.EMPAREJAMIENTO,
+            Grafica.TipoMonticulo.FIBONACCI };
+        for (Grafica.TipoMonticulo tipo : tipos) {
+            tiempoInicial = System.nanoTime();
+            dispersa.dijkstra(0, tipo);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en Dijkstra (%s) en una " +
+                              "gráfica dispersa con %s vértices y %s " +
+                              "aristas.\n",
+                              (tiempoTotal/1000000000.0), tipo,
+                              nf.format(nDispersa),
+                              nf.format(dispersa.getAristas()));
+        }
+        for (Grafica.TipoMonticulo tipo : tipos) {
+            tiempoInicial = System.nanoTime();
+            densa.dijkstra(0, tipo);
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en Dijkstra (%s) en una " +
+                              "gráfica densa con %s vértices y %s " +
+                              "aristas.\n",
+                              (tiempoTotal/1000000000.0), tipo,
+                              nf.format(nDensa),
+                              nf.format(densa.getAristas()));
+        }
+
+        /* Dijkstra con cubetas de Dial, cubetas radix y un montículo mínimo
+         * en la malla, con sus pesos enteros entre 1 y 10, y con los mismos
+         * pesos multiplicados por el número de vértices. */
+        Grafica.TipoMonticulo[] enteros = {
+            Grafica.TipoMonticulo.DIAL, Grafica.TipoMonticulo.RADIX,
+            Grafica.TipoMonticulo.MINIMO };
+        int[] escalas = { 1, lado * lado };
+        for (int escala : escalas) {
+            if (escala > 1) {
+                for (int v = 0; v < lado * lado; v++) {
+                    if (v % lado + 1 < lado)
+                        malla.setPeso(v, v + 1,
+                                      malla.getPeso(v, v + 1) * escala);
+                    if (v + lado < lado * lado)
+                        malla.setPeso(v, v + lado,
+                                      malla.getPeso(v, v + lado) * escala);
+                }
+            }
+            for (Grafica.TipoMonticulo tipo : enteros) {
+                tiempoInicial = System.nanoTime();
+                malla.dijkstra(0, tipo);
+                tiempoTotal = System.nanoTime() - tiempoInicial;
+                System.out.printf("%2.9f segundos en Dijkstra (%s) en una " +
+                                  "malla con %s vértices y pesos enteros " +
+                                  "entre %s y %s.\n",
+                                  (tiempoTotal/1000000000.0), tipo,
+                                  nf.format(lado * lado), nf.format(escala),
+                                  nf.format(10 * escala));
+            }
+        }
+
+        /* Montículo binario contra montículos d-arios: construir con todos
+         * los elementos y vaciar. */
+        Lista<ValorIndexable<Integer>> valores =
+            new Lista<ValorIndexable<Integer>>();
+        for (int i = 0; i < N; i++)
+            valores.agrega(new ValorIndexable<Integer>(i, random.nextDouble()));
+        tiempoInicial = System.nanoTime();
+        MonticuloMinimo<ValorIndexable<Integer>> binario =
+            new MonticuloMinimo<ValorIndexable<Integer>>(valores);
+        while (!binario.esVacia())
+            binario.elimina();
+        tiempoTotal = System.nanoTime() - tiempoInicial;
+        System.out.printf("%2.9f segundos en llenar y vaciar un montículo " +
+                          "mínimo con %s elementos.\n",
+                          (tiempoTotal/1000000000.0), nf.format(N));
+        int[] aridades = { 2, 4, 8 };
+        for (int aridad : aridades) {
+            tiempoInicial = System.nanoTime();
+            MonticuloDario<ValorIndexable<Integer>> dario =
+                new MonticuloDario<ValorIndexable<Integer>>(aridad);
+            dario.agregaTodos(valores);
+            while (!dario.esVacia())
+                dario.elimina();
+            tiempoTotal = System.nanoTime() - tiempoInicial;
+            System.out.printf("%2.9f segundos en llenar y vaciar un " +
+                              "montículo %d-ario con %s elementos.\n",
+                              (tiempoTotal/1000000000.0), aridad,
+                              nf.format(N));
+        }
     }
 }
@@ -0,0 +1,20 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interface para objetos comparables e indexables con una prioridad entera no
+ * negativa, que deben ordenarse igual que con {@link Comparable#compareTo}. La
+ * usan los montículos de cubetas, {@link MonticuloDial} y {@link
+ * MonticuloRadix}, que en lugar de comparar elementos los reparten por su
+ * prioridad.
+ */
+public interface PrioridadEntera<T> extends ComparableIndexable<T> {
+
+    /** La prioridad de los elementos infinitamente lejanos. */
+    public static final long INFINITO = Long.MAX_VALUE;
+
+    /**
+     * Regresa la prioridad del objeto.
+     * @return la prioridad del objeto, no negativa, o {@link #INFINITO}.
+     */
+    public long getPrioridad();
+}
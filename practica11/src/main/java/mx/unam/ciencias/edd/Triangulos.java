@@ -0,0 +1,240 @@
+package mx.unam.ciencias.edd;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Clase para contar los triángulos de una {@link GraficaCSR} y calcular
+ * sus coeficientes de agrupamiento.</p>
+ *
+ * <p>Las aristas se orientan del vértice de menor grado al de mayor grado
+ * (desempatando por índice), así que cada vértice tiene a lo más
+ * O(√<i>m</i>) sucesores y cada triángulo se encuentra exactamente una vez,
+ * desde su vértice menor. Para cada arco (<i>v</i>, <i>u</i>) se intersecan
+ * los sucesores de <i>v</i> y de <i>u</i>: mezclando las dos listas
+ * ordenadas, o, si <i>v</i> tiene muchos sucesores, marcándolos una vez en un
+ * arreglo y buscando ahí los de cada <i>u</i>.</p>
+ *
+ * <p>Los hilos toman bloques de vértices conforme terminan los anteriores, y
+ * cada uno usa un solo arreglo de marcas. Cada triángulo se le cuenta
+ * directamente a su vértice menor, que sólo lo procesa un hilo; a los otros
+ * dos extremos se les cuenta en los arcos que salen del vértice menor hacia
+ * ellos, y una sola pasada sobre los arcos al final suma esas cuentas a los
+ * destinos.</p>
+ */
+public class Triangulos<T> {
+
+    /* A partir de cuántos sucesores conviene marcar en lugar de mezclar. */
+    private static final int UMBRAL_MARCAS = 32;
+    /* El tamaño de los bloques de vértices que se reparten entre hilos. */
+    private static final int BLOQUE = 256;
+
+    /* La gráfica. */
+    private GraficaCSR<T> grafica;
+    /* El número de triángulos de cada vértice. */
+    private long[] triangulos;
+    /* El número de triángulos de la gráfica. */
+    private long total;
+    /* El número de caminos de longitud dos de la gráfica. */
+    private long caminos;
+
+    /**
+     * Cuenta los triángulos de la gráfica.
+     * @param grafica la gráfica.
+     */
+    public Triangulos(GraficaCSR<T> grafica) {
+        this.grafica = grafica;
+        int n = grafica.getElementos();
+        int[] desplazamientos = grafica.getDesplazamientos();
+        int[] destinos = grafica.getDestinos();
+        int[] salidas = new int[n + 1];
+        Paralelo.paraCada(0, n, (a, b) -> {
+                for (int v = a; v < b; v++)
+                    for (int e = desplazamientos[v];
+                         e < desplazamientos[v+1]; e++)
+                        if (antes(v, destinos[e], desplazamientos))
+                            salidas[v+1]++;
+            });
+        for (int v = 0; v < n; v++)
+            salidas[v+1] += salidas[v];
+        int[] sucesores = new int[salidas[n]];
+        Paralelo.paraCada(0, n, (a, b) -> {
+                for (int v = a; v < b; v++) {
+                    int k = salidas[v];
+                    for (int e = desplazamientos[v];
+                         e < desplazamientos[v+1]; e++)
+                        if (antes(v, destinos[e], desplazamientos))
+                            sucesores[k++] = destinos[e];
+                }
+            });
+        cuenta(salidas, sucesores);
+        for (int v = 0; v < n; v++) {
+            long d = desplazamientos[v+1] - desplazamientos[v];
+            caminos += d * (d - 1) / 2;
+        }
+    }
+
+    /* Nos dice si el arco de v a u va de menor a mayor grado. */
+    private static boolean antes(int v, int u, int[] desplazamientos) {
+        int gv = desplazamientos[v+1] - desplazamientos[v];
+        int gu = desplazamientos[u+1] - desplazamientos[u];
+        return gv < gu || (gv == gu && v < u);
+    }
+
+    /* Cuenta los triángulos en la gráfica orientada. */
+    private void cuenta(int[] salidas, int[] sucesores) {
+        int n = grafica.getElementos();
+        triangulos = new long[n];
+        if (n == 0)
+            return;
+        int bloques = (n + BLOQUE - 1) / BLOQUE;
+        int[] porArco = new int[sucesores.length];
+        AtomicInteger siguiente = new AtomicInteger();
+        Paralelo.paraCada(0, Paralelo.getHilos(), 1, (a, b) -> {
+                int[] marcas = null;
+                int k;
+                while ((k = siguiente.getAndIncrement()) < bloques) {
+                    int fin = Math.min(n, (k + 1) * BLOQUE);
+                    for (int v = k * BLOQUE; v < fin; v++) {
+                        if (marcas == null &&
+                            salidas[v+1] - salidas[v] >= UMBRAL_MARCAS)
+                            marcas = new int[n];
+                        cuentaVertice(v, salidas, sucesores, porArco, marcas);
+                    }
+                }
+            });
+        long suma = 0;
+        for (int v = 0; v < n; v++)
+            suma += triangulos[v];
+        total = suma;
+        for (int e = 0; e < sucesores.length; e++)
+            triangulos[sucesores[e]] += porArco[e];
+    }
+
+    /* Cuenta los triángulos cuyo vértice menor es v: a v directamente, y a
+     * los otros dos extremos en los arcos de v hacia ellos. Las marcas
+     * guardan la posición del arco de v a cada sucesor, así que no hay que
+     * limpiarlas entre vértices. */
+    private void cuentaVertice(int v, int[] salidas, int[] sucesores,
+                               int[] porArco, int[] marcas) {
+        int a = salidas[v], b = salidas[v+1];
+        boolean marca = b - a >= UMBRAL_MARCAS;
+        if (marca)
+            for (int e = a; e < b; e++)
+                marcas[sucesores[e]] = e;
+        for (int e = a; e < b; e++) {
+            int u = sucesores[e];
+            int c = salidas[u], d = salidas[u+1];
+            if (marca) {
+                for (int f = c; f < d; f++) {
+                    int w = sucesores[f];
+                    int i = marcas[w];
+                    if (i >= a && i < b && sucesores[i] == w) {
+                        triangulos[v]++;
+                        porArco[e]++;
+                        porArco[i]++;
+                    }
+                }
+                continue;
+            }
+            int i = a, j = c;
+            while (i < b && j < d) {
+                int x = sucesores[i], y = sucesores[j];
+                if (x < y) {
+                    i++;
+                } else if (x > y) {
+                    j++;
+                } else {
+                    triangulos[v]++;
+                    porArco[e]++;
+                    porArco[i]++;
+                    i++;
+                    j++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Regresa el número de triángulos de la gráfica.
+     * @return el número de triángulos de la gráfica.
+     */
+    public long getTriangulos() {
+        return total;
+    }
+
+    /**
+     * Regresa el número de triángulos que contienen al vértice con el índice
+     * recibido.
+     * @param indice el índice del vértice.
+     * @return el número de triángulos que contienen al vértice.
+     * @throws ExcepcionIndiceInvalido si el índice no es válido.
+     */
+    public long getTriangulos(int indice) {
+        if (indice < 0 || indice >= triangulos.length)
+            throw new ExcepcionIndiceInvalido();
+        return triangulos[indice];
+    }
+
+    /**
+     * Regresa el número de triángulos que contienen al vértice del elemento
+     * recibido.
+     * @param elemento el elemento.
+     * @return el número de triángulos que contienen al vértice.
+     * @throws java.util.NoSuchElementException si el elemento no está en la
+     *         gráfica.
+     */
+    public long getTriangulos(T elemento) {
+        return triangulos[grafica.indice(elemento)];
+    }
+
+    /**
+     * Regresa el coeficiente de agrupamiento local del vértice con el índice
+     * recibido: la fracción de pares de vecinos del vértice que son vecinos
+     * entre sí. Si el vértice tiene menos de dos vecinos, es cero.
+     * @param indice el índice del vértice.
+     * @return el coeficiente de agrupamiento local del vértice.
+     * @throws ExcepcionIndiceInvalido si el índice no es válido.
+     */
+    public double getCoeficiente(int indice) {
+        long t = getTriangulos(indice);
+        long d = grafica.getGrado(indice);
+        return d < 2 ? 0 : 2.0 * t / (d * (d - 1));
+    }
+
+    /**
+     * Regresa el coeficiente de agrupamiento local del vértice del elemento
+     * recibido.
+     * @param elemento el elemento.
+     * @return el coeficiente de agrupamiento local del vértice.
+     * @throws java.util.NoSuchElementException si el elemento no está en la
+     *         gráfica.
+     */
+    public double getCoeficiente(T elemento) {
+        return getCoeficiente(grafica.indice(elemento));
+    }
+
+    /**
+     * Regresa el promedio de los coeficientes de agrupamiento locales de todos
+     * los vértices. Si la gráfica es vacía, es cero.
+     * @return el promedio de los coeficientes de agrupamiento locales.
+     */
+    public double getCoeficientePromedio() {
+        int n = triangulos.length;
+        if (n == 0)
+            return 0;
+        double s = 0;
+        for (int v = 0; v < n; v++)
+            s += getCoeficiente(v);
+        return s / n;
+    }
+
+    /**
+     * Regresa el coeficiente de agrupamiento global (la transitividad): tres
+     * veces el número de triángulos entre el número de caminos de longitud
+     * dos. Si no hay caminos de longitud dos, es cero.
+     * @return el coeficiente de agrupamiento global.
+     */
+    public double getCoeficienteGlobal() {
+        return caminos == 0 ? 0 : 3.0 * total / caminos;
+    }
+}
@@ -67,6 +67,31 @@ public class TestArreglos {
         Assert.assertTrue(estaOrdenado(arreglo));
     }
 
+    /**
+     * Prueba unitaria para {@link Arreglos#quickSort(Object[],Comparator)}
+     * con entradas grandes ordenadas, invertidas y con muchas repeticiones.
+     */
+    @Test public void testQuickSortCasosDegenerados() {
+        int n = 100000 + random.nextInt(100000);
+        Integer[] a = new Integer[n];
+        for (int i = 0; i < n; i++)
+            a[i] = i;
+        Arreglos.quickSort(a, (x, y) -> x.compareTo(y));
+        Assert.assertTrue(estaOrdenado(a));
+        for (int i = 0; i < n; i++)
+            a[i] = n - i;
+        Arreglos.quickSort(a, (x, y) -> x.compareTo(y));
+        Assert.assertTrue(estaOrdenado(a));
+        for (int i = 0; i < n; i++)
+            a[i] = random.nextInt(3);
+        Arreglos.quickSort(a, (x, y) -> x.compareTo(y));
+        Assert.assertTrue(estaOrdenado(a));
+        for (int i = 0; i < n; i++)
+            a[i] = 7;
+        Arreglos.quickSort(a);
+        Assert.assertTrue(estaOrdenado(a));
+    }
+
     /**
      * Prueba unitaria para {@link Arreglos#selectionSort(Comparable[])}.
      */
@@ -0,0 +1,102 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.BusquedaAnchuraMultiple;
+import mx.unam.ciencias.edd.BusquedaAnchuraParalela;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCSR;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link BusquedaAnchuraMultiple}.
+ */
+public class TestBusquedaAnchuraMultiple {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica compacta. */
+    private GraficaCSR<Integer> csr;
+    /* Los orígenes. */
+    private int[] origenes;
+
+    /**
+     * Crea una gráfica aleatoria y orígenes aleatorios, con repeticiones y
+     * en más de un lote, para cada prueba.
+     */
+    public TestBusquedaAnchuraMultiple() {
+        random = new Random();
+        total = 1 + random.nextInt(100);
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        int p = 1 + random.nextInt(total + 1);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(p) == 0)
+                    grafica.conecta(i, j);
+        csr = grafica.congela();
+        origenes = new int[1 + random.nextInt(300)];
+        for (int i = 0; i < origenes.length; i++)
+            origenes[i] = random.nextInt(total);
+    }
+
+    /* Verifica las distancias contra una búsqueda por origen. */
+    private void verifica(int[][] distancias) {
+        Assert.assertTrue(distancias.length == origenes.length);
+        for (int i = 0; i < origenes.length; i++) {
+            int[] esperadas =
+                new BusquedaAnchuraParalela<Integer>(csr, csr.get(origenes[i]))
+                .getDistancias();
+            for (int v = 0; v < total; v++)
+                Assert.assertTrue(distancias[i][v] == esperadas[v]);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link BusquedaAnchuraMultiple#distancias}.
+     */
+    @Test public void testDistancias() {
+        verifica(BusquedaAnchuraMultiple.distancias(csr, origenes));
+        Assert.assertTrue(BusquedaAnchuraMultiple
+                          .distancias(csr, new int[0]).length == 0);
+        try {
+            BusquedaAnchuraMultiple.distancias(csr, new int[] { total });
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link BusquedaAnchuraMultiple#recorre} con varias
+     * palabras por vértice.
+     */
+    @Test public void testRecorre() {
+        int palabras = 1 + random.nextInt(4);
+        int[][] distancias = new int[origenes.length][total];
+        for (int[] renglon : distancias)
+            for (int v = 0; v < total; v++)
+                renglon[v] = -1;
+        int[] ultimas = new int[origenes.length];
+        boolean[] ordenadas = { true };
+        BusquedaAnchuraMultiple.recorre(csr, origenes, palabras, (i, v, d) -> {
+                if (distancias[i][v] != -1 || d < ultimas[i])
+                    ordenadas[0] = false;
+                distancias[i][v] = d;
+                ultimas[i] = d;
+            });
+        Assert.assertTrue(ordenadas[0]);
+        verifica(distancias);
+        try {
+            BusquedaAnchuraMultiple.recorre(csr, origenes, 0, (i, v, d) -> {});
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+}
@@ -0,0 +1,155 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.BusquedaAnchuraParalela;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCSR;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link BusquedaAnchuraParalela}.
+ */
+public class TestBusquedaAnchuraParalela {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica compacta. */
+    private GraficaCSR<Integer> csr;
+
+    /**
+     * Crea una gráfica aleatoria para cada prueba; puede tener varias
+     * componentes conexas.
+     */
+    public TestBusquedaAnchuraParalela() {
+        random = new Random();
+        total = 1 + random.nextInt(500);
+        Grafica<Integer> grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < 2 * total; i++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            if (a != b && !grafica.sonVecinos(a, b))
+                grafica.conecta(a, b);
+        }
+        csr = grafica.congela();
+    }
+
+    /* Regresa las distancias desde el origen con una búsqueda secuencial. */
+    private int[] distancias(int origen) {
+        int[] d = new int[total];
+        for (int i = 0; i < total; i++)
+            d[i] = -1;
+        int[] cola = new int[total];
+        int cabeza = 0, rabo = 0;
+        cola[rabo++] = origen;
+        d[origen] = 0;
+        while (cabeza < rabo) {
+            int u = cola[cabeza++];
+            for (int i = 0; i < csr.getGrado(u); i++) {
+                int v = csr.getVecino(u, i);
+                if (d[v] == -1) {
+                    d[v] = d[u] + 1;
+                    cola[rabo++] = v;
+                }
+            }
+        }
+        return d;
+    }
+
+    /* Verifica la búsqueda contra una búsqueda secuencial. */
+    private void verifica(BusquedaAnchuraParalela<Integer> busqueda) {
+        int s = csr.indice(busqueda.getOrigen());
+        int[] d = distancias(s);
+        int alcanzados = 0, maximo = 0;
+        for (int v = 0; v < total; v++) {
+            Assert.assertTrue(busqueda.getDistancia(v) == d[v]);
+            if (d[v] == -1) {
+                Assert.assertTrue(busqueda.getPadre(v) == -1);
+                continue;
+            }
+            alcanzados++;
+            maximo = Math.max(maximo, d[v]);
+            int p = busqueda.getPadre(v);
+            if (v == s) {
+                Assert.assertTrue(p == s);
+                continue;
+            }
+            Assert.assertTrue(csr.sonVecinos(p, v));
+            Assert.assertTrue(d[p] == d[v] - 1);
+        }
+        Assert.assertTrue(busqueda.getAlcanzados() == alcanzados);
+        Assert.assertTrue(busqueda.getNiveles() == maximo + 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link
+     * BusquedaAnchuraParalela#BusquedaAnchuraParalela(GraficaCSR,Object)}.
+     */
+    @Test public void testBusqueda() {
+        for (int i = 0; i < 10; i++)
+            verifica(new BusquedaAnchuraParalela<Integer>(
+                         csr, random.nextInt(total)));
+        try {
+            new BusquedaAnchuraParalela<Integer>(csr, -1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            new BusquedaAnchuraParalela<Integer>(csr, 0, 0, 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para las búsquedas que sólo van de arriba hacia abajo,
+     * y para las que cambian de dirección lo antes posible.
+     */
+    @Test public void testDirecciones() {
+        int s = random.nextInt(total);
+        verifica(new BusquedaAnchuraParalela<Integer>(csr, s, 1,
+                                                      Integer.MAX_VALUE));
+        BusquedaAnchuraParalela<Integer> busqueda =
+            new BusquedaAnchuraParalela<Integer>(csr, s, Integer.MAX_VALUE,
+                                                 Integer.MAX_VALUE);
+        verifica(busqueda);
+        if (csr.getGrado(csr.indice(s)) > 0)
+            Assert.assertTrue(busqueda.getPasosAscendentes() ==
+                              busqueda.getNiveles());
+    }
+
+    /**
+     * Prueba unitaria para {@link BusquedaAnchuraParalela#trayectoria}.
+     */
+    @Test public void testTrayectoria() {
+        int s = random.nextInt(total);
+        BusquedaAnchuraParalela<Integer> busqueda =
+            new BusquedaAnchuraParalela<Integer>(csr, s);
+        for (int i = 0; i < total; i++) {
+            Lista<Integer> t = busqueda.trayectoria(i);
+            Lista<Integer> m = csr.trayectoriaMinima(s, i);
+            Assert.assertTrue(t.getElementos() == m.getElementos());
+            if (!t.esVacia()) {
+                Assert.assertTrue(t.getPrimero() == s);
+                Assert.assertTrue(t.getUltimo() == i);
+            }
+        }
+        try {
+            busqueda.getDistancia(total);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        int[] d = busqueda.getDistancias();
+        d[0] = -2;
+        Assert.assertTrue(busqueda.getDistancia(0) != -2);
+    }
+}
@@ -0,0 +1,166 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.Comunidades;
+import mx.unam.ciencias.edd.Diccionario;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCSR;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Comunidades}.
+ */
+public class TestComunidades {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestComunidades() {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new Grafica<Integer>();
+    }
+
+    /* Calcula la modularidad directamente de la definición. */
+    private double modularidad(GraficaCSR<Integer> csr, int[] c) {
+        int n = csr.getElementos();
+        double m2 = 0, dentro = 0;
+        double[] totales = new double[n];
+        for (int v = 0; v < n; v++) {
+            for (int i = 0; i < csr.getGrado(v); i++) {
+                double w = csr.getPeso(v, i);
+                m2 += w;
+                totales[c[v]] += w;
+                if (c[csr.getVecino(v, i)] == c[v])
+                    dentro += w;
+            }
+        }
+        if (m2 == 0)
+            return 0;
+        double q = dentro / m2;
+        for (int k = 0; k < n; k++)
+            q -= (totales[k] / m2) * (totales[k] / m2);
+        return q;
+    }
+
+    /* Verifica que las comunidades sean consistentes. */
+    private void verifica(GraficaCSR<Integer> csr, Comunidades<Integer> c) {
+        int n = csr.getElementos();
+        int[] cs = c.getComunidades();
+        Assert.assertTrue(cs.length == n);
+        int k = 0;
+        for (int v = 0; v < n; v++) {
+            Assert.assertTrue(cs[v] >= 0 && cs[v] <= k);
+            if (cs[v] == k)
+                k++;
+            Assert.assertTrue(c.getComunidad(v) == cs[v]);
+            Assert.assertTrue(c.getComunidad(csr.get(v)) == cs[v]);
+        }
+        Assert.assertTrue(c.getNumeroComunidades() == k);
+        Assert.assertTrue(Math.abs(c.getModularidad() -
+                                   modularidad(csr, cs)) < 1e-9);
+        Assert.assertTrue(c.getModularidad() ==
+                          Comunidades.modularidad(csr, cs));
+        Diccionario<Integer, Integer> d = c.diccionario();
+        for (int v = 0; v < n; v++)
+            Assert.assertTrue(d.get(csr.get(v)) == cs[v]);
+        try {
+            c.getComunidad(n);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba que los dos algoritmos encuentren un anillo de cliques.
+     */
+    @Test public void testAnillo() {
+        int cliques = 2 + random.nextInt(4);
+        int tamano = 5 + random.nextInt(6);
+        for (int i = 0; i < cliques * tamano; i++)
+            grafica.agrega(i);
+        for (int c = 0; c < cliques; c++) {
+            for (int i = 0; i < tamano; i++)
+                for (int j = i+1; j < tamano; j++)
+                    grafica.conecta(c * tamano + i, c * tamano + j);
+            int siguiente = ((c + 1) % cliques) * tamano + 1;
+            if (cliques > 2 || c == 0)
+                grafica.conecta(c * tamano, siguiente);
+        }
+        GraficaCSR<Integer> csr = grafica.congela();
+        for (Comunidades.Algoritmo a : Comunidades.Algoritmo.values()) {
+            Comunidades<Integer> c = new Comunidades<Integer>(csr, a);
+            verifica(csr, c);
+            Assert.assertTrue(c.getNumeroComunidades() == cliques);
+            for (int i = 0; i < cliques * tamano; i++)
+                Assert.assertTrue(c.getComunidad((Integer)i) ==
+                                  i / tamano);
+            Assert.assertTrue(c.getModularidad() > 0);
+        }
+    }
+
+    /**
+     * Prueba los dos algoritmos en gráficas aleatorias con pesos.
+     */
+    @Test public void testAleatoria() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        int p = 1 + random.nextInt(20);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(p) == 0)
+                    grafica.conecta(i, j, 1 + random.nextInt(5));
+        GraficaCSR<Integer> csr = grafica.congela();
+        int[] solos = new int[total];
+        for (int v = 0; v < total; v++)
+            solos[v] = v;
+        for (Comunidades.Algoritmo a : Comunidades.Algoritmo.values())
+            verifica(csr, new Comunidades<Integer>(csr, a));
+        Comunidades<Integer> louvain = new Comunidades<Integer>(csr);
+        Assert.assertTrue(louvain.getModularidad() >=
+                          Comunidades.modularidad(csr, solos));
+        Assert.assertTrue(louvain.getModularidad() >=
+                          Comunidades.modularidad(csr, new int[total]) -
+                          1e-12);
+    }
+
+    /**
+     * Prueba una gráfica sin aristas y los argumentos inválidos.
+     */
+    @Test public void testSinAristas() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        GraficaCSR<Integer> csr = grafica.congela();
+        for (Comunidades.Algoritmo a : Comunidades.Algoritmo.values()) {
+            Comunidades<Integer> c = new Comunidades<Integer>(csr, a);
+            Assert.assertTrue(c.getNumeroComunidades() == total);
+            Assert.assertTrue(c.getModularidad() == 0);
+        }
+        try {
+            Comunidades.modularidad(csr, new int[total + 1]);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        int[] c = new int[total];
+        c[0] = total;
+        try {
+            Comunidades.modularidad(csr, c);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        Assert.assertTrue(new Comunidades<Integer>(new Grafica<Integer>()
+                                                   .congela())
+                          .getNumeroComunidades() == 0);
+    }
+}
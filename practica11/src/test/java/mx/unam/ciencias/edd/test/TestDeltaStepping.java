@@ -0,0 +1,139 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.ArbolTrayectorias;
+import mx.unam.ciencias.edd.DeltaStepping;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCSR;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DeltaStepping}.
+ */
+public class TestDeltaStepping {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica aleatoria con pesos reales para cada prueba.
+     */
+    public TestDeltaStepping() {
+        random = new Random();
+        total = 1 + random.nextInt(300);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        int p = 1 + random.nextInt(total + 1);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(p) == 0)
+                    grafica.conecta(i, j, 0.001 + 10 * random.nextDouble());
+    }
+
+    /* Verifica el resultado contra el algoritmo de Dijkstra. */
+    private void verifica(GraficaCSR<Integer> csr, int origen,
+                          DeltaStepping<Integer> ds) {
+        ArbolTrayectorias<Integer> arbol = grafica.dijkstra(origen);
+        double[] distancias = ds.getDistancias();
+        Assert.assertTrue(distancias.length == total);
+        for (int v = 0; v < total; v++) {
+            Integer e = csr.get(v);
+            Assert.assertTrue(distancias[v] == arbol.getDistancia(e));
+            Assert.assertTrue(ds.getDistancia(v) == distancias[v]);
+            Lista<Integer> t = ds.trayectoria(e);
+            if (distancias[v] == Double.POSITIVE_INFINITY) {
+                Assert.assertTrue(ds.getPadre(v) == -1);
+                Assert.assertTrue(t.esVacia());
+                continue;
+            }
+            Assert.assertTrue(t.getPrimero() == origen);
+            Assert.assertTrue(t.getUltimo().equals(e));
+            double peso = 0;
+            Integer anterior = null;
+            for (Integer u : t) {
+                if (anterior != null)
+                    peso += grafica.getPeso(anterior, u);
+                anterior = u;
+            }
+            Assert.assertTrue(peso == distancias[v]);
+        }
+        Assert.assertTrue(ds.getPadre(csr.indice(origen)) ==
+                          csr.indice(origen));
+        try {
+            ds.getDistancia(total);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba que las distancias sean las de Dijkstra con varias Δ.
+     */
+    @Test public void testDistancias() {
+        GraficaCSR<Integer> csr = grafica.congela();
+        int origen = random.nextInt(total);
+        DeltaStepping<Integer> ds = new DeltaStepping<Integer>(csr, origen);
+        verifica(csr, origen, ds);
+        double[] deltas = { 0.01, 0.5, 1, 3, 100 };
+        for (double delta : deltas) {
+            ds = new DeltaStepping<Integer>(csr, origen, delta);
+            Assert.assertTrue(ds.getDelta() == delta);
+            verifica(csr, origen, ds);
+        }
+    }
+
+    /**
+     * Prueba una gráfica densa, para que haya frentes grandes.
+     */
+    @Test public void testDensa() {
+        grafica = new Grafica<Integer>();
+        total = 300 + random.nextInt(300);
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(4) == 0)
+                    grafica.conecta(i, j, 1 + random.nextInt(20));
+        GraficaCSR<Integer> csr = grafica.congela();
+        int origen = random.nextInt(total);
+        verifica(csr, origen, new DeltaStepping<Integer>(csr, origen, 2));
+        verifica(csr, origen, new DeltaStepping<Integer>(csr, origen, 50));
+    }
+
+    /**
+     * Prueba los argumentos inválidos.
+     */
+    @Test public void testInvalidos() {
+        GraficaCSR<Integer> csr = grafica.congela();
+        try {
+            new DeltaStepping<Integer>(csr, -1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        double[] deltas = { 0, -1, Double.NaN };
+        for (double delta : deltas) {
+            try {
+                new DeltaStepping<Integer>(csr, 0, delta);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        }
+        if (csr.getAristas() > 0) {
+            try {
+                new DeltaStepping<Integer>(csr, 0, 1e-12);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.File;
+import java.util.Random;
+import mx.unam.ciencias.edd.ArbolTrayectorias;
+import mx.unam.ciencias.edd.DistanciasTodosPares;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCSR;
+import mx.unam.ciencias.edd.MatrizDistancias;
+import mx.unam.ciencias.edd.MatrizDistanciasArreglo;
+import mx.unam.ciencias.edd.MatrizDistanciasMapeada;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DistanciasTodosPares}.
+ */
+public class TestDistanciasTodosPares {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica aleatoria para cada prueba; puede tener varios
+     * bloques y varias componentes conexas.
+     */
+    public TestDistanciasTodosPares() {
+        random = new Random();
+        total = 1 + random.nextInt(200);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        int probabilidad = 1 + total / 8;
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(probabilidad) == 0)
+                    grafica.conecta(i, j, 1 + random.nextInt(10));
+    }
+
+    /* Verifica la matriz contra el algoritmo de Dijkstra de la gráfica. */
+    private void verifica(GraficaCSR<Integer> csr, MatrizDistancias matriz) {
+        Assert.assertTrue(matriz.getDimension() == total);
+        for (int i = 0; i < total; i++) {
+            ArbolTrayectorias<Integer> arbol = grafica.dijkstra(csr.get(i));
+            for (int j = 0; j < total; j++)
+                Assert.assertTrue(matriz.get(i, j) ==
+                                  arbol.getDistancia(csr.get(j)));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link DistanciasTodosPares#dijkstra}.
+     */
+    @Test public void testDijkstra() {
+        GraficaCSR<Integer> csr = grafica.congela();
+        verifica(csr, DistanciasTodosPares.dijkstra(csr));
+        try {
+            DistanciasTodosPares.dijkstra(csr,
+                                          new MatrizDistanciasArreglo(total+1));
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link DistanciasTodosPares#floydWarshall}.
+     */
+    @Test public void testFloydWarshall() {
+        GraficaCSR<Integer> csr = grafica.congela();
+        verifica(csr, DistanciasTodosPares.floydWarshall(csr));
+        try {
+            DistanciasTodosPares.floydWarshall(csr,
+                                               new MatrizDistanciasArreglo(0));
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para los algoritmos sobre una {@link
+     * MatrizDistanciasMapeada}.
+     */
+    @Test public void testMatrizMapeada() throws Exception {
+        GraficaCSR<Integer> csr = grafica.congela();
+        File archivo = File.createTempFile("distancias", ".bin");
+        archivo.deleteOnExit();
+        MatrizDistancias matriz = new MatrizDistanciasMapeada(archivo, total);
+        DistanciasTodosPares.dijkstra(csr, matriz);
+        verifica(csr, matriz);
+        matriz = new MatrizDistanciasMapeada(archivo, total);
+        DistanciasTodosPares.floydWarshall(csr, matriz);
+        verifica(csr, matriz);
+    }
+
+    /**
+     * Prueba unitaria para {@link DistanciasTodosPares#nuevaMatriz}.
+     */
+    @Test public void testNuevaMatriz() throws Exception {
+        MatrizDistancias matriz =
+            DistanciasTodosPares.nuevaMatriz(total, new File("no-se-usa"));
+        Assert.assertTrue(matriz instanceof MatrizDistanciasArreglo);
+        Assert.assertFalse(new File("no-se-usa").exists());
+    }
+}
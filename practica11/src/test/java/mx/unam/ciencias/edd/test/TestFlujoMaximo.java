@@ -0,0 +1,185 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.FlujoMaximo;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCSR;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link FlujoMaximo}.
+ */
+public class TestFlujoMaximo {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestFlujoMaximo() {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+    }
+
+    /* Conecta la gráfica al azar con capacidades enteras. */
+    private void conecta(int p) {
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(p) == 0)
+                    grafica.conecta(i, j, 1 + random.nextInt(20));
+    }
+
+    /* Regresa la capacidad del corte dado por el lado de la fuente. */
+    private double capacidad(GraficaCSR<Integer> csr, boolean[] lado) {
+        double c = 0;
+        for (int v = 0; v < csr.getElementos(); v++)
+            for (int i = 0; i < csr.getGrado(v); i++)
+                if (lado[v] && !lado[csr.getVecino(v, i)])
+                    c += csr.getPeso(v, i);
+        return c;
+    }
+
+    /* Verifica que el corte del flujo separe a la fuente del sumidero y que
+     * su capacidad sea el valor del flujo. */
+    private void verificaCorte(GraficaCSR<Integer> csr,
+                               FlujoMaximo<Integer> f, int s, int t) {
+        int n = csr.getElementos();
+        boolean[] lado = new boolean[n];
+        for (int v = 0; v < n; v++)
+            lado[v] = f.enLadoFuente(v);
+        Assert.assertTrue(lado[s]);
+        Assert.assertFalse(lado[t]);
+        Assert.assertTrue(capacidad(csr, lado) == f.getFlujo());
+        Lista<Integer> l = f.getLadoFuente();
+        int k = 0;
+        for (int v = 0; v < n; v++)
+            if (lado[v])
+                k++;
+        Assert.assertTrue(l.getLongitud() == k);
+        for (Integer e : l)
+            Assert.assertTrue(f.enLadoFuente(e));
+    }
+
+    /**
+     * Prueba los dos algoritmos contra el corte mínimo por fuerza bruta en
+     * gráficas pequeñas.
+     */
+    @Test public void testFuerzaBruta() {
+        total = 2 + random.nextInt(12);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        conecta(2);
+        GraficaCSR<Integer> csr = grafica.congela();
+        int s = 0, t = csr.getElementos() - 1;
+        double minimo = Double.POSITIVE_INFINITY;
+        boolean[] lado = new boolean[total];
+        for (int c = 0; c < 1 << (total - 2); c++) {
+            for (int v = 0; v < total; v++)
+                lado[v] = v == s || (v != t && (c >> (v - 1) & 1) == 1);
+            minimo = Math.min(minimo, capacidad(csr, lado));
+        }
+        for (FlujoMaximo.Algoritmo a : FlujoMaximo.Algoritmo.values()) {
+            FlujoMaximo<Integer> f =
+                new FlujoMaximo<Integer>(csr, csr.get(s), csr.get(t), a);
+            Assert.assertTrue(f.getFlujo() == minimo);
+            verificaCorte(csr, f, s, t);
+        }
+    }
+
+    /**
+     * Prueba que los dos algoritmos coincidan en gráficas aleatorias.
+     */
+    @Test public void testAlgoritmos() {
+        conecta(1 + random.nextInt(10));
+        GraficaCSR<Integer> csr = grafica.congela();
+        for (int k = 0; k < 5; k++) {
+            int s = random.nextInt(total);
+            int t = (s + 1 + random.nextInt(total - 1)) % total;
+            FlujoMaximo<Integer> dinic =
+                new FlujoMaximo<Integer>(csr, csr.get(s), csr.get(t));
+            FlujoMaximo<Integer> er =
+                new FlujoMaximo<Integer>(csr, csr.get(s), csr.get(t),
+                                         FlujoMaximo.Algoritmo
+                                         .EMPUJA_REETIQUETA);
+            Assert.assertTrue(dinic.getFlujo() == er.getFlujo());
+            verificaCorte(csr, dinic, s, t);
+            verificaCorte(csr, er, s, t);
+        }
+    }
+
+    /**
+     * Prueba una red por capas, donde el corte mínimo es conocido.
+     */
+    @Test public void testCapas() {
+        int capas = 2 + random.nextInt(5);
+        int ancho = 1 + random.nextInt(10);
+        grafica = new Grafica<Integer>();
+        grafica.agrega(-1);
+        grafica.agrega(-2);
+        for (int c = 0; c < capas; c++)
+            for (int i = 0; i < ancho; i++)
+                grafica.agrega(c * ancho + i);
+        /* La capa del medio tiene capacidad uno hacia la siguiente; las
+         * demás tienen capacidad de sobra. */
+        int medio = random.nextInt(capas - 1);
+        for (int i = 0; i < ancho; i++) {
+            grafica.conecta(-1, i, 1000);
+            grafica.conecta((capas - 1) * ancho + i, -2, 1000);
+        }
+        for (int c = 0; c + 1 < capas; c++)
+            for (int i = 0; i < ancho; i++)
+                for (int j = 0; j < ancho; j++)
+                    grafica.conecta(c * ancho + i, (c + 1) * ancho + j,
+                                    c == medio ? 1 : 1000);
+        GraficaCSR<Integer> csr = grafica.congela();
+        for (FlujoMaximo.Algoritmo a : FlujoMaximo.Algoritmo.values()) {
+            FlujoMaximo<Integer> f = new FlujoMaximo<Integer>(csr, -1, -2, a);
+            Assert.assertTrue(f.getFlujo() == ancho * ancho);
+            for (int c = 0; c < capas; c++)
+                for (int i = 0; i < ancho; i++)
+                    Assert.assertTrue(f.enLadoFuente(c * ancho + i) ==
+                                      (c <= medio));
+        }
+    }
+
+    /**
+     * Prueba los casos inválidos y el de un sumidero inalcanzable.
+     */
+    @Test public void testInvalidos() {
+        GraficaCSR<Integer> csr = grafica.congela();
+        FlujoMaximo<Integer> f = new FlujoMaximo<Integer>(csr, 0, 1);
+        Assert.assertTrue(f.getFlujo() == 0);
+        Assert.assertTrue(f.enLadoFuente(0));
+        Assert.assertFalse(f.enLadoFuente(1));
+        try {
+            f.enLadoFuente(total);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            new FlujoMaximo<Integer>(csr, 0, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new FlujoMaximo<Integer>(csr, 0, -1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+}
@@ -3,8 +3,10 @@ package mx.unam.ciencias.edd.test;
 import java.util.NoSuchElementException;
 import java.util.Random;
 import mx.unam.ciencias.edd.AccionVerticeGrafica;
+import mx.unam.ciencias.edd.ArbolTrayectorias;
 import mx.unam.ciencias.edd.Color;
 import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.Heuristica;
 import mx.unam.ciencias.edd.Lista;
 import mx.unam.ciencias.edd.VerticeGrafica;
 import org.junit.Assert;
@@ -188,6 +190,41 @@ public class TestGrafica {
         } catch (NoSuchElementException nsee) {}
     }
 
+    /**
+     * Prueba unitaria para {@link Grafica#conecta} y {@link
+     * Grafica#desconecta} en vértices cuyo grado crece y decrece mucho.
+     */
+    @Test public void testConectaDesconectaGradoAlto() {
+        total = 40 + random.nextInt(60);
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++) {
+            grafica.conecta(0, i, i);
+            Assert.assertTrue(grafica.vertice(0).getGrado() == i);
+            for (int j = 1; j < total; j++)
+                Assert.assertTrue(grafica.sonVecinos(0, j) == (j <= i));
+        }
+        for (int i = 1; i < total; i++)
+            Assert.assertTrue(grafica.getPeso(i, 0) == i);
+        int c = 0;
+        for (VerticeGrafica<Integer> v : grafica.vertice(0).vecinos()) {
+            Assert.assertTrue(grafica.sonVecinos(0, v.get()));
+            c++;
+        }
+        Assert.assertTrue(c == total - 1);
+        for (int i = total - 1; i > 0; i -= 2) {
+            grafica.desconecta(i, 0);
+            Assert.assertFalse(grafica.sonVecinos(0, i));
+            Assert.assertTrue(grafica.vertice(i).getGrado() == 0);
+        }
+        for (int i = 1; i < total; i++)
+            Assert.assertTrue(grafica.sonVecinos(0, i) == ((total - i) % 2 == 0));
+        grafica.elimina(0);
+        Assert.assertTrue(grafica.getAristas() == 0);
+        for (int i = 1; i < total; i++)
+            Assert.assertTrue(grafica.vertice(i).getGrado() == 0);
+    }
+
     /**
      * Prueba unitaria para {@link Grafica#contiene}.
      */
@@ -434,6 +471,127 @@ public class TestGrafica {
         Assert.assertTrue(grafica.esConexa());
     }
 
+    /**
+     * Prueba unitaria para {@link Grafica#mismaComponente} y {@link
+     * Grafica#getComponentes}.
+     */
+    @Test public void testMismaComponente() {
+        Assert.assertTrue(grafica.getComponentes() == 0);
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        Assert.assertTrue(grafica.getComponentes() == total);
+        for (int i = 1; i < total; i += 2)
+            grafica.conecta(i-1, i);
+        Assert.assertTrue(grafica.getComponentes() == (total + 1) / 2);
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                Assert.assertTrue(grafica.mismaComponente(i, j) ==
+                                  (i / 2 == j / 2));
+        for (int i = 2; i < total; i += 2)
+            grafica.conecta(i-1, i);
+        Assert.assertTrue(grafica.getComponentes() == 1);
+        Assert.assertTrue(grafica.mismaComponente(0, total - 1));
+        int a = random.nextInt(total - 1);
+        grafica.desconecta(a, a + 1);
+        Assert.assertTrue(grafica.getComponentes() == 2);
+        Assert.assertFalse(grafica.mismaComponente(0, total - 1));
+        Assert.assertTrue(grafica.mismaComponente(0, a));
+        Assert.assertTrue(grafica.mismaComponente(a + 1, total - 1));
+        grafica.agrega(total);
+        Assert.assertTrue(grafica.getComponentes() == 3);
+        grafica.conecta(total, 0);
+        grafica.conecta(total, total - 1);
+        Assert.assertTrue(grafica.esConexa());
+        grafica.elimina(total);
+        Assert.assertFalse(grafica.esConexa());
+        Assert.assertTrue(grafica.getComponentes() == 2);
+        try {
+            grafica.mismaComponente(0, total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        grafica.limpia();
+        Assert.assertTrue(grafica.getComponentes() == 0);
+    }
+
+    /* Regresa el peso total de las aristas de la gráfica. */
+    private static double pesoTotal(Grafica<Integer> g) {
+        double peso = 0;
+        for (Integer e : g)
+            for (Integer f : g)
+                if (e < f && g.sonVecinos(e, f))
+                    peso += g.getPeso(e, f);
+        return peso;
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#arbolGeneradorMinimo} y {@link
+     * Grafica#arbolGeneradorMinimoPrim}.
+     */
+    @Test public void testArbolGeneradorMinimo() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(1 + total / 8) == 0)
+                    grafica.conecta(i, j, 1 + random.nextInt(10));
+        Grafica<Integer> kruskal = grafica.arbolGeneradorMinimo();
+        Grafica<Integer> prim = grafica.arbolGeneradorMinimoPrim();
+        int c = grafica.getComponentes();
+        Assert.assertTrue(kruskal.getElementos() == total);
+        Assert.assertTrue(prim.getElementos() == total);
+        Assert.assertTrue(kruskal.getAristas() == total - c);
+        Assert.assertTrue(prim.getAristas() == total - c);
+        Assert.assertTrue(kruskal.getComponentes() == c);
+        Assert.assertTrue(prim.getComponentes() == c);
+        Assert.assertTrue(pesoTotal(kruskal) == pesoTotal(prim));
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                if (kruskal.sonVecinos(i, j))
+                    Assert.assertTrue(grafica.getPeso(i, j) ==
+                                      kruskal.getPeso(i, j));
+        /* Ninguna arista fuera del árbol puede mejorarlo. */
+        for (int i = 0; i < total; i++) {
+            for (int j = i+1; j < total; j++) {
+                if (!grafica.sonVecinos(i, j) || kruskal.sonVecinos(i, j))
+                    continue;
+                double p = grafica.getPeso(i, j);
+                Lista<VerticeGrafica<Integer>> t =
+                    kruskal.trayectoriaMinima(i, j);
+                VerticeGrafica<Integer> anterior = null;
+                for (VerticeGrafica<Integer> v : t) {
+                    if (anterior != null)
+                        Assert.assertTrue(kruskal.getPeso(anterior.get(),
+                                                          v.get()) <= p);
+                    anterior = v;
+                }
+            }
+        }
+        Assert.assertTrue(new Grafica<Integer>().arbolGeneradorMinimo()
+                          .esVacia());
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#cuentaTriangulos}.
+     */
+    @Test public void testCuentaTriangulos() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        Assert.assertTrue(grafica.cuentaTriangulos() == 0);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(3) == 0)
+                    grafica.conecta(i, j);
+        long t = 0;
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                for (int k = j+1; k < total; k++)
+                    if (grafica.sonVecinos(i, j) &&
+                        grafica.sonVecinos(j, k) &&
+                        grafica.sonVecinos(i, k))
+                        t++;
+        Assert.assertTrue(grafica.cuentaTriangulos() == t);
+    }
+
    /**
      * Prueba unitaria para {@link Grafica#paraCadaVertice}.
      */
@@ -519,6 +677,37 @@ public class TestGrafica {
                                                        Color.NINGUNO));
     }
 
+    /**
+     * Prueba unitaria para recorridos anidados y concurrentes con {@link
+     * Grafica#bfs} y {@link Grafica#dfs}.
+     */
+    @Test public void testRecorridosReentrantes() throws InterruptedException {
+        llenaAleatoria(4);
+        int[] alcanzables = { 0 };
+        grafica.bfs(0, v -> alcanzables[0]++);
+        int[] anidados = { 0 };
+        grafica.bfs(0, v -> grafica.dfs(v.get(), u -> anidados[0]++));
+        Assert.assertTrue(anidados[0] == alcanzables[0] * alcanzables[0]);
+        VerticeGrafica<Integer> cero = grafica.vertice(0);
+        grafica.setColor(cero, Color.ROJO);
+        grafica.dfs(0, v -> {});
+        Assert.assertTrue(cero.getColor() == Color.ROJO);
+        int[] cuentas = new int[4];
+        Thread[] hilos = new Thread[cuentas.length];
+        for (int i = 0; i < hilos.length; i++) {
+            int h = i;
+            hilos[i] = new Thread(() -> {
+                    for (int k = 0; k < 10; k++)
+                        grafica.bfs(0, v -> cuentas[h]++);
+                });
+            hilos[i].start();
+        }
+        for (Thread hilo : hilos)
+            hilo.join();
+        for (int c : cuentas)
+            Assert.assertTrue(c == 10 * alcanzables[0]);
+    }
+
     /**
      * Prueba unitaria para {@link Grafica#esVacia}.
      */
@@ -737,4 +926,263 @@ public class TestGrafica {
             Assert.assertTrue(lista.equals(dijkstra));
         }
     }
+
+    /**
+     * Prueba unitaria para {@link Grafica#dijkstra(Object)}.
+     */
+    @Test public void testDijkstraArbol() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++) {
+            int m = Math.min(i+4, total);
+            for (int j = i+1; j < m; j++) {
+                double peso = (i + 1 == j) ? 1 :
+                    total * 5.0 + random.nextDouble() * total * 5.0;
+                grafica.conecta(i, j, peso);
+            }
+        }
+        grafica.agrega(total);
+        ArbolTrayectorias<Integer> arbol = grafica.dijkstra(0);
+        Assert.assertTrue(arbol.getOrigen() == grafica.vertice(0));
+        Assert.assertTrue(arbol.getElementos() == total);
+        Assert.assertTrue(arbol.getPredecesor(0) == null);
+        Lista<VerticeGrafica<Integer>> lista =
+            new Lista<VerticeGrafica<Integer>>();
+        for (int i = 0; i < total; i++) {
+            lista.agrega(grafica.vertice(i));
+            Assert.assertTrue(arbol.esAlcanzable(i));
+            Assert.assertTrue(arbol.getDistancia(i) == i);
+            Assert.assertTrue(lista.equals(arbol.trayectoria(i)));
+            Assert.assertTrue(lista.equals(grafica.dijkstra(0, i)));
+            if (i > 0)
+                Assert.assertTrue(arbol.getPredecesor(i) ==
+                                  grafica.vertice(i-1));
+        }
+        Assert.assertFalse(arbol.esAlcanzable(total));
+        Assert.assertTrue(arbol.getDistancia(total) ==
+                          Double.POSITIVE_INFINITY);
+        Assert.assertTrue(arbol.trayectoria(total).esVacia());
+        Assert.assertTrue(grafica.dijkstra(0, total).esVacia());
+        try {
+            arbol.getPredecesor(total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        grafica.desconecta(0, 1);
+        Assert.assertTrue(arbol.getDistancia(1) == 1);
+        try {
+            grafica.dijkstra(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /* Verifica las distancias de Dijkstra desde el 0 contra Bellman-Ford,
+     * con el montículo por omisión y con los que se pueden usar. */
+    private void verificaDistancias() {
+        double[] d = new double[total];
+        for (int i = 1; i < total; i++)
+            d[i] = Double.POSITIVE_INFINITY;
+        for (int k = 0; k < total; k++)
+            for (int i = 0; i < total; i++)
+                for (int j = 0; j < total; j++)
+                    if (i != j && grafica.sonVecinos(i, j))
+                        d[j] = Math.min(d[j], d[i] + grafica.getPeso(i, j));
+        ArbolTrayectorias<Integer> arbol = grafica.dijkstra(0);
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(arbol.getDistancia(i) == d[i]);
+            if (d[i] != Double.POSITIVE_INFINITY)
+                Assert.assertTrue(pesoTrayectoria(grafica.dijkstra(0, i),
+                                                  0, i) == d[i]);
+        }
+        for (Grafica.TipoMonticulo tipo : Grafica.TipoMonticulo.values()) {
+            try {
+                arbol = grafica.dijkstra(0, tipo);
+            } catch (IllegalArgumentException iae) {
+                Assert.assertTrue(tipo == Grafica.TipoMonticulo.DIAL ||
+                                  tipo == Grafica.TipoMonticulo.RADIX);
+                continue;
+            }
+            for (int i = 0; i < total; i++) {
+                Assert.assertTrue(arbol.getDistancia(i) == d[i]);
+                if (d[i] != Double.POSITIVE_INFINITY)
+                    Assert.assertTrue(pesoTrayectoria(arbol.trayectoria(i),
+                                                      0, i) == d[i]);
+            }
+        }
+    }
+
+    /**
+     * Prueba {@link Grafica#dijkstra(Object)} y {@link
+     * Grafica#dijkstra(Object,Grafica.TipoMonticulo)} con pesos enteros
+     * chicos y grandes, y después de volver uno fraccionario.
+     */
+    @Test public void testDijkstraEnteros() {
+        total = 2 + random.nextInt(40);
+        llenaAleatoria(1 + random.nextInt(total));
+        verificaDistancias();
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (grafica.sonVecinos(i, j))
+                    grafica.setPeso(i, j, 1 + random.nextInt(1000000));
+        verificaDistancias();
+        if (!grafica.sonVecinos(0, 1))
+            grafica.conecta(0, 1);
+        grafica.setPeso(0, 1, 0.5);
+        verificaDistancias();
+        try {
+            grafica.dijkstra(0, Grafica.TipoMonticulo.DIAL);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba que {@link Grafica#dijkstra(Object)} sea rápido en una
+     * trayectoria larga con pesos enteros grandes, donde las cubetas de Dial
+     * recorrerían una cubeta por cada distancia.
+     */
+    @Test public void testDijkstraEnterosGrandes() {
+        int n = 100000;
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < n; i++)
+            grafica.conecta(i - 1, i, n);
+        ArbolTrayectorias<Integer> arbol = grafica.dijkstra(0);
+        for (int i = 0; i < n; i++)
+            Assert.assertTrue(arbol.getDistancia(i) == (double)i * n);
+    }
+
+    /* Regresa el peso de una trayectoria, verificando que sea válida. */
+    private double pesoTrayectoria(Lista<VerticeGrafica<Integer>> trayectoria,
+                                   int origen, int destino) {
+        Assert.assertTrue(trayectoria.getPrimero().get() == origen);
+        Assert.assertTrue(trayectoria.getUltimo().get() == destino);
+        double peso = 0;
+        VerticeGrafica<Integer> anterior = null;
+        for (VerticeGrafica<Integer> v : trayectoria) {
+            if (anterior != null)
+                peso += grafica.getPeso(anterior.get(), v.get());
+            anterior = v;
+        }
+        return peso;
+    }
+
+    /* Llena la gráfica con aristas aleatorias de pesos aleatorios. */
+    private void llenaAleatoria(int probabilidad) {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(probabilidad) == 0)
+                    grafica.conecta(i, j, 1 + random.nextInt(10));
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#trayectoriaMinimaBidireccional}.
+     */
+    @Test public void testTrayectoriaMinimaBidireccional() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        Lista<VerticeGrafica<Integer>> lista =
+            new Lista<VerticeGrafica<Integer>>();
+        lista.agrega(grafica.vertice(0));
+        Assert.assertTrue(lista.equals(grafica.trayectoriaMinimaBidireccional(0, 0)));
+        Assert.assertTrue(grafica.trayectoriaMinimaBidireccional(0, 1).esVacia());
+        for (int i = 1; i < total; i++) {
+            grafica.conecta(i-1, i);
+            lista.agrega(grafica.vertice(i));
+            Assert.assertTrue(lista.equals(grafica.trayectoriaMinimaBidireccional(0, i)));
+        }
+        grafica = new Grafica<Integer>();
+        llenaAleatoria(1 + total / 8);
+        for (int k = 0; k < total; k++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            Lista<VerticeGrafica<Integer>> uni = grafica.trayectoriaMinima(a, b);
+            Lista<VerticeGrafica<Integer>> bi =
+                grafica.trayectoriaMinimaBidireccional(a, b);
+            Assert.assertTrue(uni.getLongitud() == bi.getLongitud());
+            if (!bi.esVacia()) {
+                pesoTrayectoria(bi, a, b);
+                VerticeGrafica<Integer> anterior = null;
+                for (VerticeGrafica<Integer> v : bi) {
+                    if (anterior != null)
+                        Assert.assertTrue(grafica.sonVecinos(anterior.get(), v.get()));
+                    anterior = v;
+                }
+            }
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#dijkstraBidireccional}.
+     */
+    @Test public void testDijkstraBidireccional() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++) {
+            for (int j = i+1; j < total; j++) {
+                double peso = (i + 1 == j) ? 1 :
+                    total * 5.0 + random.nextDouble() * total * 5.0;
+                grafica.conecta(i, j, peso);
+            }
+        }
+        Lista<VerticeGrafica<Integer>> lista =
+            new Lista<VerticeGrafica<Integer>>();
+        for (int i = 0; i < total; i++) {
+            lista.agrega(grafica.vertice(i));
+            Assert.assertTrue(lista.equals(grafica.dijkstraBidireccional(0, i)));
+        }
+        grafica = new Grafica<Integer>();
+        llenaAleatoria(1 + total / 8);
+        for (int k = 0; k < total; k++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            Lista<VerticeGrafica<Integer>> uni = grafica.dijkstra(a, b);
+            Lista<VerticeGrafica<Integer>> bi = grafica.dijkstraBidireccional(a, b);
+            Assert.assertTrue(uni.esVacia() == bi.esVacia());
+            if (!bi.esVacia())
+                Assert.assertTrue(pesoTrayectoria(uni, a, b) ==
+                                  pesoTrayectoria(bi, a, b));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#aEstrella}.
+     */
+    @Test public void testAEstrella() {
+        int lado = 2 + random.nextInt(20);
+        for (int i = 0; i < lado * lado; i++)
+            grafica.agrega(i);
+        for (int r = 0; r < lado; r++) {
+            for (int c = 0; c < lado; c++) {
+                int v = r * lado + c;
+                if (c + 1 < lado)
+                    grafica.conecta(v, v + 1, 1 + random.nextInt(5));
+                if (r + 1 < lado)
+                    grafica.conecta(v, v + lado, 1 + random.nextInt(5));
+            }
+        }
+        Heuristica<Integer> manhattan = (a, b) ->
+            Math.abs(a / lado - b / lado) + Math.abs(a % lado - b % lado);
+        for (int k = 0; k < lado * 2; k++) {
+            int a = random.nextInt(lado * lado);
+            int b = random.nextInt(lado * lado);
+            double dijkstra = pesoTrayectoria(grafica.dijkstra(a, b), a, b);
+            Assert.assertTrue(dijkstra ==
+                              pesoTrayectoria(grafica.aEstrella(a, b, manhattan),
+                                              a, b));
+            Assert.assertTrue(dijkstra ==
+                              pesoTrayectoria(grafica.aEstrella(a, b, (x, y) -> 0),
+                                              a, b));
+        }
+        Lista<VerticeGrafica<Integer>> lista =
+            new Lista<VerticeGrafica<Integer>>();
+        lista.agrega(grafica.vertice(0));
+        Assert.assertTrue(lista.equals(grafica.aEstrella(0, 0, manhattan)));
+        grafica.agrega(-1);
+        Assert.assertTrue(grafica.aEstrella(0, -1, (x, y) -> 0).esVacia());
+        try {
+            grafica.aEstrella(0, -2, manhattan);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
 }
@@ -0,0 +1,228 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCSR;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link GraficaCSR}.
+ */
+public class TestGraficaCSR {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestGraficaCSR() {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new Grafica<Integer>();
+    }
+
+    /* Llena la gráfica con aristas aleatorias. */
+    private void llenaAleatoria() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(4) == 0)
+                    grafica.conecta(i, j, 1 + random.nextInt(total));
+    }
+
+    /**
+     * Prueba unitaria para {@link Grafica#congela}.
+     */
+    @Test public void testCongela() {
+        llenaAleatoria();
+        GraficaCSR<Integer> csr = grafica.congela();
+        Assert.assertTrue(csr.getElementos() == grafica.getElementos());
+        Assert.assertTrue(csr.getAristas() == grafica.getAristas());
+        for (Integer e : grafica) {
+            int v = csr.indice(e);
+            Assert.assertTrue(csr.get(v).equals(e));
+            Assert.assertTrue(csr.getGrado(v) ==
+                              grafica.vertice(e).getGrado());
+            int anterior = -1;
+            for (int i = 0; i < csr.getGrado(v); i++) {
+                int u = csr.getVecino(v, i);
+                Assert.assertTrue(u > anterior);
+                anterior = u;
+                Assert.assertTrue(grafica.sonVecinos(e, csr.get(u)));
+                Assert.assertTrue(csr.getPeso(v, i) ==
+                                  grafica.getPeso(e, csr.get(u)));
+            }
+        }
+        grafica.agrega(total);
+        Assert.assertFalse(csr.contiene(total));
+        Assert.assertTrue(csr.getElementos() == total);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCSR#sonVecinos}.
+     */
+    @Test public void testSonVecinos() {
+        llenaAleatoria();
+        GraficaCSR<Integer> csr = grafica.congela();
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                Assert.assertTrue(csr.sonVecinos(csr.indice(i), csr.indice(j))
+                                  == (i != j && grafica.sonVecinos(i, j)));
+        try {
+            csr.sonVecinos(-1, 0);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            csr.indice(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCSR#bfs}.
+     */
+    @Test public void testBfs() {
+        for (int i = 0; i < 7; i++)
+            grafica.agrega(i);
+        grafica.conecta(0, 1);
+        grafica.conecta(0, 2);
+        grafica.conecta(1, 3);
+        grafica.conecta(1, 4);
+        grafica.conecta(3, 5);
+        grafica.conecta(3, 6);
+        GraficaCSR<Integer> csr = grafica.congela();
+        int[] c = { 0 };
+        int[] a = { 0, 1, 2, 3, 4, 5, 6 };
+        csr.bfs(0, v -> Assert.assertTrue(csr.get(v) == a[c[0]++]));
+        Assert.assertTrue(c[0] == a.length);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCSR#dfs}.
+     */
+    @Test public void testDfs() {
+        for (int i = 0; i < 7; i++)
+            grafica.agrega(i);
+        grafica.conecta(0, 1);
+        grafica.conecta(0, 2);
+        grafica.conecta(1, 3);
+        grafica.conecta(1, 4);
+        grafica.conecta(3, 5);
+        grafica.conecta(3, 6);
+        grafica.agrega(7);
+        GraficaCSR<Integer> csr = grafica.congela();
+        int[] c = { 0 };
+        int[] a = { 0, 2, 1, 4, 3, 6, 5 };
+        csr.dfs(0, v -> Assert.assertTrue(csr.get(v) == a[c[0]++]));
+        Assert.assertTrue(c[0] == a.length);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCSR#trayectoriaMinima}.
+     */
+    @Test public void testTrayectoriaMinima() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        Lista<Integer> lista = new Lista<Integer>();
+        lista.agrega(0);
+        Assert.assertTrue(lista.equals(grafica.congela()
+                                       .trayectoriaMinima(0, 0)));
+        for (int i = 1; i < total; i++) {
+            grafica.conecta(i-1, i);
+            lista.agrega(i);
+            GraficaCSR<Integer> csr = grafica.congela();
+            Assert.assertTrue(lista.equals(csr.trayectoriaMinima(0, i)));
+        }
+        grafica.agrega(total);
+        Assert.assertTrue(grafica.congela()
+                          .trayectoriaMinima(0, total).esVacia());
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCSR#dijkstra}.
+     */
+    @Test public void testDijkstra() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (i + 1 == j || random.nextInt(3) == 0)
+                    grafica.conecta(i, j, (i + 1 == j) ? 1 :
+                                    total * 5.0 + random.nextDouble() * total);
+        GraficaCSR<Integer> csr = grafica.congela();
+        Lista<Integer> lista = new Lista<Integer>();
+        for (int i = 0; i < total; i++) {
+            lista.agrega(i);
+            Assert.assertTrue(lista.equals(csr.dijkstra(0, i)));
+            Lista<Integer> elementos = new Lista<Integer>();
+            for (VerticeGrafica<Integer> v : grafica.dijkstra(0, i))
+                elementos.agrega(v.get());
+            Assert.assertTrue(elementos.equals(csr.dijkstra(0, i)));
+        }
+        grafica.agrega(total);
+        Assert.assertTrue(grafica.congela().dijkstra(0, total).esVacia());
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCSR#arbolGeneradorMinimo}.
+     */
+    @Test public void testArbolGeneradorMinimo() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(1 + total / 8) == 0)
+                    grafica.conecta(i, j, 1 + random.nextInt(5));
+        GraficaCSR<Integer> csr = grafica.congela();
+        GraficaCSR<Integer> arbol = csr.arbolGeneradorMinimo();
+        Grafica<Integer> kruskal = grafica.arbolGeneradorMinimo();
+        Assert.assertTrue(arbol.getElementos() == total);
+        Assert.assertTrue(arbol.getAristas() == kruskal.getAristas());
+        double peso = 0, pesoKruskal = 0;
+        for (int v = 0; v < total; v++) {
+            for (int i = 0; i < arbol.getGrado(v); i++) {
+                int u = arbol.getVecino(v, i);
+                Assert.assertTrue(csr.sonVecinos(v, u));
+                Assert.assertTrue(arbol.getPeso(v, i) ==
+                                  grafica.getPeso(arbol.get(v), arbol.get(u)));
+                peso += arbol.getPeso(v, i);
+            }
+            for (int u = 0; u < total; u++)
+                if (kruskal.sonVecinos(csr.get(v), csr.get(u)))
+                    pesoKruskal += kruskal.getPeso(csr.get(v), csr.get(u));
+        }
+        Assert.assertTrue(peso == pesoKruskal);
+        for (int v = 0; v < total; v++) {
+            int[] alcanzados = { 0 };
+            arbol.bfs(arbol.get(v), u -> alcanzados[0]++);
+            int[] esperados = { 0 };
+            grafica.bfs(arbol.get(v), w -> esperados[0]++);
+            Assert.assertTrue(alcanzados[0] == esperados[0]);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaCSR#toString}.
+     */
+    @Test public void testToString() {
+        llenaAleatoria();
+        Assert.assertTrue(grafica.congela().toString()
+                          .equals(grafica.toString()));
+    }
+}
@@ -0,0 +1,230 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.GraficaDirigida;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link GraficaDirigida}.
+ */
+public class TestGraficaDirigida {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private GraficaDirigida<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestGraficaDirigida() {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new GraficaDirigida<Integer>();
+    }
+
+    /* Llena la gráfica con arcos aleatorios. */
+    private void llenaAleatoria(int probabilidad) {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                if (i != j && random.nextInt(probabilidad) == 0)
+                    grafica.conecta(i, j);
+    }
+
+    /* Regresa la matriz de alcanzabilidad de la gráfica. */
+    private boolean[][] alcanzables() {
+        boolean[][] a = new boolean[total][total];
+        for (int i = 0; i < total; i++) {
+            boolean[] r = a[i];
+            grafica.bfs(i, v -> r[v.get()] = true);
+        }
+        return a;
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#conecta} y {@link
+     * GraficaDirigida#sonVecinos}.
+     */
+    @Test public void testConecta() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++) {
+            grafica.conecta(i-1, i, i);
+            Assert.assertTrue(grafica.sonVecinos(i-1, i));
+            Assert.assertFalse(grafica.sonVecinos(i, i-1));
+            Assert.assertTrue(grafica.getPeso(i-1, i) == i);
+            Assert.assertTrue(grafica.getArcos() == i);
+        }
+        grafica.conecta(1, 0, 7);
+        Assert.assertTrue(grafica.getPeso(1, 0) == 7);
+        Assert.assertTrue(grafica.getPeso(0, 1) == 1);
+        Assert.assertTrue(grafica.vertice(0).getGrado() == 1);
+        Assert.assertTrue(grafica.getGradoEntrada(0) == 1);
+        try {
+            grafica.conecta(0, 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.conecta(0, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            grafica.conecta(0, total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        grafica.setPeso(0, 1, 3);
+        Assert.assertTrue(grafica.getPeso(0, 1) == 3);
+        grafica.desconecta(0, 1);
+        Assert.assertFalse(grafica.sonVecinos(0, 1));
+        Assert.assertTrue(grafica.sonVecinos(1, 0));
+        try {
+            grafica.desconecta(0, 1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#elimina}.
+     */
+    @Test public void testElimina() {
+        llenaAleatoria(4);
+        int arcos = grafica.getArcos();
+        int e = random.nextInt(total);
+        int m = grafica.vertice(e).getGrado() + grafica.getGradoEntrada(e);
+        grafica.elimina(e);
+        Assert.assertFalse(grafica.contiene(e));
+        Assert.assertTrue(grafica.getElementos() == total - 1);
+        Assert.assertTrue(grafica.getArcos() == arcos - m);
+        int suma = 0;
+        for (Integer i : grafica) {
+            for (VerticeGrafica<Integer> v : grafica.vertice(i).vecinos())
+                Assert.assertTrue(v.get() != e);
+            for (VerticeGrafica<Integer> v : grafica.entrantes(i))
+                Assert.assertTrue(grafica.sonVecinos(v.get(), i));
+            suma += grafica.getGradoEntrada(i);
+        }
+        Assert.assertTrue(suma == grafica.getArcos());
+        /* Los algoritmos siguen funcionando tras reasignar identificadores. */
+        int n = 0;
+        for (Lista<Integer> c : grafica.componentesFuertes())
+            n += c.getLongitud();
+        Assert.assertTrue(n == total - 1);
+        grafica.limpia();
+        Assert.assertTrue(grafica.esVacia());
+        Assert.assertTrue(grafica.getArcos() == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#bfs} y {@link
+     * GraficaDirigida#dfs}.
+     */
+    @Test public void testRecorridos() {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(i-1, i);
+        int a = random.nextInt(total);
+        int[] visitados = { 0 };
+        grafica.bfs(a, v -> visitados[0]++);
+        Assert.assertTrue(visitados[0] == total - a);
+        visitados[0] = 0;
+        grafica.dfs(a, v -> Assert.assertTrue(v.get() == a + visitados[0]++));
+        Assert.assertTrue(visitados[0] == total - a);
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#ordenTopologico} y {@link
+     * GraficaDirigida#esAciclica}.
+     */
+    @Test public void testOrdenTopologico() {
+        int[] p = new int[total];
+        for (int i = 0; i < total; i++) {
+            int j = random.nextInt(i + 1);
+            p[i] = p[j];
+            p[j] = i;
+        }
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(4) == 0)
+                    grafica.conecta(p[i], p[j]);
+        Assert.assertTrue(grafica.esAciclica());
+        Lista<Integer> orden = grafica.ordenTopologico();
+        Assert.assertTrue(orden.getLongitud() == total);
+        int[] posicion = new int[total];
+        int k = 0;
+        for (Integer e : orden)
+            posicion[e] = k++;
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                if (grafica.sonVecinos(i, j))
+                    Assert.assertTrue(posicion[i] < posicion[j]);
+        if (!grafica.sonVecinos(p[0], p[total-1]))
+            grafica.conecta(p[0], p[total-1]);
+        grafica.conecta(p[total-1], p[0]);
+        Assert.assertFalse(grafica.esAciclica());
+        try {
+            grafica.ordenTopologico();
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaDirigida#componentesFuertes}.
+     */
+    @Test public void testComponentesFuertes() {
+        llenaAleatoria(1 + total / 2);
+        boolean[][] a = alcanzables();
+        int[] componente = new int[total];
+        int k = 0, n = 0;
+        for (Lista<Integer> c : grafica.componentesFuertes()) {
+            for (Integer e : c) {
+                componente[e] = k;
+                n++;
+            }
+            k++;
+        }
+        Assert.assertTrue(n == total);
+        for (int i = 0; i < total; i++) {
+            for (int j = 0; j < total; j++) {
+                Assert.assertTrue((componente[i] == componente[j]) ==
+                                  (a[i][j] && a[j][i]));
+                if (grafica.sonVecinos(i, j))
+                    Assert.assertTrue(componente[i] >= componente[j]);
+            }
+        }
+    }
+
+    /**
+     * Prueba que los algoritmos no desborden la pila en una trayectoria
+     * larga.
+     */
+    @Test public void testTrayectoriaLarga() {
+        int n = 100000;
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < n; i++)
+            grafica.conecta(i-1, i);
+        Assert.assertTrue(grafica.ordenTopologico().getPrimero() == 0);
+        Assert.assertTrue(grafica.componentesFuertes().getLongitud() == n);
+        grafica.conecta(n-1, 0);
+        Assert.assertFalse(grafica.esAciclica());
+        Lista<Lista<Integer>> c = grafica.componentesFuertes();
+        Assert.assertTrue(c.getLongitud() == 1);
+        Assert.assertTrue(c.getPrimero().getLongitud() == n);
+    }
+}
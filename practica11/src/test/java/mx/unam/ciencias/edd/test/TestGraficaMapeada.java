@@ -0,0 +1,170 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Codificadores;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCSR;
+import mx.unam.ciencias.edd.GraficaMapeada;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link GraficaMapeada}.
+ */
+public class TestGraficaMapeada {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+    /* El archivo. */
+    private File archivo;
+
+    /**
+     * Crea una gráfica aleatoria y un archivo para cada prueba.
+     */
+    public TestGraficaMapeada() throws IOException {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(random.nextInt(100) + 100 * i);
+        for (Integer a : grafica)
+            for (Integer b : grafica)
+                if (a < b && random.nextInt(4) == 0)
+                    grafica.conecta(a, b, 1 + random.nextInt(total));
+        archivo = File.createTempFile("grafica", ".edd");
+        archivo.deleteOnExit();
+    }
+
+    /* Guarda la gráfica y la abre de nuevo. */
+    private GraficaMapeada<Integer> guardaYAbre(GraficaCSR<Integer> csr)
+        throws IOException {
+        GraficaMapeada.guarda(csr, Codificadores.enteros(), archivo);
+        return new GraficaMapeada<Integer>(archivo, Codificadores.enteros());
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaMapeada#guarda} y {@link
+     * GraficaMapeada#GraficaMapeada}.
+     */
+    @Test public void testGuarda() throws IOException {
+        GraficaCSR<Integer> csr = grafica.congela();
+        GraficaMapeada<Integer> m = guardaYAbre(csr);
+        Assert.assertTrue(m.getElementos() == csr.getElementos());
+        Assert.assertTrue(m.getAristas() == csr.getAristas());
+        for (int v = 0; v < csr.getElementos(); v++) {
+            Assert.assertTrue(m.get(v).equals(csr.get(v)));
+            Assert.assertTrue(m.indice(csr.get(v)) == v);
+            Assert.assertTrue(m.getGrado(v) == csr.getGrado(v));
+            for (int i = 0; i < csr.getGrado(v); i++) {
+                Assert.assertTrue(m.getVecino(v, i) == csr.getVecino(v, i));
+                Assert.assertTrue(m.getPeso(v, i) == csr.getPeso(v, i));
+            }
+            for (int u = 0; u < csr.getElementos(); u++)
+                Assert.assertTrue(m.sonVecinos(v, u) == csr.sonVecinos(v, u));
+        }
+        Assert.assertFalse(m.contiene(-1));
+        Assert.assertFalse(m.contiene(100 * total));
+        try {
+            m.indice(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            m.get(total);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        GraficaMapeada<Integer> vacia =
+            guardaYAbre(new Grafica<Integer>().congela());
+        Assert.assertTrue(vacia.esVacia());
+        Assert.assertFalse(vacia.contiene(0));
+        archivo.delete();
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaMapeada#bfs}.
+     */
+    @Test public void testBfs() throws IOException {
+        GraficaCSR<Integer> csr = grafica.congela();
+        GraficaMapeada<Integer> m = guardaYAbre(csr);
+        Integer origen = csr.get(random.nextInt(total));
+        Lista<Integer> esperados = new Lista<Integer>();
+        csr.bfs(origen, v -> esperados.agrega(v));
+        Lista<Integer> obtenidos = new Lista<Integer>();
+        m.bfs(origen, v -> obtenidos.agrega(v));
+        Assert.assertTrue(esperados.equals(obtenidos));
+        archivo.delete();
+    }
+
+    /**
+     * Prueba unitaria para {@link GraficaMapeada#dijkstra}.
+     */
+    @Test public void testDijkstra() throws IOException {
+        GraficaCSR<Integer> csr = grafica.congela();
+        GraficaMapeada<Integer> m = guardaYAbre(csr);
+        for (int k = 0; k < total; k++) {
+            Integer a = csr.get(random.nextInt(total));
+            Integer b = csr.get(random.nextInt(total));
+            Assert.assertTrue(m.dijkstra(a, b).equals(csr.dijkstra(a, b)));
+        }
+        archivo.delete();
+    }
+
+    /**
+     * Prueba que se rechacen los archivos de otro formato o de otra versión.
+     */
+    @Test public void testInvalidos() throws IOException {
+        guardaYAbre(grafica.congela());
+        try (RandomAccessFile raf = new RandomAccessFile(archivo, "rw")) {
+            raf.seek(4);
+            raf.write(new byte[] { 2, 0, 0, 0 });
+        }
+        try {
+            new GraficaMapeada<Integer>(archivo, Codificadores.enteros());
+            Assert.fail();
+        } catch (IOException ioe) {}
+        try (RandomAccessFile raf = new RandomAccessFile(archivo, "rw")) {
+            raf.setLength(40);
+        }
+        try {
+            new GraficaMapeada<Integer>(archivo, Codificadores.enteros());
+            Assert.fail();
+        } catch (IOException ioe) {}
+        archivo.delete();
+    }
+
+    /**
+     * Prueba la gráfica con elementos de tamaño variable.
+     */
+    @Test public void testCadenas() throws IOException {
+        Grafica<String> g = new Grafica<String>();
+        for (int i = 0; i < total; i++)
+            g.agrega("vértice " + i);
+        for (int i = 1; i < total; i++)
+            g.conecta("vértice " + (i-1), "vértice " + i);
+        GraficaCSR<String> csr = g.congela();
+        GraficaMapeada.guarda(csr, Codificadores.cadenas(), archivo);
+        GraficaMapeada<String> m =
+            new GraficaMapeada<String>(archivo, Codificadores.cadenas());
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(m.get(m.indice("vértice " + i))
+                              .equals("vértice " + i));
+        Assert.assertTrue(m.dijkstra("vértice 0", "vértice " + (total-1))
+                          .getLongitud() == total);
+        Assert.assertFalse(m.contiene("vértice"));
+        archivo.delete();
+    }
+}
@@ -0,0 +1,164 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.ArbolTrayectorias;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.IndiceMarcas;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link IndiceMarcas}.
+ */
+public class TestIndiceMarcas {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestIndiceMarcas() {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new Grafica<Integer>();
+    }
+
+    /* Llena la gráfica con aristas aleatorias de pesos aleatorios. */
+    private void llenaAleatoria(int probabilidad) {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(probabilidad) == 0)
+                    grafica.conecta(i, j, 1 + random.nextInt(10));
+    }
+
+    /* Regresa el peso de una trayectoria, verificando que sea válida. */
+    private double pesoTrayectoria(Lista<VerticeGrafica<Integer>> trayectoria,
+                                   int origen, int destino) {
+        Assert.assertTrue(trayectoria.getPrimero().get() == origen);
+        Assert.assertTrue(trayectoria.getUltimo().get() == destino);
+        double peso = 0;
+        VerticeGrafica<Integer> anterior = null;
+        for (VerticeGrafica<Integer> v : trayectoria) {
+            if (anterior != null)
+                peso += grafica.getPeso(anterior.get(), v.get());
+            anterior = v;
+        }
+        return peso;
+    }
+
+    /* Verifica que el índice sea una cota inferior de las distancias y, si
+     * está al día, que sea exacto desde las marcas. */
+    private void verificaCotas(IndiceMarcas<Integer> indice, boolean exacto) {
+        for (int a = 0; a < total; a++) {
+            ArbolTrayectorias<Integer> arbol = grafica.dijkstra(a);
+            for (int b = 0; b < total; b++) {
+                double e = indice.estima(a, b);
+                Assert.assertTrue(e >= 0);
+                Assert.assertTrue(e <= arbol.getDistancia(b));
+            }
+        }
+        if (!exacto)
+            return;
+        for (int i = 0; i < indice.getMarcas(); i++) {
+            int m = indice.getMarca(i);
+            ArbolTrayectorias<Integer> arbol = grafica.dijkstra(m);
+            for (int b = 0; b < total; b++)
+                if (arbol.esAlcanzable(b))
+                    Assert.assertTrue(indice.estima(m, b) ==
+                                      arbol.getDistancia(b));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link IndiceMarcas#IndiceMarcas}.
+     */
+    @Test public void testConstructor() {
+        llenaAleatoria(4);
+        int k = 1 + random.nextInt(8);
+        IndiceMarcas<Integer> indice = new IndiceMarcas<Integer>(grafica, k);
+        Assert.assertTrue(indice.getMarcas() == Math.min(k, total));
+        boolean[] marcas = new boolean[total];
+        for (int i = 0; i < indice.getMarcas(); i++) {
+            Assert.assertFalse(marcas[indice.getMarca(i)]);
+            marcas[indice.getMarca(i)] = true;
+        }
+        try {
+            indice.getMarca(indice.getMarcas());
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            new IndiceMarcas<Integer>(grafica, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link IndiceMarcas#estima}.
+     */
+    @Test public void testEstima() {
+        llenaAleatoria(1 + total / 8);
+        IndiceMarcas<Integer> indice =
+            new IndiceMarcas<Integer>(grafica, 1 + random.nextInt(8));
+        verificaCotas(indice, true);
+        grafica.agrega(total);
+        Assert.assertTrue(indice.estima(0, total) == 0);
+    }
+
+    /**
+     * Prueba unitaria para {@link IndiceMarcas#trayectoria}.
+     */
+    @Test public void testTrayectoria() {
+        llenaAleatoria(1 + total / 8);
+        IndiceMarcas<Integer> indice =
+            new IndiceMarcas<Integer>(grafica, 1 + random.nextInt(8));
+        for (int k = 0; k < total; k++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            Lista<VerticeGrafica<Integer>> t = indice.trayectoria(a, b);
+            Lista<VerticeGrafica<Integer>> d = grafica.dijkstra(a, b);
+            Assert.assertTrue(t.esVacia() == d.esVacia());
+            if (!t.esVacia())
+                Assert.assertTrue(pesoTrayectoria(t, a, b) ==
+                                  pesoTrayectoria(d, a, b));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link IndiceMarcas#reconstruye} y {@link
+     * IndiceMarcas#reconstruyeEnSegundoPlano}.
+     */
+    @Test public void testReconstruye() throws Exception {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(i-1, i, 10);
+        IndiceMarcas<Integer> indice = new IndiceMarcas<Integer>(grafica, 2);
+        verificaCotas(indice, true);
+        int a = random.nextInt(total - 1);
+        grafica.setPeso(a, a + 1, 1);
+        indice.reconstruye();
+        verificaCotas(indice, true);
+        grafica.setPeso(a, a + 1, 20);
+        /* Con pesos mayores, el índice anterior sigue siendo admisible. */
+        verificaCotas(indice, false);
+        indice.reconstruyeEnSegundoPlano().get();
+        verificaCotas(indice, true);
+        Assert.assertTrue(indice.estima(0, total - 1) ==
+                          10 * (total - 2) + 20);
+    }
+}
@@ -0,0 +1,181 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCSR;
+import mx.unam.ciencias.edd.Intermediacion;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Intermediacion}.
+ */
+public class TestIntermediacion {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestIntermediacion() {
+        random = new Random();
+        total = 2 + random.nextInt(60);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+    }
+
+    /* Conecta la gráfica al azar, con pesos enteros pequeños para que haya
+     * varias trayectorias mínimas entre los mismos vértices. */
+    private void conecta() {
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(5) == 0)
+                    grafica.conecta(i, j, 1 + random.nextInt(3));
+    }
+
+    /* Calcula la intermediación por fuerza bruta: las distancias y el número
+     * de trayectorias mínimas entre todos los pares, y luego la fracción de
+     * trayectorias entre cada par que pasan por cada vértice. */
+    private double[] intermediacion(GraficaCSR<Integer> csr, boolean pesos) {
+        int n = csr.getElementos();
+        double[][] d = new double[n][n];
+        double[][] sigma = new double[n][n];
+        for (int s = 0; s < n; s++) {
+            for (int v = 0; v < n; v++)
+                d[s][v] = Double.POSITIVE_INFINITY;
+            boolean[] listos = new boolean[n];
+            d[s][s] = 0;
+            sigma[s][s] = 1;
+            for (int k = 0; k < n; k++) {
+                int u = -1;
+                for (int v = 0; v < n; v++)
+                    if (!listos[v] && d[s][v] < Double.POSITIVE_INFINITY &&
+                        (u == -1 || d[s][v] < d[s][u]))
+                        u = v;
+                if (u == -1)
+                    break;
+                listos[u] = true;
+                for (int i = 0; i < csr.getGrado(u); i++) {
+                    int v = csr.getVecino(u, i);
+                    double x = d[s][u] + (pesos ? csr.getPeso(u, i) : 1);
+                    if (x < d[s][v]) {
+                        d[s][v] = x;
+                        sigma[s][v] = sigma[s][u];
+                    } else if (x == d[s][v]) {
+                        sigma[s][v] += sigma[s][u];
+                    }
+                }
+            }
+        }
+        double[] c = new double[n];
+        for (int s = 0; s < n; s++)
+            for (int t = s+1; t < n; t++)
+                for (int v = 0; v < n; v++)
+                    if (v != s && v != t &&
+                        d[s][t] < Double.POSITIVE_INFINITY &&
+                        d[s][v] + d[v][t] == d[s][t])
+                        c[v] += sigma[s][v] * sigma[v][t] / sigma[s][t];
+        return c;
+    }
+
+    /* Verifica que la intermediación sea la esperada. */
+    private void verifica(Intermediacion<Integer> c, double[] esperadas) {
+        for (int v = 0; v < total; v++)
+            Assert.assertTrue(Math.abs(c.getIntermediacion(v) - esperadas[v])
+                              < 1e-9 * (1 + esperadas[v]));
+    }
+
+    /**
+     * Prueba unitaria para {@link Intermediacion#Intermediacion} midiendo en
+     * saltos.
+     */
+    @Test public void testSaltos() {
+        conecta();
+        GraficaCSR<Integer> csr = grafica.congela();
+        Intermediacion<Integer> c =
+            new Intermediacion<Integer>(csr, Intermediacion.Distancia.SALTOS);
+        Assert.assertTrue(c.esExacta());
+        Assert.assertTrue(c.getOrigenes() == total);
+        verifica(c, intermediacion(csr, false));
+        for (int v = 0; v < total; v++)
+            Assert.assertTrue(c.getIntermediacion(csr.get(v)) ==
+                              c.getIntermediacion(v));
+        try {
+            c.getIntermediacion(total);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Intermediacion#Intermediacion} midiendo con
+     * los pesos.
+     */
+    @Test public void testPesos() {
+        conecta();
+        GraficaCSR<Integer> csr = grafica.congela();
+        Intermediacion<Integer> c =
+            new Intermediacion<Integer>(csr, Intermediacion.Distancia.PESOS);
+        verifica(c, intermediacion(csr, true));
+    }
+
+    /**
+     * Prueba la intermediación en una trayectoria, donde es conocida.
+     */
+    @Test public void testTrayectoria() {
+        for (int i = 1; i < total; i++)
+            grafica.conecta(i-1, i, 1 + random.nextInt(10));
+        GraficaCSR<Integer> csr = grafica.congela();
+        for (Intermediacion.Distancia distancia :
+                 Intermediacion.Distancia.values()) {
+            double[] c =
+                new Intermediacion<Integer>(csr, distancia)
+                .getIntermediaciones();
+            for (int i = 0; i < total; i++)
+                Assert.assertTrue(c[csr.indice(i)] ==
+                                  (double)i * (total - 1 - i));
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link Intermediacion#Intermediacion} con una
+     * muestra de orígenes.
+     */
+    @Test public void testMuestra() {
+        conecta();
+        GraficaCSR<Integer> csr = grafica.congela();
+        Intermediacion<Integer> todos =
+            new Intermediacion<Integer>(csr, Intermediacion.Distancia.PESOS,
+                                        total + random.nextInt(10), random);
+        Assert.assertTrue(todos.esExacta());
+        verifica(todos, intermediacion(csr, true));
+        int k = 1 + random.nextInt(total - 1);
+        Intermediacion<Integer> muestra =
+            new Intermediacion<Integer>(csr, Intermediacion.Distancia.SALTOS,
+                                        k, random);
+        Assert.assertFalse(muestra.esExacta());
+        Assert.assertTrue(muestra.getOrigenes() == k);
+        for (double x : muestra.getIntermediaciones())
+            Assert.assertTrue(x >= 0);
+        try {
+            new Intermediacion<Integer>(csr, Intermediacion.Distancia.SALTOS,
+                                        0, random);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        Intermediacion<Integer> vacia =
+            new Intermediacion<Integer>(new Grafica<Integer>().congela(),
+                                        Intermediacion.Distancia.SALTOS);
+        Assert.assertTrue(vacia.getIntermediaciones().length == 0);
+    }
+}
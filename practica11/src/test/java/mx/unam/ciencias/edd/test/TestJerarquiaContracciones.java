@@ -0,0 +1,188 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.ArbolTrayectorias;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.JerarquiaContracciones;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.VerticeGrafica;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link JerarquiaContracciones}.
+ */
+public class TestJerarquiaContracciones {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestJerarquiaContracciones() {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new Grafica<Integer>();
+    }
+
+    /* Llena la gráfica con aristas aleatorias de pesos enteros aleatorios. */
+    private void llenaAleatoria(int probabilidad) {
+        llenaAleatoria(probabilidad, false);
+    }
+
+    /* Llena la gráfica con aristas aleatorias de pesos aleatorios entre 1 y
+     * 10, enteros o fraccionarios. */
+    private void llenaAleatoria(int probabilidad, boolean fraccionarios) {
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(probabilidad) == 0)
+                    grafica.conecta(i, j, fraccionarios ?
+                                    1 + 9 * random.nextDouble() :
+                                    1 + random.nextInt(10));
+    }
+
+    /* Regresa el peso de una trayectoria, verificando que sea válida. */
+    private double pesoTrayectoria(Lista<VerticeGrafica<Integer>> trayectoria,
+                                   int origen, int destino) {
+        Assert.assertTrue(trayectoria.getPrimero().get() == origen);
+        Assert.assertTrue(trayectoria.getUltimo().get() == destino);
+        double peso = 0;
+        VerticeGrafica<Integer> anterior = null;
+        for (VerticeGrafica<Integer> v : trayectoria) {
+            if (anterior != null)
+                peso += grafica.getPeso(anterior.get(), v.get());
+            anterior = v;
+        }
+        return peso;
+    }
+
+    /**
+     * Prueba unitaria para {@link JerarquiaContracciones#distancia}.
+     */
+    @Test public void testDistancia() {
+        llenaAleatoria(1 + total / 8);
+        JerarquiaContracciones<Integer> jerarquia =
+            new JerarquiaContracciones<Integer>(grafica);
+        for (int a = 0; a < total; a++) {
+            ArbolTrayectorias<Integer> arbol = grafica.dijkstra(a);
+            for (int b = 0; b < total; b++)
+                Assert.assertTrue(jerarquia.distancia(a, b) ==
+                                  arbol.getDistancia(b));
+        }
+        try {
+            jerarquia.distancia(-1, 0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link JerarquiaContracciones#distancia} con pesos
+     * fraccionarios: los atajos suman los pesos en otro orden que Dijkstra,
+     * así que las distancias son iguales salvo por redondeo, a lo más un ulp
+     * por arista de la trayectoria.
+     */
+    @Test public void testDistanciaFraccionaria() {
+        llenaAleatoria(1 + total / 8, true);
+        JerarquiaContracciones<Integer> jerarquia =
+            new JerarquiaContracciones<Integer>(grafica);
+        for (int a = 0; a < total; a++) {
+            ArbolTrayectorias<Integer> arbol = grafica.dijkstra(a);
+            for (int b = 0; b < total; b++) {
+                double d = arbol.getDistancia(b);
+                double c = jerarquia.distancia(a, b);
+                if (d == Double.POSITIVE_INFINITY)
+                    Assert.assertTrue(c == d);
+                else
+                    Assert.assertTrue(Math.abs(c - d) <=
+                                      total * Math.ulp(d));
+            }
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link JerarquiaContracciones#trayectoria}.
+     */
+    @Test public void testTrayectoria() {
+        llenaAleatoria(1 + total / 8);
+        grafica.agrega(total);
+        JerarquiaContracciones<Integer> jerarquia =
+            new JerarquiaContracciones<Integer>(grafica);
+        for (int k = 0; k < total; k++) {
+            int a = random.nextInt(total);
+            int b = random.nextInt(total);
+            Lista<VerticeGrafica<Integer>> t = jerarquia.trayectoria(a, b);
+            Lista<VerticeGrafica<Integer>> d = grafica.dijkstra(a, b);
+            Assert.assertTrue(t.esVacia() == d.esVacia());
+            if (t.esVacia())
+                continue;
+            Assert.assertTrue(pesoTrayectoria(t, a, b) ==
+                              pesoTrayectoria(d, a, b));
+            for (VerticeGrafica<Integer> v : t)
+                Assert.assertTrue(v == grafica.vertice(v.get()));
+        }
+        Assert.assertTrue(jerarquia.trayectoria(0, total).esVacia());
+        Assert.assertTrue(jerarquia.trayectoria(total, total).getElementos()
+                          == 1);
+    }
+
+    /**
+     * Prueba unitaria para {@link JerarquiaContracciones#getRango}.
+     */
+    @Test public void testGetRango() {
+        llenaAleatoria(1 + total / 8);
+        JerarquiaContracciones<Integer> jerarquia =
+            new JerarquiaContracciones<Integer>(grafica);
+        boolean[] rangos = new boolean[total];
+        for (int i = 0; i < total; i++) {
+            int r = jerarquia.getRango(i);
+            Assert.assertTrue(r >= 0 && r < total);
+            Assert.assertFalse(rangos[r]);
+            rangos[r] = true;
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link JerarquiaContracciones#getAtajos} en una
+     * malla, donde se necesitan atajos.
+     */
+    @Test public void testMalla() {
+        int lado = 2 + random.nextInt(20);
+        for (int i = 0; i < lado * lado; i++)
+            grafica.agrega(i);
+        for (int r = 0; r < lado; r++) {
+            for (int c = 0; c < lado; c++) {
+                if (c + 1 < lado)
+                    grafica.conecta(r*lado + c, r*lado + c + 1,
+                                    1 + random.nextInt(10));
+                if (r + 1 < lado)
+                    grafica.conecta(r*lado + c, (r+1)*lado + c,
+                                    1 + random.nextInt(10));
+            }
+        }
+        JerarquiaContracciones<Integer> jerarquia =
+            new JerarquiaContracciones<Integer>(grafica);
+        Assert.assertTrue(jerarquia.getAtajos() >= 0);
+        for (int k = 0; k < lado * lado; k++) {
+            int a = random.nextInt(lado * lado);
+            int b = random.nextInt(lado * lado);
+            Lista<VerticeGrafica<Integer>> t = jerarquia.trayectoria(a, b);
+            Assert.assertTrue(pesoTrayectoria(t, a, b) ==
+                              jerarquia.distancia(a, b));
+            Assert.assertTrue(jerarquia.distancia(a, b) ==
+                              pesoTrayectoria(grafica.dijkstra(a, b), a, b));
+        }
+    }
+}
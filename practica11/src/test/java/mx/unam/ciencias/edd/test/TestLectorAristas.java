@@ -0,0 +1,184 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Locale;
+import java.util.Random;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCSR;
+import mx.unam.ciencias.edd.LectorAristas;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link LectorAristas}.
+ */
+public class TestLectorAristas {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica esperada. */
+    private Grafica<Integer> grafica;
+    /* Los orígenes de las aristas escritas. */
+    private int[] origenes;
+    /* Los destinos de las aristas escritas. */
+    private int[] destinos;
+    /* Los pesos de las aristas escritas. */
+    private double[] pesos;
+
+    /**
+     * Crea una lista de aristas aleatoria para cada prueba, con lazos y
+     * aristas repetidas, y la gráfica que le corresponde.
+     */
+    public TestLectorAristas() {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        int m = total + random.nextInt(4 * total);
+        origenes = new int[m];
+        destinos = new int[m];
+        pesos = new double[m];
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < m; i++) {
+            origenes[i] = 1000 * random.nextInt(total);
+            destinos[i] = 1000 * random.nextInt(total);
+            pesos[i] = (1 + random.nextInt(1000)) / 8.0;
+            int a = origenes[i], b = destinos[i];
+            if (!grafica.contiene(a))
+                grafica.agrega(a);
+            if (!grafica.contiene(b))
+                grafica.agrega(b);
+            if (a == b)
+                continue;
+            if (!grafica.sonVecinos(a, b))
+                grafica.conecta(a, b, pesos[i]);
+            else if (pesos[i] < grafica.getPeso(a, b))
+                grafica.setPeso(a, b, pesos[i]);
+        }
+    }
+
+    /* Verifica que la gráfica compacta sea la esperada. */
+    private void verificaCompacta(GraficaCSR<Integer> csr) {
+        Assert.assertTrue(csr.getElementos() == grafica.getElementos());
+        Assert.assertTrue(csr.getAristas() == grafica.getAristas());
+        for (int v = 0; v < csr.getElementos(); v++) {
+            Assert.assertTrue(csr.getGrado(v) ==
+                              grafica.vertice(csr.get(v)).getGrado());
+            for (int i = 0; i < csr.getGrado(v); i++) {
+                int u = csr.getVecino(v, i);
+                Assert.assertTrue(csr.getPeso(v, i) ==
+                                  grafica.getPeso(csr.get(v), csr.get(u)));
+            }
+        }
+    }
+
+    /* Verifica que la gráfica leída sea la esperada. */
+    private void verificaGrafica(Grafica<Integer> leida) {
+        Assert.assertTrue(leida.equals(grafica));
+        for (Integer a : grafica)
+            for (Integer b : grafica)
+                if (grafica.sonVecinos(a, b))
+                    Assert.assertTrue(leida.getPeso(a, b) ==
+                                      grafica.getPeso(a, b));
+        Assert.assertTrue(leida.getComponentes() ==
+                          grafica.getComponentes());
+    }
+
+    /**
+     * Prueba unitaria para el formato {@link LectorAristas.Formato#TEXTO}.
+     */
+    @Test public void testTexto() throws IOException {
+        File archivo = File.createTempFile("aristas", ".txt");
+        archivo.deleteOnExit();
+        try (PrintWriter salida = new PrintWriter(archivo, "US-ASCII")) {
+            salida.print("# comentario\n\n");
+            for (int i = 0; i < origenes.length; i++) {
+                switch (random.nextInt(3)) {
+                case 0:
+                    salida.printf(Locale.ROOT, "%d %d %s\n", origenes[i],
+                                  destinos[i], Double.toString(pesos[i]));
+                    break;
+                case 1:
+                    salida.printf(Locale.ROOT, "%d\t%d  %.3f\r\n",
+                                  origenes[i], destinos[i], pesos[i]);
+                    break;
+                default:
+                    salida.printf(Locale.ROOT, "  %d %d %se0\n", origenes[i],
+                                  destinos[i], Double.toString(pesos[i]));
+                }
+            }
+            salida.print("% otro comentario\n");
+            salida.printf(Locale.ROOT, "%d", 1000 * total);
+        }
+        grafica.agrega(1000 * total);
+        LectorAristas lector =
+            new LectorAristas(archivo, LectorAristas.Formato.TEXTO);
+        Assert.assertTrue(lector.getElementos() == grafica.getElementos());
+        Assert.assertTrue(lector.getRegistros() == origenes.length + 1);
+        verificaGrafica(lector.grafica());
+        verificaCompacta(lector.compacta());
+        archivo.delete();
+    }
+
+    /**
+     * Prueba unitaria para el formato {@link LectorAristas.Formato#BINARIO}.
+     */
+    @Test public void testBinario() throws IOException {
+        File archivo = File.createTempFile("aristas", ".bin");
+        archivo.deleteOnExit();
+        ByteBuffer b = ByteBuffer.allocate(16 * origenes.length);
+        b.order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < origenes.length; i++)
+            b.putInt(origenes[i]).putInt(destinos[i]).putDouble(pesos[i]);
+        try (FileOutputStream salida = new FileOutputStream(archivo)) {
+            salida.write(b.array());
+        }
+        LectorAristas lector =
+            new LectorAristas(archivo, LectorAristas.Formato.BINARIO);
+        Assert.assertTrue(lector.getRegistros() == origenes.length);
+        verificaGrafica(lector.grafica());
+        verificaCompacta(lector.compacta());
+        archivo.delete();
+    }
+
+    /**
+     * Prueba que los archivos inválidos se rechacen.
+     */
+    @Test public void testInvalidos() throws IOException {
+        String[] invalidos = { "1 2 -3\n", "1 2 0\n", "1 x\n", "-1 2\n",
+                               "1 2 3.5.1\n", "99999999999 2\n" };
+        File archivo = File.createTempFile("aristas", ".txt");
+        archivo.deleteOnExit();
+        for (String s : invalidos) {
+            try (PrintWriter salida = new PrintWriter(archivo, "US-ASCII")) {
+                salida.print(s);
+            }
+            try {
+                new LectorAristas(archivo, LectorAristas.Formato.TEXTO);
+                Assert.fail();
+            } catch (IOException ioe) {}
+        }
+        try {
+            new LectorAristas(archivo, LectorAristas.Formato.BINARIO);
+            Assert.fail();
+        } catch (IOException ioe) {}
+        try (PrintWriter salida = new PrintWriter(archivo, "US-ASCII")) {
+            salida.print("");
+        }
+        LectorAristas lector =
+            new LectorAristas(archivo, LectorAristas.Formato.TEXTO);
+        Assert.assertTrue(lector.grafica().esVacia());
+        Assert.assertTrue(lector.compacta().esVacia());
+        archivo.delete();
+    }
+}
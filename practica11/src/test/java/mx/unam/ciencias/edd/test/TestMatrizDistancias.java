@@ -0,0 +1,106 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.File;
+import java.util.Random;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.MatrizDistancias;
+import mx.unam.ciencias.edd.MatrizDistanciasArreglo;
+import mx.unam.ciencias.edd.MatrizDistanciasMapeada;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de las clases {@link MatrizDistanciasArreglo}
+ * y {@link MatrizDistanciasMapeada}.
+ */
+public class TestMatrizDistancias {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* La dimensión de las matrices. */
+    private int total;
+
+    /**
+     * Crea un generador de números aleatorios para cada prueba.
+     */
+    public TestMatrizDistancias() {
+        random = new Random();
+        total = 1 + random.nextInt(100);
+    }
+
+    /* Prueba las operaciones de la matriz. */
+    private void prueba(MatrizDistancias matriz) {
+        Assert.assertTrue(matriz.getDimension() == total);
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                Assert.assertTrue(matriz.get(i, j) == Double.POSITIVE_INFINITY);
+        double[][] m = new double[total][total];
+        for (int i = 0; i < total; i++) {
+            for (int j = 0; j < total; j++) {
+                m[i][j] = random.nextDouble();
+                matriz.set(i, j, m[i][j]);
+            }
+        }
+        for (int i = 0; i < total; i++)
+            for (int j = 0; j < total; j++)
+                Assert.assertTrue(matriz.get(i, j) == m[i][j]);
+        int r = random.nextInt(total);
+        int c = random.nextInt(total);
+        int l = total - c;
+        double[] a = new double[l + 1];
+        matriz.leeRenglon(r, c, a, 1, l);
+        for (int j = 0; j < l; j++)
+            Assert.assertTrue(a[j + 1] == m[r][c + j]);
+        for (int j = 0; j < a.length; j++)
+            a[j] = -j;
+        matriz.escribeRenglon(r, c, a, 1, l);
+        for (int j = 0; j < total; j++)
+            Assert.assertTrue(matriz.get(r, j) ==
+                              (j < c ? m[r][j] : -(j - c + 1)));
+        try {
+            matriz.get(total, 0);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            matriz.set(0, -1, 0);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            matriz.leeRenglon(0, c, a, 0, l + 1);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            matriz.escribeRenglon(0, 0, a, 2, l);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MatrizDistanciasArreglo}.
+     */
+    @Test public void testMatrizDistanciasArreglo() {
+        prueba(new MatrizDistanciasArreglo(total));
+        try {
+            new MatrizDistanciasArreglo(-1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MatrizDistanciasMapeada}.
+     */
+    @Test public void testMatrizDistanciasMapeada() throws Exception {
+        File archivo = File.createTempFile("matriz", ".bin");
+        archivo.deleteOnExit();
+        MatrizDistanciasMapeada matriz =
+            new MatrizDistanciasMapeada(archivo, total);
+        prueba(matriz);
+        matriz.sincroniza();
+        Assert.assertTrue(archivo.length() == 8L * total * total);
+    }
+}
@@ -0,0 +1,186 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.MonticuloDario;
+import mx.unam.ciencias.edd.ValorIndexable;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link MonticuloDario}.
+ */
+public class TestMonticuloDario {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* El número de hijos por vértice. */
+    private int aridad;
+    /* El montículo. */
+    private MonticuloDario<ValorIndexable<String>> monticulo;
+
+    /* Verifica que el montículo cumpla con sus propiedades. */
+    private void verifica() {
+        int n = monticulo.getElementos();
+        Assert.assertTrue(monticulo.getAridad() == aridad);
+        for (int i = 0; i < n; i++) {
+            ValorIndexable<String> e = monticulo.get(i);
+            Assert.assertTrue(e.getIndice() == i);
+            Assert.assertTrue(monticulo.contiene(e));
+            if (i > 0)
+                Assert.assertTrue(e.compareTo(monticulo.get((i-1) / aridad))
+                                  >= 0);
+        }
+        int i = 0;
+        for (ValorIndexable<String> e : monticulo)
+            Assert.assertTrue(e == monticulo.get(i++));
+        Assert.assertTrue(i == n);
+    }
+
+    /* Regresa una lista de k valores aleatorios. */
+    private Lista<ValorIndexable<String>> valores(int k) {
+        Lista<ValorIndexable<String>> lista =
+            new Lista<ValorIndexable<String>>();
+        for (int i = 0; i < k; i++) {
+            String s = Integer.toString(random.nextInt());
+            lista.agrega(new ValorIndexable<String>(s, random.nextDouble()));
+        }
+        return lista;
+    }
+
+    /**
+     * Crea un montículo con una aridad aleatoria para cada prueba.
+     */
+    public TestMonticuloDario() {
+        random = new Random();
+        total = 10 + random.nextInt(90);
+        aridad = 2 + random.nextInt(7);
+        Lista<ValorIndexable<String>> lista = valores(total);
+        monticulo = new MonticuloDario<ValorIndexable<String>>(lista, total,
+                                                               aridad);
+        verifica();
+    }
+
+    /**
+     * Prueba unitaria para los constructores de {@link MonticuloDario}.
+     */
+    @Test public void testConstructores() {
+        monticulo = new MonticuloDario<ValorIndexable<String>>(valores(total));
+        aridad = MonticuloDario.ARIDAD;
+        verifica();
+        monticulo = new MonticuloDario<ValorIndexable<String>>();
+        Assert.assertTrue(monticulo.esVacia());
+        verifica();
+        try {
+            new MonticuloDario<ValorIndexable<String>>(1);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloDario#agrega} y {@link
+     * MonticuloDario#agregaTodos}, con lotes chicos y grandes.
+     */
+    @Test public void testAgrega() {
+        for (int i = 0; i < total; i++) {
+            monticulo.agrega(valores(1).getPrimero());
+            verifica();
+        }
+        int n = monticulo.getElementos();
+        monticulo.agregaTodos(valores(2));
+        verifica();
+        Assert.assertTrue(monticulo.getElementos() == n + 2);
+        monticulo.agregaTodos(valores(10 * n));
+        verifica();
+        Assert.assertTrue(monticulo.getElementos() == 11 * n + 2);
+        monticulo.agregaTodos(valores(0));
+        Assert.assertTrue(monticulo.getElementos() == 11 * n + 2);
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloDario#elimina()}.
+     */
+    @Test public void testElimina() {
+        Lista<ValorIndexable<String>> ordenada =
+            new Lista<ValorIndexable<String>>();
+        for (ValorIndexable<String> e : monticulo)
+            ordenada.agrega(e);
+        ordenada = Lista.mergeSort(ordenada);
+        while (!monticulo.esVacia()) {
+            ValorIndexable<String> a = monticulo.elimina();
+            Assert.assertTrue(a.getIndice() == -1);
+            Assert.assertFalse(monticulo.contiene(a));
+            Assert.assertTrue(a.compareTo(ordenada.eliminaPrimero()) == 0);
+            verifica();
+            Assert.assertTrue(monticulo.getElementos() == --total);
+        }
+        try {
+            monticulo.elimina();
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloDario#elimina(Object)}.
+     */
+    @Test public void testEliminaElemento() {
+        while (!monticulo.esVacia()) {
+            int i = random.nextInt(monticulo.getElementos());
+            ValorIndexable<String> e = monticulo.get(i);
+            monticulo.elimina(e);
+            Assert.assertTrue(e.getIndice() == -1);
+            Assert.assertFalse(monticulo.contiene(e));
+            verifica();
+            Assert.assertTrue(monticulo.getElementos() == --total);
+            monticulo.elimina(e);
+            Assert.assertTrue(monticulo.getElementos() == total);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloDario#reordena}, subiendo y
+     * bajando prioridades.
+     */
+    @Test public void testReordena() {
+        for (int k = 0; k < 4 * total; k++) {
+            ValorIndexable<String> e = monticulo.get(random.nextInt(total));
+            if (random.nextBoolean())
+                e.setValor(e.getValor() / 10.0);
+            else
+                e.setValor(e.getValor() * 10.0);
+            monticulo.reordena(e);
+            verifica();
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloDario#limpia} y {@link
+     * MonticuloDario#get}.
+     */
+    @Test public void testLimpiaGet() {
+        try {
+            monticulo.get(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            monticulo.get(total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        ValorIndexable<String> e = monticulo.get(0);
+        monticulo.limpia();
+        Assert.assertTrue(monticulo.esVacia());
+        Assert.assertFalse(monticulo.contiene(e));
+        try {
+            monticulo.get(0);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+    }
+}
@@ -0,0 +1,51 @@
+package mx.unam.ciencias.edd.test;
+
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.MonticuloDijkstra;
+import mx.unam.ciencias.edd.MonticuloEmparejamiento;
+import mx.unam.ciencias.edd.ValorIndexable;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link MonticuloEmparejamiento}.
+ */
+public class TestMonticuloEmparejamiento extends TestMonticuloEnlazado {
+
+    /**
+     * Crea un montículo de emparejamiento.
+     * @param lista la lista con los elementos del montículo.
+     * @return el montículo de emparejamiento.
+     */
+    @Override protected MonticuloDijkstra<ValorIndexable<String>>
+        nuevoMonticulo(Lista<ValorIndexable<String>> lista) {
+        return new MonticuloEmparejamiento<ValorIndexable<String>>(lista);
+    }
+
+    /**
+     * Prueba {@link MonticuloEmparejamiento#reordena} con cadenas de
+     * elementos que se vuelven el mínimo uno tras otro: cada uno se enlaza
+     * con la raíz y la deja como su hijo, así que la raíz acumula una
+     * cadena de hijos que la eliminación tiene que emparejar, con un número
+     * par o impar de ellos.
+     */
+    @Test public void testReordenaCadenaRaiz() {
+        double minimo = 0;
+        for (int r = 0; r < 4 && !monticulo.esVacia(); r++) {
+            Lista<ValorIndexable<String>> cadena =
+                new Lista<ValorIndexable<String>>();
+            int k = total / 8 + r;
+            for (int j = 0; j < k; j++) {
+                ValorIndexable<String> a = arreglo[random.nextInt(total)];
+                if (a.getIndice() == -1 || cadena.contiene(a))
+                    continue;
+                a.setValor(--minimo);
+                monticulo.reordena(a);
+                cadena.agregaInicio(a);
+            }
+            for (ValorIndexable<String> a : cadena)
+                Assert.assertTrue(monticulo.elimina() == a);
+        }
+        vaciaEnOrden();
+    }
+}
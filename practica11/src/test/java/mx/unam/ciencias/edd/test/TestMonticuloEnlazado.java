@@ -0,0 +1,175 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.MonticuloDijkstra;
+import mx.unam.ciencias.edd.ValorIndexable;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase abstracta para las pruebas unitarias que comparten los montículos
+ * de árboles enlazados en arreglos ({@link
+ * mx.unam.ciencias.edd.MonticuloEmparejamiento} y {@link
+ * mx.unam.ciencias.edd.MonticuloFibonacci}). Cada subclase crea su montículo
+ * y agrega las pruebas de lo que lo distingue.
+ */
+public abstract class TestMonticuloEnlazado {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /** Generador de números aleatorios. */
+    protected Random random;
+    /** Número total de elementos. */
+    protected int total;
+    /** El montículo. */
+    protected MonticuloDijkstra<ValorIndexable<String>> monticulo;
+    /** Arreglo auxiliar. */
+    protected ValorIndexable<String>[] arreglo;
+
+    /**
+     * Crea un montículo para cada prueba.
+     */
+    public TestMonticuloEnlazado() {
+        random = new Random();
+        total = 10 + random.nextInt(990);
+        @SuppressWarnings("unchecked")
+            ValorIndexable<String>[] a =
+            (ValorIndexable<String>[])new ValorIndexable[total];
+        arreglo = a;
+        Lista<ValorIndexable<String>> lista =
+            new Lista<ValorIndexable<String>>();
+        for (int i = 0; i < total; i++) {
+            String s = Integer.toString(random.nextInt());
+            arreglo[i] = new ValorIndexable<String>(s, random.nextDouble());
+            lista.agrega(arreglo[i]);
+        }
+        monticulo = nuevoMonticulo(lista);
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(monticulo.get(i) == arreglo[i]);
+            Assert.assertTrue(arreglo[i].getIndice() == i);
+        }
+    }
+
+    /**
+     * Crea el montículo a probar a partir de una lista.
+     * @param lista la lista con los elementos del montículo.
+     * @return el montículo a probar.
+     */
+    protected abstract MonticuloDijkstra<ValorIndexable<String>>
+        nuevoMonticulo(Lista<ValorIndexable<String>> lista);
+
+    /**
+     * Elimina todos los elementos del montículo, verificando que salgan en
+     * orden de valor.
+     */
+    protected void vaciaEnOrden() {
+        double anterior = Double.NEGATIVE_INFINITY;
+        int n = monticulo.getElementos();
+        while (!monticulo.esVacia()) {
+            ValorIndexable<String> a = monticulo.elimina();
+            Assert.assertTrue(a.getIndice() == -1);
+            Assert.assertTrue(a.getValor() >= anterior);
+            Assert.assertTrue(monticulo.getElementos() == --n);
+            anterior = a.getValor();
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloDijkstra#elimina}.
+     */
+    @Test public void testElimina() {
+        Lista<ValorIndexable<String>> ordenada =
+            new Lista<ValorIndexable<String>>();
+        for (int i = 0; i < total; i++)
+            ordenada.agrega(arreglo[i]);
+        ordenada = Lista.mergeSort(ordenada);
+        int n = total;
+        while (!monticulo.esVacia()) {
+            ValorIndexable<String> a = monticulo.elimina();
+            Assert.assertTrue(a.getIndice() == -1);
+            Assert.assertTrue(a.compareTo(ordenada.eliminaPrimero()) == 0);
+            Assert.assertTrue(monticulo.getElementos() == --n);
+        }
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(monticulo.get(i) == null);
+        try {
+            monticulo.elimina();
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloDijkstra#reordena}, intercalando
+     * eliminaciones y prioridades que bajan.
+     */
+    @Test public void testReordena() {
+        boolean[] fuera = new boolean[total];
+        while (!monticulo.esVacia()) {
+            double minimo = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < total; i++)
+                if (!fuera[i])
+                    minimo = Math.min(minimo, arreglo[i].getValor());
+            ValorIndexable<String> a = monticulo.elimina();
+            Assert.assertTrue(a.getValor() == minimo);
+            for (int i = 0; i < total; i++)
+                if (arreglo[i] == a)
+                    fuera[i] = true;
+            for (int k = 0; k < 5; k++) {
+                int i = random.nextInt(total);
+                if (fuera[i])
+                    continue;
+                double v = arreglo[i].getValor();
+                arreglo[i].setValor(minimo + (v - minimo) *
+                                    random.nextDouble());
+                monticulo.reordena(arreglo[i]);
+            }
+        }
+    }
+
+    /**
+     * Prueba {@link MonticuloDijkstra#reordena} con cadenas de reordenamientos
+     * sobre un mismo elemento, que baja varias veces seguidas desde lo más
+     * profundo hasta volverse el mínimo.
+     */
+    @Test public void testReordenaCadena() {
+        monticulo.elimina();
+        double minimo = 0;
+        for (int k = 0; k < 10; k++) {
+            int i = random.nextInt(total);
+            if (monticulo.get(i) == null)
+                continue;
+            ValorIndexable<String> a = arreglo[i];
+            for (int j = 0; j < 20; j++) {
+                a.setValor(a.getValor() - random.nextDouble());
+                monticulo.reordena(a);
+            }
+            minimo = Math.min(minimo, a.getValor()) - 1;
+            a.setValor(minimo);
+            monticulo.reordena(a);
+            Assert.assertTrue(monticulo.elimina() == a);
+        }
+        vaciaEnOrden();
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloDijkstra#get}.
+     */
+    @Test public void testGet() {
+        try {
+            monticulo.get(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            monticulo.get(total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        monticulo = nuevoMonticulo(new Lista<ValorIndexable<String>>());
+        Assert.assertTrue(monticulo.esVacia());
+        Assert.assertTrue(monticulo.getElementos() == 0);
+    }
+}
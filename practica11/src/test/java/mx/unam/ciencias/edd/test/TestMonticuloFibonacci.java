@@ -0,0 +1,47 @@
+package mx.unam.ciencias.edd.test;
+
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.MonticuloDijkstra;
+import mx.unam.ciencias.edd.MonticuloFibonacci;
+import mx.unam.ciencias.edd.ValorIndexable;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link MonticuloFibonacci}.
+ */
+public class TestMonticuloFibonacci extends TestMonticuloEnlazado {
+
+    /**
+     * Crea un montículo de Fibonacci.
+     * @param lista la lista con los elementos del montículo.
+     * @return el montículo de Fibonacci.
+     */
+    @Override protected MonticuloDijkstra<ValorIndexable<String>>
+        nuevoMonticulo(Lista<ValorIndexable<String>> lista) {
+        return new MonticuloFibonacci<ValorIndexable<String>>(lista);
+    }
+
+    /**
+     * Prueba {@link MonticuloFibonacci#reordena} con cortes en cascada.
+     * Después de cada eliminación, que consolida los árboles, se bajan todas
+     * las prioridades en el mismo desplazamiento del mayor al menor valor:
+     * así primero se cortan las hojas, los padres pierden varios hijos y se
+     * cortan en cascada, y el orden relativo no cambia.
+     */
+    @Test public void testCortesEnCascada() {
+        Lista<ValorIndexable<String>> ordenada =
+            new Lista<ValorIndexable<String>>();
+        for (int i = 0; i < total; i++)
+            ordenada.agrega(arreglo[i]);
+        ordenada = Lista.mergeSort(ordenada);
+        while (!monticulo.esVacia()) {
+            ValorIndexable<String> a = monticulo.elimina();
+            Assert.assertTrue(a == ordenada.eliminaPrimero());
+            for (ValorIndexable<String> b : ordenada.reversa()) {
+                b.setValor(b.getValor() - 1);
+                monticulo.reordena(b);
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.MonticuloRadix;
+import mx.unam.ciencias.edd.PrioridadEntera;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link MonticuloRadix}.
+ */
+public class TestMonticuloRadix {
+
+    /* Clase interna privada para elementos con prioridad entera. */
+    private static class Entero implements PrioridadEntera<Entero> {
+
+        /* La prioridad. */
+        public long prioridad;
+        /* El índice. */
+        public int indice;
+
+        /* Crea un nuevo elemento con la prioridad dada. */
+        public Entero(long prioridad) {
+            this.prioridad = prioridad;
+            indice = -1;
+        }
+
+        /* Regresa la prioridad. */
+        @Override public long getPrioridad() {
+            return prioridad;
+        }
+
+        /* Regresa el índice. */
+        @Override public int getIndice() {
+            return indice;
+        }
+
+        /* Define el índice. */
+        @Override public void setIndice(int indice) {
+            this.indice = indice;
+        }
+
+        /* Compara por prioridad. */
+        @Override public int compareTo(Entero entero) {
+            return Long.compare(prioridad, entero.prioridad);
+        }
+    }
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* Los elementos. */
+    private Entero[] arreglo;
+    /* El montículo. */
+    private MonticuloRadix<Entero> monticulo;
+
+    /* Regresa una prioridad aleatoria no negativa de tamaño aleatorio. */
+    private long prioridad() {
+        return (random.nextLong() >>> 1) >>> random.nextInt(63);
+    }
+
+    /**
+     * Crea un montículo con prioridades aleatorias de todos los tamaños,
+     * algunas infinitas, para cada prueba.
+     */
+    public TestMonticuloRadix() {
+        random = new Random();
+        total = 10 + random.nextInt(90);
+        arreglo = new Entero[total];
+        Lista<Entero> lista = new Lista<Entero>();
+        for (int i = 0; i < total; i++) {
+            long p = random.nextInt(5) == 0 ? PrioridadEntera.INFINITO :
+                prioridad();
+            arreglo[i] = new Entero(p);
+            lista.agrega(arreglo[i]);
+        }
+        monticulo = new MonticuloRadix<Entero>(lista);
+        for (int i = 0; i < total; i++) {
+            Assert.assertTrue(monticulo.get(i) == arreglo[i]);
+            Assert.assertTrue(arreglo[i].getIndice() == i);
+        }
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloRadix#elimina}.
+     */
+    @Test public void testElimina() {
+        long anterior = -1;
+        int n = total;
+        while (!monticulo.esVacia()) {
+            Entero e = monticulo.elimina();
+            Assert.assertTrue(e.getIndice() == -1);
+            Assert.assertTrue(e.prioridad >= anterior);
+            anterior = e.prioridad;
+            Assert.assertTrue(monticulo.getElementos() == --n);
+        }
+        for (int i = 0; i < total; i++)
+            Assert.assertTrue(monticulo.get(i) == null);
+        try {
+            monticulo.elimina();
+            Assert.fail();
+        } catch (IllegalStateException ise) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link MonticuloRadix#reordena}, como la usa el
+     * algoritmo de Dijkstra.
+     */
+    @Test public void testReordena() {
+        boolean[] fuera = new boolean[total];
+        while (!monticulo.esVacia()) {
+            long minimo = PrioridadEntera.INFINITO;
+            for (int i = 0; i < total; i++)
+                if (!fuera[i])
+                    minimo = Math.min(minimo, arreglo[i].prioridad);
+            Entero e = monticulo.elimina();
+            Assert.assertTrue(e.prioridad == minimo);
+            for (int i = 0; i < total; i++)
+                if (arreglo[i] == e)
+                    fuera[i] = true;
+            for (int k = 0; k < 3; k++) {
+                int i = random.nextInt(total);
+                if (fuera[i] || arreglo[i].prioridad == minimo)
+                    continue;
+                long d = arreglo[i].prioridad - minimo;
+                arreglo[i].prioridad = minimo + (random.nextLong() >>> 1) % d;
+                monticulo.reordena(arreglo[i]);
+            }
+        }
+        monticulo.reordena(arreglo[0]);
+    }
+
+    /**
+     * Prueba los argumentos inválidos.
+     */
+    @Test public void testInvalidos() {
+        try {
+            monticulo.get(-1);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        try {
+            monticulo.get(total);
+            Assert.fail();
+        } catch (NoSuchElementException nsee) {}
+        Lista<Entero> lista = new Lista<Entero>();
+        lista.agrega(new Entero(0));
+        lista.agrega(new Entero(-1));
+        try {
+            new MonticuloRadix<Entero>(lista);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        Entero e = monticulo.elimina();
+        if (e.prioridad == 0)
+            return;
+        for (Entero f : arreglo) {
+            if (f.getIndice() == -1)
+                continue;
+            long p = f.prioridad;
+            f.prioridad = e.prioridad - 1;
+            try {
+                monticulo.reordena(f);
+                Assert.fail();
+            } catch (IllegalArgumentException iae) {}
+            f.prioridad = p;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCSR;
+import mx.unam.ciencias.edd.PageRank;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link PageRank}.
+ */
+public class TestPageRank {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestPageRank() {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+    }
+
+    /* Calcula secuencialmente el PageRank de la gráfica con un número fijo
+     * de iteraciones. */
+    private double[] pageRank(GraficaCSR<Integer> csr, double d, int k) {
+        int n = csr.getElementos();
+        double[] x = new double[n];
+        for (int v = 0; v < n; v++)
+            x[v] = 1.0 / n;
+        for (int i = 0; i < k; i++) {
+            double aislados = 0;
+            for (int v = 0; v < n; v++)
+                if (csr.getGrado(v) == 0)
+                    aislados += x[v];
+            double[] y = new double[n];
+            for (int v = 0; v < n; v++) {
+                double s = 0;
+                for (int j = 0; j < csr.getGrado(v); j++) {
+                    int u = csr.getVecino(v, j);
+                    s += x[u] / csr.getGrado(u);
+                }
+                y[v] = (1 - d) / n + d * aislados / n + d * s;
+            }
+            x = y;
+        }
+        return x;
+    }
+
+    /**
+     * Prueba unitaria para {@link PageRank#PageRank}.
+     */
+    @Test public void testPageRank() {
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(4) == 0)
+                    grafica.conecta(i, j);
+        GraficaCSR<Integer> csr = grafica.congela();
+        double d = 0.5 + random.nextDouble() * 0.45;
+        PageRank<Integer> pr = new PageRank<Integer>(csr, d, 0, 30);
+        Assert.assertTrue(pr.getIteraciones() == 30);
+        double[] esperados = pageRank(csr, d, 30);
+        double suma = 0;
+        for (int v = 0; v < total; v++) {
+            Assert.assertTrue(Math.abs(pr.getPuntaje(v) - esperados[v]) <
+                              1e-12);
+            Assert.assertTrue(pr.getPuntaje(csr.get(v)) == pr.getPuntaje(v));
+            suma += pr.getPuntaje(v);
+        }
+        Assert.assertTrue(Math.abs(suma - 1) < 1e-9);
+        try {
+            pr.getPuntaje(total);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        try {
+            new PageRank<Integer>(csr, 1, 0, 10);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+        try {
+            new PageRank<Integer>(csr, 0.85, 0, 0);
+            Assert.fail();
+        } catch (IllegalArgumentException iae) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link PageRank#getResiduo} y {@link
+     * PageRank#convergio}.
+     */
+    @Test public void testResiduos() {
+        /* Con una sola hoja, el centro y la hoja son simétricos. */
+        if (total == 2)
+            grafica.agrega(total++);
+        for (int i = 1; i < total; i++)
+            grafica.conecta(0, i);
+        grafica.agrega(total);
+        /* Una estrella es bipartita, así que el residuo baja lentamente; sin
+         * máximo práctico de iteraciones, los residuos crecen conforme se
+         * necesitan. */
+        PageRank<Integer> pr =
+            new PageRank<Integer>(grafica.congela(), 0.85, 1e-9,
+                                  Integer.MAX_VALUE);
+        Assert.assertTrue(pr.convergio());
+        int k = pr.getIteraciones();
+        Assert.assertTrue(pr.getResiduo(k - 1) < 1e-9);
+        for (int i = 0; i < k - 1; i++)
+            Assert.assertTrue(pr.getResiduo(i) >= 1e-9);
+        double[] r = pr.getResiduos();
+        Assert.assertTrue(r.length == k);
+        for (int i = 1; i < k; i++)
+            Assert.assertTrue(r[i] <= r[i-1] * PageRank.AMORTIGUAMIENTO *
+                              (1 + 1e-6) + 1e-15);
+        for (int i = 1; i < total; i++)
+            Assert.assertTrue(pr.getPuntaje(0) > pr.getPuntaje(i));
+        try {
+            pr.getResiduo(k);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+        PageRank<Integer> lento =
+            new PageRank<Integer>(grafica.congela(), 0.85, 0, 3);
+        Assert.assertFalse(lento.convergio());
+        Assert.assertTrue(lento.getIteraciones() == 3);
+    }
+
+    /**
+     * Prueba que en una gráfica regular todos los puntajes sean iguales.
+     */
+    @Test public void testRegular() {
+        for (int i = 0; i < total; i++)
+            if (total > 2 || i == 0)
+                grafica.conecta(i, (i + 1) % total);
+        PageRank<Integer> pr = new PageRank<Integer>(grafica.congela());
+        Assert.assertTrue(pr.getIteraciones() == 1);
+        for (double p : pr.getPuntajes())
+            Assert.assertTrue(Math.abs(p - 1.0 / total) < 1e-12);
+        Assert.assertTrue(new PageRank<Integer>(new Grafica<Integer>()
+                                                .congela())
+                          .getIteraciones() == 0);
+    }
+}
@@ -0,0 +1,125 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.Grafica;
+import mx.unam.ciencias.edd.GraficaCSR;
+import mx.unam.ciencias.edd.Triangulos;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Triangulos}.
+ */
+public class TestTriangulos {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* Número total de elementos. */
+    private int total;
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Crea una gráfica para cada prueba.
+     */
+    public TestTriangulos() {
+        random = new Random();
+        total = 2 + random.nextInt(100);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < total; i++)
+            grafica.agrega(i);
+    }
+
+    /* Verifica los triángulos y los coeficientes contra la fuerza bruta. */
+    private void verifica() {
+        GraficaCSR<Integer> csr = grafica.congela();
+        Triangulos<Integer> t = new Triangulos<Integer>(csr);
+        long[] esperados = new long[total];
+        long suma = 0, caminos = 0;
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                for (int k = j+1; k < total; k++)
+                    if (csr.sonVecinos(i, j) && csr.sonVecinos(j, k) &&
+                        csr.sonVecinos(i, k)) {
+                        esperados[i]++;
+                        esperados[j]++;
+                        esperados[k]++;
+                        suma++;
+                    }
+        Assert.assertTrue(t.getTriangulos() == suma);
+        double promedio = 0;
+        for (int v = 0; v < total; v++) {
+            Assert.assertTrue(t.getTriangulos(v) == esperados[v]);
+            Assert.assertTrue(t.getTriangulos(csr.get(v)) == esperados[v]);
+            long d = csr.getGrado(v);
+            caminos += d * (d - 1) / 2;
+            double c = d < 2 ? 0 : 2.0 * esperados[v] / (d * (d - 1));
+            Assert.assertTrue(t.getCoeficiente(v) == c);
+            Assert.assertTrue(t.getCoeficiente(csr.get(v)) == c);
+            Assert.assertTrue(c >= 0 && c <= 1);
+            promedio += c;
+        }
+        Assert.assertTrue(Math.abs(t.getCoeficientePromedio() -
+                                   promedio / total) < 1e-12);
+        double global = caminos == 0 ? 0 : 3.0 * suma / caminos;
+        Assert.assertTrue(t.getCoeficienteGlobal() == global);
+        try {
+            t.getTriangulos(total);
+            Assert.fail();
+        } catch (ExcepcionIndiceInvalido eii) {}
+    }
+
+    /**
+     * Prueba unitaria para {@link Triangulos#Triangulos} en una gráfica
+     * aleatoria.
+     */
+    @Test public void testAleatoria() {
+        int p = 1 + random.nextInt(4);
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(p) == 0)
+                    grafica.conecta(i, j);
+        verifica();
+    }
+
+    /**
+     * Prueba el conteo en una gráfica con vértices de grado muy distinto, para
+     * que se usen tanto la mezcla como las marcas.
+     */
+    @Test public void testGrados() {
+        for (int i = 1; i < total; i++)
+            grafica.conecta(0, i);
+        for (int i = 1; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                if (random.nextInt(i < total / 2 ? 2 : 20) == 0)
+                    grafica.conecta(i, j);
+        verifica();
+    }
+
+    /**
+     * Prueba la gráfica completa, donde todos los coeficientes son uno.
+     */
+    @Test public void testCompleta() {
+        for (int i = 0; i < total; i++)
+            for (int j = i+1; j < total; j++)
+                grafica.conecta(i, j);
+        Triangulos<Integer> t = new Triangulos<Integer>(grafica.congela());
+        long n = total;
+        Assert.assertTrue(t.getTriangulos() == n * (n - 1) * (n - 2) / 6);
+        if (total > 2) {
+            Assert.assertTrue(t.getCoeficienteGlobal() == 1);
+            Assert.assertTrue(t.getCoeficientePromedio() == 1);
+        }
+        Triangulos<Integer> vacia =
+            new Triangulos<Integer>(new Grafica<Integer>().congela());
+        Assert.assertTrue(vacia.getTriangulos() == 0);
+        Assert.assertTrue(vacia.getCoeficienteGlobal() == 0);
+        Assert.assertTrue(vacia.getCoeficientePromedio() == 0);
+    }
+}